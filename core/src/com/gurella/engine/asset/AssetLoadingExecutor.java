@@ -1,29 +1,119 @@
 package com.gurella.engine.asset;
 
+import static com.gurella.engine.asset.AssetLoadingPhase.sync;
+
+import java.util.Collections;
+import java.util.PriorityQueue;
+
 import com.badlogic.gdx.utils.Array;
 import com.badlogic.gdx.utils.Disposable;
+import com.badlogic.gdx.utils.ObjectIntMap;
 import com.badlogic.gdx.utils.ObjectMap;
-import com.badlogic.gdx.utils.Sort;
+import com.badlogic.gdx.utils.TimeUtils;
 import com.badlogic.gdx.utils.async.AsyncExecutor;
 import com.badlogic.gdx.utils.async.AsyncTask;
+import com.gurella.engine.asset.AssetLoadingTimings.Stage;
+import com.gurella.engine.asset.loader.AssetLoader;
+import com.gurella.engine.asset.loader.ConcurrentAssetLoader;
 import com.gurella.engine.async.AsyncService;
 import com.gurella.engine.disposable.DisposablesService;
+import com.gurella.engine.utils.IdentitySet;
+
+class AssetLoadingExecutor implements Disposable {
+	static final int defaultThreads = Math.max(1, Runtime.getRuntime().availableProcessors() - 1);
+	static final int defaultFinishBudget = 4;
 
-class AssetLoadingExecutor implements AsyncTask<Void>, Disposable {
 	private final AssetsManager manager;
 	private final Object mutex;
 
-	private final AsyncExecutor executor = DisposablesService.add(AsyncService.createAsyncExecutor(1));
-	private boolean executing;
+	private int threads;
+	private int workers;
+	private AsyncExecutor executor;
+	/** Workers still running on executors replaced by {@link #setThreads(int)}. */
+	private final ObjectIntMap<AsyncExecutor> retiredExecutors = new ObjectIntMap<AsyncExecutor>();
+	/** Retired executors without workers, disposed by the update thread. */
+	private final Array<AsyncExecutor> idleExecutors = new Array<AsyncExecutor>();
 
 	private final ObjectMap<AssetId, AssetLoadingTask<?>> allTasks = new ObjectMap<AssetId, AssetLoadingTask<?>>();
-	private final Array<AssetLoadingTask<?>> asyncQueue = new Array<AssetLoadingTask<?>>();
+	private final PriorityQueue<AssetLoadingTask<?>> asyncQueue = new PriorityQueue<AssetLoadingTask<?>>(16,
+			Collections.reverseOrder());
+	/** Tasks whose loader is in use by another loading thread. */
+	private final Array<AssetLoadingTask<?>> blockedTasks = new Array<AssetLoadingTask<?>>();
+	private final IdentitySet<AssetLoader<?, ?>> busyLoaders = new IdentitySet<AssetLoader<?, ?>>();
 	private final Array<AssetLoadingTask<?>> syncQueue = new Array<AssetLoadingTask<?>>();
-	private final Sort sort = new Sort();
+	/** Tasks whose progress changed on loading threads, callbacks are notified by the update thread. */
+	private final Array<AssetLoadingTask<?>> progressQueue = new Array<AssetLoadingTask<?>>();
+	private Thread updateThread;
+	/** Time in nanoseconds that one update can spend finishing tasks, 0 for no limit. */
+	private long finishBudget = defaultFinishBudget * 1000000L;
+
+	final AssetLoadingTimings timings = new AssetLoadingTimings();
 
 	AssetLoadingExecutor(AssetsManager manager) {
+		this(manager, defaultThreads);
+	}
+
+	AssetLoadingExecutor(AssetsManager manager, int threads) {
 		this.manager = manager;
 		mutex = manager.mutex;
+		this.threads = threads;
+		executor = DisposablesService.add(AsyncService.createAsyncExecutor(threads));
+	}
+
+	int getThreads() {
+		return threads;
+	}
+
+	/**
+	 * Changes number of loading threads. Threads of the previous executor finish their current tasks and the executor
+	 * is disposed by the next update after they are done.
+	 */
+	void setThreads(int threads) {
+		if (threads < 1) {
+			throw new IllegalArgumentException("threads must be positive.");
+		}
+
+		synchronized (mutex) {
+			if (this.threads == threads) {
+				return;
+			}
+
+			if (workers == 0) {
+				idleExecutors.add(executor);
+			} else {
+				retiredExecutors.put(executor, workers);
+			}
+			executor = DisposablesService.add(AsyncService.createAsyncExecutor(threads));
+			this.threads = threads;
+			workers = 0;
+			submitWorkers();
+		}
+	}
+
+	/**
+	 * @return number of executors that weren't disposed yet, including retired ones
+	 */
+	int getLiveExecutors() {
+		synchronized (mutex) {
+			return 1 + retiredExecutors.size + idleExecutors.size;
+		}
+	}
+
+	int getFinishBudget() {
+		return (int) (finishBudget / 1000000L);
+	}
+
+	/**
+	 * Limits time that one update spends on main thread work. At least one finish step is done in every update.
+	 *
+	 * @param millis
+	 *            budget in milliseconds, 0 for no limit
+	 */
+	void setFinishBudget(int millis) {
+		if (millis < 0) {
+			throw new IllegalArgumentException("millis must not be negative.");
+		}
+		finishBudget = millis * 1000000L;
 	}
 
 	<T> AssetLoadingTask<T> findTask(AssetId assetId) {
@@ -38,41 +128,173 @@ class AssetLoadingExecutor implements AsyncTask<Void>, Disposable {
 	}
 
 	private <T> void addToAsyncQueue(AssetLoadingTask<T> task) {
+		task.queuedTime = TimeUtils.nanoTime();
 		asyncQueue.add(task);
-		sort.sort(asyncQueue);
-		if (!executing) {
-			executing = true;
-			executor.submit(this);
+		submitWorkers();
+	}
+
+	private void submitWorkers() {
+		int required = Math.min(threads, asyncQueue.size());
+		while (workers < required) {
+			workers++;
+			executor.submit(new Worker(executor));
+		}
+	}
+
+	/**
+	 * Restores position of the queued task after its priority was changed.
+	 */
+	void priorityChanged(AssetLoadingTask<?> task) {
+		synchronized (mutex) {
+			if (asyncQueue.remove(task)) {
+				asyncQueue.add(task);
+			}
 		}
 	}
 
 	boolean update() {
-		for (int i = 0; i < syncQueue.size; i++) {
-			AssetLoadingTask<?> task = syncQueue.get(i);
-			allTasks.remove(task.assetId);
+		updateThread = Thread.currentThread();
+		try {
+			disposeIdleExecutors();
+			notifyProgress();
+			return finishTasks();
+		} finally {
+			updateThread = null;
+		}
+	}
+
+	private boolean finishTasks() {
+		long startTime = TimeUtils.nanoTime();
+		int processed = 0;
+		while (processed < syncQueue.size) {
+			AssetLoadingTask<?> task = syncQueue.get(processed++);
 			task.update();
-			manager.finishTask(task);
+
+			if (task.phase == sync) {
+				// incremental loader has more steps, they are resumed after other finishing tasks
+				syncQueue.add(task);
+			} else {
+				allTasks.remove(task.assetId);
+				manager.finishTask(task);
+			}
+
+			if (finishBudget > 0 && TimeUtils.nanoTime() - startTime >= finishBudget) {
+				break;
+			}
+		}
+
+		if (processed > 0) {
+			syncQueue.removeRange(0, processed - 1);
 		}
-		syncQueue.clear();
 		return allTasks.size == 0;
 	}
 
-	@Override
-	public Void call() throws Exception {
-		while (true) {
-			AssetLoadingTask<?> task;
-			synchronized (mutex) {
-				if (asyncQueue.size > 0) {
-					task = asyncQueue.pop();
-				} else {
-					executing = false;
-					return null;
+	/**
+	 * Called when progress of the task changes. Callbacks are notified right away on the update thread, changes made
+	 * by loading threads are queued until the next update, so callbacks are never called concurrently.
+	 */
+	void progressChanged(AssetLoadingTask<?> task) {
+		synchronized (mutex) {
+			if (updateThread == Thread.currentThread()) {
+				task.notifyProgress();
+			} else if (!task.progressQueued) {
+				task.progressQueued = true;
+				progressQueue.add(task);
+			}
+		}
+	}
+
+	private void notifyProgress() {
+		// notified tasks can't queue their parents, they are notified directly on the update thread
+		for (int i = 0, n = progressQueue.size; i < n; i++) {
+			AssetLoadingTask<?> task = progressQueue.get(i);
+			task.progressQueued = false;
+			task.notifyProgress();
+		}
+		progressQueue.clear();
+	}
+
+	private void disposeIdleExecutors() {
+		for (int i = 0; i < idleExecutors.size; i++) {
+			DisposablesService.dispose(idleExecutors.get(i));
+		}
+		idleExecutors.clear();
+	}
+
+	private class Worker implements AsyncTask<Void> {
+		private final AsyncExecutor owner;
+
+		Worker(AsyncExecutor owner) {
+			this.owner = owner;
+		}
+
+		@Override
+		public Void call() throws Exception {
+			AssetLoadingTask<?> task = null;
+			while (true) {
+				synchronized (mutex) {
+					if (task != null) {
+						releaseLoader(task);
+						taskStateChanged(task);
+					}
+
+					task = owner == executor ? pollTask() : null;
+					if (task == null) {
+						workerFinished(owner);
+						return null;
+					}
 				}
+
+				timings.record(Stage.queued, TimeUtils.nanoTime() - task.queuedTime);
+				task.update();
 			}
+		}
+	}
 
-			task.update();
-			taskStateChanged(task);
+	private void workerFinished(AsyncExecutor owner) {
+		if (owner == executor) {
+			workers--;
+			return;
+		}
+
+		int remaining = retiredExecutors.getAndIncrement(owner, 0, -1) - 1;
+		if (remaining <= 0) {
+			// executor can't be disposed from its own thread
+			retiredExecutors.remove(owner, 0);
+			idleExecutors.add(owner);
+		}
+	}
+
+	private AssetLoadingTask<?> pollTask() {
+		while (true) {
+			AssetLoadingTask<?> task = asyncQueue.poll();
+			if (task == null) {
+				return null;
+			}
+
+			AssetLoader<?, ?> loader = task.loader;
+			if (loader instanceof ConcurrentAssetLoader || busyLoaders.add(loader)) {
+				return task;
+			}
+
+			blockedTasks.add(task);
+		}
+	}
+
+	private void releaseLoader(AssetLoadingTask<?> task) {
+		AssetLoader<?, ?> loader = task.loader;
+		if (!busyLoaders.remove(loader)) {
+			return;
 		}
+
+		for (int i = blockedTasks.size - 1; i >= 0; i--) {
+			AssetLoadingTask<?> blockedTask = blockedTasks.get(i);
+			if (blockedTask.loader == loader) {
+				blockedTasks.removeIndex(i);
+				asyncQueue.add(blockedTask);
+			}
+		}
+		submitWorkers();
 	}
 
 	void taskStateChanged(AssetLoadingTask<?> task) {
@@ -100,8 +322,16 @@ class AssetLoadingExecutor implements AsyncTask<Void>, Disposable {
 	public void dispose() {
 		syncQueue.clear();
 		asyncQueue.clear();
+		progressQueue.clear();
+		blockedTasks.clear();
+		busyLoaders.clear();
 		allTasks.clear();
 		DisposablesService.dispose(executor);
+		for (AsyncExecutor retiredExecutor : retiredExecutors.keys()) {
+			DisposablesService.dispose(retiredExecutor);
+		}
+		retiredExecutors.clear();
+		disposeIdleExecutors();
 	}
 
 	String getDiagnostics() {
@@ -112,6 +342,13 @@ class AssetLoadingExecutor implements AsyncTask<Void>, Disposable {
 			builder.append("\n");
 		}
 
+		builder.append("threads: ");
+		builder.append(threads);
+		builder.append("\n");
+		builder.append("finishing: ");
+		builder.append(syncQueue.size);
+		builder.append("\n");
+		builder.append(timings.toString());
 		return builder.toString();
 	}
 }
@@ -15,12 +15,15 @@ import com.badlogic.gdx.utils.ObjectMap;
 import com.badlogic.gdx.utils.ObjectMap.Entries;
 import com.badlogic.gdx.utils.ObjectMap.Entry;
 import com.badlogic.gdx.utils.Pool.Poolable;
+import com.badlogic.gdx.utils.TimeUtils;
 import com.badlogic.gdx.utils.reflect.ClassReflection;
+import com.gurella.engine.asset.AssetLoadingTimings.Stage;
 import com.gurella.engine.asset.bundle.Bundle;
 import com.gurella.engine.asset.loader.AssetLoader;
 import com.gurella.engine.asset.loader.AssetProperties;
 import com.gurella.engine.asset.loader.DependencyCollector;
 import com.gurella.engine.asset.loader.DependencySupplier;
+import com.gurella.engine.asset.loader.IncrementalAssetLoader;
 import com.gurella.engine.async.AsyncCallback;
 import com.gurella.engine.utils.Values;
 
@@ -30,6 +33,9 @@ class AssetLoadingTask<T> implements AsyncCallback<Object>, Dependency<T>, Depen
 
 	int priority;
 	int requestId;
+	/** Number of dependency levels between this task and the requested asset. */
+	int depth;
+	long queuedTime;
 
 	final AssetId assetId = new AssetId();
 	final AssetLoadingTaskCallback<T> callback = new AssetLoadingTaskCallback<T>();
@@ -43,6 +49,8 @@ class AssetLoadingTask<T> implements AsyncCallback<Object>, Dependency<T>, Depen
 
 	volatile AssetLoadingPhase phase = ready;
 	volatile float progress = 0;
+	/** Guarded by the manager mutex, see {@link AssetLoadingExecutor#progressChanged(AssetLoadingTask)}. */
+	boolean progressQueued;
 
 	T asset;
 	final ObjectMap<String, Object> bundledAssets = new ObjectMap<String, Object>();
@@ -74,7 +82,8 @@ class AssetLoadingTask<T> implements AsyncCallback<Object>, Dependency<T>, Depen
 		this.priority = parent.priority;
 		this.loader = loader;
 
-		requestId = requestSequence++;
+		requestId = parent.requestId;
+		depth = parent.depth + 1;
 		this.assetId.set(assetId, file);
 	}
 
@@ -93,16 +102,20 @@ class AssetLoadingTask<T> implements AsyncCallback<Object>, Dependency<T>, Depen
 	}
 
 	private boolean step() {
+		long startTime = TimeUtils.nanoTime();
 		switch (phase) {
 		case ready:
 			start();
+			executor.timings.record(Stage.dependencies, TimeUtils.nanoTime() - startTime);
 			return phase != waitingDependencies;
 		case async:
 			async();
+			executor.timings.record(Stage.async, TimeUtils.nanoTime() - startTime);
 			return false;
 		case sync:
-			sync();
-			return true;
+			boolean done = sync();
+			executor.timings.record(Stage.finish, TimeUtils.nanoTime() - startTime);
+			return done;
 		case finished:
 			finish();
 			return false;
@@ -152,12 +165,18 @@ class AssetLoadingTask<T> implements AsyncCallback<Object>, Dependency<T>, Depen
 		phase = sync;
 	}
 
-	private void sync() {
+	private boolean sync() {
+		if (loader instanceof IncrementalAssetLoader
+				&& !((IncrementalAssetLoader<T, AssetProperties>) loader).finishStep(this, file, properties)) {
+			return false;
+		}
+
 		asset = loader.finish(this, file, properties);
 		if (asset instanceof Bundle) {
 			((Bundle) asset).getBundledAssets(bundledAssets);
 		}
 		phase = finished;
+		return true;
 	}
 
 	private void finish() {
@@ -172,10 +191,14 @@ class AssetLoadingTask<T> implements AsyncCallback<Object>, Dependency<T>, Depen
 		float newProgress = calculateProgress();
 		if (progress != newProgress) {
 			progress = newProgress;
-			callback.onProgress(newProgress);
+			executor.progressChanged(this);
 		}
 	}
 
+	void notifyProgress() {
+		callback.onProgress(progress);
+	}
+
 	private float calculateProgress() {
 		switch (phase) {
 		case ready:
@@ -215,17 +238,24 @@ class AssetLoadingTask<T> implements AsyncCallback<Object>, Dependency<T>, Depen
 	}
 
 	private void renice(int newPriority) {
+		if (priority < newPriority) {
+			renice(newPriority, requestSequence++);
+		}
+	}
+
+	private void renice(int newPriority, int newRequestId) {
 		if (priority >= newPriority) {
 			return;
 		}
 
-		requestId = requestSequence++;
+		requestId = newRequestId;
 		priority = newPriority;
+		executor.priorityChanged(this);
 
 		for (Entry<AssetId, Dependency<?>> entry : dependencies.entries()) {
 			Dependency<?> dependency = entry.value;
 			if (dependency instanceof AssetLoadingTask) {
-				((AssetLoadingTask<?>) dependency).renice(newPriority);
+				((AssetLoadingTask<?>) dependency).renice(newPriority, newRequestId);
 			}
 		}
 	}
@@ -383,7 +413,12 @@ class AssetLoadingTask<T> implements AsyncCallback<Object>, Dependency<T>, Depen
 	@Override
 	public int compareTo(AssetLoadingTask<?> other) {
 		int result = Values.compare(priority, other.priority);
-		return result == 0 ? Values.compare(other.requestId, requestId) : result;
+		if (result != 0) {
+			return result;
+		}
+
+		result = Values.compare(other.requestId, requestId);
+		return result == 0 ? Values.compare(depth, other.depth) : result;
 	}
 
 	@Override
@@ -398,8 +433,11 @@ class AssetLoadingTask<T> implements AsyncCallback<Object>, Dependency<T>, Depen
 		exception = null;
 		priority = 0;
 		requestId = 0;
+		depth = 0;
+		queuedTime = 0;
 		phase = ready;
 		progress = 0;
+		progressQueued = false;
 		assetId.reset();
 		callback.reset();
 		propertiesId = null;
@@ -0,0 +1,86 @@
+package com.gurella.engine.asset;
+
+/**
+ * Time spent by loading tasks in each loading stage, accumulated since last {@link #resetStats()}. Stages run on
+ * loading threads except {@link Stage#finish} which runs on the thread calling {@link AssetService#update()}.
+ */
+public final class AssetLoadingTimings {
+	private final int[] counts = new int[Stage.values.length];
+	private final long[] totals = new long[Stage.values.length];
+	private final long[] maxima = new long[Stage.values.length];
+
+	AssetLoadingTimings() {
+	}
+
+	synchronized void record(Stage stage, long nanos) {
+		int index = stage.ordinal();
+		counts[index]++;
+		totals[index] += nanos;
+		if (nanos > maxima[index]) {
+			maxima[index] = nanos;
+		}
+	}
+
+	/**
+	 * @return number of times tasks went through the stage
+	 */
+	public synchronized int getCount(Stage stage) {
+		return counts[stage.ordinal()];
+	}
+
+	/**
+	 * @return time in nanoseconds all tasks spent in the stage
+	 */
+	public synchronized long getTotalTime(Stage stage) {
+		return totals[stage.ordinal()];
+	}
+
+	/**
+	 * @return longest time in nanoseconds a single task spent in the stage
+	 */
+	public synchronized long getMaxTime(Stage stage) {
+		return maxima[stage.ordinal()];
+	}
+
+	public synchronized long getAverageTime(Stage stage) {
+		int index = stage.ordinal();
+		return counts[index] == 0 ? 0 : totals[index] / counts[index];
+	}
+
+	public synchronized void resetStats() {
+		for (int i = 0; i < counts.length; i++) {
+			counts[i] = 0;
+			totals[i] = 0;
+			maxima[i] = 0;
+		}
+	}
+
+	@Override
+	public synchronized String toString() {
+		StringBuilder builder = new StringBuilder();
+		for (int i = 0; i < Stage.values.length; i++) {
+			builder.append(Stage.values[i].name());
+			builder.append(": count ");
+			builder.append(counts[i]);
+			builder.append(", total ");
+			builder.append(totals[i] / 1000000);
+			builder.append("ms, max ");
+			builder.append(maxima[i] / 1000000);
+			builder.append("ms\n");
+		}
+		return builder.toString();
+	}
+
+	public enum Stage {
+		/** Waiting in the queue for a free loading thread. */
+		queued,
+		/** {@code AssetLoader.initDependencies} */
+		dependencies,
+		/** {@code AssetLoader.processAsync} */
+		async,
+		/** {@code AssetLoader.finish} */
+		finish;
+
+		static final Stage[] values = values();
+	}
+}
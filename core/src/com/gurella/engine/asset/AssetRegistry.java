@@ -33,6 +33,7 @@ class AssetRegistry implements Disposable {
 	private final IdentityMap<Object, Bundle> assetBundle = new IdentityMap<Object, Bundle>();
 
 	private final AssetSlotPool assetSlotPool = new AssetSlotPool();
+	final AssetRetentionCache retentionCache = new AssetRetentionCache();
 
 	private final ObjectMap<String, Object> tempBundledAssets = new ObjectMap<String, Object>();
 
@@ -117,6 +118,7 @@ class AssetRegistry implements Disposable {
 			return null;
 		}
 
+		retentionCache.revive(slot);
 		slot.incReferences();
 
 		if (bundleId == null) {
@@ -137,7 +139,7 @@ class AssetRegistry implements Disposable {
 
 		AssetSlot<?> slot = slotsById.get(id);
 		if (slot.decReferences() == SlotActivity.inactive) {
-			remove(id, slot);
+			release(id, slot);
 			return UnloadResult.unloaded;
 		} else {
 			return UnloadResult.active;
@@ -184,9 +186,10 @@ class AssetRegistry implements Disposable {
 		assetLoadedEvent.post(assetId, asset);
 	}
 
-	private static void incDependencyCount(AssetId id, AssetSlot<?> slot, AssetSlot<?> dependencySlot, int count) {
+	private void incDependencyCount(AssetId id, AssetSlot<?> slot, AssetSlot<?> dependencySlot, int count) {
 		AssetId dependencyId = dependencySlot.assetId;
 		if (slot.incDependencyCount(dependencyId, count) == fresh) {
+			retentionCache.revive(dependencySlot);
 			dependencySlot.addDependent(id);
 		}
 	}
@@ -195,6 +198,7 @@ class AssetRegistry implements Disposable {
 		@SuppressWarnings("unchecked")
 		AssetSlot<T> slot = (AssetSlot<T>) slotsById.get(assetId);
 		if (slot != null) {
+			retentionCache.revive(slot);
 			slot.incReservations();
 		}
 		return slot;
@@ -203,7 +207,7 @@ class AssetRegistry implements Disposable {
 	void unreserve(AssetId assetId) {
 		AssetSlot<?> slot = slotsById.get(assetId);
 		if (slot.decReservations() == inactive) {
-			remove(assetId, slot);
+			release(assetId, slot);
 		}
 	}
 
@@ -222,7 +226,27 @@ class AssetRegistry implements Disposable {
 		return removed;
 	}
 
+	/**
+	 * Keeps inactive asset in {@link AssetRetentionCache} when it fits the budget, otherwise unloads it.
+	 */
+	private void release(AssetId assetId, AssetSlot<?> slot) {
+		if (!retentionCache.retain(slot)) {
+			remove(assetId, slot);
+		}
+	}
+
+	/**
+	 * Unloads retained assets that exceed the retention budget, or all retained assets.
+	 */
+	void evictRetained(boolean all) {
+		AssetSlot<?> slot;
+		while ((slot = retentionCache.pollEvictable(all)) != null) {
+			remove(slot.assetId, slot);
+		}
+	}
+
 	private void remove(AssetId assetId, AssetSlot<?> slot) {
+		retentionCache.remove(slot);
 		Object asset = slot.asset;
 		assetUnloadedEvent.post(assetId, asset);
 		unloadBundledAssets(slot);
@@ -255,7 +279,7 @@ class AssetRegistry implements Disposable {
 		for (AssetId dependencyId : slot.dependencies.keys()) {
 			AssetSlot<?> dependencySlot = slotsById.get(dependencyId);
 			if (dependencySlot.removeDependent(id) == SlotActivity.inactive) {
-				remove(dependencyId, dependencySlot);
+				release(dependencyId, dependencySlot);
 			}
 		}
 	}
@@ -270,6 +294,7 @@ class AssetRegistry implements Disposable {
 		AssetId dependencyId = idsByAsset.get(dependency);
 		if (slot.incDependencyCount(dependencyId, 1) == fresh) {
 			AssetSlot<?> dependencySlot = slotsById.get(idsByAsset.get(dependency));
+			retentionCache.revive(dependencySlot);
 			dependencySlot.addDependent(id);
 		}
 	}
@@ -278,7 +303,7 @@ class AssetRegistry implements Disposable {
 		AssetId id = idsByAsset.get(getAssetOrRootBundle(asset));
 		AssetSlot<?> slot = slotsById.get(id);
 		if (removeDependency(id, slot, dependency) == inactive) {
-			remove(id, slot);
+			release(id, slot);
 		}
 	}
 
@@ -287,7 +312,7 @@ class AssetRegistry implements Disposable {
 		if (slot.decDependencyCount(dependencyId) == obsolete) {
 			AssetSlot<?> dependencySlot = slotsById.get(dependencyId);
 			if (dependencySlot.removeDependent(id) == inactive) {
-				remove(dependencyId, dependencySlot);
+				release(dependencyId, dependencySlot);
 			}
 			return slot.getActivity();
 		} else {
@@ -330,6 +355,7 @@ class AssetRegistry implements Disposable {
 		AssetId assetId = idsByAsset.remove(asset);
 		AssetSlot<?> slot = assetId == null ? null : slotsById.remove(assetId);
 		if (slot != null) {
+			retentionCache.remove(slot);
 			ObjectMap<String, Object> bundledAssets = slot.bundledAssets;
 			if (bundledAssets.size > 0) {
 				for (Object bundledAsset : slot.bundledAssets.values()) {
@@ -438,6 +464,7 @@ class AssetRegistry implements Disposable {
 	@Override
 	public void dispose() {
 		removeAll();
+		retentionCache.clear();
 		slotsById.clear();
 		idsByAsset.clear();
 		assetBundle.clear();
@@ -477,6 +504,9 @@ class AssetRegistry implements Disposable {
 			builder.append(slot.asset.getClass().getSimpleName());
 			builder.append(", refCount: ");
 			builder.append(slot.references);
+			if (slot.retained) {
+				builder.append(", retained");
+			}
 
 			if (slot.dependencies.size > 0) {
 				builder.append(", dependencies: [");
@@ -508,6 +538,7 @@ class AssetRegistry implements Disposable {
 			builder.append("\n");
 		}
 
+		builder.append(retentionCache.toString());
 		return builder.toString();
 	}
 }
@@ -0,0 +1,308 @@
+package com.gurella.engine.asset;
+
+import com.badlogic.gdx.graphics.Cubemap;
+import com.badlogic.gdx.graphics.GLTexture;
+import com.badlogic.gdx.graphics.Mesh;
+import com.badlogic.gdx.graphics.Pixmap;
+import com.badlogic.gdx.graphics.Pixmap.Format;
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.TextureData;
+import com.badlogic.gdx.graphics.g3d.Model;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.IdentityMap;
+import com.badlogic.gdx.utils.Pool.Poolable;
+import com.gurella.engine.asset.descriptor.AssetDescriptor;
+import com.gurella.engine.asset.descriptor.AssetDescriptors;
+import com.gurella.engine.managedobject.ManagedObject;
+
+/**
+ * Keeps assets that are no longer referenced loaded while their estimated size fits into the budget, so unloading
+ * and loading the same assets again (level restart, returning to menu) doesn't decode them again. Retained assets are
+ * evicted in least recently released order. Size is estimated from GPU and buffer memory the asset holds (textures,
+ * meshes, pixmaps) and from file size for other assets.
+ * <p>
+ * Only assets whose {@link AssetDescriptor#isRetainable() descriptor is retainable} are kept. {@link ManagedObject}s
+ * and {@link Poolable}s are never retained, since they are modified, destroyed and recycled by their users.
+ * <p>
+ * Budget is 0 by default, which disables retention.
+ */
+public final class AssetRetentionCache {
+	private long budget;
+	private long size;
+	private int count;
+
+	private int hits;
+	private int evictions;
+
+	/** Least recently released slot, evicted first. */
+	private AssetSlot<?> head;
+	private AssetSlot<?> tail;
+
+	private final IdentityMap<Class<?>, TypeStats> typeStats = new IdentityMap<Class<?>, TypeStats>();
+
+	AssetRetentionCache() {
+	}
+
+	public synchronized long getBudget() {
+		return budget;
+	}
+
+	synchronized void setBudget(long budget) {
+		if (budget < 0) {
+			throw new IllegalArgumentException("budget must not be negative.");
+		}
+		this.budget = budget;
+	}
+
+	/**
+	 * @return estimated size in bytes of all retained assets
+	 */
+	public synchronized long getSize() {
+		return size;
+	}
+
+	/**
+	 * @return estimated size in bytes of retained assets of the given type
+	 */
+	public synchronized long getSize(Class<?> assetType) {
+		TypeStats stats = typeStats.get(assetType);
+		return stats == null ? 0 : stats.size;
+	}
+
+	public synchronized int getCount() {
+		return count;
+	}
+
+	public synchronized int getCount(Class<?> assetType) {
+		TypeStats stats = typeStats.get(assetType);
+		return stats == null ? 0 : stats.count;
+	}
+
+	/**
+	 * @return number of loads served by retained assets
+	 */
+	public synchronized int getHits() {
+		return hits;
+	}
+
+	public synchronized int getEvictions() {
+		return evictions;
+	}
+
+	public synchronized Array<Class<?>> getAssetTypes(Array<Class<?>> out) {
+		for (IdentityMap.Entry<Class<?>, TypeStats> entry : typeStats.entries()) {
+			if (entry.value.count > 0) {
+				out.add(entry.key);
+			}
+		}
+		return out;
+	}
+
+	public synchronized void resetStats() {
+		hits = 0;
+		evictions = 0;
+	}
+
+	/**
+	 * @return false when asset can't be retained and should be unloaded
+	 */
+	synchronized boolean retain(AssetSlot<?> slot) {
+		if (slot.retained) {
+			return true;
+		}
+
+		if (budget == 0 || !isRetainable(slot.asset)) {
+			return false;
+		}
+
+		long assetSize = estimateSize(slot);
+		if (assetSize > budget) {
+			return false;
+		}
+
+		slot.retained = true;
+		slot.retainedSize = assetSize;
+		slot.retainedPrevious = tail;
+		if (tail == null) {
+			head = slot;
+		} else {
+			tail.retainedNext = slot;
+		}
+		tail = slot;
+
+		size += assetSize;
+		count++;
+		getTypeStats(slot.assetId.assetType).add(1, assetSize);
+		return true;
+	}
+
+	static boolean isRetainable(Object asset) {
+		if (asset == null || asset instanceof ManagedObject || asset instanceof Poolable) {
+			return false;
+		}
+
+		AssetDescriptor<?> descriptor = AssetDescriptors.getAssetDescriptor(asset.getClass());
+		return descriptor != null && descriptor.isRetainable();
+	}
+
+	/**
+	 * Called when retained asset is used again.
+	 */
+	synchronized void revive(AssetSlot<?> slot) {
+		if (slot.retained) {
+			unlink(slot);
+			hits++;
+		}
+	}
+
+	synchronized void remove(AssetSlot<?> slot) {
+		if (slot.retained) {
+			unlink(slot);
+		}
+	}
+
+	private void unlink(AssetSlot<?> slot) {
+		AssetSlot<?> previous = slot.retainedPrevious;
+		AssetSlot<?> next = slot.retainedNext;
+		if (previous == null) {
+			head = next;
+		} else {
+			previous.retainedNext = next;
+		}
+		if (next == null) {
+			tail = previous;
+		} else {
+			next.retainedPrevious = previous;
+		}
+
+		size -= slot.retainedSize;
+		count--;
+		getTypeStats(slot.assetId.assetType).add(-1, -slot.retainedSize);
+
+		slot.retained = false;
+		slot.retainedSize = 0;
+		slot.retainedPrevious = null;
+		slot.retainedNext = null;
+	}
+
+	/**
+	 * @return least recently released slot that should be evicted or null
+	 */
+	synchronized AssetSlot<?> pollEvictable(boolean all) {
+		if (head == null || (!all && size <= budget)) {
+			return null;
+		}
+
+		AssetSlot<?> slot = head;
+		unlink(slot);
+		evictions++;
+		return slot;
+	}
+
+	synchronized void clear() {
+		while (head != null) {
+			unlink(head);
+		}
+		typeStats.clear();
+	}
+
+	private TypeStats getTypeStats(Class<?> assetType) {
+		Class<?> key = assetType == null ? Object.class : assetType;
+		TypeStats stats = typeStats.get(key);
+		if (stats == null) {
+			stats = new TypeStats();
+			typeStats.put(key, stats);
+		}
+		return stats;
+	}
+
+	private static long estimateSize(AssetSlot<?> slot) {
+		Object asset = slot.asset;
+		if (asset instanceof Texture) {
+			TextureData data = ((Texture) asset).getTextureData();
+			return estimateSize((Texture) asset, data.getFormat(), data.useMipMaps());
+		} else if (asset instanceof Cubemap) {
+			return 6 * estimateSize((Cubemap) asset, null, false);
+		} else if (asset instanceof Pixmap) {
+			return ((Pixmap) asset).getPixels().capacity();
+		} else if (asset instanceof Model) {
+			return estimateSize((Model) asset);
+		} else {
+			return slot.assetId.file == null ? 0 : slot.assetId.file.length();
+		}
+	}
+
+	private static long estimateSize(GLTexture texture, Format format, boolean mipMaps) {
+		long size = (long) texture.getWidth() * texture.getHeight() * getBytesPerPixel(format);
+		return mipMaps ? size * 4 / 3 : size;
+	}
+
+	private static int getBytesPerPixel(Format format) {
+		if (format == null) {
+			return 4;
+		}
+
+		switch (format) {
+		case Alpha:
+		case Intensity:
+			return 1;
+		case LuminanceAlpha:
+		case RGB565:
+		case RGBA4444:
+			return 2;
+		case RGB888:
+			return 3;
+		default:
+			return 4;
+		}
+	}
+
+	private static long estimateSize(Model model) {
+		long size = 0;
+		Array<Mesh> meshes = model.meshes;
+		for (int i = 0, n = meshes.size; i < n; i++) {
+			Mesh mesh = meshes.get(i);
+			size += (long) mesh.getNumVertices() * mesh.getVertexSize() + mesh.getNumIndices() * 2L;
+		}
+		return size;
+	}
+
+	@Override
+	public synchronized String toString() {
+		StringBuilder builder = new StringBuilder();
+		builder.append("retained: ");
+		builder.append(count);
+		builder.append(", size ");
+		builder.append(size / 1024);
+		builder.append("KB / ");
+		builder.append(budget / 1024);
+		builder.append("KB, hits ");
+		builder.append(hits);
+		builder.append(", evictions ");
+		builder.append(evictions);
+		builder.append("\n");
+
+		for (IdentityMap.Entry<Class<?>, TypeStats> entry : typeStats.entries()) {
+			TypeStats stats = entry.value;
+			if (stats.count > 0) {
+				builder.append(entry.key.getSimpleName());
+				builder.append(": ");
+				builder.append(stats.count);
+				builder.append(", ");
+				builder.append(stats.size / 1024);
+				builder.append("KB\n");
+			}
+		}
+		return builder.toString();
+	}
+
+	private static class TypeStats {
+		int count;
+		long size;
+
+		void add(int count, long size) {
+			this.count += count;
+			this.size += size;
+		}
+	}
+}
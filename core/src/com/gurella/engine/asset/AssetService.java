@@ -150,6 +150,51 @@ public class AssetService {
 		return getManager().update(millis);
 	}
 
+	public static int getLoadingThreads() {
+		return getManager().getLoadingThreads();
+	}
+
+	/**
+	 * Sets number of threads used to run asynchronous part of asset loading.
+	 */
+	public static void setLoadingThreads(int threads) {
+		getManager().setLoadingThreads(threads);
+	}
+
+	public static int getFinishBudget() {
+		return getManager().getFinishBudget();
+	}
+
+	/**
+	 * Sets time in milliseconds that one update can spend on main thread part of asset loading, 0 for no limit.
+	 */
+	public static void setFinishBudget(int millis) {
+		getManager().setFinishBudget(millis);
+	}
+
+	/**
+	 * Sets estimated size in bytes of unreferenced assets that are kept loaded for reuse, 0 disables retention. See
+	 * {@link AssetRetentionCache}.
+	 */
+	public static void setRetentionBudget(long bytes) {
+		getManager().setRetentionBudget(bytes);
+	}
+
+	public static AssetRetentionCache getRetentionCache() {
+		return getManager().getRetentionCache();
+	}
+
+	/**
+	 * Unloads all retained assets.
+	 */
+	public static void evictRetained() {
+		getManager().evictRetained();
+	}
+
+	public static AssetLoadingTimings getLoadingTimings() {
+		return getManager().getLoadingTimings();
+	}
+
 	public static void finishLoading() {
 		getManager().finishLoading();
 	}
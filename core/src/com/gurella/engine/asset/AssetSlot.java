@@ -25,6 +25,11 @@ class AssetSlot<T> implements Dependency<T>, Poolable {
 	final ObjectSet<AssetId> dependents = new ObjectSet<AssetId>();
 	final ObjectMap<String, Object> bundledAssets = new ObjectMap<String, Object>();
 
+	boolean retained;
+	long retainedSize;
+	AssetSlot<?> retainedPrevious;
+	AssetSlot<?> retainedNext;
+
 	void init(AssetId assetId, T asset, boolean sticky, int references, int reservations) {
 		this.assetId.set(assetId, (String) null);
 		this.asset = asset;
@@ -202,6 +207,10 @@ class AssetSlot<T> implements Dependency<T>, Poolable {
 		dependencies.clear();
 		dependents.clear();
 		bundledAssets.clear();
+		retained = false;
+		retainedSize = 0;
+		retainedPrevious = null;
+		retainedNext = null;
 	}
 
 	enum SlotActivity {
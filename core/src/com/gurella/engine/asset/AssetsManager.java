@@ -392,6 +392,47 @@ class AssetsManager implements ApplicationCleanupListener, GlContextInvalidatedL
 		}
 	}
 
+	int getLoadingThreads() {
+		return executor.getThreads();
+	}
+
+	void setLoadingThreads(int threads) {
+		executor.setThreads(threads);
+	}
+
+	int getFinishBudget() {
+		synchronized (mutex) {
+			return executor.getFinishBudget();
+		}
+	}
+
+	void setFinishBudget(int millis) {
+		synchronized (mutex) {
+			executor.setFinishBudget(millis);
+		}
+	}
+
+	AssetRetentionCache getRetentionCache() {
+		return registry.retentionCache;
+	}
+
+	void setRetentionBudget(long bytes) {
+		synchronized (mutex) {
+			registry.retentionCache.setBudget(bytes);
+			registry.evictRetained(false);
+		}
+	}
+
+	void evictRetained() {
+		synchronized (mutex) {
+			registry.evictRetained(true);
+		}
+	}
+
+	AssetLoadingTimings getLoadingTimings() {
+		return executor.timings;
+	}
+
 	void finishLoading() {
 		while (!update()) {
 			ThreadUtils.yield();
@@ -410,7 +451,7 @@ class AssetsManager implements ApplicationCleanupListener, GlContextInvalidatedL
 	}
 
 	FileHandle getFileHandle(String path, FileType type) {
-		return files.getFileHandle(path, type);
+		return resolvers.resolveFile(new AssetId().set(path, type));
 	}
 
 	void registerResolver(FileHandleResolver resolver) {
@@ -425,6 +466,7 @@ class AssetsManager implements ApplicationCleanupListener, GlContextInvalidatedL
 	public void onCleanup() {
 		synchronized (mutex) {
 			executor.update();
+			registry.evictRetained(false);
 		}
 	}
 
@@ -438,8 +480,10 @@ class AssetsManager implements ApplicationCleanupListener, GlContextInvalidatedL
 
 	@Override
 	public void onGlContextInvalidated() {
-		// TODO Auto-generated method stub
-		
+		// retained assets are not worth restoring
+		synchronized (mutex) {
+			registry.evictRetained(true);
+		}
 	}
 
 	String getDiagnostics() {
@@ -0,0 +1,266 @@
+package com.gurella.engine.asset.cache;
+
+import java.io.File;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map.Entry;
+
+import com.badlogic.gdx.Application.ApplicationType;
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.utils.ObjectMap;
+
+/**
+ * State of {@link ProcessedAssetCache} for one application: cache directory, entries in least recently used order
+ * with their total size and the source index, which maps source files to keys of their entries by file size and
+ * modification time, so sources that haven't changed aren't hashed again.
+ */
+final class CacheStore {
+	private static final String defaultDirectory = ".gurella/cache";
+	private static final String sourceIndexName = "source-index.txt";
+	private static final int hashLength = 40;
+
+	private FileHandle directory;
+	private boolean initialized;
+	private long maxSize = ProcessedAssetCache.defaultMaxSize;
+
+	private final LinkedHashMap<String, Long> entries = new LinkedHashMap<String, Long>(64, 0.75f, true);
+	private boolean entriesLoaded;
+	private long size;
+
+	private final ObjectMap<String, SourceStamp> sourceStamps = new ObjectMap<String, SourceStamp>();
+	private boolean sourceStampsLoaded;
+
+	int hits;
+	int misses;
+	int writes;
+
+	synchronized FileHandle getDirectory() {
+		if (!initialized) {
+			initialized = true;
+			ApplicationType type = Gdx.app == null ? null : Gdx.app.getType();
+			if (type == ApplicationType.Desktop || type == ApplicationType.HeadlessDesktop) {
+				directory = Gdx.files.local(defaultDirectory);
+			}
+		}
+		return directory;
+	}
+
+	synchronized void setDirectory(FileHandle directory) {
+		this.directory = directory;
+		initialized = true;
+		entries.clear();
+		entriesLoaded = false;
+		size = 0;
+		sourceStamps.clear();
+		sourceStampsLoaded = false;
+	}
+
+	synchronized long getMaxSize() {
+		return maxSize;
+	}
+
+	synchronized void setMaxSize(long maxSize) {
+		this.maxSize = maxSize;
+		prune(null);
+	}
+
+	synchronized long getSize() {
+		loadEntries();
+		return size;
+	}
+
+	synchronized String getSourceKey(String sourceId, long length, long modified) {
+		loadSourceStamps();
+		SourceStamp stamp = sourceStamps.get(sourceId);
+		return stamp != null && stamp.length == length && stamp.modified == modified ? stamp.key : null;
+	}
+
+	synchronized void putSourceKey(String sourceId, long length, long modified, String key) {
+		loadSourceStamps();
+		SourceStamp stamp = new SourceStamp(length, modified, key);
+		sourceStamps.put(sourceId, stamp);
+		FileHandle index = getSourceIndex();
+		if (index != null && sourceId.indexOf('\t') < 0 && sourceId.indexOf('\n') < 0) {
+			try {
+				index.writeString(toLine(sourceId, stamp), true, "UTF-8");
+			} catch (RuntimeException e) {
+				// index is only an optimization, sources are hashed again on next run
+			}
+		}
+	}
+
+	private FileHandle getSourceIndex() {
+		FileHandle directory = getDirectory();
+		return directory == null ? null : directory.child(sourceIndexName);
+	}
+
+	private static String toLine(String sourceId, SourceStamp stamp) {
+		return sourceId + '\t' + stamp.length + '\t' + stamp.modified + '\t' + stamp.key + '\n';
+	}
+
+	/**
+	 * Reads the source index. Index is append only, so it is rewritten when it holds more outdated lines than
+	 * current ones.
+	 */
+	private void loadSourceStamps() {
+		if (sourceStampsLoaded) {
+			return;
+		}
+
+		sourceStampsLoaded = true;
+		FileHandle index = getSourceIndex();
+		if (index == null || !index.exists()) {
+			return;
+		}
+
+		int lineCount = 0;
+		try {
+			String[] lines = index.readString("UTF-8").split("\n");
+			for (int i = 0; i < lines.length; i++) {
+				String[] values = lines[i].split("\t");
+				if (values.length == 4) {
+					lineCount++;
+					long length = Long.parseLong(values[1]);
+					long modified = Long.parseLong(values[2]);
+					sourceStamps.put(values[0], new SourceStamp(length, modified, values[3]));
+				}
+			}
+		} catch (RuntimeException e) {
+			sourceStamps.clear();
+			index.delete();
+			return;
+		}
+
+		if (lineCount > 2 * sourceStamps.size) {
+			StringBuilder builder = new StringBuilder();
+			for (ObjectMap.Entry<String, SourceStamp> entry : sourceStamps.entries()) {
+				builder.append(toLine(entry.key, entry.value));
+			}
+			try {
+				index.writeString(builder.toString(), false, "UTF-8");
+			} catch (RuntimeException e) {
+				index.delete();
+			}
+		}
+	}
+
+	synchronized void entryRead(String key, FileHandle entry) {
+		loadEntries();
+		if (entries.get(key) == null) {
+			long length = entry.length();
+			entries.put(key, Long.valueOf(length));
+			size += length;
+		}
+		// modification time keeps usage order between runs
+		entry.file().setLastModified(System.currentTimeMillis());
+	}
+
+	synchronized void entryWritten(String key, long length) {
+		loadEntries();
+		Long previous = entries.put(key, Long.valueOf(length));
+		size += length - (previous == null ? 0 : previous.longValue());
+		prune(key);
+	}
+
+	/**
+	 * Deletes least recently used entries until the size of the cache is within the limit.
+	 */
+	private void prune(String keep) {
+		loadEntries();
+		FileHandle directory = getDirectory();
+		Iterator<Entry<String, Long>> iterator = entries.entrySet().iterator();
+		while (size > maxSize && iterator.hasNext()) {
+			Entry<String, Long> entry = iterator.next();
+			String key = entry.getKey();
+			if (key.equals(keep)) {
+				continue;
+			}
+
+			File file = directory.child(key).file();
+			// entries still mapped by a reader can't be deleted on some platforms
+			if (!file.exists() || file.delete()) {
+				iterator.remove();
+				size -= entry.getValue().longValue();
+			}
+		}
+	}
+
+	private void loadEntries() {
+		if (entriesLoaded) {
+			return;
+		}
+
+		entriesLoaded = true;
+		FileHandle directory = getDirectory();
+		if (directory == null || !directory.isDirectory()) {
+			return;
+		}
+
+		File[] files = directory.file().listFiles();
+		if (files == null) {
+			return;
+		}
+
+		Arrays.sort(files, new Comparator<File>() {
+			@Override
+			public int compare(File first, File second) {
+				long firstModified = first.lastModified();
+				long secondModified = second.lastModified();
+				return firstModified < secondModified ? -1 : firstModified == secondModified ? 0 : 1;
+			}
+		});
+
+		for (int i = 0; i < files.length; i++) {
+			File file = files[i];
+			String name = file.getName();
+			if (isEntryName(name) && file.isFile()) {
+				long length = file.length();
+				entries.put(name, Long.valueOf(length));
+				size += length;
+			}
+		}
+	}
+
+	/**
+	 * @return true for names of entries, {@code <hash>.<kind>}; temporary files, source index and other files
+	 *         stored in the cache directory are never pruned
+	 */
+	private static boolean isEntryName(String name) {
+		if (name.length() <= hashLength + 1 || name.charAt(hashLength) != '.' || name.endsWith(".tmp")) {
+			return false;
+		}
+
+		for (int i = 0; i < hashLength; i++) {
+			if (Character.digit(name.charAt(i), 16) < 0) {
+				return false;
+			}
+		}
+
+		return true;
+	}
+
+	synchronized void clear() {
+		FileHandle directory = getDirectory();
+		if (directory != null && directory.exists()) {
+			directory.emptyDirectory();
+		}
+		entries.clear();
+		size = 0;
+		sourceStamps.clear();
+	}
+
+	private static final class SourceStamp {
+		final long length;
+		final long modified;
+		final String key;
+
+		SourceStamp(long length, long modified, String key) {
+			this.length = length;
+			this.modified = modified;
+			this.key = key;
+		}
+	}
+}
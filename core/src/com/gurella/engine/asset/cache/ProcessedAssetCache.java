@@ -0,0 +1,285 @@
+package com.gurella.engine.asset.cache;
+
+import java.io.File;
+import java.io.UnsupportedEncodingException;
+import java.nio.ByteBuffer;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+import com.badlogic.gdx.Application;
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.utils.IdentityMap;
+import com.gurella.engine.async.AsyncService;
+import com.gurella.engine.event.EventService;
+import com.gurella.engine.subscriptions.application.ApplicationShutdownListener;
+import com.gurella.engine.utils.MappedFiles;
+
+/**
+ * Persistent cache of intermediate results of asset loading (decoded pixels, parsed models). Entries are keyed by
+ * SHA-1 hash of the source file content and a variant string describing everything else that affects the result
+ * (loader properties, format version), so changed sources are never served stale data and no invalidation is
+ * needed. Source is hashed only when its size or modification time differs from the last time it was keyed. Loaders
+ * read the entry instead of decoding the source when it exists and write it after a miss.
+ * <p>
+ * Cache is enabled by default on desktop, in {@code .gurella/cache} of local storage. Least recently used entries
+ * are deleted when the cache grows over {@link #getMaxSize()}. Failures to read or write entries are treated as
+ * misses. Each application has its own cache state.
+ */
+public final class ProcessedAssetCache {
+	public static final long defaultMaxSize = 256L * 1024 * 1024;
+	private static final char[] hexDigits = "0123456789abcdef".toCharArray();
+
+	private static final IdentityMap<Application, CacheStore> instances = new IdentityMap<Application, CacheStore>();
+	private static CacheStore singleton;
+
+	private ProcessedAssetCache() {
+	}
+
+	private static CacheStore getStore() {
+		CacheStore store;
+		synchronized (instances) {
+			if (!AsyncService.isMultiApplicationEnvironment()) {
+				if (singleton == null) {
+					singleton = new CacheStore();
+				}
+				return singleton;
+			}
+
+			Application app = AsyncService.getCurrentApplication();
+			store = instances.get(app);
+			if (store != null) {
+				return store;
+			}
+
+			store = new CacheStore();
+			instances.put(app, store);
+		}
+
+		EventService.subscribe(new Cleaner());
+		return store;
+	}
+
+	public static FileHandle getDirectory() {
+		return getStore().getDirectory();
+	}
+
+	/**
+	 * @param directory
+	 *            directory holding cache entries, null disables the cache
+	 */
+	public static void setDirectory(FileHandle directory) {
+		getStore().setDirectory(directory);
+	}
+
+	public static boolean isEnabled() {
+		return getDirectory() != null;
+	}
+
+	public static long getMaxSize() {
+		return getStore().getMaxSize();
+	}
+
+	/**
+	 * @param maxSize
+	 *            total size of entries in bytes, least recently used entries are deleted when it's exceeded
+	 */
+	public static void setMaxSize(long maxSize) {
+		getStore().setMaxSize(maxSize);
+	}
+
+	/**
+	 * @return total size of entries in bytes
+	 */
+	public static long getSize() {
+		return getStore().getSize();
+	}
+
+	/**
+	 * @param kind
+	 *            identifies the producer and format of the entry, for example {@code "texture.v1"}
+	 * @param variant
+	 *            values that affect the entry besides the source content
+	 * @return key of the entry or null when cache is disabled or source can't be read
+	 */
+	public static String getKey(FileHandle source, String kind, String variant) {
+		CacheStore store = getStore();
+		if (store.getDirectory() == null) {
+			return null;
+		}
+
+		long length;
+		long modified;
+		try {
+			length = source.length();
+			modified = source.lastModified();
+		} catch (RuntimeException e) {
+			return null;
+		}
+
+		// files without modification time (classpath, android assets) are hashed every time
+		String sourceId = modified == 0 ? null : source.type().name() + ':' + source.path() + '|' + kind + '|' + variant;
+		if (sourceId != null) {
+			String key = store.getSourceKey(sourceId, length, modified);
+			if (key != null) {
+				return key;
+			}
+		}
+
+		String key = hash(source, kind, variant);
+		if (key != null && sourceId != null) {
+			store.putSourceKey(sourceId, length, modified, key);
+		}
+		return key;
+	}
+
+	private static String hash(FileHandle source, String kind, String variant) {
+		try {
+			MessageDigest digest = MessageDigest.getInstance("SHA-1");
+			digest.update(source.readBytes());
+			digest.update(kind.getBytes("UTF-8"));
+			if (variant != null) {
+				digest.update(variant.getBytes("UTF-8"));
+			}
+			return toHex(digest.digest()) + '.' + kind;
+		} catch (NoSuchAlgorithmException e) {
+			return null;
+		} catch (UnsupportedEncodingException e) {
+			return null;
+		} catch (RuntimeException e) {
+			return null;
+		}
+	}
+
+	private static String toHex(byte[] bytes) {
+		char[] chars = new char[bytes.length * 2];
+		for (int i = 0; i < bytes.length; i++) {
+			int value = bytes[i] & 0xFF;
+			chars[i * 2] = hexDigits[value >>> 4];
+			chars[i * 2 + 1] = hexDigits[value & 0x0F];
+		}
+		return new String(chars);
+	}
+
+	/**
+	 * @return content of the entry, memory mapped where possible, or null when there is no entry with the key. Buffer
+	 *         should be passed to {@link #release(ByteBuffer)} when it has been decoded.
+	 */
+	public static ByteBuffer read(String key) {
+		CacheStore store = getStore();
+		FileHandle entry = getEntry(store, key);
+		ByteBuffer buffer = null;
+		if (entry != null && entry.exists()) {
+			try {
+				buffer = MappedFiles.map(entry);
+			} catch (RuntimeException e) {
+				buffer = null;
+			}
+		}
+
+		if (buffer == null) {
+			synchronized (store) {
+				store.misses++;
+			}
+		} else {
+			store.entryRead(key, entry);
+			synchronized (store) {
+				store.hits++;
+			}
+		}
+		return buffer;
+	}
+
+	/**
+	 * Unmaps the buffer returned by {@link #read(String)}, so the entry can be pruned or replaced. Buffer must not be
+	 * used afterwards.
+	 */
+	public static void release(ByteBuffer buffer) {
+		MappedFiles.unmap(buffer);
+	}
+
+	public static void write(String key, byte[] data) {
+		write(key, data, 0, data.length);
+	}
+
+	/**
+	 * Writes the entry to a temporary file that is renamed to the entry, so readers never see partially written
+	 * entries.
+	 */
+	public static void write(String key, byte[] data, int offset, int length) {
+		CacheStore store = getStore();
+		FileHandle entry = getEntry(store, key);
+		if (entry == null) {
+			return;
+		}
+
+		FileHandle tempEntry = entry.sibling(entry.name() + "." + Thread.currentThread().getId() + ".tmp");
+		try {
+			tempEntry.writeBytes(data, offset, length, false);
+			File tempFile = tempEntry.file();
+			if (!tempFile.renameTo(entry.file())) {
+				tempFile.delete();
+				return;
+			}
+		} catch (RuntimeException e) {
+			tempEntry.delete();
+			return;
+		}
+
+		store.entryWritten(key, length);
+		synchronized (store) {
+			store.writes++;
+		}
+	}
+
+	private static FileHandle getEntry(CacheStore store, String key) {
+		FileHandle directory = key == null ? null : store.getDirectory();
+		return directory == null ? null : directory.child(key);
+	}
+
+	/**
+	 * Deletes all entries.
+	 */
+	public static void clear() {
+		getStore().clear();
+	}
+
+	public static int getHits() {
+		CacheStore store = getStore();
+		synchronized (store) {
+			return store.hits;
+		}
+	}
+
+	public static int getMisses() {
+		CacheStore store = getStore();
+		synchronized (store) {
+			return store.misses;
+		}
+	}
+
+	public static int getWrites() {
+		CacheStore store = getStore();
+		synchronized (store) {
+			return store.writes;
+		}
+	}
+
+	public static void resetStats() {
+		CacheStore store = getStore();
+		synchronized (store) {
+			store.hits = 0;
+			store.misses = 0;
+			store.writes = 0;
+		}
+	}
+
+	private static class Cleaner implements ApplicationShutdownListener {
+		@Override
+		public void onShutdown() {
+			EventService.unsubscribe(this);
+			synchronized (instances) {
+				instances.remove(AsyncService.getCurrentApplication());
+			}
+		}
+	}
+}
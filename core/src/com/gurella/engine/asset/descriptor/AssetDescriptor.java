@@ -22,6 +22,8 @@ public class AssetDescriptor<TYPE> {
 
 	private Factory<? extends AssetPersister<TYPE>> defaultPersisterFactory;
 	private final ObjectMap<String, Factory<? extends AssetPersister<TYPE>>> persistersByExtension = new ObjectMap<String, Factory<? extends AssetPersister<TYPE>>>();
+
+	private boolean retainable;
 	// TODO AssetReloader, MissingValueProvider
 
 	public AssetDescriptor(Class<TYPE> assetType, boolean validForSubtypes, boolean hasReferences, String extension) {
@@ -131,6 +133,20 @@ public class AssetDescriptor<TYPE> {
 		return persister;
 	}
 
+	/**
+	 * Marks assets of this type as immutable resources that can be kept loaded by
+	 * {@link com.gurella.engine.asset.AssetRetentionCache} after they are no longer referenced. Only types whose
+	 * instances aren't modified, destroyed or recycled by their users should be retainable.
+	 */
+	public AssetDescriptor<TYPE> setRetainable(boolean retainable) {
+		this.retainable = retainable;
+		return this;
+	}
+
+	public boolean isRetainable() {
+		return retainable;
+	}
+
 	public boolean isValidExtension(String extension) {
 		if (Values.isBlank(extension)) {
 			return false;
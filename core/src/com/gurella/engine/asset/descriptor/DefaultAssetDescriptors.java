@@ -49,15 +49,15 @@ public class DefaultAssetDescriptors {
 	public static final AssetDescriptor<AssetProperties> assetProps = createSerialized(AssetProperties.class, "gprop");
 	public static final AssetDescriptor<RenderTarget> renderTarget = createSerialized(RenderTarget.class, RenderTargetLoader.class, "grt");
 
-	public static final AssetDescriptor<Texture> texture = create(Texture.class, false, false, TextureLoader.class, "png", "jpg", "jpeg");
-	public static final AssetDescriptor<TextureAtlas> textureAtlas = create(TextureAtlas.class, false, false, TextureAtlasLoader.class, "atl");
-	public static final AssetDescriptor<Cubemap> cubemap = create(Cubemap.class, false, false, CubemapLoader.class, "ktx", "zktx");
-	public static final AssetDescriptor<BitmapFont> bitmapFont = create(BitmapFont.class, false, false, BitmapFontLoader.class, "fnt");
+	public static final AssetDescriptor<Texture> texture = create(Texture.class, false, false, TextureLoader.class, "png", "jpg", "jpeg").setRetainable(true);
+	public static final AssetDescriptor<TextureAtlas> textureAtlas = create(TextureAtlas.class, false, false, TextureAtlasLoader.class, "atl").setRetainable(true);
+	public static final AssetDescriptor<Cubemap> cubemap = create(Cubemap.class, false, false, CubemapLoader.class, "ktx", "zktx").setRetainable(true);
+	public static final AssetDescriptor<BitmapFont> bitmapFont = create(BitmapFont.class, false, false, BitmapFontLoader.class, "fnt").setRetainable(true);
 	public static final AssetDescriptor<I18NBundle> i18NBundle = create(I18NBundle.class, false, false, I18NBundleLoader.class, "i18n");
-	public static final AssetDescriptor<Sound> sound = create(Sound.class, false, false, SoundLoader.class, "wav", "ogg", "mp3");
+	public static final AssetDescriptor<Sound> sound = create(Sound.class, false, false, SoundLoader.class, "wav", "ogg", "mp3").setRetainable(true);
 	public static final AssetDescriptor<Music> music = create(Music.class, false, false, MusicLoader.class, "wav", "ogg", "mp3");
-	public static final AssetDescriptor<Pixmap> pixmap = create(Pixmap.class, false, false, PixmapLoader.class, "png", "bmp", "jpg", "jpeg");
-	public static final AssetDescriptor<PolygonRegion> polygonRegion = create(PolygonRegion.class, false, false, PolygonRegionLoader.class, "psh");
+	public static final AssetDescriptor<Pixmap> pixmap = create(Pixmap.class, false, false, PixmapLoader.class, "png", "bmp", "jpg", "jpeg").setRetainable(true);
+	public static final AssetDescriptor<PolygonRegion> polygonRegion = create(PolygonRegion.class, false, false, PolygonRegionLoader.class, "psh").setRetainable(true);
 	public static final AssetDescriptor<Model> model = createModelDescriptor();
 	//@formatter:on
 
@@ -111,7 +111,7 @@ public class DefaultAssetDescriptors {
 	}
 
 	private static AssetDescriptor<Model> createModelDescriptor() {
-		AssetDescriptor<Model> descriptor = new AssetDescriptor<Model>(Model.class, false, false);
+		AssetDescriptor<Model> descriptor = new AssetDescriptor<Model>(Model.class, false, false).setRetainable(true);
 		descriptor.registerLoaderFactory(new ReflectionFactory<ObjModelLoader>(ObjModelLoader.class), "obj");
 		descriptor.registerLoaderFactory(new ReflectionFactory<JsonG3dModelLoader>(JsonG3dModelLoader.class), "g3dj");
 		descriptor.registerLoaderFactory(new ReflectionFactory<UbJsonG3dModelLoader>(UbJsonG3dModelLoader.class),
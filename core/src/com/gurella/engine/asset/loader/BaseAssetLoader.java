@@ -7,22 +7,30 @@ public abstract class BaseAssetLoader<TYPE, PROPS extends AssetProperties> imple
 	private final ObjectMap<FileHandle, Object> asyncValues = new ObjectMap<FileHandle, Object>();
 
 	protected void put(FileHandle file, Object value) {
-		asyncValues.put(file, value);
+		synchronized (asyncValues) {
+			asyncValues.put(file, value);
+		}
 	}
 
 	protected <T> T get(FileHandle file) {
-		@SuppressWarnings("unchecked")
-		T result = (T) asyncValues.get(file);
-		return result;
+		synchronized (asyncValues) {
+			@SuppressWarnings("unchecked")
+			T result = (T) asyncValues.get(file);
+			return result;
+		}
 	}
 
 	protected <T> T remove(FileHandle file) {
-		@SuppressWarnings("unchecked")
-		T result = (T) asyncValues.remove(file);
-		return result;
+		synchronized (asyncValues) {
+			@SuppressWarnings("unchecked")
+			T result = (T) asyncValues.remove(file);
+			return result;
+		}
 	}
 
 	protected void clear(FileHandle file) {
-		asyncValues.remove(file);
+		synchronized (asyncValues) {
+			asyncValues.remove(file);
+		}
 	}
 }
@@ -0,0 +1,8 @@
+package com.gurella.engine.asset.loader;
+
+/**
+ * Marks {@link AssetLoader} whose {@code initDependencies} and {@code processAsync} can run for different files at the
+ * same time. Other loaders are used by one loading thread at a time.
+ */
+public interface ConcurrentAssetLoader {
+}
@@ -0,0 +1,14 @@
+package com.gurella.engine.asset.loader;
+
+import com.badlogic.gdx.files.FileHandle;
+
+/**
+ * {@link AssetLoader} that splits main thread work into steps, so loading of a large asset can be spread over several
+ * frames. Steps are called until one of them returns true, {@code finish} is called afterwards.
+ */
+public interface IncrementalAssetLoader<TYPE, PROPS extends AssetProperties> extends AssetLoader<TYPE, PROPS> {
+	/**
+	 * @return true when all steps are done and asset can be finished
+	 */
+	boolean finishStep(DependencySupplier supplier, FileHandle assetFile, PROPS properties);
+}
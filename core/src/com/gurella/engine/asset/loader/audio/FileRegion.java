@@ -0,0 +1,78 @@
+package com.gurella.engine.asset.loader.audio;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+import com.badlogic.gdx.utils.StreamUtils;
+
+/**
+ * Reads small regions of files by skipping to them, which seeks without reading skipped data for file, asset and
+ * assets pack streams. Used to probe headers and trailers of audio files.
+ */
+public final class FileRegion {
+	private FileRegion() {
+	}
+
+	/**
+	 * @return number of bytes read, less than length when region exceeds the file
+	 */
+	public static int read(FileHandle file, long offset, byte[] bytes, int length) {
+		InputStream input = file.read();
+		try {
+			long remaining = offset;
+			while (remaining > 0) {
+				long skipped = input.skip(remaining);
+				if (skipped <= 0) {
+					if (input.read() < 0) {
+						return 0;
+					}
+					skipped = 1;
+				}
+				remaining -= skipped;
+			}
+
+			int count = 0;
+			while (count < length) {
+				int read = input.read(bytes, count, length - count);
+				if (read < 0) {
+					break;
+				}
+				count += read;
+			}
+			return count;
+		} catch (IOException e) {
+			throw new GdxRuntimeException("Error reading file: " + file, e);
+		} finally {
+			StreamUtils.closeQuietly(input);
+		}
+	}
+
+	public static int getIntLE(byte[] bytes, int offset) {
+		return (bytes[offset] & 0xFF) | (bytes[offset + 1] & 0xFF) << 8 | (bytes[offset + 2] & 0xFF) << 16
+				| (bytes[offset + 3] & 0xFF) << 24;
+	}
+
+	public static int getIntBE(byte[] bytes, int offset) {
+		return (bytes[offset] & 0xFF) << 24 | (bytes[offset + 1] & 0xFF) << 16 | (bytes[offset + 2] & 0xFF) << 8
+				| (bytes[offset + 3] & 0xFF);
+	}
+
+	public static int getShortLE(byte[] bytes, int offset) {
+		return (bytes[offset] & 0xFF) | (bytes[offset + 1] & 0xFF) << 8;
+	}
+
+	public static boolean matches(byte[] bytes, int offset, String tag) {
+		if (offset < 0 || offset + tag.length() > bytes.length) {
+			return false;
+		}
+
+		for (int i = 0, n = tag.length(); i < n; i++) {
+			if (bytes[offset + i] != tag.charAt(i)) {
+				return false;
+			}
+		}
+		return true;
+	}
+}
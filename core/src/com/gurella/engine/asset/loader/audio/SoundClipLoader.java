@@ -9,12 +9,9 @@ import com.badlogic.gdx.assets.loaders.SoundLoader;
 import com.badlogic.gdx.assets.loaders.SoundLoader.SoundParameter;
 import com.badlogic.gdx.files.FileHandle;
 import com.badlogic.gdx.utils.Array;
-import com.badlogic.gdx.utils.ObjectFloatMap;
 import com.gurella.engine.audio.SoundClip;
 
 public class SoundClipLoader extends AsynchronousAssetLoader<SoundClip, SoundClipLoader.SoundClipParameters> {
-	private static final ObjectFloatMap<String> durationsByFilename = new ObjectFloatMap<String>(64);
-
 	private static final SoundParameter soundParameter = new SoundParameter();
 	private SoundLoader soundLoader;
 
@@ -32,13 +29,7 @@ public class SoundClipLoader extends AsynchronousAssetLoader<SoundClip, SoundCli
 	}
 
 	protected float getDuration(FileHandle file) {
-		String path = file.path();
-		float duration = durationsByFilename.get(path, -1);
-		if (duration < 0) {
-			duration = SoundDuration.totalDuration(file);
-			durationsByFilename.put(path, duration);
-		}
-		return duration;
+		return SoundDuration.totalDuration(file);
 	}
 
 	@Override
@@ -1,16 +1,66 @@
 package com.gurella.engine.asset.loader.audio;
 
 import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.utils.ObjectMap;
 import com.gurella.engine.asset.loader.audio.mp3.Mp3File;
 import com.gurella.engine.asset.loader.audio.ogg.VorbisFile;
 import com.gurella.engine.asset.loader.audio.wav.WavFile;
 
+/**
+ * Computes duration of audio files. Duration is probed from headers (WAV data chunk size, MP3 Xing/VBRI/LAME headers
+ * or frame bitrate, OGG granule position of the final page) and the stream is scanned only when headers don't
+ * describe it. Results are cached by file and reused while file length and modification time don't change.
+ */
 public class SoundDuration {
+	private static final ObjectMap<String, CachedDuration> cache = new ObjectMap<String, CachedDuration>();
+
 	public static float totalDuration(String fileName) {
 		return totalDuration(new FileHandle(fileName));
 	}
 
 	public static float totalDuration(FileHandle file) {
+		String key = file.type().name() + ':' + file.path();
+		long length = file.length();
+		long lastModified = file.lastModified();
+
+		synchronized (cache) {
+			CachedDuration cached = cache.get(key);
+			if (cached != null && cached.length == length && cached.lastModified == lastModified) {
+				return cached.duration;
+			}
+		}
+
+		float duration = probeDuration(file);
+		if (duration < 0) {
+			duration = scanDuration(file);
+		}
+
+		synchronized (cache) {
+			cache.put(key, new CachedDuration(length, lastModified, duration));
+		}
+		return duration;
+	}
+
+	/**
+	 * @return duration described by headers of the file or -1 when headers don't describe it
+	 */
+	public static float probeDuration(FileHandle file) {
+		String extension = file.extension().toLowerCase();
+		if ("wav".equals(extension)) {
+			return WavFile.probeDuration(file);
+		} else if ("mp3".equals(extension)) {
+			return Mp3File.probeDuration(file);
+		} else if ("ogg".equals(extension)) {
+			return VorbisFile.probeDuration(file);
+		} else {
+			throw new IllegalArgumentException();
+		}
+	}
+
+	/**
+	 * @return duration computed by reading the stream
+	 */
+	public static float scanDuration(FileHandle file) {
 		String extension = file.extension().toLowerCase();
 		if ("wav".equals(extension)) {
 			return WavFile.totalDuration(file);
@@ -22,4 +72,22 @@ public class SoundDuration {
 			throw new IllegalArgumentException();
 		}
 	}
+
+	public static void clearCache() {
+		synchronized (cache) {
+			cache.clear();
+		}
+	}
+
+	private static class CachedDuration {
+		final long length;
+		final long lastModified;
+		final float duration;
+
+		CachedDuration(long length, long lastModified, float duration) {
+			this.length = length;
+			this.lastModified = lastModified;
+			this.duration = duration;
+		}
+	}
 }
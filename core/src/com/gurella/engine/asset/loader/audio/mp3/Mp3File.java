@@ -5,6 +5,7 @@ import java.io.IOException;
 import com.badlogic.gdx.files.FileHandle;
 import com.badlogic.gdx.utils.GdxRuntimeException;
 import com.badlogic.gdx.utils.Pool.Poolable;
+import com.gurella.engine.asset.loader.audio.FileRegion;
 import com.gurella.engine.asset.loader.audio.PushBackArrayInputStream;
 import com.badlogic.gdx.utils.Pools;
 
@@ -26,6 +27,11 @@ public class Mp3File implements Poolable {
 	 */
 	private static final int BUFFER_INT_SIZE = 433;
 
+	/**
+	 * Number of bytes read at the start of the stream when probing duration, enough for a few frames of any stream.
+	 */
+	private static final int probeSize = 8192;
+
 	/**
 	 * Number of valid bytes in the frame buffer.
 	 */
@@ -64,6 +70,137 @@ public class Mp3File implements Poolable {
 		}
 	}
 
+	/**
+	 * Computes duration from the first frame: frame count of Xing/Info or VBRI header (reduced by encoder delay and
+	 * padding from LAME tag) or, for streams without these headers, bitrate of the frame and size of the stream.
+	 * 
+	 * @return duration in seconds or -1 when no frame is found at the start of the stream
+	 */
+	public static float probeDuration(FileHandle file) {
+		long fileLength = file.length();
+		byte[] bytes = new byte[probeSize];
+
+		long start = 0;
+		if (FileRegion.read(file, 0, bytes, 10) == 10 && FileRegion.matches(bytes, 0, "ID3")) {
+			int tagSize = (bytes[6] & 0x7F) << 21 | (bytes[7] & 0x7F) << 14 | (bytes[8] & 0x7F) << 7
+					| (bytes[9] & 0x7F);
+			boolean hasFooter = (bytes[5] & 0x10) != 0;
+			start = 10 + tagSize + (hasFooter ? 10 : 0);
+		}
+
+		int length = FileRegion.read(file, start, bytes, bytes.length);
+		for (int i = 0; i + 4 <= length; i++) {
+			int frameSize = getFrameSize(FileRegion.getIntBE(bytes, i));
+			if (frameSize < 0) {
+				continue;
+			}
+
+			int next = i + frameSize;
+			if (next + 4 <= length && getFrameSize(FileRegion.getIntBE(bytes, next)) < 0) {
+				continue;
+			}
+
+			return probeDuration(file, fileLength, start + i, bytes, i, length);
+		}
+		return -1;
+	}
+
+	private static float probeDuration(FileHandle file, long fileLength, long frameOffset, byte[] bytes, int frame,
+			int length) {
+		int headerstring = FileRegion.getIntBE(bytes, frame);
+		int version = getVersion(headerstring);
+		int layer = 4 - ((headerstring >>> 17) & 3);
+		int sampleRate = Mp3Header.frequencies[version][(headerstring >>> 10) & 3];
+		int bitrate = Mp3Header.bitrates[version][layer - 1][(headerstring >>> 12) & 0xF];
+		boolean mono = ((headerstring >>> 6) & 3) == Mp3Header.SINGLE_CHANNEL;
+		int samplesPerFrame = layer == 1 ? 384 : layer == 2 || version == Mp3Header.MPEG1 ? 1152 : 576;
+
+		int xingOffset = frame + 4 + (version == Mp3Header.MPEG1 ? (mono ? 17 : 32) : (mono ? 9 : 17));
+		if (xingOffset + 8 <= length
+				&& (FileRegion.matches(bytes, xingOffset, "Xing") || FileRegion.matches(bytes, xingOffset, "Info"))) {
+			int flags = FileRegion.getIntBE(bytes, xingOffset + 4);
+			int position = xingOffset + 8;
+			long frames = -1;
+			if ((flags & 0x01) != 0 && position + 4 <= length) {
+				frames = FileRegion.getIntBE(bytes, position) & 0xFFFFFFFFL;
+				position += 4;
+			}
+			position += (flags & 0x02) != 0 ? 4 : 0;
+			position += (flags & 0x04) != 0 ? 100 : 0;
+			position += (flags & 0x08) != 0 ? 4 : 0;
+
+			if (frames > 0) {
+				long samples = frames * samplesPerFrame;
+				if (position + 24 <= length && (FileRegion.matches(bytes, position, "LAME")
+						|| FileRegion.matches(bytes, position, "Lavc") || FileRegion.matches(bytes, position, "Lavf"))) {
+					int delay = (bytes[position + 21] & 0xFF) << 4 | (bytes[position + 22] & 0xFF) >>> 4;
+					int padding = (bytes[position + 22] & 0x0F) << 8 | (bytes[position + 23] & 0xFF);
+					if (samples > delay + padding) {
+						samples -= delay + padding;
+					}
+				}
+				return (float) samples / sampleRate;
+			}
+		}
+
+		int vbriOffset = frame + 4 + 32;
+		if (vbriOffset + 18 <= length && FileRegion.matches(bytes, vbriOffset, "VBRI")) {
+			long frames = FileRegion.getIntBE(bytes, vbriOffset + 14) & 0xFFFFFFFFL;
+			if (frames > 0) {
+				return (float) (frames * samplesPerFrame) / sampleRate;
+			}
+		}
+
+		long end = fileLength;
+		byte[] tag = new byte[3];
+		if (fileLength - frameOffset > 128 && FileRegion.read(file, fileLength - 128, tag, 3) == 3
+				&& FileRegion.matches(tag, 0, "TAG")) {
+			end -= 128;
+		}
+		return (end - frameOffset) * 8f / bitrate;
+	}
+
+	/**
+	 * @return size of the frame with the given header or -1 when header is not valid frame header
+	 */
+	private static int getFrameSize(int headerstring) {
+		if ((headerstring & 0xFFE00000) != 0xFFE00000 || ((headerstring >>> 19) & 3) == 1
+				|| ((headerstring >>> 17) & 3) == 0) {
+			return -1;
+		}
+
+		int bitrateIndex = (headerstring >>> 12) & 0xF;
+		int sampleRateIndex = (headerstring >>> 10) & 3;
+		if (bitrateIndex == 0 || bitrateIndex == 15 || sampleRateIndex == 3) {
+			return -1;
+		}
+
+		int version = getVersion(headerstring);
+		int layer = 4 - ((headerstring >>> 17) & 3);
+		int bitrate = Mp3Header.bitrates[version][layer - 1][bitrateIndex];
+		int sampleRate = Mp3Header.frequencies[version][sampleRateIndex];
+		int padding = (headerstring >>> 9) & 1;
+
+		if (layer == 1) {
+			return (12 * bitrate / sampleRate + padding) * 4;
+		} else if (layer == 3 && version != Mp3Header.MPEG1) {
+			return 72 * bitrate / sampleRate + padding;
+		} else {
+			return 144 * bitrate / sampleRate + padding;
+		}
+	}
+
+	private static int getVersion(int headerstring) {
+		switch ((headerstring >>> 19) & 3) {
+		case 3:
+			return Mp3Header.MPEG1;
+		case 2:
+			return Mp3Header.MPEG2_LSF;
+		default:
+			return Mp3Header.MPEG25_LSF;
+		}
+	}
+
 	private Mp3File() {
 	}
 
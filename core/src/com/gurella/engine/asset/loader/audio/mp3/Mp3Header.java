@@ -7,7 +7,7 @@ public class Mp3Header {
 	private static final byte[] vbri = new byte[] { 'V', 'B', 'R', 'I' };
 	private static final double[] h_vbr_time_per_frame = { -1, 384, 1152, 1152 };
 	//@formatter:off
-	private static final int[][] frequencies = { { 22050, 24000, 16000, 1 }, { 44100, 48000, 32000, 1 }, { 11025, 12000, 8000, 1 } };
+	static final int[][] frequencies = { { 22050, 24000, 16000, 1 }, { 44100, 48000, 32000, 1 }, { 11025, 12000, 8000, 1 } };
 	private static final float ms_per_frame_array[][] = { { 8.707483f, 8.0f, 12.0f }, { 26.12245f, 24.0f, 36.0f }, { 26.12245f, 24.0f, 36.0f } };
 	public static final int bitrates[][][] = {
 			{ { 0, 32000, 48000, 56000, 64000, 80000, 96000, 112000, 128000, 144000, 160000, 176000, 192000, 224000, 256000, 0 },
@@ -24,10 +24,10 @@ public class Mp3Header {
 	};
 	//@formatter:on
 
-	private static final int MPEG2_LSF = 0;
-	private static final int MPEG25_LSF = 2;
-	private static final int MPEG1 = 1;
-	private static final int SINGLE_CHANNEL = 3;
+	static final int MPEG2_LSF = 0;
+	static final int MPEG25_LSF = 2;
+	static final int MPEG1 = 1;
+	static final int SINGLE_CHANNEL = 3;
 
 	private int h_layer, h_bitrate_index, h_padding_bit;
 	private int h_version;
@@ -7,6 +7,7 @@ import com.badlogic.gdx.utils.Array;
 import com.badlogic.gdx.utils.GdxRuntimeException;
 import com.badlogic.gdx.utils.LongArray;
 import com.badlogic.gdx.utils.Pool.Poolable;
+import com.gurella.engine.asset.loader.audio.FileRegion;
 import com.gurella.engine.asset.loader.audio.PushBackArrayInputStream;
 import com.badlogic.gdx.utils.Pools;
 
@@ -15,6 +16,10 @@ import com.badlogic.gdx.utils.Pools;
 public class VorbisFile implements Poolable {
 	private static final int CHUNKSIZE = 8500;
 
+	private static final int probeHeadSize = 4096;
+	/** Maximum page size is 65307 bytes, so the final page always starts within the tail. */
+	private static final int probeTailSize = 65536;
+
 	private static final int OV_FALSE = -1;
 	private static final int OV_EOF = -2;
 
@@ -53,6 +58,52 @@ public class VorbisFile implements Poolable {
 		}
 	}
 
+	/**
+	 * Computes duration from sample rate in the identification header and granule position of the final page, found
+	 * by reading the end of the file.
+	 * 
+	 * @return duration in seconds or -1 when headers can't be found or stream is chained
+	 */
+	public static float probeDuration(FileHandle file) {
+		long fileLength = file.length();
+		byte[] bytes = new byte[probeHeadSize];
+		int length = FileRegion.read(file, 0, bytes, bytes.length);
+		if (length < 27 || !FileRegion.matches(bytes, 0, "OggS") || (bytes[5] & 0x02) == 0) {
+			return -1;
+		}
+
+		int serialno = FileRegion.getIntLE(bytes, 14);
+		int packet = 27 + (bytes[26] & 0xFF);
+		if (packet + 16 > length || bytes[packet] != 1 || !FileRegion.matches(bytes, packet + 1, "vorbis")) {
+			return -1;
+		}
+
+		int rate = FileRegion.getIntLE(bytes, packet + 12);
+		if (rate <= 0) {
+			return -1;
+		}
+
+		int tailSize = (int) Math.min(fileLength, probeTailSize);
+		byte[] tail = tailSize == bytes.length ? bytes : new byte[tailSize];
+		length = FileRegion.read(file, fileLength - tailSize, tail, tailSize);
+		for (int i = length - 27; i >= 0; i--) {
+			if (!FileRegion.matches(tail, i, "OggS")) {
+				continue;
+			}
+
+			if (FileRegion.getIntLE(tail, i + 14) != serialno) {
+				return -1;
+			}
+
+			long granulepos = (FileRegion.getIntLE(tail, i + 6) & 0xFFFFFFFFL)
+					| (long) FileRegion.getIntLE(tail, i + 10) << 32;
+			if (granulepos != -1) {
+				return (float) granulepos / rate;
+			}
+		}
+		return -1;
+	}
+
 	private VorbisFile() {
 	}
 
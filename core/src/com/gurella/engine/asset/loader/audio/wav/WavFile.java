@@ -10,8 +10,14 @@ import com.badlogic.gdx.utils.GdxRuntimeException;
 import com.badlogic.gdx.utils.Pool.Poolable;
 import com.badlogic.gdx.utils.Pools;
 import com.badlogic.gdx.utils.StreamUtils;
+import com.gurella.engine.asset.loader.audio.FileRegion;
 
 public class WavFile implements Poolable {
+	private static final int probeSize = 4096;
+	private static final int pcmFormat = 1;
+	private static final int floatFormat = 3;
+	private static final int extensibleFormat = 0xFFFE;
+
 	private final WawHeader header = new WawHeader();
 	private InputStream stream;
 
@@ -25,6 +31,70 @@ public class WavFile implements Poolable {
 		}
 	}
 
+	/**
+	 * Computes duration from the fmt and data chunks (or sample count in the fact chunk for compressed formats).
+	 * Chunks are located by their headers, so files with chunks before the data chunk are handled as well.
+	 * 
+	 * @return duration in seconds or -1 when file isn't a valid wav file
+	 */
+	public static float probeDuration(FileHandle file) {
+		long fileLength = file.length();
+		byte[] bytes = new byte[probeSize];
+		int length = FileRegion.read(file, 0, bytes, bytes.length);
+		if (length < 12 || !FileRegion.matches(bytes, 0, "RIFF") || !FileRegion.matches(bytes, 8, "WAVE")) {
+			return -1;
+		}
+
+		long bufferOffset = 0;
+		long chunk = 12;
+		int formatTag = 0;
+		int sampleRate = 0;
+		int byteRate = 0;
+		long factSamples = -1;
+
+		while (chunk + 8 <= fileLength) {
+			if (chunk + 24 > bufferOffset + length) {
+				bufferOffset = chunk;
+				length = FileRegion.read(file, chunk, bytes, bytes.length);
+				if (length < 8) {
+					return -1;
+				}
+			}
+
+			int position = (int) (chunk - bufferOffset);
+			long size = FileRegion.getIntLE(bytes, position + 4) & 0xFFFFFFFFL;
+			if (FileRegion.matches(bytes, position, "fmt ") && position + 24 <= length) {
+				formatTag = FileRegion.getShortLE(bytes, position + 8);
+				sampleRate = FileRegion.getIntLE(bytes, position + 12);
+				byteRate = FileRegion.getIntLE(bytes, position + 16);
+			} else if (FileRegion.matches(bytes, position, "fact") && position + 12 <= length) {
+				factSamples = FileRegion.getIntLE(bytes, position + 8) & 0xFFFFFFFFL;
+			} else if (FileRegion.matches(bytes, position, "data")) {
+				long dataStart = chunk + 8;
+				if (size == 0 || size == 0xFFFFFFFFL || dataStart + size > fileLength) {
+					size = fileLength - dataStart;
+				}
+
+				if (sampleRate <= 0) {
+					return -1;
+				} else if (factSamples >= 0 && !isPcm(formatTag)) {
+					return (float) factSamples / sampleRate;
+				} else if (byteRate > 0) {
+					return (float) size / byteRate;
+				} else {
+					return -1;
+				}
+			}
+
+			chunk += 8 + size + (size & 1);
+		}
+		return -1;
+	}
+
+	private static boolean isPcm(int formatTag) {
+		return formatTag == pcmFormat || formatTag == floatFormat || formatTag == extensibleFormat;
+	}
+
 	private WavFile() {
 	}
 
@@ -8,10 +8,12 @@ import com.badlogic.gdx.graphics.g2d.BitmapFont.BitmapFontData;
 import com.badlogic.gdx.graphics.g2d.TextureRegion;
 import com.badlogic.gdx.utils.Array;
 import com.gurella.engine.asset.loader.BaseAssetLoader;
+import com.gurella.engine.asset.loader.ConcurrentAssetLoader;
 import com.gurella.engine.asset.loader.DependencyCollector;
 import com.gurella.engine.asset.loader.DependencySupplier;
 
-public class BitmapFontLoader extends BaseAssetLoader<BitmapFont, BitmapFontProperties> {
+public class BitmapFontLoader extends BaseAssetLoader<BitmapFont, BitmapFontProperties>
+		implements ConcurrentAssetLoader {
 	@Override
 	public Class<BitmapFontProperties> getPropertiesType() {
 		return BitmapFontProperties.class;
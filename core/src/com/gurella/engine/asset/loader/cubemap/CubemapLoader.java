@@ -5,10 +5,12 @@ import com.badlogic.gdx.graphics.Cubemap;
 import com.badlogic.gdx.graphics.CubemapData;
 import com.badlogic.gdx.graphics.glutils.KTXTextureData;
 import com.gurella.engine.asset.loader.BaseAssetLoader;
+import com.gurella.engine.asset.loader.ConcurrentAssetLoader;
 import com.gurella.engine.asset.loader.DependencyCollector;
 import com.gurella.engine.asset.loader.DependencySupplier;
 
-public class CubemapLoader extends BaseAssetLoader<Cubemap, CubemapProperties> {
+public class CubemapLoader extends BaseAssetLoader<Cubemap, CubemapProperties>
+		implements ConcurrentAssetLoader {
 	private static final CubemapProperties defaultProperties = new CubemapProperties();
 
 	@Override
@@ -5,10 +5,12 @@ import java.util.Locale;
 import com.badlogic.gdx.files.FileHandle;
 import com.badlogic.gdx.utils.I18NBundle;
 import com.gurella.engine.asset.loader.BaseAssetLoader;
+import com.gurella.engine.asset.loader.ConcurrentAssetLoader;
 import com.gurella.engine.asset.loader.DependencyCollector;
 import com.gurella.engine.asset.loader.DependencySupplier;
 
-public class I18NBundleLoader extends BaseAssetLoader<I18NBundle, I18NBundleProperties> {
+public class I18NBundleLoader extends BaseAssetLoader<I18NBundle, I18NBundleProperties>
+		implements ConcurrentAssetLoader {
 	@Override
 	public Class<I18NBundleProperties> getPropertiesType() {
 		return I18NBundleProperties.class;
@@ -7,6 +7,8 @@ import com.badlogic.gdx.utils.Pool;
 import com.gurella.engine.asset.loader.BaseAssetLoader;
 import com.gurella.engine.asset.loader.DependencyCollector;
 import com.gurella.engine.asset.loader.DependencySupplier;
+import com.gurella.engine.metatype.serialization.json.BinaryJsonDocument;
+import com.gurella.engine.metatype.serialization.json.BinaryJsonInput;
 import com.gurella.engine.metatype.serialization.json.JsonInput;
 import com.gurella.engine.metatype.serialization.json.JsonInput.SerializedObject;
 import com.gurella.engine.utils.PoolableJsonReader;
@@ -17,6 +19,7 @@ public class SelializedJsonLoader<T> extends BaseAssetLoader<T, SelializedJsonPr
 
 	private final Class<T> expectedType;
 	private final JsonInput input = new JsonInput();
+	private final BinaryJsonInput binaryInput = new BinaryJsonInput();
 
 	public SelializedJsonLoader(Class<T> expectedType) {
 		this.expectedType = expectedType;
@@ -30,7 +33,11 @@ public class SelializedJsonLoader<T> extends BaseAssetLoader<T, SelializedJsonPr
 	@Override
 	public void initDependencies(DependencyCollector collector, FileHandle assetFile) {
 		LoaderSerializedObject serializedObject = pool.obtain();
-		serializedObject.init(reader.parse(assetFile), collector, assetFile);
+		if (BinaryJsonDocument.isBinary(assetFile)) {
+			serializedObject.init(BinaryJsonDocument.open(assetFile), collector, assetFile);
+		} else {
+			serializedObject.init(reader.parse(assetFile), collector, assetFile);
+		}
 		put(assetFile, serializedObject);
 	}
 
@@ -38,9 +45,14 @@ public class SelializedJsonLoader<T> extends BaseAssetLoader<T, SelializedJsonPr
 	public void processAsync(DependencySupplier supplier, FileHandle assetFile, SelializedJsonProperties properties) {
 		LoaderSerializedObject serializedObject = get(assetFile);
 		serializedObject.supplier = supplier;
-		T deserialized = input.deserialize(serializedObject, expectedType);
+		T deserialized;
+		if (serializedObject.poolValue == null) {
+			deserialized = binaryInput.deserialize(serializedObject, expectedType);
+		} else {
+			deserialized = input.deserialize(serializedObject, expectedType);
+			reader.free(serializedObject.poolValue);
+		}
 		put(assetFile, deserialized);
-		reader.free(serializedObject.poolValue);
 		pool.free(serializedObject);
 	}
 
@@ -57,6 +69,15 @@ public class SelializedJsonLoader<T> extends BaseAssetLoader<T, SelializedJsonPr
 		void init(JsonValue rootValue, DependencyCollector collector, FileHandle assetFile) {
 			super.init(rootValue);
 			poolValue = rootValue;
+			collectDependencies(collector, assetFile);
+		}
+
+		void init(BinaryJsonDocument document, DependencyCollector collector, FileHandle assetFile) {
+			super.init(document);
+			collectDependencies(collector, assetFile);
+		}
+
+		private void collectDependencies(DependencyCollector collector, FileHandle assetFile) {
 			this.fileType = assetFile.type();
 			for (int i = 0, n = getExternalDependenciesCount(); i < n; i++) {
 				String fileName = getExternalDependencyPath(i);
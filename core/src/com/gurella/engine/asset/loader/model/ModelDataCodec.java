@@ -0,0 +1,517 @@
+package com.gurella.engine.asset.loader.model;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UnsupportedEncodingException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+
+import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.graphics.VertexAttribute;
+import com.badlogic.gdx.graphics.g3d.model.data.ModelAnimation;
+import com.badlogic.gdx.graphics.g3d.model.data.ModelData;
+import com.badlogic.gdx.graphics.g3d.model.data.ModelMaterial;
+import com.badlogic.gdx.graphics.g3d.model.data.ModelMaterial.MaterialType;
+import com.badlogic.gdx.graphics.g3d.model.data.ModelMesh;
+import com.badlogic.gdx.graphics.g3d.model.data.ModelMeshPart;
+import com.badlogic.gdx.graphics.g3d.model.data.ModelNode;
+import com.badlogic.gdx.graphics.g3d.model.data.ModelNodeAnimation;
+import com.badlogic.gdx.graphics.g3d.model.data.ModelNodeKeyframe;
+import com.badlogic.gdx.graphics.g3d.model.data.ModelNodePart;
+import com.badlogic.gdx.graphics.g3d.model.data.ModelTexture;
+import com.badlogic.gdx.math.Matrix4;
+import com.badlogic.gdx.math.Quaternion;
+import com.badlogic.gdx.math.Vector2;
+import com.badlogic.gdx.math.Vector3;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.ArrayMap;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+import com.gurella.engine.asset.cache.ProcessedAssetCache;
+
+/**
+ * Binary form of {@link ModelData} stored in {@link ProcessedAssetCache}. Vertices and indices are written as plain
+ * arrays and read in bulk, other values follow them in declaration order. Nullable values and arrays are prefixed
+ * with presence flag or -1 count.
+ */
+final class ModelDataCodec {
+	static final String kind = "model1";
+	private static final int magic = 0x474D444C;
+
+	private ModelDataCodec() {
+	}
+
+	static byte[] write(ModelData data) {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream(estimateSize(data));
+		DataOutputStream out = new DataOutputStream(bytes);
+		try {
+			out.writeInt(magic);
+			writeString(out, data.id);
+			out.writeShort(data.version[0]);
+			out.writeShort(data.version[1]);
+
+			out.writeInt(data.meshes.size);
+			for (int i = 0; i < data.meshes.size; i++) {
+				writeMesh(out, data.meshes.get(i));
+			}
+
+			out.writeInt(data.materials.size);
+			for (int i = 0; i < data.materials.size; i++) {
+				writeMaterial(out, data.materials.get(i));
+			}
+
+			out.writeInt(data.nodes.size);
+			for (int i = 0; i < data.nodes.size; i++) {
+				writeNode(out, data.nodes.get(i));
+			}
+
+			out.writeInt(data.animations.size);
+			for (int i = 0; i < data.animations.size; i++) {
+				writeAnimation(out, data.animations.get(i));
+			}
+
+			out.flush();
+			return bytes.toByteArray();
+		} catch (IOException e) {
+			throw new GdxRuntimeException(e);
+		}
+	}
+
+	private static int estimateSize(ModelData data) {
+		int size = 1024;
+		for (int i = 0; i < data.meshes.size; i++) {
+			ModelMesh mesh = data.meshes.get(i);
+			size += mesh.vertices == null ? 0 : mesh.vertices.length * 4;
+			for (int j = 0, n = mesh.parts == null ? 0 : mesh.parts.length; j < n; j++) {
+				short[] indices = mesh.parts[j].indices;
+				size += indices == null ? 0 : indices.length * 2;
+			}
+		}
+		return size;
+	}
+
+	private static void writeMesh(DataOutputStream out, ModelMesh mesh) throws IOException {
+		writeString(out, mesh.id);
+
+		VertexAttribute[] attributes = mesh.attributes;
+		out.writeInt(attributes.length);
+		for (int i = 0; i < attributes.length; i++) {
+			VertexAttribute attribute = attributes[i];
+			out.writeInt(attribute.usage);
+			out.writeInt(attribute.numComponents);
+			writeString(out, attribute.alias);
+			out.writeInt(attribute.unit);
+		}
+
+		float[] vertices = mesh.vertices;
+		out.writeInt(vertices.length);
+		for (int i = 0; i < vertices.length; i++) {
+			out.writeFloat(vertices[i]);
+		}
+
+		ModelMeshPart[] parts = mesh.parts;
+		out.writeInt(parts.length);
+		for (int i = 0; i < parts.length; i++) {
+			ModelMeshPart part = parts[i];
+			writeString(out, part.id);
+			out.writeInt(part.primitiveType);
+			short[] indices = part.indices;
+			out.writeInt(indices.length);
+			for (int j = 0; j < indices.length; j++) {
+				out.writeShort(indices[j]);
+			}
+		}
+	}
+
+	private static void writeMaterial(DataOutputStream out, ModelMaterial material) throws IOException {
+		writeString(out, material.id);
+		out.writeInt(material.type == null ? -1 : material.type.ordinal());
+		writeColor(out, material.ambient);
+		writeColor(out, material.diffuse);
+		writeColor(out, material.specular);
+		writeColor(out, material.emissive);
+		writeColor(out, material.reflection);
+		out.writeFloat(material.shininess);
+		out.writeFloat(material.opacity);
+
+		Array<ModelTexture> textures = material.textures;
+		out.writeInt(textures == null ? -1 : textures.size);
+		for (int i = 0, n = textures == null ? 0 : textures.size; i < n; i++) {
+			ModelTexture texture = textures.get(i);
+			writeString(out, texture.id);
+			writeString(out, texture.fileName);
+			writeVector2(out, texture.uvTranslation);
+			writeVector2(out, texture.uvScaling);
+			out.writeInt(texture.usage);
+		}
+	}
+
+	private static void writeNode(DataOutputStream out, ModelNode node) throws IOException {
+		writeString(out, node.id);
+		writeVector3(out, node.translation);
+		writeQuaternion(out, node.rotation);
+		writeVector3(out, node.scale);
+		writeString(out, node.meshId);
+
+		ModelNodePart[] parts = node.parts;
+		out.writeInt(parts == null ? -1 : parts.length);
+		for (int i = 0, n = parts == null ? 0 : parts.length; i < n; i++) {
+			ModelNodePart part = parts[i];
+			writeString(out, part.materialId);
+			writeString(out, part.meshPartId);
+
+			ArrayMap<String, Matrix4> bones = part.bones;
+			out.writeInt(bones == null ? -1 : bones.size);
+			for (int j = 0, m = bones == null ? 0 : bones.size; j < m; j++) {
+				writeString(out, bones.getKeyAt(j));
+				float[] values = bones.getValueAt(j).val;
+				for (int k = 0; k < 16; k++) {
+					out.writeFloat(values[k]);
+				}
+			}
+
+			int[][] uvMapping = part.uvMapping;
+			out.writeInt(uvMapping == null ? -1 : uvMapping.length);
+			for (int j = 0, m = uvMapping == null ? 0 : uvMapping.length; j < m; j++) {
+				int[] mapping = uvMapping[j];
+				out.writeInt(mapping == null ? -1 : mapping.length);
+				for (int k = 0, l = mapping == null ? 0 : mapping.length; k < l; k++) {
+					out.writeInt(mapping[k]);
+				}
+			}
+		}
+
+		ModelNode[] children = node.children;
+		out.writeInt(children == null ? -1 : children.length);
+		for (int i = 0, n = children == null ? 0 : children.length; i < n; i++) {
+			writeNode(out, children[i]);
+		}
+	}
+
+	private static void writeAnimation(DataOutputStream out, ModelAnimation animation) throws IOException {
+		writeString(out, animation.id);
+		Array<ModelNodeAnimation> nodeAnimations = animation.nodeAnimations;
+		out.writeInt(nodeAnimations == null ? -1 : nodeAnimations.size);
+		for (int i = 0, n = nodeAnimations == null ? 0 : nodeAnimations.size; i < n; i++) {
+			ModelNodeAnimation nodeAnimation = nodeAnimations.get(i);
+			writeString(out, nodeAnimation.nodeId);
+
+			Array<ModelNodeKeyframe<Vector3>> translation = nodeAnimation.translation;
+			out.writeInt(translation == null ? -1 : translation.size);
+			for (int j = 0, m = translation == null ? 0 : translation.size; j < m; j++) {
+				ModelNodeKeyframe<Vector3> keyframe = translation.get(j);
+				out.writeFloat(keyframe.keytime);
+				writeVector3(out, keyframe.value);
+			}
+
+			Array<ModelNodeKeyframe<Quaternion>> rotation = nodeAnimation.rotation;
+			out.writeInt(rotation == null ? -1 : rotation.size);
+			for (int j = 0, m = rotation == null ? 0 : rotation.size; j < m; j++) {
+				ModelNodeKeyframe<Quaternion> keyframe = rotation.get(j);
+				out.writeFloat(keyframe.keytime);
+				writeQuaternion(out, keyframe.value);
+			}
+
+			Array<ModelNodeKeyframe<Vector3>> scaling = nodeAnimation.scaling;
+			out.writeInt(scaling == null ? -1 : scaling.size);
+			for (int j = 0, m = scaling == null ? 0 : scaling.size; j < m; j++) {
+				ModelNodeKeyframe<Vector3> keyframe = scaling.get(j);
+				out.writeFloat(keyframe.keytime);
+				writeVector3(out, keyframe.value);
+			}
+		}
+	}
+
+	private static void writeString(DataOutputStream out, String value) throws IOException {
+		if (value == null) {
+			out.writeInt(-1);
+		} else {
+			byte[] bytes = value.getBytes("UTF-8");
+			out.writeInt(bytes.length);
+			out.write(bytes);
+		}
+	}
+
+	private static void writeColor(DataOutputStream out, Color color) throws IOException {
+		out.writeBoolean(color != null);
+		if (color != null) {
+			out.writeFloat(color.r);
+			out.writeFloat(color.g);
+			out.writeFloat(color.b);
+			out.writeFloat(color.a);
+		}
+	}
+
+	private static void writeVector2(DataOutputStream out, Vector2 vector) throws IOException {
+		out.writeBoolean(vector != null);
+		if (vector != null) {
+			out.writeFloat(vector.x);
+			out.writeFloat(vector.y);
+		}
+	}
+
+	private static void writeVector3(DataOutputStream out, Vector3 vector) throws IOException {
+		out.writeBoolean(vector != null);
+		if (vector != null) {
+			out.writeFloat(vector.x);
+			out.writeFloat(vector.y);
+			out.writeFloat(vector.z);
+		}
+	}
+
+	private static void writeQuaternion(DataOutputStream out, Quaternion quaternion) throws IOException {
+		out.writeBoolean(quaternion != null);
+		if (quaternion != null) {
+			out.writeFloat(quaternion.x);
+			out.writeFloat(quaternion.y);
+			out.writeFloat(quaternion.z);
+			out.writeFloat(quaternion.w);
+		}
+	}
+
+	/**
+	 * @return decoded model data or null when buffer doesn't hold valid model data
+	 */
+	static ModelData read(ByteBuffer in) {
+		try {
+			if (in.getInt() != magic) {
+				return null;
+			}
+
+			ModelData data = new ModelData();
+			data.id = readString(in);
+			data.version[0] = in.getShort();
+			data.version[1] = in.getShort();
+
+			for (int i = 0, n = in.getInt(); i < n; i++) {
+				data.meshes.add(readMesh(in));
+			}
+
+			for (int i = 0, n = in.getInt(); i < n; i++) {
+				data.materials.add(readMaterial(in));
+			}
+
+			for (int i = 0, n = in.getInt(); i < n; i++) {
+				data.nodes.add(readNode(in));
+			}
+
+			for (int i = 0, n = in.getInt(); i < n; i++) {
+				data.animations.add(readAnimation(in));
+			}
+
+			return in.hasRemaining() ? null : data;
+		} catch (BufferUnderflowException e) {
+			return null;
+		} catch (RuntimeException e) {
+			return null;
+		}
+	}
+
+	private static ModelMesh readMesh(ByteBuffer in) {
+		ModelMesh mesh = new ModelMesh();
+		mesh.id = readString(in);
+
+		VertexAttribute[] attributes = new VertexAttribute[in.getInt()];
+		for (int i = 0; i < attributes.length; i++) {
+			int usage = in.getInt();
+			int numComponents = in.getInt();
+			String alias = readString(in);
+			int unit = in.getInt();
+			attributes[i] = new VertexAttribute(usage, numComponents, alias, unit);
+		}
+		mesh.attributes = attributes;
+
+		float[] vertices = new float[in.getInt()];
+		in.asFloatBuffer().get(vertices);
+		in.position(in.position() + vertices.length * 4);
+		mesh.vertices = vertices;
+
+		ModelMeshPart[] parts = new ModelMeshPart[in.getInt()];
+		for (int i = 0; i < parts.length; i++) {
+			ModelMeshPart part = new ModelMeshPart();
+			part.id = readString(in);
+			part.primitiveType = in.getInt();
+			short[] indices = new short[in.getInt()];
+			in.asShortBuffer().get(indices);
+			in.position(in.position() + indices.length * 2);
+			part.indices = indices;
+			parts[i] = part;
+		}
+		mesh.parts = parts;
+
+		return mesh;
+	}
+
+	private static ModelMaterial readMaterial(ByteBuffer in) {
+		ModelMaterial material = new ModelMaterial();
+		material.id = readString(in);
+		int type = in.getInt();
+		material.type = type < 0 ? null : MaterialType.values()[type];
+		material.ambient = readColor(in);
+		material.diffuse = readColor(in);
+		material.specular = readColor(in);
+		material.emissive = readColor(in);
+		material.reflection = readColor(in);
+		material.shininess = in.getFloat();
+		material.opacity = in.getFloat();
+
+		int textureCount = in.getInt();
+		if (textureCount >= 0) {
+			material.textures = new Array<ModelTexture>(textureCount);
+			for (int i = 0; i < textureCount; i++) {
+				ModelTexture texture = new ModelTexture();
+				texture.id = readString(in);
+				texture.fileName = readString(in);
+				texture.uvTranslation = readVector2(in);
+				texture.uvScaling = readVector2(in);
+				texture.usage = in.getInt();
+				material.textures.add(texture);
+			}
+		}
+
+		return material;
+	}
+
+	private static ModelNode readNode(ByteBuffer in) {
+		ModelNode node = new ModelNode();
+		node.id = readString(in);
+		node.translation = readVector3(in);
+		node.rotation = readQuaternion(in);
+		node.scale = readVector3(in);
+		node.meshId = readString(in);
+
+		int partCount = in.getInt();
+		if (partCount >= 0) {
+			node.parts = new ModelNodePart[partCount];
+			for (int i = 0; i < partCount; i++) {
+				ModelNodePart part = new ModelNodePart();
+				part.materialId = readString(in);
+				part.meshPartId = readString(in);
+
+				int boneCount = in.getInt();
+				if (boneCount >= 0) {
+					part.bones = new ArrayMap<String, Matrix4>(boneCount);
+					for (int j = 0; j < boneCount; j++) {
+						String key = readString(in);
+						Matrix4 matrix = new Matrix4();
+						for (int k = 0; k < 16; k++) {
+							matrix.val[k] = in.getFloat();
+						}
+						part.bones.put(key, matrix);
+					}
+				}
+
+				int mappingCount = in.getInt();
+				if (mappingCount >= 0) {
+					part.uvMapping = new int[mappingCount][];
+					for (int j = 0; j < mappingCount; j++) {
+						int length = in.getInt();
+						if (length >= 0) {
+							int[] mapping = new int[length];
+							for (int k = 0; k < length; k++) {
+								mapping[k] = in.getInt();
+							}
+							part.uvMapping[j] = mapping;
+						}
+					}
+				}
+
+				node.parts[i] = part;
+			}
+		}
+
+		int childCount = in.getInt();
+		if (childCount >= 0) {
+			node.children = new ModelNode[childCount];
+			for (int i = 0; i < childCount; i++) {
+				node.children[i] = readNode(in);
+			}
+		}
+
+		return node;
+	}
+
+	private static ModelAnimation readAnimation(ByteBuffer in) {
+		ModelAnimation animation = new ModelAnimation();
+		animation.id = readString(in);
+
+		int nodeAnimationCount = in.getInt();
+		if (nodeAnimationCount < 0) {
+			animation.nodeAnimations = null;
+			return animation;
+		}
+
+		for (int i = 0; i < nodeAnimationCount; i++) {
+			ModelNodeAnimation nodeAnimation = new ModelNodeAnimation();
+			nodeAnimation.nodeId = readString(in);
+
+			int translationCount = in.getInt();
+			if (translationCount >= 0) {
+				nodeAnimation.translation = new Array<ModelNodeKeyframe<Vector3>>(translationCount);
+				for (int j = 0; j < translationCount; j++) {
+					ModelNodeKeyframe<Vector3> keyframe = new ModelNodeKeyframe<Vector3>();
+					keyframe.keytime = in.getFloat();
+					keyframe.value = readVector3(in);
+					nodeAnimation.translation.add(keyframe);
+				}
+			}
+
+			int rotationCount = in.getInt();
+			if (rotationCount >= 0) {
+				nodeAnimation.rotation = new Array<ModelNodeKeyframe<Quaternion>>(rotationCount);
+				for (int j = 0; j < rotationCount; j++) {
+					ModelNodeKeyframe<Quaternion> keyframe = new ModelNodeKeyframe<Quaternion>();
+					keyframe.keytime = in.getFloat();
+					keyframe.value = readQuaternion(in);
+					nodeAnimation.rotation.add(keyframe);
+				}
+			}
+
+			int scalingCount = in.getInt();
+			if (scalingCount >= 0) {
+				nodeAnimation.scaling = new Array<ModelNodeKeyframe<Vector3>>(scalingCount);
+				for (int j = 0; j < scalingCount; j++) {
+					ModelNodeKeyframe<Vector3> keyframe = new ModelNodeKeyframe<Vector3>();
+					keyframe.keytime = in.getFloat();
+					keyframe.value = readVector3(in);
+					nodeAnimation.scaling.add(keyframe);
+				}
+			}
+
+			animation.nodeAnimations.add(nodeAnimation);
+		}
+
+		return animation;
+	}
+
+	private static String readString(ByteBuffer in) {
+		int length = in.getInt();
+		if (length < 0) {
+			return null;
+		}
+
+		byte[] bytes = new byte[length];
+		in.get(bytes);
+		try {
+			return new String(bytes, "UTF-8");
+		} catch (UnsupportedEncodingException e) {
+			throw new GdxRuntimeException(e);
+		}
+	}
+
+	private static Color readColor(ByteBuffer in) {
+		return in.get() == 0 ? null : new Color(in.getFloat(), in.getFloat(), in.getFloat(), in.getFloat());
+	}
+
+	private static Vector2 readVector2(ByteBuffer in) {
+		return in.get() == 0 ? null : new Vector2(in.getFloat(), in.getFloat());
+	}
+
+	private static Vector3 readVector3(ByteBuffer in) {
+		return in.get() == 0 ? null : new Vector3(in.getFloat(), in.getFloat(), in.getFloat());
+	}
+
+	private static Quaternion readQuaternion(ByteBuffer in) {
+		return in.get() == 0 ? null : new Quaternion(in.getFloat(), in.getFloat(), in.getFloat(), in.getFloat());
+	}
+}
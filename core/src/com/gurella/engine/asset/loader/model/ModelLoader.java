@@ -1,5 +1,6 @@
 package com.gurella.engine.asset.loader.model;
 
+import java.nio.ByteBuffer;
 import java.util.Iterator;
 
 import com.badlogic.gdx.Files.FileType;
@@ -11,6 +12,7 @@ import com.badlogic.gdx.graphics.g3d.model.data.ModelMaterial;
 import com.badlogic.gdx.graphics.g3d.model.data.ModelTexture;
 import com.badlogic.gdx.graphics.g3d.utils.TextureProvider;
 import com.badlogic.gdx.utils.Disposable;
+import com.gurella.engine.asset.cache.ProcessedAssetCache;
 import com.gurella.engine.asset.loader.BaseAssetLoader;
 import com.gurella.engine.asset.loader.DependencyCollector;
 import com.gurella.engine.asset.loader.DependencySupplier;
@@ -20,7 +22,7 @@ public abstract class ModelLoader<PROPS extends ModelProperties> extends BaseAss
 
 	@Override
 	public void initDependencies(DependencyCollector collector, FileHandle assetFile) {
-		ModelData modelData = loadModelData(assetFile);
+		ModelData modelData = loadCachedModelData(assetFile);
 		FileType fileType = assetFile.type();
 		for (final ModelMaterial modelMaterial : modelData.materials) {
 			if (modelMaterial.textures != null) {
@@ -32,6 +34,22 @@ public abstract class ModelLoader<PROPS extends ModelProperties> extends BaseAss
 		put(assetFile, modelData);
 	}
 
+	private ModelData loadCachedModelData(FileHandle assetFile) {
+		String key = ProcessedAssetCache.getKey(assetFile, ModelDataCodec.kind, getClass().getName());
+		ByteBuffer cached = key == null ? null : ProcessedAssetCache.read(key);
+		ModelData modelData = cached == null ? null : ModelDataCodec.read(cached);
+		ProcessedAssetCache.release(cached);
+		if (modelData != null) {
+			return modelData;
+		}
+
+		modelData = loadModelData(assetFile);
+		if (key != null) {
+			ProcessedAssetCache.write(key, ModelDataCodec.write(modelData));
+		}
+		return modelData;
+	}
+
 	@Override
 	public void processAsync(DependencySupplier provider, FileHandle assetFile, ModelProperties properties) {
 	}
@@ -6,6 +6,7 @@ import com.badlogic.gdx.files.FileHandle;
 import com.gurella.engine.asset.loader.BaseAssetLoader;
 import com.gurella.engine.asset.loader.DependencyCollector;
 import com.gurella.engine.asset.loader.DependencySupplier;
+import com.gurella.engine.asset.pack.AssetsPackFileHandle;
 
 public class MusicLoader extends BaseAssetLoader<Music, MusicProperties> {
 	@Override
@@ -19,7 +20,7 @@ public class MusicLoader extends BaseAssetLoader<Music, MusicProperties> {
 
 	@Override
 	public void processAsync(DependencySupplier provider, FileHandle assetFile, MusicProperties properties) {
-		put(assetFile, Gdx.audio.newMusic(assetFile));
+		put(assetFile, Gdx.audio.newMusic(AssetsPackFileHandle.toFileSystem(assetFile)));
 	}
 
 	@Override
@@ -3,10 +3,12 @@ package com.gurella.engine.asset.loader.pixmap;
 import com.badlogic.gdx.files.FileHandle;
 import com.badlogic.gdx.graphics.Pixmap;
 import com.gurella.engine.asset.loader.BaseAssetLoader;
+import com.gurella.engine.asset.loader.ConcurrentAssetLoader;
 import com.gurella.engine.asset.loader.DependencyCollector;
 import com.gurella.engine.asset.loader.DependencySupplier;
 
-public class PixmapLoader extends BaseAssetLoader<Pixmap, PixmapProperties> {
+public class PixmapLoader extends BaseAssetLoader<Pixmap, PixmapProperties>
+		implements ConcurrentAssetLoader {
 	@Override
 	public Class<PixmapProperties> getPropertiesType() {
 		return PixmapProperties.class;
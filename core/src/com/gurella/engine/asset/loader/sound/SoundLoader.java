@@ -6,6 +6,7 @@ import com.badlogic.gdx.files.FileHandle;
 import com.gurella.engine.asset.loader.BaseAssetLoader;
 import com.gurella.engine.asset.loader.DependencyCollector;
 import com.gurella.engine.asset.loader.DependencySupplier;
+import com.gurella.engine.asset.pack.AssetsPackFileHandle;
 
 public class SoundLoader extends BaseAssetLoader<Sound, SoundProperties> {
 	@Override
@@ -19,7 +20,7 @@ public class SoundLoader extends BaseAssetLoader<Sound, SoundProperties> {
 
 	@Override
 	public void processAsync(DependencySupplier provider, FileHandle assetFile, SoundProperties properties) {
-		put(assetFile, Gdx.audio.newSound(assetFile));
+		put(assetFile, Gdx.audio.newSound(AssetsPackFileHandle.toFileSystem(assetFile)));
 	}
 
 	@Override
@@ -0,0 +1,132 @@
+package com.gurella.engine.asset.loader.texture;
+
+import java.nio.ByteBuffer;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.graphics.GL20;
+import com.badlogic.gdx.graphics.Pixmap;
+import com.badlogic.gdx.graphics.Pixmap.Format;
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.TextureData;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+
+/**
+ * Wraps pixmap based {@link TextureData} and uploads it in bands of rows. Texture created with this data only
+ * allocates its storage, bands are uploaded with {@link #upload(int)}. When all rows are uploaded the wrapped data is
+ * used as is, so reloading the texture after context loss uploads it at once.
+ */
+final class IncrementalTextureData implements TextureData {
+	private final TextureData data;
+	private Pixmap pixmap;
+	private int uploadedRows;
+	private boolean complete;
+
+	Texture texture;
+
+	IncrementalTextureData(TextureData data) {
+		this.data = data;
+	}
+
+	static boolean isSupported(TextureData data) {
+		return data.getType() == TextureDataType.Pixmap && !data.useMipMaps();
+	}
+
+	@Override
+	public TextureDataType getType() {
+		return TextureDataType.Custom;
+	}
+
+	@Override
+	public boolean isPrepared() {
+		return data.isPrepared();
+	}
+
+	@Override
+	public void prepare() {
+		data.prepare();
+	}
+
+	@Override
+	public Pixmap consumePixmap() {
+		throw new GdxRuntimeException("This TextureData implementation does not return a Pixmap");
+	}
+
+	@Override
+	public boolean disposePixmap() {
+		return false;
+	}
+
+	@Override
+	public void consumeCustomData(int target) {
+		if (complete) {
+			Texture.uploadImageData(target, data, 0);
+			return;
+		}
+
+		pixmap = data.consumePixmap();
+		uploadedRows = 0;
+		Gdx.gl.glPixelStorei(GL20.GL_UNPACK_ALIGNMENT, 1);
+		Gdx.gl.glTexImage2D(target, 0, pixmap.getGLInternalFormat(), pixmap.getWidth(), pixmap.getHeight(), 0,
+				pixmap.getGLFormat(), pixmap.getGLType(), null);
+	}
+
+	/**
+	 * Uploads next band of rows to the texture.
+	 *
+	 * @return true when all rows are uploaded
+	 */
+	boolean upload(int maxBytes) {
+		int width = pixmap.getWidth();
+		int height = pixmap.getHeight();
+		ByteBuffer pixels = pixmap.getPixels();
+		int rowSize = pixels.capacity() / height;
+		int rows = Math.min(height - uploadedRows, Math.max(1, maxBytes / rowSize));
+
+		ByteBuffer band = pixels.duplicate();
+		band.limit((uploadedRows + rows) * rowSize);
+		band.position(uploadedRows * rowSize);
+
+		texture.bind();
+		Gdx.gl.glPixelStorei(GL20.GL_UNPACK_ALIGNMENT, 1);
+		Gdx.gl.glTexSubImage2D(texture.glTarget, 0, 0, uploadedRows, width, rows, pixmap.getGLFormat(),
+				pixmap.getGLType(), band);
+		Gdx.gl.glBindTexture(texture.glTarget, 0);
+
+		uploadedRows += rows;
+		if (uploadedRows < height) {
+			return false;
+		}
+
+		if (data.disposePixmap()) {
+			pixmap.dispose();
+		}
+		pixmap = null;
+		complete = true;
+		return true;
+	}
+
+	@Override
+	public int getWidth() {
+		return data.getWidth();
+	}
+
+	@Override
+	public int getHeight() {
+		return data.getHeight();
+	}
+
+	@Override
+	public Format getFormat() {
+		return data.getFormat();
+	}
+
+	@Override
+	public boolean useMipMaps() {
+		return data.useMipMaps();
+	}
+
+	@Override
+	public boolean isManaged() {
+		return data.isManaged();
+	}
+}
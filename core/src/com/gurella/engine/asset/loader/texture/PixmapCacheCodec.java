@@ -0,0 +1,60 @@
+package com.gurella.engine.asset.loader.texture;
+
+import java.nio.ByteBuffer;
+
+import com.badlogic.gdx.graphics.Pixmap;
+import com.badlogic.gdx.graphics.Pixmap.Format;
+import com.gurella.engine.asset.cache.ProcessedAssetCache;
+
+/**
+ * Decoded pixels stored in {@link ProcessedAssetCache}: width, height and format followed by raw pixel data, which
+ * is copied straight into a new {@link Pixmap} when read.
+ */
+final class PixmapCacheCodec {
+	static final String kind = "pixmap1";
+	private static final int headerSize = 12;
+
+	private PixmapCacheCodec() {
+	}
+
+	static byte[] write(Pixmap pixmap) {
+		ByteBuffer pixels = pixmap.getPixels().duplicate();
+		pixels.clear();
+
+		ByteBuffer out = ByteBuffer.allocate(headerSize + pixels.capacity());
+		out.putInt(pixmap.getWidth());
+		out.putInt(pixmap.getHeight());
+		out.putInt(pixmap.getFormat().ordinal());
+		out.put(pixels);
+		return out.array();
+	}
+
+	/**
+	 * @return pixmap with cached pixels or null when buffer doesn't hold valid pixmap
+	 */
+	static Pixmap read(ByteBuffer in) {
+		if (in.remaining() < headerSize) {
+			return null;
+		}
+
+		int width = in.getInt();
+		int height = in.getInt();
+		int format = in.getInt();
+		Format[] formats = Format.values();
+		if (width <= 0 || height <= 0 || format < 0 || format >= formats.length) {
+			return null;
+		}
+
+		Pixmap pixmap = new Pixmap(width, height, formats[format]);
+		ByteBuffer pixels = pixmap.getPixels();
+		if (pixels.capacity() != in.remaining()) {
+			pixmap.dispose();
+			return null;
+		}
+
+		pixels.clear();
+		pixels.put(in);
+		pixels.clear();
+		return pixmap;
+	}
+}
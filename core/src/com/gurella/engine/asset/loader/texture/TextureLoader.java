@@ -1,14 +1,24 @@
 package com.gurella.engine.asset.loader.texture;
 
+import java.nio.ByteBuffer;
+
 import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.graphics.Pixmap;
 import com.badlogic.gdx.graphics.Texture;
 import com.badlogic.gdx.graphics.TextureData;
+import com.badlogic.gdx.graphics.glutils.FileTextureData;
+import com.gurella.engine.asset.cache.ProcessedAssetCache;
 import com.gurella.engine.asset.loader.BaseAssetLoader;
+import com.gurella.engine.asset.loader.ConcurrentAssetLoader;
 import com.gurella.engine.asset.loader.DependencyCollector;
 import com.gurella.engine.asset.loader.DependencySupplier;
+import com.gurella.engine.asset.loader.IncrementalAssetLoader;
 
-public class TextureLoader extends BaseAssetLoader<Texture, TextureProperties> {
+public class TextureLoader extends BaseAssetLoader<Texture, TextureProperties>
+		implements ConcurrentAssetLoader, IncrementalAssetLoader<Texture, TextureProperties> {
 	private static final TextureProperties defaultProperties = new TextureProperties();
+	/** Maximum number of bytes uploaded in one finish step. */
+	private static final int uploadStepSize = 256 * 1024;
 
 	@Override
 	public Class<TextureProperties> getPropertiesType() {
@@ -24,16 +34,61 @@ public class TextureLoader extends BaseAssetLoader<Texture, TextureProperties> {
 		TextureProperties resolved = properties == null ? defaultProperties : properties;
 		TextureData textureData = TextureData.Factory.loadFromFile(assetFile, resolved.format,
 				resolved.generateMipMaps);
+		if (textureData instanceof FileTextureData) {
+			textureData = loadCached(assetFile, textureData, resolved);
+		}
 		if (!textureData.isPrepared()) {
 			textureData.prepare();
 		}
 		put(assetFile, textureData);
 	}
 
+	/**
+	 * Replaces decoding of the file with pixels from {@link ProcessedAssetCache} when they are cached.
+	 */
+	private static TextureData loadCached(FileHandle assetFile, TextureData textureData,
+			TextureProperties properties) {
+		String key = ProcessedAssetCache.getKey(assetFile, PixmapCacheCodec.kind, String.valueOf(properties.format));
+		if (key == null) {
+			return textureData;
+		}
+
+		ByteBuffer cached = ProcessedAssetCache.read(key);
+		Pixmap pixmap = cached == null ? null : PixmapCacheCodec.read(cached);
+		ProcessedAssetCache.release(cached);
+		if (pixmap == null) {
+			textureData.prepare();
+			pixmap = textureData.consumePixmap();
+			ProcessedAssetCache.write(key, PixmapCacheCodec.write(pixmap));
+		}
+		return new FileTextureData(assetFile, pixmap, properties.format, properties.generateMipMaps);
+	}
+
+	@Override
+	public boolean finishStep(DependencySupplier provider, FileHandle assetFile, TextureProperties properties) {
+		Object value = get(assetFile);
+		if (value instanceof IncrementalTextureData) {
+			return ((IncrementalTextureData) value).upload(uploadStepSize);
+		}
+
+		TextureData textureData = (TextureData) value;
+		// pixmaps have at most 4 bytes per pixel
+		if (!IncrementalTextureData.isSupported(textureData)
+				|| textureData.getWidth() * textureData.getHeight() * 4 <= uploadStepSize) {
+			return true;
+		}
+
+		IncrementalTextureData incrementalData = new IncrementalTextureData(textureData);
+		incrementalData.texture = new Texture(incrementalData);
+		put(assetFile, incrementalData);
+		return false;
+	}
+
 	@Override
 	public Texture finish(DependencySupplier provider, FileHandle assetFile, TextureProperties properties) {
-		TextureData textureData = remove(assetFile);
-		Texture texture = new Texture(textureData);
+		Object value = remove(assetFile);
+		Texture texture = value instanceof IncrementalTextureData ? ((IncrementalTextureData) value).texture
+				: new Texture((TextureData) value);
 		if (properties != null) {
 			texture.setFilter(properties.minFilter, properties.magFilter);
 			texture.setWrap(properties.wrapU, properties.wrapV);
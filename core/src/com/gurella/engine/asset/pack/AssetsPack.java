@@ -1,19 +1,257 @@
 package com.gurella.engine.asset.pack;
 
-import com.badlogic.gdx.utils.ObjectMap;
-import com.gurella.engine.asset.bundle.Bundle;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UnsupportedEncodingException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
 
-//TODO unused
-public class AssetsPack implements Bundle {
-	int count;
-	String[] ids;
-	Object[] assets;
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+import com.badlogic.gdx.utils.ObjectIntMap;
+import com.gurella.engine.utils.MappedFiles;
 
-	@Override
-	public ObjectMap<String, Object> getBundledAssets(ObjectMap<String, Object> out) {
+/**
+ * Archive holding many asset files in one file, written by {@link AssetsPackWriter}. Entries are located through the
+ * index in the header and read as slices of the (memory mapped where possible) archive buffer, so opening an entry
+ * doesn't touch the file system. Reads use absolute positions only, so a pack can be shared between threads.
+ * <p>
+ * Layout (little endian): magic, version, entry count, index and entry data. Index entry holds UTF-8 path and asset
+ * type name prefixed with their lengths, data offset, stored size, size of the original file and compression.
+ */
+public class AssetsPack {
+	static final byte[] magic = { 'G', 'P', 'A', 'K' };
+	static final int version = 1;
+	static final int headerSize = 12;
+	/** Offset, stored size, original size and compression of the index entry, following path and type. */
+	static final int entryInfoSize = 13;
+
+	static final byte stored = 0;
+	static final byte deflated = 1;
+
+	private final ByteBuffer buffer;
+	private final ObjectIntMap<String> entryIndices = new ObjectIntMap<String>();
+
+	private final String[] paths;
+	private final String[] types;
+	private final int[] offsets;
+	private final int[] storedSizes;
+	private final int[] sizes;
+	private final byte[] compressions;
+
+	public AssetsPack(ByteBuffer buffer) {
+		this.buffer = buffer;
+		buffer.order(ByteOrder.LITTLE_ENDIAN);
+
+		if (buffer.limit() < headerSize || !hasMagic()) {
+			throw new GdxRuntimeException("Not an assets pack.");
+		}
+		if (buffer.getInt(magic.length) != version) {
+			throw new GdxRuntimeException("Unsupported assets pack version: " + buffer.getInt(magic.length));
+		}
+
+		int count = buffer.getInt(8);
+		paths = new String[count];
+		types = new String[count];
+		offsets = new int[count];
+		storedSizes = new int[count];
+		sizes = new int[count];
+		compressions = new byte[count];
+
+		int position = headerSize;
 		for (int i = 0; i < count; i++) {
-			out.put(ids[i], assets[i]);
+			int pathLength = buffer.getShort(position) & 0xFFFF;
+			paths[i] = decodeString(position + 2, pathLength);
+			position += 2 + pathLength;
+
+			int typeLength = buffer.getShort(position) & 0xFFFF;
+			types[i] = typeLength == 0 ? null : decodeString(position + 2, typeLength);
+			position += 2 + typeLength;
+
+			offsets[i] = buffer.getInt(position);
+			storedSizes[i] = buffer.getInt(position + 4);
+			sizes[i] = buffer.getInt(position + 8);
+			compressions[i] = buffer.get(position + 12);
+			position += entryInfoSize;
+
+			entryIndices.put(paths[i], i);
+		}
+	}
+
+	private boolean hasMagic() {
+		for (int i = 0; i < magic.length; i++) {
+			if (buffer.get(i) != magic[i]) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private String decodeString(int offset, int length) {
+		byte[] bytes = new byte[length];
+		for (int i = 0; i < length; i++) {
+			bytes[i] = buffer.get(offset + i);
+		}
+
+		try {
+			return new String(bytes, "UTF-8");
+		} catch (UnsupportedEncodingException e) {
+			throw new GdxRuntimeException(e);
+		}
+	}
+
+	/**
+	 * Opens the pack from memory mapped file where possible, see {@link MappedFiles}.
+	 */
+	public static AssetsPack open(FileHandle file) {
+		return new AssetsPack(MappedFiles.map(file));
+	}
+
+	public int getEntryCount() {
+		return paths.length;
+	}
+
+	/**
+	 * @return index of the entry with the given path or -1
+	 */
+	public int indexOf(String path) {
+		return entryIndices.get(path, -1);
+	}
+
+	public boolean contains(String path) {
+		return entryIndices.containsKey(path);
+	}
+
+	public String getPath(int entry) {
+		return paths[entry];
+	}
+
+	/**
+	 * @return name of the asset type resolved when the entry was packed or null when type is unknown
+	 */
+	public String getType(int entry) {
+		return types[entry];
+	}
+
+	/**
+	 * @return size of the original file
+	 */
+	public int getSize(int entry) {
+		return sizes[entry];
+	}
+
+	public boolean isCompressed(int entry) {
+		return compressions[entry] != stored;
+	}
+
+	/**
+	 * @return content of the entry, slice of the pack buffer for stored entries
+	 */
+	public ByteBuffer getData(int entry) {
+		return compressions[entry] == stored ? slice(entry) : ByteBuffer.wrap(readBytes(entry));
+	}
+
+	private ByteBuffer slice(int entry) {
+		ByteBuffer slice = buffer.duplicate();
+		int offset = offsets[entry];
+		slice.limit(offset + storedSizes[entry]);
+		slice.position(offset);
+		return slice.slice();
+	}
+
+	public byte[] readBytes(int entry) {
+		ByteBuffer slice = slice(entry);
+		byte[] data = new byte[storedSizes[entry]];
+		slice.get(data);
+		return compressions[entry] == stored ? data : inflate(entry, data);
+	}
+
+	private byte[] inflate(int entry, byte[] data) {
+		byte[] result = new byte[sizes[entry]];
+		Inflater inflater = new Inflater();
+		try {
+			inflater.setInput(data);
+			int length = 0;
+			while (length < result.length && !inflater.finished()) {
+				int inflated = inflater.inflate(result, length, result.length - length);
+				if (inflated == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+					break;
+				}
+				length += inflated;
+			}
+			if (length != result.length) {
+				throw new GdxRuntimeException("Corrupted assets pack entry: " + paths[entry]);
+			}
+			return result;
+		} catch (DataFormatException e) {
+			throw new GdxRuntimeException("Corrupted assets pack entry: " + paths[entry], e);
+		} finally {
+			inflater.end();
+		}
+	}
+
+	public InputStream read(int entry) {
+		return compressions[entry] == stored ? new SliceInputStream(slice(entry))
+				: new ByteArrayInputStream(readBytes(entry));
+	}
+
+	private static class SliceInputStream extends InputStream {
+		private final ByteBuffer slice;
+		private int mark;
+
+		SliceInputStream(ByteBuffer slice) {
+			this.slice = slice;
+		}
+
+		@Override
+		public int read() throws IOException {
+			return slice.hasRemaining() ? slice.get() & 0xFF : -1;
+		}
+
+		@Override
+		public int read(byte[] bytes, int offset, int length) throws IOException {
+			if (length == 0) {
+				return 0;
+			}
+
+			int remaining = slice.remaining();
+			if (remaining == 0) {
+				return -1;
+			}
+
+			int count = Math.min(length, remaining);
+			slice.get(bytes, offset, count);
+			return count;
+		}
+
+		@Override
+		public long skip(long n) throws IOException {
+			int count = (int) Math.max(0, Math.min(n, slice.remaining()));
+			slice.position(slice.position() + count);
+			return count;
+		}
+
+		@Override
+		public int available() throws IOException {
+			return slice.remaining();
+		}
+
+		@Override
+		public boolean markSupported() {
+			return true;
+		}
+
+		@Override
+		public synchronized void mark(int readlimit) {
+			mark = slice.position();
+		}
+
+		@Override
+		public synchronized void reset() throws IOException {
+			slice.position(mark);
 		}
-		return out;
 	}
 }
@@ -0,0 +1,98 @@
+package com.gurella.engine.asset.pack;
+
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+
+import com.badlogic.gdx.Application.ApplicationType;
+import com.badlogic.gdx.Files.FileType;
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.files.FileHandle;
+
+/**
+ * Read only {@link FileHandle} of an {@link AssetsPack} entry. Path and type are the ones of the packed asset file, so
+ * handle is equal to the handle of the unpacked file.
+ * <p>
+ * Audio backends of Android and iOS don't read files through the handle, they open them by path or asset file
+ * descriptor. Loaders pass such files through {@link #toFileSystem(FileHandle)}, which extracts the entry to local
+ * storage once per handle.
+ */
+public class AssetsPackFileHandle extends FileHandle {
+	private static final String extractDirectory = ".gurella/packs/";
+
+	private final AssetsPack pack;
+	private final int entry;
+	private FileHandle extracted;
+
+	public AssetsPackFileHandle(AssetsPack pack, int entry, FileType type) {
+		super(pack.getPath(entry), type);
+		this.pack = pack;
+		this.entry = entry;
+	}
+
+	public AssetsPack getPack() {
+		return pack;
+	}
+
+	/**
+	 * @return content of the entry, see {@link AssetsPack#getData(int)}
+	 */
+	public ByteBuffer map() {
+		return pack.getData(entry);
+	}
+
+	/**
+	 * @return local file with the content of the entry, written on first call
+	 */
+	public synchronized FileHandle extract() {
+		if (extracted == null) {
+			FileHandle file = Gdx.files.local(extractDirectory + path());
+			file.writeBytes(readBytes(), false);
+			extracted = file;
+		}
+		return extracted;
+	}
+
+	/**
+	 * @return extracted file when the handle is a pack entry and the platform opens files by path, otherwise the
+	 *         handle itself
+	 */
+	public static FileHandle toFileSystem(FileHandle file) {
+		if (!(file instanceof AssetsPackFileHandle) || Gdx.app == null) {
+			return file;
+		}
+
+		ApplicationType type = Gdx.app.getType();
+		return type == ApplicationType.Android || type == ApplicationType.iOS
+				? ((AssetsPackFileHandle) file).extract() : file;
+	}
+
+	@Override
+	public InputStream read() {
+		return pack.read(entry);
+	}
+
+	@Override
+	public byte[] readBytes() {
+		return pack.readBytes(entry);
+	}
+
+	@Override
+	public boolean exists() {
+		return true;
+	}
+
+	@Override
+	public boolean isDirectory() {
+		return false;
+	}
+
+	@Override
+	public long length() {
+		return pack.getSize(entry);
+	}
+
+	@Override
+	public long lastModified() {
+		return 0;
+	}
+}
@@ -0,0 +1,176 @@
+package com.gurella.engine.asset.pack;
+
+import static com.gurella.engine.asset.pack.AssetsPack.deflated;
+import static com.gurella.engine.asset.pack.AssetsPack.entryInfoSize;
+import static com.gurella.engine.asset.pack.AssetsPack.headerSize;
+import static com.gurella.engine.asset.pack.AssetsPack.magic;
+import static com.gurella.engine.asset.pack.AssetsPack.stored;
+import static com.gurella.engine.asset.pack.AssetsPack.version;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UnsupportedEncodingException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.zip.Deflater;
+
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+import com.badlogic.gdx.utils.ObjectSet;
+import com.badlogic.gdx.utils.StreamUtils;
+import com.gurella.engine.asset.descriptor.AssetDescriptors;
+
+/**
+ * Packs asset files into an {@link AssetsPack} archive. Entries are compressed with deflate when requested and only
+ * when it makes them smaller, formats that are already compressed (png, jpg, ogg...) are usually better stored.
+ */
+public class AssetsPackWriter {
+	private final Array<Entry> entries = new Array<Entry>();
+	private final ObjectSet<String> paths = new ObjectSet<String>();
+
+	public AssetsPackWriter add(String path, FileHandle file) {
+		return add(path, file, false);
+	}
+
+	public AssetsPackWriter add(String path, FileHandle file, boolean compress) {
+		return add(path, file.readBytes(), compress);
+	}
+
+	/**
+	 * @param path
+	 *            path of the entry, the same as file name of the asset that is resolved from the pack
+	 */
+	public AssetsPackWriter add(String path, byte[] data, boolean compress) {
+		String normalizedPath = path.replace('\\', '/');
+		if (!paths.add(normalizedPath)) {
+			throw new IllegalArgumentException("Duplicate entry: " + normalizedPath);
+		}
+
+		Class<?> assetType = AssetDescriptors.getAssetType(normalizedPath);
+		entries.add(new Entry(normalizedPath, assetType == null ? "" : assetType.getName(), data, compress));
+		return this;
+	}
+
+	/**
+	 * Adds all files in the directory and its subdirectories. Paths of entries are relative to the directory and
+	 * prefixed with the given prefix.
+	 */
+	public AssetsPackWriter addDirectory(FileHandle directory, String prefix, boolean compress) {
+		FileHandle[] children = directory.list();
+		for (int i = 0; i < children.length; i++) {
+			FileHandle child = children[i];
+			String path = prefix + child.name();
+			if (child.isDirectory()) {
+				addDirectory(child, path + "/", compress);
+			} else {
+				add(path, child, compress);
+			}
+		}
+		return this;
+	}
+
+	public int getEntryCount() {
+		return entries.size;
+	}
+
+	public void write(FileHandle file) {
+		OutputStream output = file.write(false);
+		try {
+			write(output);
+		} catch (IOException e) {
+			throw new GdxRuntimeException("Error writing assets pack: " + file.path(), e);
+		} finally {
+			StreamUtils.closeQuietly(output);
+		}
+	}
+
+	public void write(OutputStream output) throws IOException {
+		int indexSize = 0;
+		for (int i = 0; i < entries.size; i++) {
+			Entry entry = entries.get(i);
+			indexSize += 4 + entry.path.length + entry.type.length + entryInfoSize;
+		}
+
+		ByteBuffer header = ByteBuffer.allocate(headerSize + indexSize).order(ByteOrder.LITTLE_ENDIAN);
+		header.put(magic);
+		header.putInt(version);
+		header.putInt(entries.size);
+
+		int offset = headerSize + indexSize;
+		for (int i = 0; i < entries.size; i++) {
+			Entry entry = entries.get(i);
+			header.putShort((short) entry.path.length);
+			header.put(entry.path);
+			header.putShort((short) entry.type.length);
+			header.put(entry.type);
+			header.putInt(offset);
+			header.putInt(entry.data.length);
+			header.putInt(entry.size);
+			header.put(entry.compression);
+			offset += entry.data.length;
+		}
+
+		output.write(header.array());
+		for (int i = 0; i < entries.size; i++) {
+			output.write(entries.get(i).data);
+		}
+	}
+
+	private static byte[] encodeString(String value) {
+		try {
+			byte[] bytes = value.getBytes("UTF-8");
+			if (bytes.length > 0xFFFF) {
+				throw new IllegalArgumentException("Value too long: " + value);
+			}
+			return bytes;
+		} catch (UnsupportedEncodingException e) {
+			throw new GdxRuntimeException(e);
+		}
+	}
+
+	private static byte[] deflate(byte[] data) {
+		Deflater deflater = new Deflater(Deflater.BEST_COMPRESSION);
+		try {
+			deflater.setInput(data);
+			deflater.finish();
+			byte[] buffer = new byte[data.length];
+			int length = 0;
+			while (!deflater.finished() && length < buffer.length) {
+				length += deflater.deflate(buffer, length, buffer.length - length);
+			}
+			if (!deflater.finished()) {
+				return null;
+			}
+
+			byte[] result = new byte[length];
+			System.arraycopy(buffer, 0, result, 0, length);
+			return result;
+		} finally {
+			deflater.end();
+		}
+	}
+
+	private static class Entry {
+		final byte[] path;
+		final byte[] type;
+		final byte[] data;
+		final int size;
+		final byte compression;
+
+		Entry(String path, String type, byte[] data, boolean compress) {
+			this.path = encodeString(path);
+			this.type = encodeString(type);
+			size = data.length;
+
+			byte[] compressed = compress ? deflate(data) : null;
+			if (compressed == null || compressed.length >= data.length) {
+				this.data = data;
+				compression = stored;
+			} else {
+				this.data = compressed;
+				compression = deflated;
+			}
+		}
+	}
+}
@@ -1,21 +1,28 @@
 package com.gurella.engine.asset.persister.json;
 
+import java.io.File;
 import java.io.OutputStream;
 
 import com.badlogic.gdx.files.FileHandle;
 import com.badlogic.gdx.utils.GdxRuntimeException;
-import com.badlogic.gdx.utils.JsonReader;
-import com.badlogic.gdx.utils.JsonWriter.OutputType;
 import com.gurella.engine.asset.AssetId;
 import com.gurella.engine.asset.descriptor.AssetDescriptors;
 import com.gurella.engine.asset.persister.AssetPersister;
 import com.gurella.engine.async.AsyncService;
 import com.gurella.engine.metatype.serialization.json.JsonOutput;
 
+/**
+ * Streams pretty printed json into a temporary sibling file which replaces the target file only after the asset is
+ * completely written, so a failed save leaves the previous content intact.
+ */
 public class SerializedJsonPersister<T> implements AssetPersister<T> {
+	private static final int bufferSize = 64 * 1024;
+	private static final String tempSuffix = ".tmp";
+	private static final String backupSuffix = ".bak";
+
 	private final Class<T> expectedType;
 	private final JsonOutput output = new JsonOutput();
-	
+
 	private final AssetId tempAssetId = new AssetId();
 
 	public SerializedJsonPersister(Class<T> expectedType) {
@@ -25,17 +32,47 @@ public class SerializedJsonPersister<T> implements AssetPersister<T> {
 	@Override
 	public void persist(FileHandle file, T asset) {
 		tempAssetId.set(file, AssetDescriptors.getAssetType(asset));
-		String string = output.serialize(tempAssetId, expectedType, asset);
-		OutputStream outputStream = file.write(false);
+		FileHandle tempFile = file.sibling(file.name() + tempSuffix);
 
 		try {
-			outputStream.write(new JsonReader().parse(string).prettyPrint(OutputType.minimal, 120).getBytes());
-			outputStream.close();
+			OutputStream outputStream = tempFile.write(false, bufferSize);
+			try {
+				output.serialize(tempAssetId, expectedType, asset, null, outputStream, true);
+			} finally {
+				outputStream.close();
+			}
+			commit(tempFile.file(), file.file());
 		} catch (Exception e) {
+			tempFile.delete();
 			String message = "Error while saving asset '" + file.path() + "'.";
 			// TODO LogService
 			AsyncService.getCurrentApplication().log(SerializedJsonPersister.class.getName(), message, e);
 			throw new GdxRuntimeException(message, e);
+		} finally {
+			output.reset();
+		}
+	}
+
+	/**
+	 * Renames written file to the target. Where rename can't replace an existing file the target is first moved
+	 * aside, so either the old or the new content is on disk at any time.
+	 */
+	private static void commit(File tempFile, File file) {
+		if (tempFile.renameTo(file)) {
+			return;
 		}
+
+		File backupFile = new File(file.getPath() + backupSuffix);
+		backupFile.delete();
+		if (!file.renameTo(backupFile)) {
+			throw new GdxRuntimeException("Can't replace '" + file.getPath() + "'.");
+		}
+
+		if (!tempFile.renameTo(file)) {
+			backupFile.renameTo(file);
+			throw new GdxRuntimeException("Can't replace '" + file.getPath() + "'.");
+		}
+
+		backupFile.delete();
 	}
 }
@@ -0,0 +1,50 @@
+package com.gurella.engine.asset.resolver;
+
+import com.badlogic.gdx.Files.FileType;
+import com.badlogic.gdx.files.FileHandle;
+import com.gurella.engine.asset.AssetId;
+import com.gurella.engine.asset.pack.AssetsPack;
+import com.gurella.engine.asset.pack.AssetsPackFileHandle;
+
+/**
+ * Resolves files of the given type from an {@link AssetsPack}. Files that are not in the pack are left to other
+ * resolvers.
+ */
+public class AssetsPackResolver implements FileHandleResolver {
+	private final AssetsPack pack;
+	private final FileType fileType;
+	private final AssetsPackFileHandle[] handles;
+
+	/**
+	 * Resolves {@link FileType#Internal} files from the pack.
+	 */
+	public AssetsPackResolver(FileHandle packFile) {
+		this(AssetsPack.open(packFile), FileType.Internal);
+	}
+
+	public AssetsPackResolver(AssetsPack pack, FileType fileType) {
+		this.pack = pack;
+		this.fileType = fileType;
+		handles = new AssetsPackFileHandle[pack.getEntryCount()];
+	}
+
+	public AssetsPack getPack() {
+		return pack;
+	}
+
+	@Override
+	public boolean accepts(AssetId assetId) {
+		return assetId.getFileType() == fileType && pack.contains(assetId.getFileName());
+	}
+
+	@Override
+	public FileHandle resolve(FileHandleFactory factory, AssetId assetId) {
+		int entry = pack.indexOf(assetId.getFileName());
+		AssetsPackFileHandle handle = handles[entry];
+		if (handle == null) {
+			handle = new AssetsPackFileHandle(pack, entry, fileType);
+			handles[entry] = handle;
+		}
+		return handle;
+	}
+}
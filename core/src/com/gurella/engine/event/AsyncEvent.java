@@ -1,6 +1,9 @@
 package com.gurella.engine.event;
 
-//TODO unused
+/**
+ * Event posted with {@link EventService#postAsync(Event)} that is notified on the application thread after it was
+ * dispatched.
+ */
 public interface AsyncEvent<SUBSCRIBER extends EventSubscription> extends Event<SUBSCRIBER> {
 	void onSuccess();
 
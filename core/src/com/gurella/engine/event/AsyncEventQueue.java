@@ -0,0 +1,186 @@
+package com.gurella.engine.event;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.badlogic.gdx.math.MathUtils;
+import com.badlogic.gdx.utils.TimeUtils;
+
+/**
+ * Bounded multi-producer/single-consumer ring buffer used to hand events from worker threads to the application
+ * thread without locking. Producers claim slots with a CAS on the tail sequence, the application thread drains
+ * published slots on update. When the buffer is full events are dropped and counted.
+ */
+public final class AsyncEventQueue {
+	public static final int defaultCapacity = 4096;
+
+	private final Slot[] slots;
+	private final int mask;
+
+	private final AtomicLong tail = new AtomicLong();
+	private volatile long head;
+
+	private final AtomicLong dropped = new AtomicLong();
+	private volatile long maxLatency;
+	private volatile int maxDepth;
+
+	AsyncEventQueue(int capacity) {
+		int size = MathUtils.nextPowerOfTwo(capacity);
+		slots = new Slot[size];
+		mask = size - 1;
+		for (int i = 0; i < size; i++) {
+			slots[i] = new Slot(i);
+		}
+	}
+
+	boolean offer(boolean global, int channel, Class<? extends EventSubscription> subscriptionType,
+			Dispatcher<?> dispatcher) {
+		Slot slot;
+		long position;
+
+		while (true) {
+			position = tail.get();
+			slot = slots[(int) (position & mask)];
+			long diff = slot.sequence - position;
+			if (diff == 0) {
+				if (tail.compareAndSet(position, position + 1)) {
+					break;
+				}
+			} else if (diff < 0) {
+				dropped.incrementAndGet();
+				return false;
+			}
+		}
+
+		slot.global = global;
+		slot.channel = channel;
+		slot.subscriptionType = subscriptionType;
+		slot.dispatcher = dispatcher;
+		slot.postTime = TimeUtils.nanoTime();
+		slot.sequence = position + 1;
+		return true;
+	}
+
+	/**
+	 * Dispatches events published before the call, at most one full buffer. Must be called only by the application
+	 * thread.
+	 */
+	void drain() {
+		long current = head;
+		int depth = (int) (tail.get() - current);
+		if (depth <= 0) {
+			return;
+		}
+
+		if (depth > maxDepth) {
+			maxDepth = depth;
+		}
+
+		long limit = current + slots.length;
+		while (current < limit) {
+			Slot slot = slots[(int) (current & mask)];
+			if (slot.sequence != current + 1) {
+				break;
+			}
+
+			boolean global = slot.global;
+			int channel = slot.channel;
+			Class<? extends EventSubscription> subscriptionType = slot.subscriptionType;
+			Dispatcher<?> dispatcher = slot.dispatcher;
+			long latency = TimeUtils.nanoTime() - slot.postTime;
+
+			slot.subscriptionType = null;
+			slot.dispatcher = null;
+			slot.sequence = current + slots.length;
+			head = ++current;
+
+			if (latency > maxLatency) {
+				maxLatency = latency;
+			}
+
+			dispatch(global, channel, subscriptionType, dispatcher);
+		}
+	}
+
+	private static void dispatch(boolean global, int channel, Class<? extends EventSubscription> subscriptionType,
+			Dispatcher<?> dispatcher) {
+		@SuppressWarnings("unchecked")
+		Class<EventSubscription> type = (Class<EventSubscription>) subscriptionType;
+		@SuppressWarnings("unchecked")
+		Dispatcher<EventSubscription> casted = (Dispatcher<EventSubscription>) dispatcher;
+
+		if (!(dispatcher instanceof AsyncEvent)) {
+			post(global, channel, type, casted);
+			return;
+		}
+
+		AsyncEvent<?> asyncEvent = (AsyncEvent<?>) dispatcher;
+		try {
+			post(global, channel, type, casted);
+		} catch (Exception e) {
+			asyncEvent.onException(e);
+			return;
+		}
+		asyncEvent.onSuccess();
+	}
+
+	private static void post(boolean global, int channel, Class<EventSubscription> subscriptionType,
+			Dispatcher<EventSubscription> dispatcher) {
+		if (global) {
+			EventService.post(subscriptionType, dispatcher);
+		} else {
+			EventService.post(channel, subscriptionType, dispatcher);
+		}
+	}
+
+	public int getCapacity() {
+		return slots.length;
+	}
+
+	/**
+	 * @return number of events waiting to be dispatched
+	 */
+	public int getDepth() {
+		return (int) Math.max(0, tail.get() - head);
+	}
+
+	/**
+	 * @return highest depth observed at the start of a drain since last {@link #resetStats()}
+	 */
+	public int getMaxDepth() {
+		return maxDepth;
+	}
+
+	/**
+	 * @return number of events rejected because the queue was full since last {@link #resetStats()}
+	 */
+	public long getDroppedCount() {
+		return dropped.get();
+	}
+
+	/**
+	 * @return longest time in nanoseconds an event waited between posting and dispatch since last
+	 *         {@link #resetStats()}
+	 */
+	public long getMaxLatency() {
+		return maxLatency;
+	}
+
+	public void resetStats() {
+		dropped.set(0);
+		maxLatency = 0;
+		maxDepth = 0;
+	}
+
+	private static class Slot {
+		volatile long sequence;
+		boolean global;
+		int channel;
+		Class<? extends EventSubscription> subscriptionType;
+		Dispatcher<?> dispatcher;
+		long postTime;
+
+		Slot(long sequence) {
+			this.sequence = sequence;
+		}
+	}
+}
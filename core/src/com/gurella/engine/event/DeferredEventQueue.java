@@ -0,0 +1,118 @@
+package com.gurella.engine.event;
+
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.ObjectSet;
+import com.badlogic.gdx.utils.Pool.Poolable;
+import com.gurella.engine.pool.PoolService;
+
+/**
+ * Queue of events posted with {@link EventService#postDeferred(int, Event)}. Events are coalesced by channel,
+ * subscription type and dispatcher, so the same event posted many times between two flushes is dispatched once, in
+ * order of its first posting.
+ */
+class DeferredEventQueue {
+	private final DeferredEvent lookup = new DeferredEvent();
+	private ObjectSet<DeferredEvent> pending = new ObjectSet<DeferredEvent>();
+	private Array<DeferredEvent> queue = new Array<DeferredEvent>();
+	private ObjectSet<DeferredEvent> flushingPending = new ObjectSet<DeferredEvent>();
+	private Array<DeferredEvent> flushingQueue = new Array<DeferredEvent>();
+	private boolean flushing;
+
+	synchronized <L extends EventSubscription> void add(int channel, Class<L> subscriptionType,
+			Dispatcher<L> dispatcher) {
+		lookup.set(channel, subscriptionType, dispatcher);
+		boolean contains = pending.contains(lookup);
+		lookup.reset();
+		if (contains) {
+			return;
+		}
+
+		DeferredEvent event = PoolService.obtain(DeferredEvent.class);
+		event.set(channel, subscriptionType, dispatcher);
+		pending.add(event);
+		queue.add(event);
+	}
+
+	/**
+	 * Dispatches all events queued before the call. Events queued by listeners during the flush are dispatched on the
+	 * next flush. Nested calls made while a flush is in progress return without dispatching; events stay queued for
+	 * the next flush.
+	 */
+	void flush() {
+		Array<DeferredEvent> events;
+		synchronized (this) {
+			if (flushing || queue.size == 0) {
+				return;
+			}
+
+			flushing = true;
+			events = queue;
+			queue = flushingQueue;
+			flushingQueue = events;
+
+			ObjectSet<DeferredEvent> temp = pending;
+			pending = flushingPending;
+			flushingPending = temp;
+		}
+
+		try {
+			for (int i = 0, n = events.size; i < n; i++) {
+				events.get(i).dispatch();
+			}
+		} finally {
+			synchronized (this) {
+				flushingPending.clear();
+				PoolService.freeAll(events);
+				events.clear();
+				flushing = false;
+			}
+		}
+	}
+
+	private static class DeferredEvent implements Poolable {
+		int channel;
+		Class<? extends EventSubscription> subscriptionType;
+		Dispatcher<?> dispatcher;
+
+		void set(int channel, Class<? extends EventSubscription> subscriptionType, Dispatcher<?> dispatcher) {
+			this.channel = channel;
+			this.subscriptionType = subscriptionType;
+			this.dispatcher = dispatcher;
+		}
+
+		void dispatch() {
+			@SuppressWarnings("unchecked")
+			Class<EventSubscription> type = (Class<EventSubscription>) subscriptionType;
+			@SuppressWarnings("unchecked")
+			Dispatcher<EventSubscription> casted = (Dispatcher<EventSubscription>) dispatcher;
+			EventService.post(channel, type, casted);
+		}
+
+		@Override
+		public int hashCode() {
+			return 31 * (31 * channel + subscriptionType.hashCode()) + System.identityHashCode(dispatcher);
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (this == obj) {
+				return true;
+			}
+
+			if (!(obj instanceof DeferredEvent)) {
+				return false;
+			}
+
+			DeferredEvent other = (DeferredEvent) obj;
+			return channel == other.channel && subscriptionType == other.subscriptionType
+					&& dispatcher == other.dispatcher;
+		}
+
+		@Override
+		public void reset() {
+			channel = 0;
+			subscriptionType = null;
+			dispatcher = null;
+		}
+	}
+}
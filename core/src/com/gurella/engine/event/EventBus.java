@@ -3,25 +3,42 @@ package com.gurella.engine.event;
 import com.badlogic.gdx.utils.Array;
 import com.badlogic.gdx.utils.ObjectMap;
 import com.badlogic.gdx.utils.ObjectSet;
-import com.badlogic.gdx.utils.Pool.Poolable;
 import com.gurella.engine.pool.PoolService;
 import com.gurella.engine.utils.OrderedIdentitySet;
 import com.gurella.engine.utils.Values;
 
-class EventBus implements Poolable {
+/**
+ * Listeners registry for one event scope. Mutations must be externally synchronized, while
+ * {@link #getListeners(Class)} is lock free: it reads immutable, priority sorted listener arrays published through a
+ * volatile reference that is rebuilt on every subscribe/unsubscribe.
+ */
+class EventBus {
+	static final Object[] emptyListeners = new Object[0];
+
+	private final SubscriberComparator comparator = new SubscriberComparator();
+
 	volatile int size;
 	final ObjectMap<Class<? extends EventSubscription>, OrderedIdentitySet<?>> listeners = new ObjectMap<Class<? extends EventSubscription>, OrderedIdentitySet<?>>();
+	private volatile ObjectMap<Class<? extends EventSubscription>, Object[]> snapshots = new ObjectMap<Class<? extends EventSubscription>, Object[]>();
+	private volatile DeferredEventQueue deferredEvents;
+	AsyncEventQueue asyncEvents;
 
-	void subscribe(Object subscriber, ObjectSet<Class<? extends EventSubscription>> subscriptions,
-			SubscriberComparator comparator) {
+	void subscribe(Object subscriber, ObjectSet<Class<? extends EventSubscription>> subscriptions) {
+		ObjectMap<Class<? extends EventSubscription>, Object[]> newSnapshots = null;
 		for (Class<? extends EventSubscription> subscription : subscriptions) {
 			OrderedIdentitySet<Object> subscribers = listenersByType(subscription);
 			if (subscribers.add(subscriber)) {
 				size++;
 				comparator.subscription = subscription;
 				subscribers.sort(comparator);
+				newSnapshots = newSnapshots == null ? copySnapshots() : newSnapshots;
+				newSnapshots.put(subscription, toArray(subscribers));
 			}
 		}
+
+		if (newSnapshots != null) {
+			snapshots = newSnapshots;
+		}
 	}
 
 	private <L> OrderedIdentitySet<L> listenersByType(Class<? extends EventSubscription> subscription) {
@@ -37,40 +54,67 @@ class EventBus implements Poolable {
 	}
 
 	void unsubscribe(Object subscriber, ObjectSet<Class<? extends EventSubscription>> subscriptions) {
+		ObjectMap<Class<? extends EventSubscription>, Object[]> newSnapshots = null;
 		for (Class<? extends EventSubscription> subscription : subscriptions) {
-			unsubscribe(subscriber, subscription);
-		}
-	}
-
-	protected void unsubscribe(Object subscriber, Class<? extends EventSubscription> subscription) {
-		OrderedIdentitySet<Object> subscribers = Values.cast(listeners.get(subscription));
-		if (subscribers == null) {
-			return;
-		}
+			OrderedIdentitySet<Object> subscribers = Values.cast(listeners.get(subscription));
+			if (subscribers == null || !subscribers.remove(subscriber)) {
+				continue;
+			}
 
-		if (subscribers.remove(subscriber)) {
 			size--;
+			newSnapshots = newSnapshots == null ? copySnapshots() : newSnapshots;
+			if (subscribers.size == 0) {
+				PoolService.free(listeners.remove(subscription));
+				newSnapshots.remove(subscription);
+			} else {
+				newSnapshots.put(subscription, toArray(subscribers));
+			}
 		}
 
-		if (subscribers.size == 0) {
-			PoolService.free(listeners.remove(subscription));
+		if (newSnapshots != null) {
+			snapshots = newSnapshots;
 		}
 	}
 
-	<L extends EventSubscription> Array<? super L> getSubscribers(Class<L> subscriptionType, Array<? super L> out) {
-		OrderedIdentitySet<L> listenersByType = Values.cast(listeners.get(subscriptionType));
-		if (listenersByType != null) {
-			listenersByType.orderedItems().appendTo(out);
+	private ObjectMap<Class<? extends EventSubscription>, Object[]> copySnapshots() {
+		return new ObjectMap<Class<? extends EventSubscription>, Object[]>(snapshots);
+	}
+
+	private static Object[] toArray(OrderedIdentitySet<Object> subscribers) {
+		Object[] items = new Object[subscribers.size];
+		subscribers.toArray(items);
+		return items;
+	}
+
+	/**
+	 * @return immutable, priority sorted listeners of subscription type. Returned array must not be modified.
+	 */
+	Object[] getListeners(Class<? extends EventSubscription> subscriptionType) {
+		Object[] items = snapshots.get(subscriptionType);
+		return items == null ? emptyListeners : items;
+	}
+
+	DeferredEventQueue getDeferredEvents() {
+		DeferredEventQueue queue = deferredEvents;
+		if (queue == null) {
+			synchronized (this) {
+				queue = deferredEvents;
+				if (queue == null) {
+					queue = new DeferredEventQueue();
+					deferredEvents = queue;
+				}
+			}
 		}
-		return out;
+		return queue;
 	}
 
-	@Override
-	public void reset() {
-		size = 0;
-		for (OrderedIdentitySet<?> set : listeners.values()) {
-			PoolService.free(set);
+	<L extends EventSubscription> Array<? super L> getSubscribers(Class<L> subscriptionType, Array<? super L> out) {
+		Object[] items = getListeners(subscriptionType);
+		for (int i = 0, n = items.length; i < n; i++) {
+			@SuppressWarnings("unchecked")
+			L listener = (L) items[i];
+			out.add(listener);
 		}
-		listeners.clear();
+		return out;
 	}
 }
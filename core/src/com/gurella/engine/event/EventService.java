@@ -7,69 +7,100 @@ import com.badlogic.gdx.utils.IdentityMap;
 import com.badlogic.gdx.utils.IntMap;
 import com.badlogic.gdx.utils.ObjectSet;
 import com.gurella.engine.async.AsyncService;
-import com.gurella.engine.pool.PoolService;
 import com.gurella.engine.subscriptions.application.ApplicationShutdownListener;
-import com.gurella.engine.utils.OrderedIdentitySet;
+import com.gurella.engine.subscriptions.application.ApplicationUpdateListener;
+import com.gurella.engine.subscriptions.application.CommonUpdatePriority;
+import com.gurella.engine.utils.priority.Priority;
 
 //TODO add closeChannel()
 public class EventService {
-	private static final IdentityMap<Application, EventBus> globals = new IdentityMap<Application, EventBus>();
-	private static final SubscriberComparator globalComparator = new SubscriberComparator();
-	private static final IntMap<EventBus> channels = new IntMap<EventBus>();
-	private static final SubscriberComparator channelsComparator = new SubscriberComparator();
+	private static final Object globalsMutex = new Object();
+	private static volatile IdentityMap<Application, EventBus> globals = new IdentityMap<Application, EventBus>();
+	private static final int channelSegmentsMask = 63;
+	private static final ChannelSegment[] channelSegments = createChannelSegments();
 
-	private static EventBus singleton;
-	private static EventBus lastSelected;
-	private static Application lastApp;
+	private static volatile EventBus singleton;
 
 	private EventService() {
 	}
 
-	private static EventBus getGlobal() {
-		if (singleton != null) {
-			return singleton;
+	private static ChannelSegment[] createChannelSegments() {
+		ChannelSegment[] segments = new ChannelSegment[channelSegmentsMask + 1];
+		for (int i = 0; i < segments.length; i++) {
+			segments[i] = new ChannelSegment();
 		}
+		return segments;
+	}
 
-		EventBus bus;
-		boolean subscribe = false;
+	private static EventBus getGlobal() {
+		EventBus bus = singleton;
+		if (bus != null) {
+			return bus;
+		}
 
-		synchronized (globals) {
-			if (!AsyncService.isMultiApplicationEnvironment()) {
-				singleton = new EventBus();
-				return singleton;
+		if (AsyncService.isMultiApplicationEnvironment()) {
+			bus = globals.get(AsyncService.getCurrentApplication());
+			if (bus != null) {
+				return bus;
 			}
+		}
 
-			Application app = AsyncService.getCurrentApplication();
-			if (lastApp == app) {
-				return lastSelected;
-			}
+		boolean created = false;
+		boolean subscribeCleaner = false;
 
-			bus = globals.get(app);
-			if (bus == null) {
-				bus = new EventBus();
-				globals.put(app, bus);
-				subscribe = true;
+		synchronized (globalsMutex) {
+			if (!AsyncService.isMultiApplicationEnvironment()) {
+				bus = singleton;
+				if (bus == null) {
+					bus = newGlobalBus();
+					singleton = bus;
+					created = true;
+				}
+			} else {
+				Application app = AsyncService.getCurrentApplication();
+				bus = globals.get(app);
+				if (bus == null) {
+					bus = newGlobalBus();
+					IdentityMap<Application, EventBus> newGlobals = new IdentityMap<Application, EventBus>(globals);
+					newGlobals.put(app, bus);
+					globals = newGlobals;
+					created = true;
+					subscribeCleaner = true;
+				}
 			}
+		}
 
-			lastApp = app;
-			lastSelected = bus;
+		// subscribing obtains pooled objects which use this bus, so it can only happen after the bus is published
+		if (created) {
+			subscribe(new AsyncEventsDrainer(bus.asyncEvents));
 		}
 
-		if (subscribe) {
+		if (subscribeCleaner) {
 			subscribe(new Cleaner());
 		}
 
 		return bus;
 	}
 
+	/**
+	 * Creates application bus with its async event queue, so posting threads never create the queue themselves. Only
+	 * the thread that created the bus subscribes the drainer of the queue.
+	 */
+	private static EventBus newGlobalBus() {
+		EventBus bus = new EventBus();
+		bus.asyncEvents = new AsyncEventQueue(AsyncEventQueue.defaultCapacity);
+		return bus;
+	}
+
 	public static void subscribe(EventSubscription subscriber) {
 		ObjectSet<Class<? extends EventSubscription>> subscriptions = getSubscriptions(subscriber.getClass());
 		if (subscriptions.size == 0) {
 			return;
 		}
 
-		synchronized (globals) {
-			getGlobal().subscribe(subscriber, subscriptions, globalComparator);
+		EventBus bus = getGlobal();
+		synchronized (bus) {
+			bus.subscribe(subscriber, subscriptions);
 		}
 	}
 
@@ -79,8 +110,9 @@ public class EventService {
 			return;
 		}
 
-		synchronized (globals) {
-			getGlobal().unsubscribe(subscriber, subscriptions);
+		EventBus bus = getGlobal();
+		synchronized (bus) {
+			bus.unsubscribe(subscriber, subscriptions);
 		}
 	}
 
@@ -89,28 +121,15 @@ public class EventService {
 	}
 
 	public static <L extends EventSubscription> void post(Class<L> subscriptionType, Dispatcher<L> dispatcher) {
-		Object[] listenersByType;
-		int listenersSize;
-
-		synchronized (globals) {
-			@SuppressWarnings("unchecked")
-			OrderedIdentitySet<Object> temp = (OrderedIdentitySet<Object>) getGlobal().listeners.get(subscriptionType);
-			if (temp == null || temp.size == 0) {
-				return;
-			}
-
-			listenersSize = temp.size;
-			listenersByType = PoolService.obtainObjectArray(listenersSize, Integer.MAX_VALUE);
-			temp.toArray(listenersByType);
-		}
+		dispatch(getGlobal().getListeners(subscriptionType), dispatcher);
+	}
 
-		for (int i = 0; i < listenersSize; i++) {
+	private static <L extends EventSubscription> void dispatch(Object[] listeners, Dispatcher<L> dispatcher) {
+		for (int i = 0, n = listeners.length; i < n; i++) {
 			@SuppressWarnings("unchecked")
-			L listener = (L) listenersByType[i];
+			L listener = (L) listeners[i];
 			dispatcher.dispatch(listener);
 		}
-
-		PoolService.free(listenersByType);
 	}
 
 	public static void subscribe(int channel, EventSubscription subscriber) {
@@ -119,13 +138,16 @@ public class EventService {
 			return;
 		}
 
-		synchronized (channels) {
-			EventBus eventBus = channels.get(channel);
+		ChannelSegment segment = channelSegments[channel & channelSegmentsMask];
+		synchronized (segment) {
+			EventBus eventBus = segment.buses.get(channel);
 			if (eventBus == null) {
-				eventBus = PoolService.obtain(EventBus.class);
-				channels.put(channel, eventBus);
+				eventBus = new EventBus();
+				IntMap<EventBus> newBuses = new IntMap<EventBus>(segment.buses);
+				newBuses.put(channel, eventBus);
+				segment.buses = newBuses;
 			}
-			eventBus.subscribe(subscriber, subscriptions, channelsComparator);
+			eventBus.subscribe(subscriber, subscriptions);
 		}
 	}
 
@@ -135,22 +157,20 @@ public class EventService {
 			return;
 		}
 
-		EventBus emptyEventBus = null;
-		synchronized (channels) {
-			EventBus eventBus = channels.get(channel);
+		ChannelSegment segment = channelSegments[channel & channelSegmentsMask];
+		synchronized (segment) {
+			EventBus eventBus = segment.buses.get(channel);
 			if (eventBus == null) {
 				return;
 			}
 
 			eventBus.unsubscribe(subscriber, subscriptions);
 			if (eventBus.size == 0) {
-				emptyEventBus = eventBus;
+				IntMap<EventBus> newBuses = new IntMap<EventBus>(segment.buses);
+				newBuses.remove(channel);
+				segment.buses = newBuses;
 			}
 		}
-
-		if (emptyEventBus != null) {
-			PoolService.free(emptyEventBus);
-		}
 	}
 
 	public static <L extends EventSubscription> void post(int channel, Event<L> event) {
@@ -159,33 +179,86 @@ public class EventService {
 
 	public static <L extends EventSubscription> void post(int channel, Class<L> subscriptionType,
 			Dispatcher<L> dispatcher) {
-		Object[] listenersByType;
-		int listenersSize;
+		EventBus eventBus = channelSegments[channel & channelSegmentsMask].buses.get(channel);
+		if (eventBus != null) {
+			dispatch(eventBus.getListeners(subscriptionType), dispatcher);
+		}
+	}
 
-		synchronized (channels) {
-			EventBus eventBus = channels.get(channel);
-			if (eventBus == null) {
-				return;
-			}
+	/**
+	 * Queues event for dispatch on next {@link #flushDeferred()}. Repeated postings of the same event instance to the
+	 * same channel before the flush are coalesced into a single dispatch, so the event instance must not carry state
+	 * that differs between postings.
+	 */
+	public static <L extends EventSubscription> void postDeferred(int channel, Event<L> event) {
+		postDeferred(channel, event.getSubscriptionType(), event);
+	}
 
-			@SuppressWarnings("unchecked")
-			OrderedIdentitySet<Object> temp = (OrderedIdentitySet<Object>) eventBus.listeners.get(subscriptionType);
-			if (temp == null || temp.size == 0) {
-				return;
-			}
+	public static <L extends EventSubscription> void postDeferred(int channel, Class<L> subscriptionType,
+			Dispatcher<L> dispatcher) {
+		getGlobal().getDeferredEvents().add(channel, subscriptionType, dispatcher);
+	}
 
-			listenersSize = temp.size;
-			listenersByType = PoolService.obtainObjectArray(listenersSize, Integer.MAX_VALUE);
-			temp.toArray(listenersByType);
-		}
+	/**
+	 * Dispatches events queued with {@link #postDeferred(int, Event)}. Called by scenes during update, before
+	 * pre-render and cleanup phases.
+	 */
+	public static void flushDeferred() {
+		getGlobal().getDeferredEvents().flush();
+	}
 
-		for (int i = 0; i < listenersSize; i++) {
-			@SuppressWarnings("unchecked")
-			L listener = (L) listenersByType[i];
-			dispatcher.dispatch(listener);
+	/**
+	 * Posts event from any thread. Event is dispatched on the application thread during next application update. If
+	 * the event is an {@link AsyncEvent} it is notified about the outcome of dispatch.
+	 * 
+	 * @return false if the event was dropped because the queue is full
+	 */
+	public static <L extends EventSubscription> boolean postAsync(Event<L> event) {
+		return getAsyncEventQueue().offer(true, 0, event.getSubscriptionType(), event);
+	}
+
+	public static <L extends EventSubscription> boolean postAsync(Class<L> subscriptionType,
+			Dispatcher<L> dispatcher) {
+		return getAsyncEventQueue().offer(true, 0, subscriptionType, dispatcher);
+	}
+
+	public static <L extends EventSubscription> boolean postAsync(int channel, Event<L> event) {
+		return getAsyncEventQueue().offer(false, channel, event.getSubscriptionType(), event);
+	}
+
+	public static <L extends EventSubscription> boolean postAsync(int channel, Class<L> subscriptionType,
+			Dispatcher<L> dispatcher) {
+		return getAsyncEventQueue().offer(false, channel, subscriptionType, dispatcher);
+	}
+
+	/**
+	 * @return queue of events posted with {@link #postAsync(Event)} for current application, exposing its
+	 *         back-pressure statistics
+	 */
+	public static AsyncEventQueue getAsyncEventQueue() {
+		return getGlobal().asyncEvents;
+	}
+
+	/**
+	 * Channel buses are spread over segments so that creating or removing a channel copies only a fraction of all
+	 * channels. Buses are never pooled since posting threads may still hold a reference to a removed one.
+	 */
+	private static class ChannelSegment {
+		volatile IntMap<EventBus> buses = new IntMap<EventBus>();
+	}
+
+	@Priority(value = CommonUpdatePriority.ioPriority - 1, type = ApplicationUpdateListener.class)
+	private static class AsyncEventsDrainer implements ApplicationUpdateListener {
+		private final AsyncEventQueue queue;
+
+		AsyncEventsDrainer(AsyncEventQueue queue) {
+			this.queue = queue;
 		}
 
-		PoolService.free(listenersByType);
+		@Override
+		public void onUpdate() {
+			queue.drain();
+		}
 	}
 
 	private static class Cleaner implements ApplicationShutdownListener {
@@ -193,11 +266,10 @@ public class EventService {
 		public void onShutdown() {
 			EventService.unsubscribe(this);
 
-			synchronized (globals) {
-				if (globals.remove(AsyncService.getCurrentApplication()) == lastSelected) {
-					lastSelected = null;
-					lastApp = null;
-				}
+			synchronized (globalsMutex) {
+				IdentityMap<Application, EventBus> newGlobals = new IdentityMap<Application, EventBus>(globals);
+				newGlobals.remove(AsyncService.getCurrentApplication());
+				globals = newGlobals;
 			}
 		}
 	}
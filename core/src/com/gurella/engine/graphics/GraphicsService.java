@@ -220,6 +220,13 @@ public class GraphicsService {
 		return maxDrawBuffers;
 	}
 
+	/**
+	 * @return context shared by graphics tasks, see {@link #render(GraphicsTask)}
+	 */
+	public static GlContext getGlContext() {
+		return context;
+	}
+
 	public static void render(GraphicsTask task) {
 		synchronized (context) {
 			context.activate();
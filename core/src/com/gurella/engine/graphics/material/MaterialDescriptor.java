@@ -18,9 +18,11 @@ import com.gurella.engine.asset.loader.texture.TextureProperties;
 import com.gurella.engine.graphics.render.gl.BlendFunction;
 import com.gurella.engine.graphics.render.gl.CullFace;
 import com.gurella.engine.graphics.render.gl.DepthTestFunction;
+import com.gurella.engine.graphics.render.shader.generator.ShaderFeatureSource;
+import com.gurella.engine.graphics.render.shader.generator.ShaderFeatures;
 import com.gurella.engine.managedobject.ManagedObject;
 
-public class MaterialDescriptor extends ManagedObject {
+public class MaterialDescriptor extends ManagedObject implements ShaderFeatureSource {
 	public Color diffuseColor;
 	public final TextureAttributeProperties diffuseTexture = new TextureAttributeProperties();
 
@@ -75,6 +77,13 @@ public class MaterialDescriptor extends ManagedObject {
 		extractCullFaceAttribute(material);
 	}
 
+	@Override
+	public void collectShaderFeatures(ShaderFeatures features) {
+		if (normalTexture.texture != null) {
+			features.enable(ShaderFeatures.normalMap);
+		}
+	}
+
 	private static Color extractColorAttribute(Color currentValue, Material material, long attributeType) {
 		ColorAttribute colorAttribute = (ColorAttribute) material.get(attributeType);
 		if (colorAttribute == null) {
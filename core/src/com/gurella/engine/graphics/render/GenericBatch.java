@@ -14,12 +14,19 @@ import com.badlogic.gdx.graphics.glutils.ShapeRenderer.ShapeType;
 import com.badlogic.gdx.math.Matrix4;
 import com.badlogic.gdx.math.Vector3;
 import com.badlogic.gdx.utils.Disposable;
+import com.gurella.engine.graphics.GraphicsService;
+import com.gurella.engine.graphics.render.gl.GlContext;
 import com.gurella.engine.scene.transform.TransformComponent;
 
 public class GenericBatch implements Disposable {
-	private final PolygonSpriteBatch spriteBatch = new PolygonSpriteBatch();
-	private final ModelBatch modelBatch = new ModelBatch();
-	private final ShapeRenderer shapeRenderer = new ShapeRenderer();
+	public static final int renderer3d = 0;
+	public static final int renderer2d = 1;
+	public static final int rendererShape = 2;
+
+	private final GlContext glContext = GraphicsService.getGlContext();
+	private final PolygonSpriteBatch spriteBatch = new CountingSpriteBatch();
+	private final ModelBatch modelBatch = new CountingModelBatch();
+	private final ShapeRenderer shapeRenderer = new CountingShapeRenderer();
 
 	private Camera camera;
 	private Environment environment;
@@ -292,4 +299,44 @@ public class GenericBatch implements Disposable {
 		spriteBatch.dispose();
 		modelBatch.dispose();
 	}
+
+	/**
+	 * Counts draw calls of flushed sprites in {@link GlContext} stats.
+	 */
+	private final class CountingSpriteBatch extends PolygonSpriteBatch {
+		@Override
+		public void flush() {
+			int calls = renderCalls;
+			super.flush();
+			if (renderCalls > calls) {
+				glContext.countDrawCalls(renderCalls - calls);
+			}
+		}
+	}
+
+	/**
+	 * Counts draw calls of flushed renderables in {@link GlContext} stats, each renderable is drawn separately.
+	 */
+	private final class CountingModelBatch extends ModelBatch {
+		@Override
+		public void flush() {
+			if (renderables.size > 0) {
+				glContext.countDrawCalls(renderables.size);
+			}
+			super.flush();
+		}
+	}
+
+	/**
+	 * Counts draw calls of flushed shapes in {@link GlContext} stats, shapes are drawn with one call when they end.
+	 */
+	private final class CountingShapeRenderer extends ShapeRenderer {
+		@Override
+		public void end() {
+			if (getRenderer().getNumVertices() > 0) {
+				glContext.countDrawCalls(1);
+			}
+			super.end();
+		}
+	}
 }
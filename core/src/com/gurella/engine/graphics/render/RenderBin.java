@@ -1,13 +1,170 @@
 package com.gurella.engine.graphics.render;
 
-import java.util.Comparator;
+/**
+ * Render queue of items sorted by 64 bit keys. Keys are compared as unsigned and built with
+ * {@link #key(int, int, int, int, int)} so that items sharing layer, renderer, order and render state are submitted
+ * together. Blended items use {@link #blendedKey(int, int, int, int, int)}, which compares depth before render state,
+ * so they keep depth order across states. Sorting is a stable LSD radix sort on key bytes, passes over bytes that are equal for all keys are skipped.
+ */
+public class RenderBin<T> {
+	private static final int layerBits = 16;
+	private static final int rendererBits = 2;
+	private static final int orderBits = 12;
+	private static final int stateBits = 18;
+	private static final int depthBits = 16;
 
-import com.badlogic.gdx.utils.Array;
-import com.gurella.engine.graphics.render.renderable.Renderable;
+	private static final int depthShift = 0;
+	private static final int stateShift = depthShift + depthBits;
+	private static final int orderShift = stateShift + stateBits;
+	private static final int rendererShift = orderShift + orderBits;
+	private static final int layerShift = rendererShift + rendererBits;
 
-public class RenderBin {
-	int priority;
-	String name;
-	Comparator<Renderable> comparator;
-	Array<Renderable> renderables = new Array<Renderable>();
+	private static final int blendedStateShift = 0;
+	private static final int blendedDepthShift = blendedStateShift + stateBits;
+
+	public static final int maxDepth = (1 << depthBits) - 1;
+
+	private int size;
+	private long[] keys;
+	private Object[] items;
+	private long[] tempKeys;
+	private Object[] tempItems;
+	private final int[] counts = new int[256];
+
+	public RenderBin() {
+		this(64);
+	}
+
+	public RenderBin(int initialCapacity) {
+		int capacity = Math.max(1, initialCapacity);
+		keys = new long[capacity];
+		items = new Object[capacity];
+		tempKeys = new long[capacity];
+		tempItems = new Object[capacity];
+	}
+
+	/**
+	 * @param layer
+	 *            signed layer ordinal, clamped to 16 bits
+	 * @param renderer
+	 *            renderer kind in range [0, 3]
+	 * @param order
+	 *            signed order inside layer and renderer, clamped to 12 bits
+	 * @param state
+	 *            render state id (shader, material, texture...), only low 18 bits are used
+	 * @param depth
+	 *            depth in range [0, {@link #maxDepth}]
+	 */
+	public static long key(int layer, int renderer, int order, int state, int depth) {
+		return (long) bias(layer, layerBits) << layerShift | (long) (renderer & 3) << rendererShift
+				| (long) bias(order, orderBits) << orderShift | (long) (state & ((1 << stateBits) - 1)) << stateShift
+				| (long) clamp(depth, 0, maxDepth) << depthShift;
+	}
+
+	/**
+	 * Same as {@link #key(int, int, int, int, int)} with depth compared before render state. Items are in depth order
+	 * inside layer, renderer and order, render state only groups items with equal depth.
+	 */
+	public static long blendedKey(int layer, int renderer, int order, int state, int depth) {
+		return (long) bias(layer, layerBits) << layerShift | (long) (renderer & 3) << rendererShift
+				| (long) bias(order, orderBits) << orderShift | (long) clamp(depth, 0, maxDepth) << blendedDepthShift
+				| (long) (state & ((1 << stateBits) - 1)) << blendedStateShift;
+	}
+
+	private static int bias(int value, int bits) {
+		int half = 1 << (bits - 1);
+		return clamp(value, -half, half - 1) + half;
+	}
+
+	private static int clamp(int value, int min, int max) {
+		return value < min ? min : value > max ? max : value;
+	}
+
+	public void add(T item, long key) {
+		if (size == keys.length) {
+			int capacity = size * 2;
+			long[] newKeys = new long[capacity];
+			Object[] newItems = new Object[capacity];
+			System.arraycopy(keys, 0, newKeys, 0, size);
+			System.arraycopy(items, 0, newItems, 0, size);
+			keys = newKeys;
+			items = newItems;
+			tempKeys = new long[capacity];
+			tempItems = new Object[capacity];
+		}
+
+		keys[size] = key;
+		items[size++] = item;
+	}
+
+	public int size() {
+		return size;
+	}
+
+	@SuppressWarnings("unchecked")
+	public T get(int index) {
+		return (T) items[index];
+	}
+
+	public long getKey(int index) {
+		return keys[index];
+	}
+
+	public void sort() {
+		if (size < 2) {
+			return;
+		}
+
+		long[] keys = this.keys;
+		long differentBits = 0;
+		long first = keys[0];
+		for (int i = 1; i < size; i++) {
+			differentBits |= keys[i] ^ first;
+		}
+
+		int[] counts = this.counts;
+		for (int shift = 0; shift < 64; shift += 8) {
+			if (((differentBits >>> shift) & 0xFF) == 0) {
+				continue;
+			}
+
+			for (int i = 0; i < 256; i++) {
+				counts[i] = 0;
+			}
+
+			for (int i = 0; i < size; i++) {
+				counts[(int) (keys[i] >>> shift) & 0xFF]++;
+			}
+
+			int offset = 0;
+			for (int i = 0; i < 256; i++) {
+				int count = counts[i];
+				counts[i] = offset;
+				offset += count;
+			}
+
+			long[] tempKeys = this.tempKeys;
+			Object[] tempItems = this.tempItems;
+			Object[] items = this.items;
+			for (int i = 0; i < size; i++) {
+				long key = keys[i];
+				int index = counts[(int) (key >>> shift) & 0xFF]++;
+				tempKeys[index] = key;
+				tempItems[index] = items[i];
+			}
+
+			this.tempKeys = keys;
+			this.tempItems = items;
+			this.keys = keys = tempKeys;
+			this.items = tempItems;
+		}
+	}
+
+	public void clear() {
+		for (int i = 0; i < size; i++) {
+			items[i] = null;
+			tempItems[i] = null;
+		}
+		size = 0;
+	}
 }
@@ -1,31 +1,101 @@
 package com.gurella.engine.graphics.render;
 
 import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.ObjectSet;
 import com.gurella.engine.graphics.render.command.RenderCommand;
 import com.gurella.engine.graphics.render.gl.GlContext;
 
+/**
+ * List of render commands. When baking is enabled commands are baked into a {@link RenderCommandStream} that is
+ * replayed until commands are added or removed or until they are invalidated, so buffers that rarely change (UI,
+ * HUD) don't dispatch each command every frame. Changes of baked commands must be reported with
+ * {@link #invalidate(RenderCommand)}.
+ */
 public class RenderComandBuffer {
 	private final Array<RenderCommand> commands = new Array<RenderCommand>();
 
+	private boolean baking;
+	private RenderCommandStream stream;
+	private boolean streamValid;
+	private final ObjectSet<RenderCommand> invalidatedCommands = new ObjectSet<RenderCommand>();
+
 	public void add(RenderCommand command) {
 		commands.add(command);
+		streamValid = false;
 	}
-	
+
 	public void addAll(Array<RenderCommand> commands) {
 		this.commands.addAll(commands);
+		streamValid = false;
 	}
 
 	public void insert(int index, RenderCommand command) {
 		commands.insert(index, command);
+		streamValid = false;
 	}
 
 	public void remove(RenderCommand command) {
 		commands.removeValue(command, true);
+		streamValid = false;
+	}
+
+	public boolean isBaking() {
+		return baking;
+	}
+
+	public void setBaking(boolean baking) {
+		this.baking = baking;
+		if (!baking) {
+			stream = null;
+			streamValid = false;
+			invalidatedCommands.clear();
+		}
+	}
+
+	/**
+	 * Marks the command as changed, only operations of the command are baked again.
+	 */
+	public void invalidate(RenderCommand command) {
+		if (streamValid) {
+			invalidatedCommands.add(command);
+		}
+	}
+
+	/**
+	 * Marks all commands as changed.
+	 */
+	public void invalidate() {
+		streamValid = false;
 	}
 
 	public void process(GlContext glContext) {
-		for (int i = 0, n = commands.size; i < n; i++) {
-			commands.get(i).process(glContext);
+		if (baking) {
+			getStream().replay(glContext);
+		} else {
+			for (int i = 0, n = commands.size; i < n; i++) {
+				commands.get(i).process(glContext);
+			}
 		}
 	}
+
+	private RenderCommandStream getStream() {
+		if (stream == null) {
+			stream = new RenderCommandStream();
+		}
+
+		if (!streamValid) {
+			stream.bake(commands);
+			streamValid = true;
+		} else if (invalidatedCommands.size > 0) {
+			for (int i = 0, n = commands.size; i < n; i++) {
+				RenderCommand command = commands.get(i);
+				if (invalidatedCommands.contains(command)) {
+					stream.rebake(i, command);
+				}
+			}
+		}
+
+		invalidatedCommands.clear();
+		return stream;
+	}
 }
@@ -0,0 +1,391 @@
+package com.gurella.engine.graphics.render;
+
+import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.FloatArray;
+import com.badlogic.gdx.utils.IntArray;
+import com.gurella.engine.graphics.render.command.BakeableRenderCommand;
+import com.gurella.engine.graphics.render.command.RenderCommand;
+import com.gurella.engine.graphics.render.gl.BlendEquation;
+import com.gurella.engine.graphics.render.gl.BlendFunction;
+import com.gurella.engine.graphics.render.gl.ColorMask;
+import com.gurella.engine.graphics.render.gl.CullFace;
+import com.gurella.engine.graphics.render.gl.DepthTestFunction;
+import com.gurella.engine.graphics.render.gl.FrontFace;
+import com.gurella.engine.graphics.render.gl.GlContext;
+import com.gurella.engine.graphics.render.gl.GlState;
+import com.gurella.engine.graphics.render.gl.StencilFunction;
+import com.gurella.engine.graphics.render.gl.StencilOp;
+
+/**
+ * Render commands baked into flat arrays: opcodes with their int operands, float operands and object operands.
+ * {@link BakeableRenderCommand}s write primitive operations, other commands are written as a single operation that
+ * calls {@link RenderCommand#process(GlContext)}. Replaying the stream doesn't allocate. Operations of each command
+ * form a segment, so a single command can be baked again without baking the whole stream.
+ */
+public final class RenderCommandStream {
+	private static final int processOp = 0;
+	private static final int colorMaskOp = 1;
+	private static final int blendingEnabledOp = 2;
+	private static final int blendEquationOp = 3;
+	private static final int blendFuncOp = 4;
+	private static final int depthTestEnabledOp = 5;
+	private static final int depthMaskOp = 6;
+	private static final int depthFunctionOp = 7;
+	private static final int stencilEnabledOp = 8;
+	private static final int stencilFunctionOp = 9;
+	private static final int stencilOpOp = 10;
+	private static final int cullFaceEnabledOp = 11;
+	private static final int cullFaceOp = 12;
+	private static final int frontFaceOp = 13;
+	private static final int lineWidthOp = 14;
+	private static final int clearColorValueOp = 15;
+	private static final int clearDepthValueOp = 16;
+	private static final int clearStencilValueOp = 17;
+	private static final int clearOp = 18;
+	private static final int flushOp = 19;
+	private static final int applyStateOp = 20;
+
+	private static final int clearColorBit = 1;
+	private static final int clearDepthBit = 2;
+	private static final int clearStencilBit = 4;
+
+	private static final ColorMask[] colorMasks = ColorMask.values();
+	private static final BlendEquation[] blendEquations = BlendEquation.values();
+	private static final BlendFunction[] blendFunctions = BlendFunction.values();
+	private static final DepthTestFunction[] depthTestFunctions = DepthTestFunction.values();
+	private static final StencilFunction[] stencilFunctions = StencilFunction.values();
+	private static final StencilOp[] stencilOps = StencilOp.values();
+	private static final CullFace[] cullFaces = CullFace.values();
+	private static final FrontFace[] frontFaces = FrontFace.values();
+
+	private final IntArray ops = new IntArray();
+	private final FloatArray floats = new FloatArray();
+	private final Array<Object> objects = new Array<Object>();
+
+	/** Start of each segment in ops, floats and objects. */
+	private final IntArray opStarts = new IntArray();
+	private final IntArray floatStarts = new IntArray();
+	private final IntArray objectStarts = new IntArray();
+
+	private RenderCommandStream segmentStream;
+	private final Color color = new Color();
+
+	/**
+	 * Bakes the commands, replacing current content.
+	 */
+	public void bake(Array<RenderCommand> commands) {
+		reset();
+		for (int i = 0, n = commands.size; i < n; i++) {
+			append(commands.get(i));
+		}
+	}
+
+	private void append(RenderCommand command) {
+		opStarts.add(ops.size);
+		floatStarts.add(floats.size);
+		objectStarts.add(objects.size);
+
+		if (command instanceof BakeableRenderCommand) {
+			((BakeableRenderCommand) command).bake(this);
+		} else {
+			process(command);
+		}
+	}
+
+	/**
+	 * Bakes the command at the index again, operations of other commands are kept.
+	 */
+	public void rebake(int index, RenderCommand command) {
+		if (segmentStream == null) {
+			segmentStream = new RenderCommandStream();
+		}
+
+		RenderCommandStream segment = segmentStream;
+		segment.reset();
+		segment.append(command);
+
+		int opDelta = splice(ops, opStarts, index, segment.ops);
+		int floatDelta = splice(floats, floatStarts, index, segment.floats);
+		int objectDelta = splice(objects, objectStarts, index, segment.objects);
+		ops.size += opDelta;
+		floats.size += floatDelta;
+		objects.size += objectDelta;
+
+		for (int i = index + 1, n = opStarts.size; i < n; i++) {
+			opStarts.incr(i, opDelta);
+			floatStarts.incr(i, floatDelta);
+			objectStarts.incr(i, objectDelta);
+		}
+
+		segment.reset();
+	}
+
+	private static int splice(IntArray values, IntArray starts, int index, IntArray segment) {
+		int size = values.size;
+		int start = starts.get(index);
+		int end = index + 1 < starts.size ? starts.get(index + 1) : size;
+		int delta = segment.size - (end - start);
+		int[] items = values.ensureCapacity(Math.max(0, delta));
+		System.arraycopy(items, end, items, end + delta, size - end);
+		System.arraycopy(segment.items, 0, items, start, segment.size);
+		return delta;
+	}
+
+	private static int splice(FloatArray values, IntArray starts, int index, FloatArray segment) {
+		int size = values.size;
+		int start = starts.get(index);
+		int end = index + 1 < starts.size ? starts.get(index + 1) : size;
+		int delta = segment.size - (end - start);
+		float[] items = values.ensureCapacity(Math.max(0, delta));
+		System.arraycopy(items, end, items, end + delta, size - end);
+		System.arraycopy(segment.items, 0, items, start, segment.size);
+		return delta;
+	}
+
+	private static int splice(Array<Object> values, IntArray starts, int index, Array<Object> segment) {
+		int size = values.size;
+		int start = starts.get(index);
+		int end = index + 1 < starts.size ? starts.get(index + 1) : size;
+		int delta = segment.size - (end - start);
+		Object[] items = values.ensureCapacity(Math.max(0, delta));
+		System.arraycopy(items, end, items, end + delta, size - end);
+		System.arraycopy(segment.items, 0, items, start, segment.size);
+		for (int i = size + delta; i < size; i++) {
+			items[i] = null;
+		}
+		return delta;
+	}
+
+	/**
+	 * Removes all baked operations. Not to be confused with {@link #clear(boolean, boolean, boolean)}, which bakes a
+	 * clear of the render target.
+	 */
+	public void reset() {
+		ops.clear();
+		floats.clear();
+		objects.clear();
+		opStarts.clear();
+		floatStarts.clear();
+		objectStarts.clear();
+	}
+
+	public int getCommandCount() {
+		return opStarts.size;
+	}
+
+	public void replay(GlContext glContext) {
+		int[] ops = this.ops.items;
+		float[] floats = this.floats.items;
+		Object[] objects = this.objects.items;
+		int floatIndex = 0;
+		int objectIndex = 0;
+
+		for (int i = 0, n = this.ops.size; i < n;) {
+			switch (ops[i++]) {
+			case processOp:
+				((RenderCommand) objects[objectIndex++]).process(glContext);
+				break;
+			case colorMaskOp:
+				glContext.setColorMask(valueOf(colorMasks, ops[i++]));
+				break;
+			case blendingEnabledOp:
+				glContext.setBlendingEnabled(ops[i++] != 0);
+				break;
+			case blendEquationOp:
+				glContext.setBlendEquation(valueOf(blendEquations, ops[i++]), valueOf(blendEquations, ops[i++]));
+				break;
+			case blendFuncOp:
+				glContext.setBlendFunc(valueOf(blendFunctions, ops[i++]), valueOf(blendFunctions, ops[i++]));
+				break;
+			case depthTestEnabledOp:
+				glContext.setDepthTestEnabled(ops[i++] != 0);
+				break;
+			case depthMaskOp:
+				glContext.setDepthMask(ops[i++] != 0);
+				break;
+			case depthFunctionOp:
+				glContext.setDepthFunction(valueOf(depthTestFunctions, ops[i++]));
+				break;
+			case stencilEnabledOp:
+				glContext.setStencilEnabled(ops[i++] != 0);
+				break;
+			case stencilFunctionOp:
+				glContext.setStencilFunction(valueOf(stencilFunctions, ops[i++]), ops[i++], ops[i++]);
+				break;
+			case stencilOpOp:
+				glContext.setStencilOp(valueOf(stencilOps, ops[i++]), valueOf(stencilOps, ops[i++]),
+						valueOf(stencilOps, ops[i++]));
+				break;
+			case cullFaceEnabledOp:
+				glContext.setEnableCullFace(ops[i++] != 0);
+				break;
+			case cullFaceOp:
+				glContext.setCullFace(valueOf(cullFaces, ops[i++]));
+				break;
+			case frontFaceOp:
+				glContext.setFrontFace(valueOf(frontFaces, ops[i++]));
+				break;
+			case lineWidthOp:
+				glContext.setLineWidth(floats[floatIndex++]);
+				break;
+			case clearColorValueOp:
+				color.set(floats[floatIndex++], floats[floatIndex++], floats[floatIndex++], floats[floatIndex++]);
+				glContext.setClearColorValue(color);
+				break;
+			case clearDepthValueOp:
+				glContext.setClearDepthValue(floats[floatIndex++]);
+				break;
+			case clearStencilValueOp:
+				glContext.setClearStencilValue(ops[i++]);
+				break;
+			case clearOp:
+				int mask = ops[i++];
+				glContext.clear((mask & clearColorBit) != 0, (mask & clearDepthBit) != 0,
+						(mask & clearStencilBit) != 0);
+				break;
+			case flushOp:
+				glContext.gl20.glFlush();
+				break;
+			case applyStateOp:
+				glContext.apply((GlState) objects[objectIndex++]);
+				break;
+			default:
+				throw new IllegalStateException("Unknown operation: " + ops[i - 1]);
+			}
+		}
+	}
+
+	private static <T> T valueOf(T[] values, int ordinal) {
+		return ordinal < 0 ? null : values[ordinal];
+	}
+
+	private static int ordinal(Enum<?> value) {
+		return value == null ? -1 : value.ordinal();
+	}
+
+	private static int toInt(boolean value) {
+		return value ? 1 : 0;
+	}
+
+	private void write(int op) {
+		ops.add(op);
+	}
+
+	private void write(int op, int operand) {
+		ops.add(op);
+		ops.add(operand);
+	}
+
+	private void write(int op, int operand1, int operand2) {
+		ops.add(op);
+		ops.add(operand1);
+		ops.add(operand2);
+	}
+
+	private void write(int op, int operand1, int operand2, int operand3) {
+		ops.add(op);
+		ops.add(operand1);
+		ops.add(operand2);
+		ops.add(operand3);
+	}
+
+	/**
+	 * Writes operation that processes the command when the stream is replayed.
+	 */
+	public void process(RenderCommand command) {
+		write(processOp);
+		objects.add(command);
+	}
+
+	public void setColorMask(ColorMask colorMask) {
+		write(colorMaskOp, ordinal(colorMask));
+	}
+
+	public void setBlendingEnabled(boolean enabled) {
+		write(blendingEnabledOp, toInt(enabled));
+	}
+
+	public void setBlendEquation(BlendEquation rgbBlendEquation, BlendEquation alphaBlendEquation) {
+		write(blendEquationOp, ordinal(rgbBlendEquation), ordinal(alphaBlendEquation));
+	}
+
+	public void setBlendFunc(BlendFunction srcBlendFunction, BlendFunction dstBlendFunction) {
+		write(blendFuncOp, ordinal(srcBlendFunction), ordinal(dstBlendFunction));
+	}
+
+	public void setDepthTestEnabled(boolean depthTestEnabled) {
+		write(depthTestEnabledOp, toInt(depthTestEnabled));
+	}
+
+	public void setDepthMask(boolean depthMask) {
+		write(depthMaskOp, toInt(depthMask));
+	}
+
+	public void setDepthFunction(DepthTestFunction depthFunction) {
+		write(depthFunctionOp, ordinal(depthFunction));
+	}
+
+	public void setStencilEnabled(boolean stencilEnabled) {
+		write(stencilEnabledOp, toInt(stencilEnabled));
+	}
+
+	public void setStencilFunction(StencilFunction stencilFunction, int stencilRef, int stencilMask) {
+		write(stencilFunctionOp, ordinal(stencilFunction), stencilRef, stencilMask);
+	}
+
+	public void setStencilOp(StencilOp stencilFailOp, StencilOp depthFailOp, StencilOp passOp) {
+		write(stencilOpOp, ordinal(stencilFailOp), ordinal(depthFailOp), ordinal(passOp));
+	}
+
+	public void setEnableCullFace(boolean enableCullFace) {
+		write(cullFaceEnabledOp, toInt(enableCullFace));
+	}
+
+	public void setCullFace(CullFace cullFace) {
+		write(cullFaceOp, ordinal(cullFace));
+	}
+
+	public void setFrontFace(FrontFace frontFace) {
+		write(frontFaceOp, ordinal(frontFace));
+	}
+
+	public void setLineWidth(float lineWidth) {
+		write(lineWidthOp);
+		floats.add(lineWidth);
+	}
+
+	public void setClearColorValue(Color clearColorValue) {
+		write(clearColorValueOp);
+		floats.add(clearColorValue.r);
+		floats.add(clearColorValue.g);
+		floats.add(clearColorValue.b);
+		floats.add(clearColorValue.a);
+	}
+
+	public void setClearDepthValue(float clearDepthValue) {
+		write(clearDepthValueOp);
+		floats.add(clearDepthValue);
+	}
+
+	public void setClearStencilValue(int clearStencilValue) {
+		write(clearStencilValueOp, clearStencilValue);
+	}
+
+	public void clear(boolean color, boolean depth, boolean stencil) {
+		int mask = (color ? clearColorBit : 0) | (depth ? clearDepthBit : 0) | (stencil ? clearStencilBit : 0);
+		write(clearOp, mask);
+	}
+
+	public void flush() {
+		write(flushOp);
+	}
+
+	/**
+	 * Writes operation that applies the state block, later changes of the block are applied as well.
+	 */
+	public void apply(GlState state) {
+		write(applyStateOp);
+		objects.add(state);
+	}
+}
@@ -26,7 +26,7 @@ public class RenderNode {
 	void process(RenderContext context) {
 		context.node = this;
 		for (int i = 0, n = commands.size; i < n; i++) {
-			commands.get(i).process(/*TODO*/ null);
+			commands.get(i).process(context.glContext);
 		}
 		context.node = null;
 	}
@@ -1,6 +1,7 @@
 package com.gurella.engine.graphics.render;
 
 import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.Disposable;
 import com.badlogic.gdx.utils.ObjectMap;
 import com.gurella.engine.graphics.GraphicsService;
 import com.gurella.engine.graphics.GraphicsService.GraphicsTask;
@@ -10,9 +11,9 @@ import com.gurella.engine.graphics.render.gl.GlContext;
 import com.gurella.engine.graphics.render.shader.ShaderUnifrom;
 import com.gurella.engine.scene.Scene;
 
-public class RenderPath implements GraphicsTask {
+public class RenderPath implements GraphicsTask, Disposable {
 	private final RenderContext context = new RenderContext(this);
-	private final ObjectMap<String, RenderTarget> globalTargetsByName = new ObjectMap<String, RenderTarget>();
+	final ObjectMap<String, RenderTarget> globalTargetsByName = new ObjectMap<String, RenderTarget>();
 
 	final Array<RenderCommand> preCommands = new Array<RenderCommand>();
 	final Array<RenderCommand> postCommands = new Array<RenderCommand>();
@@ -20,7 +21,8 @@ public class RenderPath implements GraphicsTask {
 	final Array<RenderNode> rootNodes = new Array<RenderNode>();
 
 	final RenderPathIterator iterator = new RenderPathIterator();
-	private final RenderNodeProcessor processor = new RenderNodeProcessor(context);
+	private RenderPathPlan plan;
+	private boolean planValid;
 
 	// passes defined by path
 	private final Array<String> pathPasses = new Array<String>();
@@ -31,8 +33,27 @@ public class RenderPath implements GraphicsTask {
 		}
 	}
 
+	/**
+	 * Discards compiled plan of the path. Must be called after nodes, connections, commands or targets of the path
+	 * change.
+	 */
+	public synchronized void invalidate() {
+		planValid = false;
+	}
+
+	synchronized RenderPathPlan getPlan() {
+		if (!planValid) {
+			if (plan != null) {
+				plan.dispose();
+			}
+			plan = RenderPathPlan.compile(this);
+			planValid = true;
+		}
+		return plan;
+	}
+
 	void init() {
-		iterate(new RenderNodeInitializer(context));
+		getPlan().init(context);
 	}
 
 	void process(Scene scene) {
@@ -44,10 +65,22 @@ public class RenderPath implements GraphicsTask {
 	@Override
 	public void run(GlContext glContext) {
 		context.glContext = glContext;
-		iterate(processor);
+		getPlan().process(context);
 		context.glContext = null;
 	}
 
+	/**
+	 * Releases frame buffers of transient targets, must be called on the GL thread.
+	 */
+	@Override
+	public synchronized void dispose() {
+		if (plan != null) {
+			plan.dispose();
+			plan = null;
+		}
+		planValid = false;
+	}
+
 	public static class RenderPathMaterialProperties {
 		private Object nonGlslProperties;
 		private ObjectMap<String, ShaderUnifrom> uniforms;
@@ -56,30 +89,4 @@ public class RenderPath implements GraphicsTask {
 		// TODO when render path is selected all materials can provide this properties (eg.: cast shadows, receive
 		// shadows...)
 	}
-
-	private static class RenderNodeInitializer implements RenderNodeConsumer {
-		private final RenderContext context;
-
-		RenderNodeInitializer(RenderContext context) {
-			this.context = context;
-		}
-
-		@Override
-		public void consume(RenderNode node) {
-			node.init(context);
-		}
-	}
-
-	private static class RenderNodeProcessor implements RenderNodeConsumer {
-		private final RenderContext context;
-
-		RenderNodeProcessor(RenderContext context) {
-			this.context = context;
-		}
-
-		@Override
-		public void consume(RenderNode node) {
-			node.process(context);
-		}
-	}
 }
@@ -0,0 +1,204 @@
+package com.gurella.engine.graphics.render;
+
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.Disposable;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+import com.badlogic.gdx.utils.IntArray;
+import com.badlogic.gdx.utils.ObjectIntMap;
+import com.badlogic.gdx.utils.ObjectSet;
+import com.gurella.engine.graphics.render.RenderNode.Connection;
+import com.gurella.engine.graphics.render.command.RenderCommand;
+import com.gurella.engine.graphics.render.gl.GlContext;
+
+/**
+ * {@link RenderPath} graph flattened into a linear list of commands. Nodes are ordered topologically, so every node
+ * follows all nodes connected to its inputs. Lifetimes of transient render targets (targets of connections and
+ * targets of nodes, global targets of the path are excluded) are computed in that order and compatible targets with
+ * disjoint lifetimes share the frame buffer of the first of them. Plan is compiled once and reused until the path
+ * changes.
+ */
+final class RenderPathPlan implements Disposable {
+	final Array<RenderNode> nodes = new Array<RenderNode>();
+	final Array<RenderCommand> commands = new Array<RenderCommand>();
+	/** Index of the first command of each node, followed by index of the first post command. */
+	private final IntArray nodeCommandStarts = new IntArray();
+
+	final Array<RenderTarget> transientTargets = new Array<RenderTarget>();
+	/** Transient targets owning frame buffers that are shared with other targets. */
+	final Array<RenderTarget> physicalTargets = new Array<RenderTarget>();
+
+	private RenderPathPlan() {
+	}
+
+	static RenderPathPlan compile(RenderPath path) {
+		RenderPathPlan plan = new RenderPathPlan();
+		plan.sortNodes(path.rootNodes);
+		plan.flattenCommands(path);
+		plan.assignTargets(path);
+		return plan;
+	}
+
+	private void sortNodes(Array<RenderNode> rootNodes) {
+		ObjectSet<RenderNode> reachable = new ObjectSet<RenderNode>();
+		Array<RenderNode> pending = new Array<RenderNode>(rootNodes);
+		while (pending.size > 0) {
+			RenderNode node = pending.pop();
+			if (reachable.add(node)) {
+				Array<Connection> outputs = node.outputsByIndex;
+				for (int i = 0, n = outputs.size; i < n; i++) {
+					pending.add(outputs.get(i).outNode);
+				}
+			}
+		}
+
+		ObjectIntMap<RenderNode> unresolvedInputs = new ObjectIntMap<RenderNode>(reachable.size);
+		for (RenderNode node : reachable) {
+			unresolvedInputs.put(node, node.inputsByIndex.size);
+		}
+
+		for (int i = 0, n = rootNodes.size; i < n; i++) {
+			RenderNode node = rootNodes.get(i);
+			if (unresolvedInputs.get(node, 0) == 0 && !nodes.contains(node, true)) {
+				nodes.add(node);
+			}
+		}
+
+		for (int i = 0; i < nodes.size; i++) {
+			Array<Connection> outputs = nodes.get(i).outputsByIndex;
+			for (int j = 0, n = outputs.size; j < n; j++) {
+				RenderNode outNode = outputs.get(j).outNode;
+				if (unresolvedInputs.getAndIncrement(outNode, 0, -1) == 1) {
+					nodes.add(outNode);
+				}
+			}
+		}
+
+		if (nodes.size != reachable.size) {
+			StringBuilder builder = new StringBuilder();
+			for (RenderNode node : reachable) {
+				if (!nodes.contains(node, true)) {
+					builder.append(builder.length() == 0 ? "" : ", ");
+					builder.append(node.name);
+				}
+			}
+			throw new GdxRuntimeException(
+					"Render path contains cycle or inputs from nodes not reachable from root nodes: " + builder);
+		}
+	}
+
+	private void flattenCommands(RenderPath path) {
+		commands.addAll(path.preCommands);
+		for (int i = 0, n = nodes.size; i < n; i++) {
+			nodeCommandStarts.add(commands.size);
+			commands.addAll(nodes.get(i).commands);
+		}
+		nodeCommandStarts.add(commands.size);
+		commands.addAll(path.postCommands);
+	}
+
+	private void assignTargets(RenderPath path) {
+		ObjectSet<RenderTarget> globalTargets = new ObjectSet<RenderTarget>();
+		for (RenderTarget target : path.globalTargetsByName.values()) {
+			globalTargets.add(target);
+		}
+
+		ObjectIntMap<RenderTarget> lastUses = new ObjectIntMap<RenderTarget>();
+		IntArray firstUses = new IntArray();
+		for (int i = 0, n = nodes.size; i < n; i++) {
+			RenderNode node = nodes.get(i);
+			for (RenderTarget target : node.nodeTargetsByName.values()) {
+				use(target, i, globalTargets, lastUses, firstUses);
+			}
+
+			Array<Connection> inputs = node.inputsByIndex;
+			for (int j = 0, m = inputs.size; j < m; j++) {
+				use(inputs.get(j).renderTarget, i, globalTargets, lastUses, firstUses);
+			}
+
+			Array<Connection> outputs = node.outputsByIndex;
+			for (int j = 0, m = outputs.size; j < m; j++) {
+				use(outputs.get(j).renderTarget, i, globalTargets, lastUses, firstUses);
+			}
+		}
+
+		// targets are added in order of first use, so each target only has to fit after targets that precede it
+		IntArray physicalLastUses = new IntArray();
+		for (int i = 0, n = transientTargets.size; i < n; i++) {
+			RenderTarget target = transientTargets.get(i);
+			int firstUse = firstUses.get(i);
+			int lastUse = lastUses.get(target, firstUse);
+
+			int physicalIndex = -1;
+			for (int j = 0, m = physicalTargets.size; j < m; j++) {
+				if (physicalLastUses.get(j) < firstUse && physicalTargets.get(j).isCompatible(target)) {
+					physicalIndex = j;
+					break;
+				}
+			}
+
+			if (physicalIndex < 0) {
+				target.setAlias(null);
+				physicalTargets.add(target);
+				physicalLastUses.add(lastUse);
+			} else {
+				target.setAlias(physicalTargets.get(physicalIndex));
+				physicalLastUses.set(physicalIndex, lastUse);
+			}
+		}
+	}
+
+	private void use(RenderTarget target, int nodeIndex, ObjectSet<RenderTarget> globalTargets,
+			ObjectIntMap<RenderTarget> lastUses, IntArray firstUses) {
+		if (target == null || globalTargets.contains(target)) {
+			return;
+		}
+
+		if (!lastUses.containsKey(target)) {
+			transientTargets.add(target);
+			firstUses.add(nodeIndex);
+		}
+		lastUses.put(target, nodeIndex);
+	}
+
+	void init(RenderContext context) {
+		for (int i = 0, n = commands.size; i < n; i++) {
+			commands.get(i).init(context);
+		}
+	}
+
+	void process(RenderContext context) {
+		for (int i = 0, n = physicalTargets.size; i < n; i++) {
+			RenderTarget target = physicalTargets.get(i);
+			if (!target.isInitialized()) {
+				target.init();
+			}
+		}
+
+		GlContext glContext = context.glContext;
+		int command = 0;
+		for (int n = nodeCommandStarts.get(0); command < n; command++) {
+			commands.get(command).process(glContext);
+		}
+
+		for (int i = 0, n = nodes.size; i < n; i++) {
+			context.node = nodes.get(i);
+			for (int end = nodeCommandStarts.get(i + 1); command < end; command++) {
+				commands.get(command).process(glContext);
+			}
+		}
+		context.node = null;
+
+		for (int n = commands.size; command < n; command++) {
+			commands.get(command).process(glContext);
+		}
+	}
+
+	@Override
+	public void dispose() {
+		for (int i = 0, n = transientTargets.size; i < n; i++) {
+			RenderTarget target = transientTargets.get(i);
+			target.setAlias(null);
+			target.dispose();
+		}
+	}
+}
@@ -24,7 +24,9 @@ public class RenderTarget implements Disposable {
 	private TextureWrap vWrap = TextureWrap.ClampToEdge;
 
 	private transient FrameBuffer frameBuffer;
-	
+	/** Target whose frame buffer is used by this target, set for transient targets by {@link RenderPathPlan}. */
+	private transient RenderTarget alias;
+
 	public String getName() {
 		return name;
 	}
@@ -38,10 +40,39 @@ public class RenderTarget implements Disposable {
 	}
 
 	public void bind() {
-		frameBuffer.bind();
+		getFrameBuffer().bind();
+	}
+
+	FrameBuffer getFrameBuffer() {
+		return alias == null ? frameBuffer : alias.getFrameBuffer();
+	}
+
+	void setAlias(RenderTarget alias) {
+		this.alias = alias;
+	}
+
+	/**
+	 * @return true when targets can share the same frame buffer
+	 */
+	boolean isCompatible(RenderTarget other) {
+		return width == other.width && height == other.height && format == other.format
+				&& hasStencil == other.hasStencil && aliasingAmount == other.aliasingAmount
+				&& depthBufferType == other.depthBufferType && minFilter == other.minFilter
+				&& magFilter == other.magFilter && uWrap == other.uWrap && vWrap == other.vWrap;
+	}
+
+	public boolean isInitialized() {
+		return getFrameBuffer() != null;
 	}
 
 	public void init() {
+		if (alias != null) {
+			if (!alias.isInitialized()) {
+				alias.init();
+			}
+			return;
+		}
+
 		if (frameBuffer != null) {
 			throw new GdxRuntimeException("RenderTarget is allready initialized.");
 		}
@@ -0,0 +1,13 @@
+package com.gurella.engine.graphics.render.command;
+
+import com.gurella.engine.graphics.render.RenderCommandStream;
+import com.gurella.engine.graphics.render.gl.GlContext;
+
+/**
+ * Command that can be baked into a {@link RenderCommandStream} as primitive operations. Operations written by
+ * {@link #bake(RenderCommandStream)} must have the same effect as {@link #process(GlContext)} with the current state
+ * of the command.
+ */
+public interface BakeableRenderCommand extends RenderCommand {
+	void bake(RenderCommandStream stream);
+}
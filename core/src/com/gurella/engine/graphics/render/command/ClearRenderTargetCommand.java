@@ -1,10 +1,11 @@
 package com.gurella.engine.graphics.render.command;
 
 import com.badlogic.gdx.graphics.Color;
+import com.gurella.engine.graphics.render.RenderCommandStream;
 import com.gurella.engine.graphics.render.RenderContext;
 import com.gurella.engine.graphics.render.gl.GlContext;
 
-public class ClearRenderTargetCommand implements RenderCommand {
+public class ClearRenderTargetCommand implements BakeableRenderCommand {
 	public ClearType type;
 	public final Color clearColorValue = new Color();
 	public float clearDepthValue;
@@ -31,6 +32,23 @@ public class ClearRenderTargetCommand implements RenderCommand {
 		glContext.clear(type.clearColor, type.clearDepth, type.clearStencil);
 	}
 
+	@Override
+	public void bake(RenderCommandStream stream) {
+		if (type.clearColor) {
+			stream.setClearColorValue(clearColorValue);
+		}
+
+		if (type.clearDepth) {
+			stream.setClearDepthValue(clearDepthValue);
+		}
+
+		if (type.clearStencil) {
+			stream.setClearStencilValue(clearStencilValue);
+		}
+
+		stream.clear(type.clearColor, type.clearDepth, type.clearStencil);
+	}
+
 	public enum ClearType {
 		color(true, false, false),
 		depth(false, true, false),
@@ -1,9 +1,10 @@
 package com.gurella.engine.graphics.render.command;
 
+import com.gurella.engine.graphics.render.RenderCommandStream;
 import com.gurella.engine.graphics.render.RenderContext;
 import com.gurella.engine.graphics.render.gl.GlContext;
 
-public class FlushCommand implements RenderCommand {
+public class FlushCommand implements BakeableRenderCommand {
 	@Override
 	public void init(RenderContext renderContext) {
 	}
@@ -12,4 +13,9 @@ public class FlushCommand implements RenderCommand {
 	public void process(GlContext glContext) {
 		glContext.gl20.glFlush();
 	}
+
+	@Override
+	public void bake(RenderCommandStream stream) {
+		stream.flush();
+	}
 }
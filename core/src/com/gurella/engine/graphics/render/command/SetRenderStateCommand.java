@@ -1,5 +1,24 @@
 package com.gurella.engine.graphics.render.command;
 
-public class SetRenderStateCommand {
+import com.gurella.engine.graphics.render.RenderCommandStream;
+import com.gurella.engine.graphics.render.RenderContext;
+import com.gurella.engine.graphics.render.gl.GlContext;
+import com.gurella.engine.graphics.render.gl.GlState;
 
+public class SetRenderStateCommand implements BakeableRenderCommand {
+	public final GlState state = new GlState();
+
+	@Override
+	public void init(RenderContext renderContext) {
+	}
+
+	@Override
+	public void process(GlContext glContext) {
+		glContext.apply(state);
+	}
+
+	@Override
+	public void bake(RenderCommandStream stream) {
+		stream.apply(state);
+	}
 }
@@ -9,6 +9,7 @@ import com.badlogic.gdx.graphics.GL30;
 import com.badlogic.gdx.graphics.GLTexture;
 import com.gurella.engine.graphics.GraphicsService;
 import com.gurella.engine.graphics.render.RenderTarget;
+import com.gurella.engine.graphics.render.gl.GlContextStats.StateCategory;
 import com.gurella.engine.graphics.render.shader.ShaderProgramExt;
 import com.gurella.engine.math.GridRectangle;
 
@@ -79,6 +80,9 @@ public class GlContext {
 	private int textureSequence = Integer.MIN_VALUE + 1;
 	private int activeTexture;
 
+	private final GlContextStats stats = new GlContextStats();
+	private final GlContextStats frameStats = new GlContextStats();
+
 	public GlContext() {
 		gl20 = Gdx.gl20;
 		gl30 = Gdx.gl30;
@@ -91,6 +95,7 @@ public class GlContext {
 
 	public void activate() {
 		active = true;
+		updateFrame();
 
 		updateColorMask();
 
@@ -179,12 +184,76 @@ public class GlContext {
 		activateTexture();
 	}
 
+	private void updateFrame() {
+		long frameId = Gdx.graphics == null ? 0 : Gdx.graphics.getFrameId();
+		if (stats.frameId != frameId) {
+			if (stats.frameId >= 0) {
+				frameStats.set(stats);
+			}
+			stats.reset();
+			stats.frameId = frameId;
+		}
+	}
+
+	/**
+	 * @return counters of the last completed frame
+	 */
+	public GlContextStats getStats() {
+		return frameStats;
+	}
+
+	/**
+	 * @return counters of the current frame
+	 */
+	public GlContextStats getCurrentFrameStats() {
+		return stats;
+	}
+
+	/**
+	 * Applies the state block. When the current state is the same as the state of the block nothing is changed,
+	 * otherwise only changed state is sent to GL.
+	 */
+	public void apply(GlState state) {
+		long bits = GlState.pack(colorMask, blendingEnabled, rgbBlendEquation, alphaBlendEquation,
+				srcRgbBlendFunction, srcAlphaBlendFunction, dstRgbBlendFunction, dstAlphaBlendFunction, depthMask,
+				depthTestEnabled, depthFunction, stencilEnabled, frontStencilFunction, frontStencilFailOp,
+				frontDepthFailOp, frontPassOp, enableCullFace, cullFace, frontFace);
+		if (bits == state.bits && GlState.packStencil(frontStencilRef, frontStencilMask) == state.stencilBits
+				&& isStencilSymmetric()) {
+			stats.stateBlock(true);
+			return;
+		}
+
+		stats.stateBlock(false);
+		setColorMask(state.getColorMask());
+		setBlendingEnabled(state.isBlendingEnabled());
+		setBlendEquation(state.getRgbBlendEquation(), state.getAlphaBlendEquation());
+		setBlendFunc(state.getSrcRgbBlendFunction(), state.getSrcAlphaBlendFunction(),
+				state.getDstRgbBlendFunction(), state.getDstAlphaBlendFunction());
+		setDepthMask(state.getDepthMask());
+		setDepthTestEnabled(state.isDepthTestEnabled());
+		setDepthFunction(state.getDepthFunction());
+		setStencilEnabled(state.isStencilEnabled());
+		setStencilFunction(state.getStencilFunction(), state.getStencilRef(), state.getStencilMask());
+		setStencilOp(state.getStencilFailOp(), state.getDepthFailOp(), state.getPassOp());
+		setEnableCullFace(state.isEnableCullFace());
+		setCullFace(state.getCullFace());
+		setFrontFace(state.getFrontFace());
+	}
+
+	private boolean isStencilSymmetric() {
+		return frontStencilFunction == backStencilFunction && frontStencilRef == backStencilRef
+				&& frontStencilMask == backStencilMask && frontStencilFailOp == backStencilFailOp
+				&& frontDepthFailOp == backDepthFailOp && frontPassOp == backPassOp;
+	}
+
 	public ColorMask getColorMask() {
 		return colorMask;
 	}
 
 	public void setColorMask(ColorMask colorMask) {
 		if (this.colorMask == colorMask) {
+			stats.skip(StateCategory.colorMask);
 			return;
 		}
 
@@ -196,6 +265,7 @@ public class GlContext {
 	}
 
 	private void updateColorMask() {
+		stats.issue(StateCategory.colorMask);
 		gl20.glColorMask(colorMask.rMask, colorMask.gMask, colorMask.bMask, colorMask.aMask);
 	}
 
@@ -205,6 +275,7 @@ public class GlContext {
 
 	public void setBlendingEnabled(boolean enabled) {
 		if (this.blendingEnabled == enabled) {
+			stats.skip(StateCategory.blending);
 			return;
 		}
 
@@ -216,6 +287,7 @@ public class GlContext {
 	}
 
 	private void updateEnableBlending() {
+		stats.issue(StateCategory.blending);
 		if (blendingEnabled) {
 			gl20.glEnable(GL20.GL_BLEND);
 		} else {
@@ -231,6 +303,7 @@ public class GlContext {
 		Color resolved = blendColor == null ? defaultColor : blendColor;
 
 		if (this.blendColor.equals(resolved)) {
+			stats.skip(StateCategory.blending);
 			return;
 		}
 
@@ -242,6 +315,7 @@ public class GlContext {
 	}
 
 	private void updateBlendColor() {
+		stats.issue(StateCategory.blending);
 		gl20.glBlendColor(blendColor.r, blendColor.g, blendColor.b, blendColor.a);
 	}
 
@@ -251,6 +325,7 @@ public class GlContext {
 
 	public void setRgbBlendEquation(BlendEquation rgbBlendEquation) {
 		if (this.rgbBlendEquation == rgbBlendEquation) {
+			stats.skip(StateCategory.blending);
 			return;
 		}
 
@@ -262,6 +337,7 @@ public class GlContext {
 	}
 
 	private void updateBlendEquation() {
+		stats.issue(StateCategory.blending);
 		gl20.glBlendEquationSeparate(rgbBlendEquation.glValue, alphaBlendEquation.glValue);
 	}
 
@@ -271,6 +347,7 @@ public class GlContext {
 
 	public void setAlphaBlendEquation(BlendEquation alphaBlendEquation) {
 		if (this.alphaBlendEquation == alphaBlendEquation) {
+			stats.skip(StateCategory.blending);
 			return;
 		}
 
@@ -283,6 +360,7 @@ public class GlContext {
 
 	public void setBlendEquation(BlendEquation blendEquation) {
 		if (this.rgbBlendEquation == blendEquation && this.alphaBlendEquation == blendEquation) {
+			stats.skip(StateCategory.blending);
 			return;
 		}
 
@@ -296,6 +374,7 @@ public class GlContext {
 
 	public void setBlendEquation(BlendEquation rgbBlendEquation, BlendEquation alphaBlendEquation) {
 		if (this.rgbBlendEquation == rgbBlendEquation && this.alphaBlendEquation == alphaBlendEquation) {
+			stats.skip(StateCategory.blending);
 			return;
 		}
 
@@ -313,6 +392,7 @@ public class GlContext {
 
 	public void setSrcRgbBlendFunction(BlendFunction srcRgbBlendFunction) {
 		if (this.srcRgbBlendFunction == srcRgbBlendFunction) {
+			stats.skip(StateCategory.blending);
 			return;
 		}
 
@@ -324,6 +404,7 @@ public class GlContext {
 	}
 
 	private void updateBlendFunction() {
+		stats.issue(StateCategory.blending);
 		gl20.glBlendFuncSeparate(srcRgbBlendFunction.glValue, dstRgbBlendFunction.glValue,
 				srcAlphaBlendFunction.glValue, dstAlphaBlendFunction.glValue);
 	}
@@ -334,6 +415,7 @@ public class GlContext {
 
 	public void setSrcAlphaBlendFunction(BlendFunction srcAlphaBlendFunction) {
 		if (this.srcAlphaBlendFunction == srcAlphaBlendFunction) {
+			stats.skip(StateCategory.blending);
 			return;
 		}
 
@@ -347,6 +429,7 @@ public class GlContext {
 
 	public void setSrcBlendFunc(BlendFunction srcBlendFunction) {
 		if (this.srcRgbBlendFunction == srcBlendFunction && this.srcAlphaBlendFunction == srcBlendFunction) {
+			stats.skip(StateCategory.blending);
 			return;
 		}
 
@@ -364,6 +447,7 @@ public class GlContext {
 
 	public void setDstRgbBlendFunction(BlendFunction dstRgbBlendFunction) {
 		if (this.dstRgbBlendFunction == dstRgbBlendFunction) {
+			stats.skip(StateCategory.blending);
 			return;
 		}
 
@@ -380,6 +464,7 @@ public class GlContext {
 
 	public void setDstAlphaBlendFunction(BlendFunction dstAlphaBlendFunction) {
 		if (this.dstAlphaBlendFunction == dstAlphaBlendFunction) {
+			stats.skip(StateCategory.blending);
 			return;
 		}
 
@@ -393,6 +478,7 @@ public class GlContext {
 
 	public void setDstBlendFunc(BlendFunction dstBlendFunction) {
 		if (this.dstRgbBlendFunction == dstBlendFunction && this.dstAlphaBlendFunction == dstBlendFunction) {
+			stats.skip(StateCategory.blending);
 			return;
 		}
 
@@ -407,6 +493,7 @@ public class GlContext {
 	public void setBlendFunc(BlendFunction srcBlendFunction, BlendFunction dstBlendFunction) {
 		if (this.srcRgbBlendFunction == srcBlendFunction && this.srcAlphaBlendFunction == srcBlendFunction
 				&& this.dstRgbBlendFunction == dstBlendFunction && this.dstAlphaBlendFunction == dstBlendFunction) {
+			stats.skip(StateCategory.blending);
 			return;
 		}
 
@@ -425,6 +512,7 @@ public class GlContext {
 		if (this.srcRgbBlendFunction == srcRgbBlendFunction && this.srcAlphaBlendFunction == srcAlphaBlendFunction
 				&& this.dstRgbBlendFunction == dstRgbBlendFunction
 				&& this.dstAlphaBlendFunction == dstAlphaBlendFunction) {
+			stats.skip(StateCategory.blending);
 			return;
 		}
 
@@ -446,6 +534,7 @@ public class GlContext {
 
 	public void setDepthMask(boolean depthMask) {
 		if (this.depthMask == depthMask) {
+			stats.skip(StateCategory.depth);
 			return;
 		}
 
@@ -457,6 +546,7 @@ public class GlContext {
 	}
 
 	private void updateDepthMask() {
+		stats.issue(StateCategory.depth);
 		gl20.glDepthMask(depthMask);
 	}
 
@@ -466,6 +556,7 @@ public class GlContext {
 
 	public void setDepthTestEnabled(boolean depthTestEnabled) {
 		if (this.depthTestEnabled == depthTestEnabled) {
+			stats.skip(StateCategory.depth);
 			return;
 		}
 
@@ -477,6 +568,7 @@ public class GlContext {
 	}
 
 	private void updateDepthTestEnabled() {
+		stats.issue(StateCategory.depth);
 		if (depthTestEnabled) {
 			gl20.glEnable(GL20.GL_DEPTH_TEST);
 		} else {
@@ -490,6 +582,7 @@ public class GlContext {
 
 	public void setDepthFunction(DepthTestFunction depthFunction) {
 		if (this.depthFunction == depthFunction) {
+			stats.skip(StateCategory.depth);
 			return;
 		}
 
@@ -501,6 +594,7 @@ public class GlContext {
 	}
 
 	private void updateDepthFunction() {
+		stats.issue(StateCategory.depth);
 		gl20.glDepthFunc(depthFunction.glValue);
 	}
 
@@ -510,6 +604,7 @@ public class GlContext {
 
 	public void setDepthRangeNear(float depthRangeNear) {
 		if (this.depthRangeNear == depthRangeNear) {
+			stats.skip(StateCategory.depth);
 			return;
 		}
 
@@ -521,6 +616,7 @@ public class GlContext {
 	}
 
 	private void updateDepthRange() {
+		stats.issue(StateCategory.depth);
 		gl20.glDepthRangef(depthRangeNear, depthRangeFar);
 	}
 
@@ -530,6 +626,7 @@ public class GlContext {
 
 	public void setDepthRangeFar(float depthRangeFar) {
 		if (this.depthRangeFar == depthRangeFar) {
+			stats.skip(StateCategory.depth);
 			return;
 		}
 
@@ -542,6 +639,7 @@ public class GlContext {
 
 	public void setDepthRange(float depthRangeNear, float depthRangeFar) {
 		if (this.depthRangeNear == depthRangeNear && this.depthRangeFar == depthRangeFar) {
+			stats.skip(StateCategory.depth);
 			return;
 		}
 
@@ -559,6 +657,7 @@ public class GlContext {
 
 	public void setStencilEnabled(boolean stencilEnabled) {
 		if (this.stencilEnabled == stencilEnabled) {
+			stats.skip(StateCategory.stencil);
 			return;
 		}
 
@@ -570,6 +669,7 @@ public class GlContext {
 	}
 
 	private void updateStencilEnabled() {
+		stats.issue(StateCategory.stencil);
 		if (stencilEnabled) {
 			gl20.glEnable(GL20.GL_STENCIL_TEST);
 		} else {
@@ -583,6 +683,7 @@ public class GlContext {
 
 	public void setFrontStencilFunction(StencilFunction frontStencilFunction) {
 		if (this.frontStencilFunction == frontStencilFunction) {
+			stats.skip(StateCategory.stencil);
 			return;
 		}
 
@@ -594,6 +695,7 @@ public class GlContext {
 	}
 
 	private void updateFrontStencilFunction() {
+		stats.issue(StateCategory.stencil);
 		gl20.glStencilFuncSeparate(GL20.GL_FRONT, frontStencilFunction.glValue, frontStencilRef, frontStencilMask);
 	}
 
@@ -603,6 +705,7 @@ public class GlContext {
 
 	public void setFrontStencilRef(int frontStencilRef) {
 		if (this.frontStencilRef == frontStencilRef) {
+			stats.skip(StateCategory.stencil);
 			return;
 		}
 
@@ -619,6 +722,7 @@ public class GlContext {
 
 	public void setFrontStencilMask(int frontStencilMask) {
 		if (this.frontStencilMask == frontStencilMask) {
+			stats.skip(StateCategory.stencil);
 			return;
 		}
 
@@ -633,6 +737,7 @@ public class GlContext {
 			int frontStencilMask) {
 		if (this.frontStencilFunction == frontStencilFunction && this.frontStencilRef == frontStencilRef
 				&& this.frontStencilMask == frontStencilMask) {
+			stats.skip(StateCategory.stencil);
 			return;
 		}
 
@@ -651,6 +756,7 @@ public class GlContext {
 
 	public void setBackStencilFunction(StencilFunction backStencilFunction) {
 		if (this.backStencilFunction == backStencilFunction) {
+			stats.skip(StateCategory.stencil);
 			return;
 		}
 
@@ -662,6 +768,7 @@ public class GlContext {
 	}
 
 	private void updateBackStencilFunction() {
+		stats.issue(StateCategory.stencil);
 		gl20.glStencilFuncSeparate(GL20.GL_BACK, backStencilFunction.glValue, backStencilRef, backStencilMask);
 	}
 
@@ -671,6 +778,7 @@ public class GlContext {
 
 	public void setBackStencilRef(int backStencilRef) {
 		if (this.backStencilRef == backStencilRef) {
+			stats.skip(StateCategory.stencil);
 			return;
 		}
 
@@ -687,6 +795,7 @@ public class GlContext {
 
 	public void setBackStencilMask(int backStencilMask) {
 		if (this.backStencilMask == backStencilMask) {
+			stats.skip(StateCategory.stencil);
 			return;
 		}
 
@@ -700,6 +809,7 @@ public class GlContext {
 	public void setBackStencilFunction(StencilFunction backStencilFunction, int backStencilRef, int backStencilMask) {
 		if (this.backStencilFunction == backStencilFunction && this.backStencilRef == backStencilRef
 				&& this.backStencilMask == backStencilMask) {
+			stats.skip(StateCategory.stencil);
 			return;
 		}
 
@@ -716,6 +826,7 @@ public class GlContext {
 		if (frontStencilFunction == stencilFunction && frontStencilRef == stencilRef && frontStencilMask == stencilMask
 				&& backStencilFunction == stencilFunction && backStencilRef == stencilRef
 				&& backStencilMask == stencilMask) {
+			stats.skip(StateCategory.stencil);
 			return;
 		}
 
@@ -727,11 +838,13 @@ public class GlContext {
 		this.backStencilMask = stencilMask;
 
 		if (active) {
-			gl20.glStencilFuncSeparate(GL20.GL_FRONT_AND_BACK, stencilFunction.glValue, stencilRef, stencilMask);
+			stats.issue(StateCategory.stencil);
+			gl20.glStencilFuncSeparate(GL20.GL_FRONT_AND_BACK, frontStencilFunction.glValue, stencilRef, stencilMask);
 		}
 	}
 
 	private void updateStencilFunction() {
+		stats.issue(StateCategory.stencil);
 		if (frontStencilFunction == backStencilFunction && frontStencilRef == backStencilRef
 				&& frontStencilMask == backStencilMask) {
 			gl20.glStencilFuncSeparate(GL20.GL_FRONT_AND_BACK, frontStencilFunction.glValue, frontStencilRef,
@@ -748,6 +861,7 @@ public class GlContext {
 
 	public void setFrontStencilFailOp(StencilOp frontStencilFailOp) {
 		if (this.frontStencilFailOp == frontStencilFailOp) {
+			stats.skip(StateCategory.stencil);
 			return;
 		}
 
@@ -759,6 +873,7 @@ public class GlContext {
 	}
 
 	private void updateFrontStencilOp() {
+		stats.issue(StateCategory.stencil);
 		gl20.glStencilOpSeparate(GL20.GL_FRONT, frontStencilFailOp.glValue, frontDepthFailOp.glValue,
 				frontPassOp.glValue);
 	}
@@ -769,6 +884,7 @@ public class GlContext {
 
 	public void setFrontDepthFailOp(StencilOp frontDepthFailOp) {
 		if (this.frontDepthFailOp == frontDepthFailOp) {
+			stats.skip(StateCategory.stencil);
 			return;
 		}
 
@@ -785,6 +901,7 @@ public class GlContext {
 
 	public void setFrontPassOp(StencilOp frontPassOp) {
 		if (this.frontPassOp == frontPassOp) {
+			stats.skip(StateCategory.stencil);
 			return;
 		}
 
@@ -798,6 +915,7 @@ public class GlContext {
 	public void setFrontStencilOp(StencilOp frontStencilFailOp, StencilOp frontDepthFailOp, StencilOp frontPassOp) {
 		if (this.frontStencilFailOp == frontStencilFailOp && this.frontDepthFailOp == frontDepthFailOp
 				&& this.frontPassOp == frontPassOp) {
+			stats.skip(StateCategory.stencil);
 			return;
 		}
 
@@ -816,6 +934,7 @@ public class GlContext {
 
 	public void setBackStencilFailOp(StencilOp backStencilFailOp) {
 		if (this.backStencilFailOp == backStencilFailOp) {
+			stats.skip(StateCategory.stencil);
 			return;
 		}
 
@@ -827,6 +946,7 @@ public class GlContext {
 	}
 
 	private void updateBackStencilOp() {
+		stats.issue(StateCategory.stencil);
 		gl20.glStencilOpSeparate(GL20.GL_BACK, backStencilFailOp.glValue, backDepthFailOp.glValue, backPassOp.glValue);
 	}
 
@@ -836,6 +956,7 @@ public class GlContext {
 
 	public void setBackDepthFailOp(StencilOp backDepthFailOp) {
 		if (this.backDepthFailOp == backDepthFailOp) {
+			stats.skip(StateCategory.stencil);
 			return;
 		}
 
@@ -852,6 +973,7 @@ public class GlContext {
 
 	public void setBackPassOp(StencilOp backPassOp) {
 		if (this.backPassOp == backPassOp) {
+			stats.skip(StateCategory.stencil);
 			return;
 		}
 
@@ -865,6 +987,7 @@ public class GlContext {
 	public void setBackStencilOp(StencilOp backStencilFailOp, StencilOp backDepthFailOp, StencilOp backPassOp) {
 		if (this.backStencilFailOp == backStencilFailOp && this.backDepthFailOp == backDepthFailOp
 				&& this.backPassOp == backPassOp) {
+			stats.skip(StateCategory.stencil);
 			return;
 		}
 
@@ -880,6 +1003,7 @@ public class GlContext {
 	public void setStencilOp(StencilOp stencilFailOp, StencilOp depthFailOp, StencilOp passOp) {
 		if (frontStencilFailOp == stencilFailOp && frontDepthFailOp == depthFailOp && frontPassOp == passOp
 				&& backStencilFailOp == stencilFailOp && backDepthFailOp == depthFailOp && backPassOp == passOp) {
+			stats.skip(StateCategory.stencil);
 			return;
 		}
 
@@ -891,12 +1015,14 @@ public class GlContext {
 		this.backPassOp = passOp == null ? StencilOp.defaultValue : passOp;
 
 		if (active) {
-			gl20.glStencilOpSeparate(GL20.GL_FRONT_AND_BACK, stencilFailOp.glValue, depthFailOp.glValue,
-					passOp.glValue);
+			stats.issue(StateCategory.stencil);
+			gl20.glStencilOpSeparate(GL20.GL_FRONT_AND_BACK, frontStencilFailOp.glValue, frontDepthFailOp.glValue,
+					frontPassOp.glValue);
 		}
 	}
 
 	private void updateStencilOp() {
+		stats.issue(StateCategory.stencil);
 		if (frontStencilFailOp == backStencilFailOp && frontDepthFailOp == backDepthFailOp
 				&& frontPassOp == backPassOp) {
 			gl20.glStencilOpSeparate(GL20.GL_FRONT_AND_BACK, frontStencilFailOp.glValue, frontDepthFailOp.glValue,
@@ -915,6 +1041,7 @@ public class GlContext {
 
 	public void setScissorEnabled(boolean scissorEnabled) {
 		if (this.scissorEnabled == scissorEnabled) {
+			stats.skip(StateCategory.scissor);
 			return;
 		}
 
@@ -926,6 +1053,7 @@ public class GlContext {
 	}
 
 	private void updateScissorEnabled() {
+		stats.issue(StateCategory.scissor);
 		if (stencilEnabled) {
 			gl20.glEnable(GL20.GL_SCISSOR_TEST);
 		} else {
@@ -945,6 +1073,7 @@ public class GlContext {
 		GridRectangle resolved = scissorRect == null ? defaultScissorRect : scissorRect;
 
 		if (this.scissorRect.equals(resolved)) {
+			stats.skip(StateCategory.scissor);
 			return;
 		}
 
@@ -956,6 +1085,7 @@ public class GlContext {
 	}
 
 	private void updateScissorRect() {
+		stats.issue(StateCategory.scissor);
 		gl20.glScissor(scissorRect.x, scissorRect.y, scissorRect.width, scissorRect.height);
 	}
 
@@ -967,6 +1097,7 @@ public class GlContext {
 		Color resolved = clearColorValue == null ? defaultColor : clearColorValue;
 
 		if (this.clearColorValue.equals(resolved)) {
+			stats.skip(StateCategory.clearValues);
 			return;
 		}
 
@@ -978,6 +1109,7 @@ public class GlContext {
 	}
 
 	private void updateClearColor() {
+		stats.issue(StateCategory.clearValues);
 		gl20.glClearColor(clearColorValue.r, clearColorValue.g, clearColorValue.b, clearColorValue.a);
 	}
 
@@ -998,6 +1130,7 @@ public class GlContext {
 
 	public void setClearDepthValue(float clearDepthValue) {
 		if (this.clearDepthValue == clearDepthValue) {
+			stats.skip(StateCategory.clearValues);
 			return;
 		}
 
@@ -1009,6 +1142,7 @@ public class GlContext {
 	}
 
 	private void updateClearDepth() {
+		stats.issue(StateCategory.clearValues);
 		gl20.glClearDepthf(clearDepthValue);
 	}
 
@@ -1029,6 +1163,7 @@ public class GlContext {
 
 	public void setClearStencilValue(int clearStencilValue) {
 		if (this.clearStencilValue == clearStencilValue) {
+			stats.skip(StateCategory.clearValues);
 			return;
 		}
 
@@ -1040,6 +1175,7 @@ public class GlContext {
 	}
 
 	private void updateClearStencil() {
+		stats.issue(StateCategory.clearValues);
 		gl20.glClearStencil(clearStencilValue);
 	}
 
@@ -1082,6 +1218,7 @@ public class GlContext {
 
 	public void setEnableCullFace(boolean enableCullFace) {
 		if (this.enableCullFace == enableCullFace) {
+			stats.skip(StateCategory.rasterizer);
 			return;
 		}
 
@@ -1093,6 +1230,7 @@ public class GlContext {
 	}
 
 	private void updateEnableCullFace() {
+		stats.issue(StateCategory.rasterizer);
 		if (enableCullFace) {
 			Gdx.gl.glEnable(GL20.GL_CULL_FACE);
 		} else {
@@ -1106,6 +1244,7 @@ public class GlContext {
 
 	public void setCullFace(CullFace cullFace) {
 		if (this.cullFace == cullFace) {
+			stats.skip(StateCategory.rasterizer);
 			return;
 		}
 
@@ -1117,6 +1256,7 @@ public class GlContext {
 	}
 
 	private void updateCullFace() {
+		stats.issue(StateCategory.rasterizer);
 		gl20.glCullFace(cullFace.glValue);
 	}
 
@@ -1126,6 +1266,7 @@ public class GlContext {
 
 	public void setFrontFace(FrontFace frontFace) {
 		if (this.frontFace == frontFace) {
+			stats.skip(StateCategory.rasterizer);
 			return;
 		}
 
@@ -1137,6 +1278,7 @@ public class GlContext {
 	}
 
 	private void updateFrontFace() {
+		stats.issue(StateCategory.rasterizer);
 		gl20.glFrontFace(frontFace.glValue);
 	}
 
@@ -1146,6 +1288,7 @@ public class GlContext {
 
 	public void setLineWidth(float lineWidth) {
 		if (this.lineWidth == lineWidth) {
+			stats.skip(StateCategory.rasterizer);
 			return;
 		}
 
@@ -1157,6 +1300,7 @@ public class GlContext {
 	}
 
 	private void updateLineWidth() {
+		stats.issue(StateCategory.rasterizer);
 		gl20.glLineWidth(lineWidth);
 	}
 
@@ -1168,6 +1312,37 @@ public class GlContext {
 		this.activeRenderTarget = renderTarget;
 	}
 
+	public ShaderProgramExt getActiveShaderProgram() {
+		return activeShaderProgram;
+	}
+
+	public void setActiveShaderProgram(ShaderProgramExt shaderProgram) {
+		if (activeShaderProgram == shaderProgram) {
+			stats.programSwitch(true);
+			return;
+		}
+
+		activeShaderProgram = shaderProgram;
+
+		if (active) {
+			stats.programSwitch(false);
+			if (shaderProgram == null) {
+				gl20.glUseProgram(0);
+			} else {
+				shaderProgram.begin();
+			}
+		}
+	}
+
+	/**
+	 * Counts draw calls issued by a renderer using this context. Batches that draw outside of
+	 * {@link GraphicsService#render(GraphicsService.GraphicsTask)} count them too, so frame is updated here as well.
+	 */
+	public void countDrawCalls(int count) {
+		updateFrame();
+		stats.drawCalls(count);
+	}
+
 	public final int bind(final GLTexture texture) {
 		int boundUnit = -1;
 		int weightUnit = -1;
@@ -1200,6 +1375,7 @@ public class GlContext {
 
 	public final void bind(final GLTexture texture, int unit) {
 		if (textures[unit] == texture) {
+			stats.textureBind(true);
 			textureWeights[unit] += textureReuseWeight;
 			activateTexture(unit);
 		} else {
@@ -1207,6 +1383,7 @@ public class GlContext {
 			textureWeights[unit] = 100;
 			textureIds[unit] = textureSequence++;
 			activeTexture = GL20.GL_TEXTURE0 + unit;
+			stats.textureBind(false);
 			texture.bind(unit);
 		}
 	}
@@ -0,0 +1,190 @@
+package com.gurella.engine.graphics.render.gl;
+
+/**
+ * Counters of GL state changes {@link GlContext} issued and skipped because the state was already set, texture
+ * binds, shader program switches, state blocks and draw calls. {@link GlContext#getStats()} returns counters of the
+ * last completed frame.
+ */
+public final class GlContextStats {
+	private static final StateCategory[] categories = StateCategory.values();
+
+	long frameId = -1;
+
+	private final int[] issued = new int[categories.length];
+	private final int[] skipped = new int[categories.length];
+
+	private int textureBinds;
+	private int skippedTextureBinds;
+	private int programSwitches;
+	private int skippedProgramSwitches;
+	private int stateBlocks;
+	private int skippedStateBlocks;
+	private int drawCalls;
+
+	GlContextStats() {
+	}
+
+	void issue(StateCategory category) {
+		issued[category.ordinal()]++;
+	}
+
+	void skip(StateCategory category) {
+		skipped[category.ordinal()]++;
+	}
+
+	void textureBind(boolean skip) {
+		if (skip) {
+			skippedTextureBinds++;
+		} else {
+			textureBinds++;
+		}
+	}
+
+	void programSwitch(boolean skip) {
+		if (skip) {
+			skippedProgramSwitches++;
+		} else {
+			programSwitches++;
+		}
+	}
+
+	void stateBlock(boolean skip) {
+		if (skip) {
+			skippedStateBlocks++;
+		} else {
+			stateBlocks++;
+		}
+	}
+
+	void drawCalls(int count) {
+		drawCalls += count;
+	}
+
+	public long getFrameId() {
+		return frameId;
+	}
+
+	/**
+	 * @return number of state changes of the category that were sent to GL
+	 */
+	public int getIssued(StateCategory category) {
+		return issued[category.ordinal()];
+	}
+
+	/**
+	 * @return number of state changes of the category that were skipped because the state was already set
+	 */
+	public int getSkipped(StateCategory category) {
+		return skipped[category.ordinal()];
+	}
+
+	public int getIssued() {
+		int sum = 0;
+		for (int i = 0; i < issued.length; i++) {
+			sum += issued[i];
+		}
+		return sum;
+	}
+
+	public int getSkipped() {
+		int sum = 0;
+		for (int i = 0; i < skipped.length; i++) {
+			sum += skipped[i];
+		}
+		return sum;
+	}
+
+	public int getTextureBinds() {
+		return textureBinds;
+	}
+
+	public int getSkippedTextureBinds() {
+		return skippedTextureBinds;
+	}
+
+	public int getProgramSwitches() {
+		return programSwitches;
+	}
+
+	public int getSkippedProgramSwitches() {
+		return skippedProgramSwitches;
+	}
+
+	public int getStateBlocks() {
+		return stateBlocks;
+	}
+
+	public int getSkippedStateBlocks() {
+		return skippedStateBlocks;
+	}
+
+	public int getDrawCalls() {
+		return drawCalls;
+	}
+
+	void set(GlContextStats other) {
+		frameId = other.frameId;
+		System.arraycopy(other.issued, 0, issued, 0, issued.length);
+		System.arraycopy(other.skipped, 0, skipped, 0, skipped.length);
+		textureBinds = other.textureBinds;
+		skippedTextureBinds = other.skippedTextureBinds;
+		programSwitches = other.programSwitches;
+		skippedProgramSwitches = other.skippedProgramSwitches;
+		stateBlocks = other.stateBlocks;
+		skippedStateBlocks = other.skippedStateBlocks;
+		drawCalls = other.drawCalls;
+	}
+
+	void reset() {
+		for (int i = 0; i < issued.length; i++) {
+			issued[i] = 0;
+			skipped[i] = 0;
+		}
+		textureBinds = 0;
+		skippedTextureBinds = 0;
+		programSwitches = 0;
+		skippedProgramSwitches = 0;
+		stateBlocks = 0;
+		skippedStateBlocks = 0;
+		drawCalls = 0;
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder builder = new StringBuilder();
+		builder.append("state changes: ");
+		builder.append(getIssued());
+		builder.append(", skipped ");
+		builder.append(getSkipped());
+		builder.append("\n");
+
+		for (int i = 0; i < categories.length; i++) {
+			builder.append(categories[i].name());
+			builder.append(": ");
+			builder.append(issued[i]);
+			builder.append(", skipped ");
+			builder.append(skipped[i]);
+			builder.append("\n");
+		}
+
+		builder.append("texture binds: ");
+		builder.append(textureBinds);
+		builder.append(", skipped ");
+		builder.append(skippedTextureBinds);
+		builder.append("\nprogram switches: ");
+		builder.append(programSwitches);
+		builder.append(", skipped ");
+		builder.append(skippedProgramSwitches);
+		builder.append("\nstate blocks: ");
+		builder.append(stateBlocks);
+		builder.append(", skipped ");
+		builder.append(skippedStateBlocks);
+		builder.append("\ndraw calls: ");
+		builder.append(drawCalls);
+		return builder.toString();
+	}
+
+	public enum StateCategory {
+		colorMask, blending, depth, stencil, rasterizer, scissor, clearValues;
+	}
+}
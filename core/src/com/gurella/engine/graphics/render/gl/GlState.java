@@ -0,0 +1,273 @@
+package com.gurella.engine.graphics.render.gl;
+
+/**
+ * Block of pipeline state (color mask, blending, depth, stencil and culling) applied to {@link GlContext} at once with
+ * {@link GlContext#apply(GlState)}. State is packed into two longs when it is set, so applying a state that is
+ * already current costs a single comparison of the packed values. Stencil function and operations are the same for
+ * front and back faces.
+ */
+public final class GlState {
+	private static final int fieldBits = 4;
+
+	private ColorMask colorMask = ColorMask.defaultValue;
+
+	private boolean blendingEnabled;
+	private BlendEquation rgbBlendEquation = BlendEquation.defaultValue;
+	private BlendEquation alphaBlendEquation = BlendEquation.defaultValue;
+	private BlendFunction srcRgbBlendFunction = BlendFunction.defaultSource;
+	private BlendFunction srcAlphaBlendFunction = BlendFunction.defaultSource;
+	private BlendFunction dstRgbBlendFunction = BlendFunction.defaultDestination;
+	private BlendFunction dstAlphaBlendFunction = BlendFunction.defaultDestination;
+
+	private boolean depthMask = true;
+	private boolean depthTestEnabled;
+	private DepthTestFunction depthFunction = DepthTestFunction.defaultValue;
+
+	private boolean stencilEnabled;
+	private StencilFunction stencilFunction = StencilFunction.defaultValue;
+	private int stencilRef = 0x0;
+	private int stencilMask = 0xffffffff;
+	private StencilOp stencilFailOp = StencilOp.defaultValue;
+	private StencilOp depthFailOp = StencilOp.defaultValue;
+	private StencilOp passOp = StencilOp.defaultValue;
+
+	private boolean enableCullFace = true;
+	private CullFace cullFace = CullFace.defaultValue;
+	private FrontFace frontFace = FrontFace.defaultValue;
+
+	long bits;
+	long stencilBits;
+
+	public GlState() {
+		pack();
+	}
+
+	private void pack() {
+		bits = pack(colorMask, blendingEnabled, rgbBlendEquation, alphaBlendEquation, srcRgbBlendFunction,
+				srcAlphaBlendFunction, dstRgbBlendFunction, dstAlphaBlendFunction, depthMask, depthTestEnabled,
+				depthFunction, stencilEnabled, stencilFunction, stencilFailOp, depthFailOp, passOp, enableCullFace,
+				cullFace, frontFace);
+		stencilBits = packStencil(stencilRef, stencilMask);
+	}
+
+	static long pack(ColorMask colorMask, boolean blendingEnabled, BlendEquation rgbBlendEquation,
+			BlendEquation alphaBlendEquation, BlendFunction srcRgbBlendFunction, BlendFunction srcAlphaBlendFunction,
+			BlendFunction dstRgbBlendFunction, BlendFunction dstAlphaBlendFunction, boolean depthMask,
+			boolean depthTestEnabled, DepthTestFunction depthFunction, boolean stencilEnabled,
+			StencilFunction stencilFunction, StencilOp stencilFailOp, StencilOp depthFailOp, StencilOp passOp,
+			boolean enableCullFace, CullFace cullFace, FrontFace frontFace) {
+		long bits = colorMask.ordinal();
+		bits = bits << fieldBits | rgbBlendEquation.ordinal();
+		bits = bits << fieldBits | alphaBlendEquation.ordinal();
+		bits = bits << fieldBits | srcRgbBlendFunction.ordinal();
+		bits = bits << fieldBits | srcAlphaBlendFunction.ordinal();
+		bits = bits << fieldBits | dstRgbBlendFunction.ordinal();
+		bits = bits << fieldBits | dstAlphaBlendFunction.ordinal();
+		bits = bits << fieldBits | depthFunction.ordinal();
+		bits = bits << fieldBits | stencilFunction.ordinal();
+		bits = bits << fieldBits | stencilFailOp.ordinal();
+		bits = bits << fieldBits | depthFailOp.ordinal();
+		bits = bits << fieldBits | passOp.ordinal();
+		bits = bits << fieldBits | cullFace.ordinal();
+		bits = bits << fieldBits | frontFace.ordinal();
+		bits = bits << 1 | (blendingEnabled ? 1 : 0);
+		bits = bits << 1 | (depthMask ? 1 : 0);
+		bits = bits << 1 | (depthTestEnabled ? 1 : 0);
+		bits = bits << 1 | (stencilEnabled ? 1 : 0);
+		bits = bits << 1 | (enableCullFace ? 1 : 0);
+		return bits;
+	}
+
+	/**
+	 * @return packed state usable as sort key, submitting draws sorted by it groups draws with the same state
+	 */
+	public long getSortKey() {
+		return bits;
+	}
+
+	static long packStencil(int stencilRef, int stencilMask) {
+		return (long) stencilRef << 32 | (stencilMask & 0xFFFFFFFFL);
+	}
+
+	public ColorMask getColorMask() {
+		return colorMask;
+	}
+
+	public void setColorMask(ColorMask colorMask) {
+		this.colorMask = colorMask == null ? ColorMask.defaultValue : colorMask;
+		pack();
+	}
+
+	public boolean isBlendingEnabled() {
+		return blendingEnabled;
+	}
+
+	public void setBlendingEnabled(boolean blendingEnabled) {
+		this.blendingEnabled = blendingEnabled;
+		pack();
+	}
+
+	public BlendEquation getRgbBlendEquation() {
+		return rgbBlendEquation;
+	}
+
+	public BlendEquation getAlphaBlendEquation() {
+		return alphaBlendEquation;
+	}
+
+	public void setBlendEquation(BlendEquation rgbBlendEquation, BlendEquation alphaBlendEquation) {
+		this.rgbBlendEquation = rgbBlendEquation == null ? BlendEquation.defaultValue : rgbBlendEquation;
+		this.alphaBlendEquation = alphaBlendEquation == null ? BlendEquation.defaultValue : alphaBlendEquation;
+		pack();
+	}
+
+	public BlendFunction getSrcRgbBlendFunction() {
+		return srcRgbBlendFunction;
+	}
+
+	public BlendFunction getSrcAlphaBlendFunction() {
+		return srcAlphaBlendFunction;
+	}
+
+	public BlendFunction getDstRgbBlendFunction() {
+		return dstRgbBlendFunction;
+	}
+
+	public BlendFunction getDstAlphaBlendFunction() {
+		return dstAlphaBlendFunction;
+	}
+
+	public void setBlendFunc(BlendFunction srcBlendFunction, BlendFunction dstBlendFunction) {
+		setBlendFunc(srcBlendFunction, srcBlendFunction, dstBlendFunction, dstBlendFunction);
+	}
+
+	public void setBlendFunc(BlendFunction srcRgbBlendFunction, BlendFunction srcAlphaBlendFunction,
+			BlendFunction dstRgbBlendFunction, BlendFunction dstAlphaBlendFunction) {
+		this.srcRgbBlendFunction = srcRgbBlendFunction == null ? BlendFunction.defaultSource : srcRgbBlendFunction;
+		this.srcAlphaBlendFunction = srcAlphaBlendFunction == null ? BlendFunction.defaultSource
+				: srcAlphaBlendFunction;
+		this.dstRgbBlendFunction = dstRgbBlendFunction == null ? BlendFunction.defaultDestination : dstRgbBlendFunction;
+		this.dstAlphaBlendFunction = dstAlphaBlendFunction == null ? BlendFunction.defaultDestination
+				: dstAlphaBlendFunction;
+		pack();
+	}
+
+	public boolean getDepthMask() {
+		return depthMask;
+	}
+
+	public void setDepthMask(boolean depthMask) {
+		this.depthMask = depthMask;
+		pack();
+	}
+
+	public boolean isDepthTestEnabled() {
+		return depthTestEnabled;
+	}
+
+	public void setDepthTestEnabled(boolean depthTestEnabled) {
+		this.depthTestEnabled = depthTestEnabled;
+		pack();
+	}
+
+	public DepthTestFunction getDepthFunction() {
+		return depthFunction;
+	}
+
+	public void setDepthFunction(DepthTestFunction depthFunction) {
+		this.depthFunction = depthFunction == null ? DepthTestFunction.defaultValue : depthFunction;
+		pack();
+	}
+
+	public boolean isStencilEnabled() {
+		return stencilEnabled;
+	}
+
+	public void setStencilEnabled(boolean stencilEnabled) {
+		this.stencilEnabled = stencilEnabled;
+		pack();
+	}
+
+	public StencilFunction getStencilFunction() {
+		return stencilFunction;
+	}
+
+	public int getStencilRef() {
+		return stencilRef;
+	}
+
+	public int getStencilMask() {
+		return stencilMask;
+	}
+
+	public void setStencilFunction(StencilFunction stencilFunction, int stencilRef, int stencilMask) {
+		this.stencilFunction = stencilFunction == null ? StencilFunction.defaultValue : stencilFunction;
+		this.stencilRef = stencilRef;
+		this.stencilMask = stencilMask;
+		pack();
+	}
+
+	public StencilOp getStencilFailOp() {
+		return stencilFailOp;
+	}
+
+	public StencilOp getDepthFailOp() {
+		return depthFailOp;
+	}
+
+	public StencilOp getPassOp() {
+		return passOp;
+	}
+
+	public void setStencilOp(StencilOp stencilFailOp, StencilOp depthFailOp, StencilOp passOp) {
+		this.stencilFailOp = stencilFailOp == null ? StencilOp.defaultValue : stencilFailOp;
+		this.depthFailOp = depthFailOp == null ? StencilOp.defaultValue : depthFailOp;
+		this.passOp = passOp == null ? StencilOp.defaultValue : passOp;
+		pack();
+	}
+
+	public boolean isEnableCullFace() {
+		return enableCullFace;
+	}
+
+	public void setEnableCullFace(boolean enableCullFace) {
+		this.enableCullFace = enableCullFace;
+		pack();
+	}
+
+	public CullFace getCullFace() {
+		return cullFace;
+	}
+
+	public void setCullFace(CullFace cullFace) {
+		this.cullFace = cullFace == null ? CullFace.defaultValue : cullFace;
+		pack();
+	}
+
+	public FrontFace getFrontFace() {
+		return frontFace;
+	}
+
+	public void setFrontFace(FrontFace frontFace) {
+		this.frontFace = frontFace == null ? FrontFace.defaultValue : frontFace;
+		pack();
+	}
+
+	@Override
+	public int hashCode() {
+		long hash = bits * 31 + stencilBits;
+		return (int) (hash ^ (hash >>> 32));
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj) {
+			return true;
+		}
+		if (!(obj instanceof GlState)) {
+			return false;
+		}
+		GlState other = (GlState) obj;
+		return bits == other.bits && stencilBits == other.stencilBits;
+	}
+}
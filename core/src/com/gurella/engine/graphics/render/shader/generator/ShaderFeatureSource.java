@@ -0,0 +1,8 @@
+package com.gurella.engine.graphics.render.shader.generator;
+
+/**
+ * Implemented by renderables, geometries and material instances that require shader features.
+ */
+public interface ShaderFeatureSource {
+	void collectShaderFeatures(ShaderFeatures features);
+}
@@ -0,0 +1,220 @@
+package com.gurella.engine.graphics.render.shader.generator;
+
+import com.badlogic.gdx.graphics.VertexAttributes;
+import com.badlogic.gdx.graphics.VertexAttributes.Usage;
+import com.badlogic.gdx.graphics.g3d.Environment;
+import com.badlogic.gdx.graphics.g3d.Material;
+import com.badlogic.gdx.graphics.g3d.Renderable;
+import com.badlogic.gdx.graphics.g3d.attributes.ColorAttribute;
+import com.badlogic.gdx.graphics.g3d.attributes.DirectionalLightsAttribute;
+import com.badlogic.gdx.graphics.g3d.attributes.PointLightsAttribute;
+import com.badlogic.gdx.graphics.g3d.attributes.SpotLightsAttribute;
+import com.badlogic.gdx.graphics.g3d.attributes.TextureAttribute;
+
+/**
+ * Features of the renderable, its material and the environment that select a variant of a shader template: feature
+ * flags (skinning, normal map, fog...) and number of lights of each type. Features are defined as properties and
+ * values of {@link ShaderGeneratorContext} when the variant is generated, so templates test them with
+ * {@code @ifdef (skinning)} or use light counts as loop bounds. {@link #getKey()} packs features into a long that
+ * identifies the variant.
+ */
+public final class ShaderFeatures {
+	public static final int skinning = 1;
+	public static final int normalMap = 1 << 1;
+	public static final int fog = 1 << 2;
+	public static final int vertexColors = 1 << 3;
+	public static final int shadows = 1 << 4;
+
+	private static final String[] flagNames = { "skinning", "normalMap", "fog", "vertexColors", "shadows" };
+	private static final int maxLights = 0xFF;
+
+	private int flags;
+	private int directionalLights;
+	private int pointLights;
+	private int spotLights;
+
+	public boolean isEnabled(int feature) {
+		return (flags & feature) == feature;
+	}
+
+	public ShaderFeatures enable(int feature) {
+		flags |= feature;
+		return this;
+	}
+
+	public ShaderFeatures disable(int feature) {
+		flags &= ~feature;
+		return this;
+	}
+
+	public int getDirectionalLights() {
+		return directionalLights;
+	}
+
+	public ShaderFeatures setDirectionalLights(int directionalLights) {
+		this.directionalLights = checkLights(directionalLights);
+		return this;
+	}
+
+	public int getPointLights() {
+		return pointLights;
+	}
+
+	public ShaderFeatures setPointLights(int pointLights) {
+		this.pointLights = checkLights(pointLights);
+		return this;
+	}
+
+	public int getSpotLights() {
+		return spotLights;
+	}
+
+	public ShaderFeatures setSpotLights(int spotLights) {
+		this.spotLights = checkLights(spotLights);
+		return this;
+	}
+
+	private static int checkLights(int lights) {
+		if (lights < 0 || lights > maxLights) {
+			throw new IllegalArgumentException("Number of lights must be between 0 and " + maxLights);
+		}
+		return lights;
+	}
+
+	/**
+	 * Adds flags and lights of other features.
+	 */
+	public ShaderFeatures add(ShaderFeatures other) {
+		flags |= other.flags;
+		directionalLights = Math.min(maxLights, directionalLights + other.directionalLights);
+		pointLights = Math.min(maxLights, pointLights + other.pointLights);
+		spotLights = Math.min(maxLights, spotLights + other.spotLights);
+		return this;
+	}
+
+	/**
+	 * Enables {@link #skinning} for meshes with bone weights and {@link #vertexColors} for meshes with colors.
+	 */
+	public ShaderFeatures collect(VertexAttributes attributes) {
+		long mask = attributes.getMask();
+		if ((mask & Usage.BoneWeight) != 0) {
+			flags |= skinning;
+		}
+		if ((mask & (Usage.ColorPacked | Usage.ColorUnpacked)) != 0) {
+			flags |= vertexColors;
+		}
+		return this;
+	}
+
+	/**
+	 * Enables {@link #normalMap} for materials with normal texture.
+	 */
+	public ShaderFeatures collect(Material material) {
+		if (material.has(TextureAttribute.Normal)) {
+			flags |= normalMap;
+		}
+		return this;
+	}
+
+	/**
+	 * Adds lights of the environment and enables {@link #fog} and {@link #shadows} when environment has them.
+	 */
+	// deprecated Environment.shadowMap is still the only way to know that the environment casts shadows
+	@SuppressWarnings("deprecation")
+	public ShaderFeatures collect(Environment environment) {
+		DirectionalLightsAttribute directional = environment.get(DirectionalLightsAttribute.class,
+				DirectionalLightsAttribute.Type);
+		if (directional != null) {
+			directionalLights = Math.min(maxLights, directionalLights + directional.lights.size);
+		}
+
+		PointLightsAttribute point = environment.get(PointLightsAttribute.class, PointLightsAttribute.Type);
+		if (point != null) {
+			pointLights = Math.min(maxLights, pointLights + point.lights.size);
+		}
+
+		SpotLightsAttribute spot = environment.get(SpotLightsAttribute.class, SpotLightsAttribute.Type);
+		if (spot != null) {
+			spotLights = Math.min(maxLights, spotLights + spot.lights.size);
+		}
+
+		if (environment.has(ColorAttribute.Fog)) {
+			flags |= fog;
+		}
+		if (environment.shadowMap != null) {
+			flags |= shadows;
+		}
+		return this;
+	}
+
+	/**
+	 * Collects features of mesh, material and environment of the renderable, enables {@link #skinning} when it has
+	 * bones.
+	 */
+	public ShaderFeatures collect(Renderable renderable) {
+		if (renderable.meshPart.mesh != null) {
+			collect(renderable.meshPart.mesh.getVertexAttributes());
+		}
+		if (renderable.material != null) {
+			collect(renderable.material);
+		}
+		if (renderable.environment != null) {
+			collect(renderable.environment);
+		}
+		if (renderable.bones != null) {
+			flags |= skinning;
+		}
+		return this;
+	}
+
+	public ShaderFeatures set(ShaderFeatures other) {
+		flags = other.flags;
+		directionalLights = other.directionalLights;
+		pointLights = other.pointLights;
+		spotLights = other.spotLights;
+		return this;
+	}
+
+	public long getKey() {
+		return (flags & 0xFFFFFFFFL) | (long) directionalLights << 32 | (long) pointLights << 40
+				| (long) spotLights << 48;
+	}
+
+	public ShaderFeatures setKey(long key) {
+		flags = (int) key;
+		directionalLights = (int) (key >>> 32) & maxLights;
+		pointLights = (int) (key >>> 40) & maxLights;
+		spotLights = (int) (key >>> 48) & maxLights;
+		return this;
+	}
+
+	void define(ShaderGeneratorContext context) {
+		for (int i = 0; i < flagNames.length; i++) {
+			if ((flags & (1 << i)) != 0) {
+				context.define(flagNames[i]);
+			}
+		}
+
+		context.setValue("directionalLights", directionalLights);
+		context.setValue("pointLights", pointLights);
+		context.setValue("spotLights", spotLights);
+	}
+
+	public void reset() {
+		flags = 0;
+		directionalLights = 0;
+		pointLights = 0;
+		spotLights = 0;
+	}
+
+	@Override
+	public int hashCode() {
+		long key = getKey();
+		return (int) (key ^ (key >>> 32));
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		return obj instanceof ShaderFeatures && ((ShaderFeatures) obj).getKey() == getKey();
+	}
+}
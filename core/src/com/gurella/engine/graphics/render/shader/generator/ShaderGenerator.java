@@ -1,11 +1,198 @@
 package com.gurella.engine.graphics.render.shader.generator;
 
-import com.badlogic.gdx.graphics.glutils.ShaderProgram;
+import com.badlogic.gdx.graphics.Mesh;
+import com.badlogic.gdx.graphics.VertexAttributes;
+import com.badlogic.gdx.graphics.g3d.Environment;
+import com.badlogic.gdx.graphics.g3d.Material;
+import com.badlogic.gdx.utils.Disposable;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+import com.badlogic.gdx.utils.IdentityMap;
+import com.badlogic.gdx.utils.LongMap;
+import com.gurella.engine.asset.AssetService;
+import com.gurella.engine.graphics.render.gl.GlContext;
+import com.gurella.engine.graphics.render.gl.GlContextStats;
 import com.gurella.engine.graphics.render.renderable.Renderable;
+import com.gurella.engine.graphics.render.shader.ShaderProgramExt;
 import com.gurella.engine.graphics.render.shader.template.ShaderTemplate;
 
-public class ShaderGenerator {
-	public ShaderProgram generate(ShaderTemplate template, Renderable renderable) {
-		return null;
+/**
+ * Generates shader programs from templates. Template is generated once for each stage with {@code VERTEX} or
+ * {@code FRAGMENT} defined, together with {@link ShaderFeatures} of the renderable, its geometry and material
+ * (vertex attributes, material textures, see also {@link ShaderFeatureSource}) and of the environment (lights, fog)
+ * set by the render path. Compiled programs are cached by template and feature key, so each variant is compiled only
+ * once, and generated variants are recorded in {@link ShaderVariantManifest} so they can be compiled ahead in later
+ * runs.
+ */
+public class ShaderGenerator implements Disposable {
+	public static final String vertexDefine = "VERTEX";
+	public static final String fragmentDefine = "FRAGMENT";
+
+	private final ShaderGeneratorContext context = new ShaderGeneratorContext();
+	private final ShaderFeatures environmentFeatures = new ShaderFeatures();
+	private final ShaderFeatures features = new ShaderFeatures();
+	private final IdentityMap<ShaderTemplate, LongMap<ShaderProgramExt>> programs = new IdentityMap<ShaderTemplate, LongMap<ShaderProgramExt>>();
+
+	/**
+	 * @return features of the environment added to features of each renderable
+	 */
+	public ShaderFeatures getEnvironmentFeatures() {
+		return environmentFeatures;
+	}
+
+	public ShaderProgramExt generate(ShaderTemplate template, Renderable renderable) {
+		features.set(environmentFeatures);
+		collectFeatures(renderable, features);
+		return generate(template, features);
+	}
+
+	public ShaderProgramExt generate(ShaderTemplate template, com.badlogic.gdx.graphics.g3d.Renderable renderable) {
+		features.set(environmentFeatures);
+		features.collect(renderable);
+		return generate(template, features);
+	}
+
+	protected void collectFeatures(Renderable renderable, ShaderFeatures out) {
+		collectFeatures((Object) renderable, out);
+		collectFeatures(renderable.getGeometry(), out);
+		collectFeatures(renderable.getMaterialInstance(), out);
+	}
+
+	/**
+	 * Collects features of {@link ShaderFeatureSource}, mesh, vertex attributes, material or environment.
+	 */
+	public static void collectFeatures(Object source, ShaderFeatures out) {
+		if (source instanceof ShaderFeatureSource) {
+			((ShaderFeatureSource) source).collectShaderFeatures(out);
+		} else if (source instanceof Mesh) {
+			out.collect(((Mesh) source).getVertexAttributes());
+		} else if (source instanceof VertexAttributes) {
+			out.collect((VertexAttributes) source);
+		} else if (source instanceof Material) {
+			out.collect((Material) source);
+		} else if (source instanceof Environment) {
+			out.collect((Environment) source);
+		} else if (source instanceof com.badlogic.gdx.graphics.g3d.Renderable) {
+			out.collect((com.badlogic.gdx.graphics.g3d.Renderable) source);
+		}
+	}
+
+	public ShaderProgramExt generate(ShaderTemplate template, ShaderFeatures features) {
+		long key = features.getKey();
+		ShaderProgramExt program = getVariants(template).get(key);
+		if (program == null) {
+			String vertexShader = generateSource(template, features, true);
+			String fragmentShader = generateSource(template, features, false);
+			program = compile(template, key, vertexShader, fragmentShader);
+		}
+		return program;
+	}
+
+	/**
+	 * Generates the program for the renderable and makes it active program of the context. Binding a program that is
+	 * already active is skipped, switches are counted in {@link GlContextStats}.
+	 */
+	public ShaderProgramExt bind(GlContext context, ShaderTemplate template, Renderable renderable) {
+		ShaderProgramExt program = generate(template, renderable);
+		context.setActiveShaderProgram(program);
+		return program;
+	}
+
+	/**
+	 * Generates the program with the features and makes it active program of the context, see
+	 * {@link #bind(GlContext, ShaderTemplate, Renderable)}.
+	 */
+	public ShaderProgramExt bind(GlContext context, ShaderTemplate template, ShaderFeatures features) {
+		ShaderProgramExt program = generate(template, features);
+		context.setActiveShaderProgram(program);
+		return program;
+	}
+
+	private LongMap<ShaderProgramExt> getVariants(ShaderTemplate template) {
+		LongMap<ShaderProgramExt> variants = programs.get(template);
+		if (variants == null) {
+			variants = new LongMap<ShaderProgramExt>();
+			programs.put(template, variants);
+		}
+		return variants;
+	}
+
+	/**
+	 * @return true when the variant is compiled and cached
+	 */
+	public boolean isGenerated(ShaderTemplate template, ShaderFeatures features) {
+		return isGenerated(template, features.getKey());
+	}
+
+	boolean isGenerated(ShaderTemplate template, long key) {
+		LongMap<ShaderProgramExt> variants = programs.get(template);
+		return variants != null && variants.containsKey(key);
+	}
+
+	/**
+	 * Compiles the variant from sources generated by {@link #generateSource(ShaderGeneratorContext, ShaderTemplate,
+	 * ShaderFeatures, boolean)} and caches it. Must be called on the GL thread.
+	 */
+	ShaderProgramExt compile(ShaderTemplate template, long key, String vertexShader, String fragmentShader) {
+		LongMap<ShaderProgramExt> variants = getVariants(template);
+		ShaderProgramExt program = variants.get(key);
+		if (program != null) {
+			return program;
+		}
+
+		program = new ShaderProgramExt(vertexShader, fragmentShader);
+		if (!program.isCompiled()) {
+			String log = program.getLog();
+			program.dispose();
+			throw new GdxRuntimeException("Error compiling shader variant " + Long.toHexString(key) + ": " + log);
+		}
+
+		variants.put(key, program);
+		String templateFileName = AssetService.getFileName(template);
+		if (templateFileName != null) {
+			ShaderVariantManifest.record(templateFileName, key);
+		}
+		return program;
+	}
+
+	/**
+	 * @return preprocessed source of the vertex or fragment shader of the variant
+	 */
+	public String generateSource(ShaderTemplate template, ShaderFeatures features, boolean vertex) {
+		return generateSource(context, template, features, vertex);
+	}
+
+	/**
+	 * Generates the source with the given context. Templates are only read while generating, so sources of one
+	 * template can be generated on many threads, each with its own context.
+	 */
+	static String generateSource(ShaderGeneratorContext context, ShaderTemplate template, ShaderFeatures features,
+			boolean vertex) {
+		try {
+			context.init(template);
+			features.define(context);
+			context.define(vertex ? vertexDefine : fragmentDefine);
+			template.generate(context);
+			return context.getShaderSource(true);
+		} finally {
+			context.reset();
+		}
+	}
+
+	public int getVariantCount() {
+		int count = 0;
+		for (LongMap<ShaderProgramExt> variants : programs.values()) {
+			count += variants.size;
+		}
+		return count;
+	}
+
+	@Override
+	public void dispose() {
+		for (LongMap<ShaderProgramExt> variants : programs.values()) {
+			for (ShaderProgramExt program : variants.values()) {
+				program.dispose();
+			}
+		}
+		programs.clear();
 	}
 }
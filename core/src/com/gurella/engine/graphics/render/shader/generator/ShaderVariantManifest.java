@@ -0,0 +1,122 @@
+package com.gurella.engine.graphics.render.shader.generator;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.utils.LongArray;
+import com.badlogic.gdx.utils.ObjectMap;
+import com.badlogic.gdx.utils.StreamUtils;
+import com.gurella.engine.asset.cache.ProcessedAssetCache;
+
+/**
+ * Persistent record of shader variants (feature keys) generated for each shader template, stored next to entries of
+ * {@link ProcessedAssetCache}. Variants recorded in previous runs can be compiled while loading instead of when a
+ * material first appears on screen. Templates are identified by their asset file name.
+ */
+public final class ShaderVariantManifest {
+	private static final String fileName = "shader-variants.txt";
+
+	private static ObjectMap<String, LongArray> variantsByTemplate;
+
+	private ShaderVariantManifest() {
+	}
+
+	/**
+	 * @return recorded variant keys of the template, see {@link ShaderFeatures#getKey()}
+	 */
+	public static synchronized LongArray getVariants(String templateFileName, LongArray out) {
+		LongArray variants = getVariantsByTemplate().get(templateFileName);
+		if (variants != null) {
+			out.addAll(variants);
+		}
+		return out;
+	}
+
+	static synchronized void record(String templateFileName, long key) {
+		ObjectMap<String, LongArray> variantsByTemplate = getVariantsByTemplate();
+		LongArray variants = variantsByTemplate.get(templateFileName);
+		if (variants == null) {
+			variants = new LongArray();
+			variantsByTemplate.put(templateFileName, variants);
+		} else if (variants.contains(key)) {
+			return;
+		}
+
+		variants.add(key);
+		FileHandle file = getFile();
+		if (file != null) {
+			try {
+				file.writeString(templateFileName + '\t' + Long.toHexString(key) + '\n', true, "UTF-8");
+			} catch (RuntimeException e) {
+				// manifest is only an optimization
+			}
+		}
+	}
+
+	private static ObjectMap<String, LongArray> getVariantsByTemplate() {
+		if (variantsByTemplate == null) {
+			variantsByTemplate = new ObjectMap<String, LongArray>();
+			load();
+		}
+		return variantsByTemplate;
+	}
+
+	private static void load() {
+		FileHandle file = getFile();
+		if (file == null || !file.exists()) {
+			return;
+		}
+
+		BufferedReader reader = null;
+		try {
+			reader = file.reader(1024, "UTF-8");
+			String line;
+			while ((line = reader.readLine()) != null) {
+				int separator = line.lastIndexOf('\t');
+				if (separator < 1) {
+					continue;
+				}
+
+				String template = line.substring(0, separator);
+				long key;
+				try {
+					key = Long.parseLong(line.substring(separator + 1), 16);
+				} catch (NumberFormatException e) {
+					continue;
+				}
+
+				LongArray variants = variantsByTemplate.get(template);
+				if (variants == null) {
+					variants = new LongArray();
+					variantsByTemplate.put(template, variants);
+				}
+				if (!variants.contains(key)) {
+					variants.add(key);
+				}
+			}
+		} catch (IOException e) {
+			// manifest is only an optimization
+		} catch (RuntimeException e) {
+			// manifest is only an optimization
+		} finally {
+			StreamUtils.closeQuietly(reader);
+		}
+	}
+
+	private static FileHandle getFile() {
+		FileHandle directory = ProcessedAssetCache.getDirectory();
+		return directory == null ? null : directory.child(fileName);
+	}
+
+	/**
+	 * Forgets recorded variants and deletes the manifest.
+	 */
+	public static synchronized void clear() {
+		variantsByTemplate = new ObjectMap<String, LongArray>();
+		FileHandle file = getFile();
+		if (file != null && file.exists()) {
+			file.delete();
+		}
+	}
+}
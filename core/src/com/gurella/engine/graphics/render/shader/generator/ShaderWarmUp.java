@@ -0,0 +1,522 @@
+package com.gurella.engine.graphics.render.shader.generator;
+
+import com.badlogic.gdx.graphics.Mesh;
+import com.badlogic.gdx.graphics.g3d.Material;
+import com.badlogic.gdx.graphics.g3d.Model;
+import com.badlogic.gdx.graphics.g3d.model.Node;
+import com.badlogic.gdx.graphics.g3d.model.NodePart;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.LongArray;
+import com.badlogic.gdx.utils.TimeUtils;
+import com.badlogic.gdx.utils.async.AsyncExecutor;
+import com.badlogic.gdx.utils.async.AsyncTask;
+import com.gurella.engine.asset.AssetService;
+import com.gurella.engine.async.AsyncCallback;
+import com.gurella.engine.async.AsyncService;
+import com.gurella.engine.disposable.DisposablesService;
+import com.gurella.engine.graphics.material.MaterialDescriptor;
+import com.gurella.engine.graphics.render.shader.template.ShaderTemplate;
+import com.gurella.engine.scene.Scene;
+import com.gurella.engine.scene.SceneNode;
+import com.gurella.engine.scene.SceneNodeComponent;
+import com.gurella.engine.scene.renderable.ModelComponent;
+import com.gurella.engine.scene.renderable.ShapeComponent;
+import com.gurella.engine.scene.renderable.shape.ShapeModel;
+import com.gurella.engine.utils.ImmutableArray;
+
+/**
+ * Compiles variants of the shader template ahead, typically while a loading screen is shown, so the first frames that
+ * use them don't stall on shader compilation. Variants are added from scenes and materials that will be rendered,
+ * explicit features or variants recorded in {@link ShaderVariantManifest} in previous runs. After
+ * {@link #start(AsyncCallback)}, sources are generated on worker threads in the order variants were added and
+ * {@link #update()}, called on the GL thread each frame, compiles them within the time budget.
+ * <p>
+ * {@link #loadAsync(AsyncCallback, String, Class, int)} chains the warm-up to asset loading: variants of the loaded
+ * scene or material are compiled before the callback is notified about success, and progress of loading and warm-up
+ * is reported to the same callback.
+ */
+public class ShaderWarmUp {
+	static final int defaultBudget = 4;
+	static final int defaultThreads = Math.max(1, Runtime.getRuntime().availableProcessors() - 1);
+	/** Part of the progress reported by {@link #loadAsync(AsyncCallback, String, Class, int)} for loading. */
+	static final float loadingShare = 0.5f;
+
+	private final ShaderGenerator generator;
+	private final ShaderTemplate template;
+	private final ShaderFeatures features = new ShaderFeatures();
+	private final LongArray addedKeys = new LongArray();
+
+	private final Object mutex = new Object();
+	private final Array<Variant> pending = new Array<Variant>();
+	private final Array<Variant> prepared = new Array<Variant>();
+	private Throwable exception;
+
+	private AsyncExecutor executor;
+	private AsyncCallback<ShaderGenerator> callback;
+	private AssetCallback<?> assetCallback;
+	private State state = State.idle;
+	private int total;
+	private int compiled;
+	private int threads = defaultThreads;
+	/** Time in nanoseconds that one update can spend compiling, 0 for no limit. */
+	private long budget = defaultBudget * 1000000L;
+
+	public ShaderWarmUp(ShaderGenerator generator, ShaderTemplate template) {
+		this.generator = generator;
+		this.template = template;
+	}
+
+	/**
+	 * Limits time that one update spends compiling. At least one variant is compiled in every update.
+	 *
+	 * @param millis
+	 *            budget in milliseconds, 0 for no limit
+	 */
+	public ShaderWarmUp setBudget(int millis) {
+		if (millis < 0) {
+			throw new IllegalArgumentException("millis must not be negative.");
+		}
+		budget = millis * 1000000L;
+		return this;
+	}
+
+	/**
+	 * Sets number of threads that generate sources, takes effect when the warm-up starts. Asset loading threads are
+	 * not used, so the warm-up doesn't hold back assets that are loaded at the same time.
+	 */
+	public ShaderWarmUp setThreads(int threads) {
+		if (threads < 1) {
+			throw new IllegalArgumentException("threads must be positive.");
+		}
+		this.threads = threads;
+		return this;
+	}
+
+	/**
+	 * Adds variants used to render models and shapes of the scene, features of their meshes and materials are
+	 * collected together with {@link ShaderGenerator#getEnvironmentFeatures()}.
+	 */
+	public ShaderWarmUp add(Scene scene) {
+		ImmutableArray<SceneNode> nodes = scene.nodes;
+		for (int i = 0, n = nodes.size(); i < n; i++) {
+			add(nodes.get(i));
+		}
+		return this;
+	}
+
+	private void add(SceneNode node) {
+		ImmutableArray<SceneNodeComponent> components = node.components;
+		for (int i = 0, n = components.size(); i < n; i++) {
+			add(components.get(i));
+		}
+
+		ImmutableArray<SceneNode> childNodes = node.childNodes;
+		for (int i = 0, n = childNodes.size(); i < n; i++) {
+			add(childNodes.get(i));
+		}
+	}
+
+	private void add(SceneNodeComponent component) {
+		if (component instanceof ModelComponent) {
+			Model model = ((ModelComponent) component).getModel();
+			if (model != null) {
+				addNodes(model.nodes);
+			}
+		} else if (component instanceof ShapeComponent) {
+			ShapeModel shape = ((ShapeComponent) component).getShape();
+			if (shape != null) {
+				features.set(generator.getEnvironmentFeatures());
+				features.collect(shape.getVertexAttributes()).collect(shape.getMaterial());
+				add(features.getKey());
+			}
+		}
+	}
+
+	private void addNodes(Iterable<Node> nodes) {
+		for (Node node : nodes) {
+			Array<NodePart> parts = node.parts;
+			for (int i = 0, n = parts.size; i < n; i++) {
+				NodePart part = parts.get(i);
+				features.set(generator.getEnvironmentFeatures());
+				Mesh mesh = part.meshPart.mesh;
+				if (mesh != null) {
+					features.collect(mesh.getVertexAttributes());
+				}
+				if (part.material != null) {
+					features.collect(part.material);
+				}
+				if (part.bones != null) {
+					features.enable(ShaderFeatures.skinning);
+				}
+				add(features.getKey());
+			}
+			addNodes(node.getChildren());
+		}
+	}
+
+	/**
+	 * Adds the variant used to render geometry without skinning and vertex colors with the material.
+	 */
+	public ShaderWarmUp add(Material material) {
+		features.set(generator.getEnvironmentFeatures());
+		features.collect(material);
+		return add(features.getKey());
+	}
+
+	/**
+	 * Adds the variant used to render geometry without skinning and vertex colors with the material.
+	 */
+	public ShaderWarmUp add(MaterialDescriptor material) {
+		features.set(generator.getEnvironmentFeatures());
+		material.collectShaderFeatures(features);
+		return add(features.getKey());
+	}
+
+	public ShaderWarmUp addMaterials(Iterable<? extends Material> materials) {
+		for (Material material : materials) {
+			add(material);
+		}
+		return this;
+	}
+
+	public ShaderWarmUp addMaterialDescriptors(Iterable<? extends MaterialDescriptor> materials) {
+		for (MaterialDescriptor material : materials) {
+			add(material);
+		}
+		return this;
+	}
+
+	public ShaderWarmUp add(ShaderFeatures features) {
+		return add(features.getKey());
+	}
+
+	/**
+	 * Adds variants of the template recorded in {@link ShaderVariantManifest}.
+	 */
+	public ShaderWarmUp addRecorded() {
+		String templateFileName = AssetService.getFileName(template);
+		if (templateFileName == null) {
+			return this;
+		}
+
+		LongArray keys = ShaderVariantManifest.getVariants(templateFileName, new LongArray());
+		for (int i = 0, n = keys.size; i < n; i++) {
+			add(keys.get(i));
+		}
+		return this;
+	}
+
+	private ShaderWarmUp add(long key) {
+		if (state != State.idle && state != State.loading) {
+			throw new IllegalStateException("Warm-up already started.");
+		}
+
+		if (generator.isGenerated(template, key) || addedKeys.contains(key)) {
+			return this;
+		}
+
+		addedKeys.add(key);
+		pending.add(new Variant(key));
+		return this;
+	}
+
+	/**
+	 * @return number of added variants that aren't compiled yet
+	 */
+	public int getVariantCount() {
+		return state == State.idle || state == State.loading ? pending.size : total - compiled;
+	}
+
+	/**
+	 * Starts generating sources of added variants on worker threads. Sources are compiled by {@link #update()}.
+	 *
+	 * @param callback
+	 *            notified about progress, completion and compilation errors, can be null
+	 */
+	public void start(AsyncCallback<ShaderGenerator> callback) {
+		if (state != State.idle) {
+			throw new IllegalStateException("Warm-up already started.");
+		}
+		startWarmUp(callback);
+	}
+
+	private void startWarmUp(AsyncCallback<ShaderGenerator> callback) {
+		this.callback = callback;
+		state = State.running;
+		total = pending.size;
+		if (total == 0) {
+			return;
+		}
+
+		int workers = Math.min(total, threads);
+		executor = DisposablesService.add(AsyncService.createAsyncExecutor(workers));
+		for (int i = 0; i < workers; i++) {
+			executor.submit(new SourceGenerator());
+		}
+	}
+
+	/**
+	 * Loads the asset with {@link AssetService#loadAsync(AsyncCallback, String, Class, int)} and starts the warm-up
+	 * when it is loaded. Variants of a loaded {@link Scene}, {@link Model}, {@link Material} or
+	 * {@link MaterialDescriptor} are added to variants that were added before. Loading progress is reported as the
+	 * first part of the progress, the callback is notified about success when the warm-up is finished.
+	 * {@link #update()} also updates {@link AssetService} while the asset is loading.
+	 */
+	public <T> void loadAsync(AsyncCallback<? super T> callback, String fileName, Class<T> assetType,
+			int priority) {
+		if (state != State.idle) {
+			throw new IllegalStateException("Warm-up already started.");
+		}
+
+		AssetCallback<T> assetCallback = new AssetCallback<T>(callback);
+		this.assetCallback = assetCallback;
+		state = State.loading;
+		AssetService.loadAsync(assetCallback, fileName, assetType, priority);
+	}
+
+	private void addAsset(Object asset) {
+		if (asset instanceof Scene) {
+			add((Scene) asset);
+		} else if (asset instanceof Model) {
+			addNodes(((Model) asset).nodes);
+		} else if (asset instanceof Material) {
+			add((Material) asset);
+		} else if (asset instanceof MaterialDescriptor) {
+			add((MaterialDescriptor) asset);
+		}
+	}
+
+	/**
+	 * Compiles generated variants until the budget is spent. Must be called on the GL thread.
+	 *
+	 * @return true when warm-up is finished, failed or canceled
+	 */
+	public boolean update() {
+		if (state == State.idle) {
+			throw new IllegalStateException("Warm-up not started.");
+		} else if (state == State.loading) {
+			AssetService.update();
+			return state != State.loading && state != State.running;
+		} else if (state != State.running) {
+			return true;
+		}
+
+		long startTime = TimeUtils.nanoTime();
+		int compiledBefore = compiled;
+		while (compiled < total) {
+			Variant variant;
+			synchronized (mutex) {
+				if (exception != null) {
+					fail(exception);
+					return true;
+				}
+				variant = prepared.size == 0 ? null : prepared.removeIndex(0);
+			}
+
+			if (variant == null) {
+				break;
+			}
+
+			try {
+				generator.compile(template, variant.key, variant.vertexShader, variant.fragmentShader);
+			} catch (RuntimeException e) {
+				fail(e);
+				return true;
+			}
+
+			compiled++;
+			if (budget > 0 && TimeUtils.nanoTime() - startTime >= budget) {
+				break;
+			}
+		}
+
+		if (compiled < total) {
+			if (compiled > compiledBefore && callback != null) {
+				callback.onProgress((float) compiled / total);
+			}
+			return false;
+		}
+
+		finish();
+		if (callback != null) {
+			callback.onProgress(1);
+			callback.onSuccess(generator);
+		}
+		return true;
+	}
+
+	public float getProgress() {
+		if (state == State.loading) {
+			return assetCallback.loadingProgress * loadingShare;
+		}
+
+		float progress = total == 0 ? (state == State.idle ? 0 : 1) : (float) compiled / total;
+		return assetCallback == null ? progress : loadingShare + progress * (1 - loadingShare);
+	}
+
+	public boolean isFinished() {
+		return state == State.finished;
+	}
+
+	/**
+	 * Stops the warm-up, variants that are already compiled stay cached in the generator. Asset that is still
+	 * loading is unloaded when it is loaded.
+	 */
+	public void cancel() {
+		if (state == State.loading) {
+			state = State.canceled;
+			assetCallback.callback.onCanceled("Shader warm-up canceled.");
+			return;
+		} else if (state != State.running) {
+			return;
+		}
+
+		finish();
+		state = State.canceled;
+		if (callback != null) {
+			callback.onCanceled("Shader warm-up canceled.");
+		}
+	}
+
+	private void fail(Throwable exception) {
+		finish();
+		state = State.failed;
+		if (callback != null) {
+			callback.onException(exception);
+		}
+	}
+
+	private void finish() {
+		state = State.finished;
+		synchronized (mutex) {
+			pending.clear();
+			prepared.clear();
+		}
+		addedKeys.clear();
+		if (executor != null) {
+			// workers see empty queue and exit
+			DisposablesService.dispose(executor);
+			executor = null;
+		}
+	}
+
+	private class SourceGenerator implements AsyncTask<Void> {
+		private final ShaderGeneratorContext context = new ShaderGeneratorContext();
+		private final ShaderFeatures features = new ShaderFeatures();
+
+		@Override
+		public Void call() throws Exception {
+			while (true) {
+				Variant variant;
+				synchronized (mutex) {
+					if (pending.size == 0 || exception != null) {
+						return null;
+					}
+					variant = pending.removeIndex(0);
+				}
+
+				try {
+					features.setKey(variant.key);
+					variant.vertexShader = ShaderGenerator.generateSource(context, template, features, true);
+					variant.fragmentShader = ShaderGenerator.generateSource(context, template, features, false);
+				} catch (Throwable e) {
+					synchronized (mutex) {
+						exception = e;
+					}
+					return null;
+				}
+
+				synchronized (mutex) {
+					prepared.add(variant);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Receives loading events of the asset passed to {@link ShaderWarmUp#loadAsync(AsyncCallback, String, Class, int)}
+	 * and reports them, followed by events of the warm-up, to the callback of the request.
+	 */
+	private class AssetCallback<T> implements AsyncCallback<T> {
+		final AsyncCallback<? super T> callback;
+		float loadingProgress;
+		T asset;
+
+		private final AsyncCallback<ShaderGenerator> warmUpCallback = new AsyncCallback<ShaderGenerator>() {
+			@Override
+			public void onSuccess(ShaderGenerator value) {
+				callback.onSuccess(asset);
+			}
+
+			@Override
+			public void onException(Throwable exception) {
+				callback.onException(exception);
+			}
+
+			@Override
+			public void onCanceled(String message) {
+				callback.onCanceled(message);
+			}
+
+			@Override
+			public void onProgress(float progress) {
+				callback.onProgress(loadingShare + progress * (1 - loadingShare));
+			}
+		};
+
+		AssetCallback(AsyncCallback<? super T> callback) {
+			this.callback = callback;
+		}
+
+		@Override
+		public void onSuccess(T value) {
+			if (state != State.loading) {
+				AssetService.unload(value);
+				return;
+			}
+
+			asset = value;
+			loadingProgress = 1;
+			addAsset(value);
+			startWarmUp(warmUpCallback);
+		}
+
+		@Override
+		public void onException(Throwable exception) {
+			if (state == State.loading) {
+				state = State.failed;
+				callback.onException(exception);
+			}
+		}
+
+		@Override
+		public void onCanceled(String message) {
+			if (state == State.loading) {
+				state = State.canceled;
+				callback.onCanceled(message);
+			}
+		}
+
+		@Override
+		public void onProgress(float progress) {
+			if (state == State.loading) {
+				loadingProgress = progress;
+				callback.onProgress(progress * loadingShare);
+			}
+		}
+	}
+
+	private static class Variant {
+		final long key;
+		String vertexShader;
+		String fragmentShader;
+
+		Variant(long key) {
+			this.key = key;
+		}
+	}
+
+	private enum State {
+		idle, loading, running, finished, failed, canceled;
+	}
+}
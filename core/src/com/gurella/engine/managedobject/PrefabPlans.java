@@ -0,0 +1,105 @@
+package com.gurella.engine.managedobject;
+
+import com.badlogic.gdx.Application;
+import com.badlogic.gdx.utils.IdentityMap;
+import com.gurella.engine.asset.AssetId;
+import com.gurella.engine.async.AsyncService;
+import com.gurella.engine.event.EventService;
+import com.gurella.engine.metatype.CopyPlan;
+import com.gurella.engine.subscriptions.application.ApplicationShutdownListener;
+import com.gurella.engine.subscriptions.asset.AssetActivityListener;
+
+/**
+ * Per application cache of {@link CopyPlan}s used to instantiate prefabs. Plan of a prefab is dropped when the prefab
+ * asset is unloaded or reloaded.
+ */
+final class PrefabPlans implements AssetActivityListener, ApplicationShutdownListener {
+	private static final IdentityMap<Application, PrefabPlans> instances = new IdentityMap<Application, PrefabPlans>();
+
+	private static PrefabPlans singleton;
+
+	private final IdentityMap<Object, CopyPlan<?>> plans = new IdentityMap<Object, CopyPlan<?>>();
+
+	private PrefabPlans() {
+	}
+
+	private static PrefabPlans getInstance() {
+		PrefabPlans instance;
+		boolean subscribe = false;
+
+		synchronized (instances) {
+			if (!AsyncService.isMultiApplicationEnvironment()) {
+				if (singleton == null) {
+					singleton = new PrefabPlans();
+					subscribe = true;
+				}
+				instance = singleton;
+			} else {
+				Application app = AsyncService.getCurrentApplication();
+				instance = instances.get(app);
+				if (instance == null) {
+					instance = new PrefabPlans();
+					instances.put(app, instance);
+					subscribe = true;
+				}
+			}
+		}
+
+		if (subscribe) {
+			EventService.subscribe(instance);
+		}
+
+		return instance;
+	}
+
+	static <T extends ManagedObject> CopyPlan<T> getPlan(T prefab) {
+		return getInstance().get(prefab);
+	}
+
+	static void invalidate(ManagedObject prefab) {
+		getInstance().remove(prefab);
+	}
+
+	private synchronized <T extends ManagedObject> CopyPlan<T> get(T prefab) {
+		@SuppressWarnings("unchecked")
+		CopyPlan<T> plan = (CopyPlan<T>) plans.get(prefab);
+		if (plan == null) {
+			plan = CopyPlan.compile(prefab);
+			plans.put(prefab, plan);
+		}
+		return plan;
+	}
+
+	private synchronized void remove(Object asset) {
+		plans.remove(asset);
+	}
+
+	@Override
+	public void onAssetLoaded(AssetId assetId, Object asset) {
+	}
+
+	@Override
+	public void onAssetUnloaded(AssetId assetId, Object asset) {
+		remove(asset);
+	}
+
+	@Override
+	public void onAssetReloaded(AssetId assetId, Object asset) {
+		remove(asset);
+	}
+
+	@Override
+	public void onShutdown() {
+		EventService.unsubscribe(this);
+		synchronized (instances) {
+			if (singleton == this) {
+				singleton = null;
+			} else {
+				instances.remove(AsyncService.getCurrentApplication());
+			}
+		}
+		synchronized (this) {
+			plans.clear();
+		}
+	}
+}
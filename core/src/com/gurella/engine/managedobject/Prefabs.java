@@ -1,9 +1,13 @@
 package com.gurella.engine.managedobject;
 
 import com.gurella.engine.metatype.CopyContext;
+import com.gurella.engine.metatype.CopyPlan;
+import com.gurella.engine.metatype.CopyPlan.CopyListener;
 import com.gurella.engine.utils.ImmutableArray;
 
 public final class Prefabs {
+	private static final PrefabLinker prefabLinker = new PrefabLinker();
+
 	private Prefabs() {
 	}
 
@@ -17,6 +21,23 @@ public final class Prefabs {
 		setPrefab(object, prefab, fileName);
 	}
 
+	/**
+	 * Creates new instance of the prefab linked to it. The first instantiation compiles a {@link CopyPlan} of the
+	 * prefab which is reused until the prefab asset is unloaded or reloaded, or until {@link #invalidate(ManagedObject)}
+	 * is called.
+	 */
+	public static <T extends ManagedObject> T instantiate(T prefab) {
+		return PrefabPlans.getPlan(prefab).copy(prefabLinker);
+	}
+
+	/**
+	 * Drops compiled instantiation plan of the prefab. Instances of a prefab changed in place are still copied correctly
+	 * by the old plan, but parts of the prefab that changed are copied the slow way until the plan is compiled again.
+	 */
+	public static void invalidate(ManagedObject prefab) {
+		PrefabPlans.invalidate(prefab);
+	}
+
 	private static <T extends ManagedObject> void setPrefab(T object, T prefab, String fileName) {
 		object.prefab = prefab;
 		ImmutableArray<ManagedObject> children = object.children;
@@ -71,4 +92,16 @@ public final class Prefabs {
 
 		return null;
 	}
+
+	/**
+	 * Links copied managed objects to their originals in the prefab.
+	 */
+	private static final class PrefabLinker implements CopyListener {
+		@Override
+		public void copied(Object original, Object duplicate) {
+			if (original instanceof ManagedObject && duplicate instanceof ManagedObject) {
+				((ManagedObject) duplicate).prefab = (ManagedObject) original;
+			}
+		}
+	}
 }
@@ -77,7 +77,15 @@ public class CopyContext implements Poolable {
 		return duplicate;
 	}
 
-	private <T> boolean isExternalAsset(T original) {
+	void notifyCopiedObjects(CopyPlan.CopyListener listener) {
+		for (IdentityMap.Entry<Object, Object> entry : copiedObjects.entries()) {
+			if (entry.value != null) {
+				listener.copied(entry.key, entry.value);
+			}
+		}
+	}
+
+	<T> boolean isExternalAsset(T original) {
 		//TODO check if this is noncloneable asset
 		AssetService.getAssetId(original, tempAssetId);
 		return !tempAssetId.isEmpty() && !tempAssetId.equalsFile(rootObjectAssetId);
@@ -0,0 +1,459 @@
+package com.gurella.engine.metatype;
+
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.IdentityMap;
+import com.badlogic.gdx.utils.IntArray;
+import com.gurella.engine.asset.AssetId;
+import com.gurella.engine.asset.AssetService;
+import com.gurella.engine.metatype.DefaultMetaType.BaseSimpleMetaType;
+import com.gurella.engine.pool.PoolService;
+import com.gurella.engine.utils.ImmutableArray;
+
+/**
+ * Flattened copy of an object graph. The graph is traversed once, when the plan is compiled, and every object of
+ * {@link ReflectionMetaType} reachable through {@link ReflectionProperty} values or {@link ElementsProperty} elements
+ * becomes a node of the plan. Copying then allocates all nodes and runs an ordered list of steps: primitive copies,
+ * reference fix-ups between nodes and assignments of shared values. Nodes held by final properties are not allocated,
+ * objects already created by their owners are filled instead. Values the plan can't describe (collections, arrays,
+ * custom properties) are copied by a {@link CopyContext} that resolves plan nodes to their duplicates.
+ * <p>
+ * Plan doesn't capture values of the original. Every step checks the original when copying and a value that no longer
+ * matches the compiled graph is copied through the {@link CopyContext}, so changing the original only makes the plan
+ * slower until it is compiled again.
+ */
+public final class CopyPlan<T> {
+	private final T root;
+	private final AssetId rootAssetId = new AssetId();
+	private final boolean planned;
+
+	private final Array<Object> originals = new Array<Object>();
+	private final Array<ReflectionMetaType<?>> metaTypes = new Array<ReflectionMetaType<?>>();
+	private final IntArray enclosingNodes = new IntArray();
+	private final IntArray ownerNodes = new IntArray();
+	private final Array<ReflectionProperty<?>> embeddingProperties = new Array<ReflectionProperty<?>>();
+	private final IdentityMap<Object, Integer> nodeIndices = new IdentityMap<Object, Integer>();
+	private final Array<Step> steps = new Array<Step>(true, 16, Step.class);
+
+	private CopyPlan(T root) {
+		this.root = root;
+		AssetService.getAssetId(root, rootAssetId);
+
+		MetaType<T> metaType = MetaTypes.getMetaType(root);
+		planned = isPlannable(metaType) && !((ReflectionMetaType<?>) metaType).isInnerClass();
+		if (planned) {
+			CopyContext context = new CopyContext(rootAssetId);
+			compile(addNode(root, -1, null), context);
+		}
+	}
+
+	public static <T> CopyPlan<T> compile(T root) {
+		return new CopyPlan<T>(root);
+	}
+
+	public T getRoot() {
+		return root;
+	}
+
+	/**
+	 * @return number of objects copied by the plan itself, 0 when the root can't be planned and the copy is delegated
+	 *         to {@link CopyContext}
+	 */
+	public int getNodeCount() {
+		return originals.size;
+	}
+
+	public Object getOriginal(int node) {
+		return originals.get(node);
+	}
+
+	private static boolean isPlannable(MetaType<?> metaType) {
+		return metaType.getClass() == ReflectionMetaType.class;
+	}
+
+	private int addNode(Object original, int ownerNode, ReflectionProperty<?> embeddingProperty) {
+		@SuppressWarnings("unchecked")
+		ReflectionMetaType<Object> metaType = (ReflectionMetaType<Object>) MetaTypes.getMetaType(original);
+		int node = originals.size;
+		originals.add(original);
+		metaTypes.add(metaType);
+		enclosingNodes.add(metaType.isInnerClass() ? ownerNode : -1);
+		ownerNodes.add(ownerNode);
+		embeddingProperties.add(embeddingProperty);
+		nodeIndices.put(original, Integer.valueOf(node));
+		return node;
+	}
+
+	private void compile(int node, CopyContext context) {
+		Object original = originals.get(node);
+		ImmutableArray<Property<?>> properties = metaTypes.get(node).getProperties();
+		for (int i = 0, n = properties.size(); i < n; i++) {
+			Property<?> property = properties.get(i);
+			if (!property.isCopyable()) {
+				continue;
+			}
+
+			if (property instanceof ReflectionProperty) {
+				compileReflectionProperty(node, original, (ReflectionProperty<?>) property, context);
+			} else if (property instanceof ElementsProperty) {
+				compileElementsProperty(node, original, property, context);
+			} else {
+				steps.add(new FallbackStep(node, property));
+			}
+		}
+	}
+
+	private void compileReflectionProperty(int node, Object original, ReflectionProperty<?> property,
+			CopyContext context) {
+		if (property.isDirectCopy()) {
+			steps.add(new PrimitiveStep(node, property));
+			return;
+		} else if (property.getType().isPrimitive()) {
+			steps.add(new FallbackStep(node, property));
+			return;
+		}
+
+		Object value = property.getValue(original);
+		if (value == null || isShared(value, context)) {
+			steps.add(new ValueStep(node, property, value));
+			return;
+		}
+
+		boolean embedded = property.isFinal() && property.getSetter() == null;
+		int reference = resolveNode(value, node, embedded ? property : null, context);
+		if (reference < 0) {
+			steps.add(new FallbackStep(node, property));
+		} else if (embedded) {
+			@SuppressWarnings("unchecked")
+			Property<Object> casted = (Property<Object>) property;
+			steps.add(new EmbeddedStep(node, casted, reference));
+		} else {
+			@SuppressWarnings("unchecked")
+			Property<Object> casted = (Property<Object>) property;
+			steps.add(new ReferenceStep(node, casted, reference));
+		}
+	}
+
+	private void compileElementsProperty(int node, Object original, Property<?> property, CopyContext context) {
+		@SuppressWarnings("unchecked")
+		ElementsProperty<Object> elementsProperty = (ElementsProperty<Object>) property;
+		ImmutableArray<?> elements = elementsProperty.getElements(original);
+		int size = elements.size();
+		Object[] compiledElements = new Object[size];
+		int[] references = new int[size];
+		for (int i = 0; i < size; i++) {
+			Object element = elements.get(i);
+			compiledElements[i] = element;
+			references[i] = element == null || isShared(element, context) ? -1
+					: resolveNode(element, node, null, context);
+		}
+		steps.add(new ElementsStep(node, property, compiledElements, references));
+	}
+
+	private int resolveNode(Object value, int ownerNode, ReflectionProperty<?> embeddingProperty, CopyContext context) {
+		Integer index = nodeIndices.get(value);
+		if (index != null) {
+			return index.intValue();
+		}
+
+		if (!isPlannable(MetaTypes.getMetaType(value))) {
+			return -1;
+		}
+
+		int node = addNode(value, ownerNode, embeddingProperty);
+		compile(node, context);
+		return node;
+	}
+
+	private static boolean isShared(Object value, CopyContext context) {
+		return value instanceof Enum || MetaTypes.getMetaType(value) instanceof BaseSimpleMetaType
+				|| context.isExternalAsset(value);
+	}
+
+	public T copy() {
+		return copy(null);
+	}
+
+	/**
+	 * @param listener
+	 *            notified about duplicate of every object copied by the plan, in order of plan nodes, and then about
+	 *            objects copied by its {@link CopyContext}, can be null
+	 */
+	public T copy(CopyListener listener) {
+		if (!planned) {
+			return copyUnplanned(listener);
+		}
+
+		Object[] duplicates = new Object[originals.size];
+		Execution execution = new Execution(this, duplicates);
+		Object[] originals = execution.originals;
+		for (int i = 0, n = this.originals.size; i < n; i++) {
+			ReflectionProperty<?> embeddingProperty = embeddingProperties.get(i);
+			Object duplicate = embeddingProperty == null ? null
+					: embeddingProperty.getValue(duplicates[ownerNodes.get(i)]);
+			if (duplicate == null || duplicate.getClass() != originals[i].getClass()) {
+				int enclosingNode = enclosingNodes.get(i);
+				duplicate = metaTypes.get(i).createInstance(enclosingNode < 0 ? null : duplicates[enclosingNode]);
+			}
+			duplicates[i] = duplicate;
+		}
+
+		Step[] steps = this.steps.items;
+		for (int i = 0, n = this.steps.size; i < n; i++) {
+			steps[i].execute(execution);
+		}
+
+		if (listener != null) {
+			for (int i = 0, n = this.originals.size; i < n; i++) {
+				listener.copied(originals[i], duplicates[i]);
+			}
+			if (execution.context != null) {
+				execution.context.notifyCopiedObjects(listener);
+			}
+		}
+
+		@SuppressWarnings("unchecked")
+		T duplicate = (T) duplicates[0];
+		return duplicate;
+	}
+
+	private T copyUnplanned(CopyListener listener) {
+		CopyContext context = PoolService.obtain(CopyContext.class);
+		try {
+			context.init(rootAssetId);
+			T duplicate = context.copy(root);
+			if (listener != null) {
+				context.notifyCopiedObjects(listener);
+			}
+			return duplicate;
+		} finally {
+			PoolService.free(context);
+		}
+	}
+
+	/**
+	 * Receives pairs of originals and their duplicates after the copy is made.
+	 */
+	public interface CopyListener {
+		void copied(Object original, Object duplicate);
+	}
+
+	private static final class Execution {
+		final CopyPlan<?> plan;
+		final Object[] originals;
+		final Object[] duplicates;
+		private PlanCopyContext context;
+
+		Execution(CopyPlan<?> plan, Object[] duplicates) {
+			this.plan = plan;
+			this.duplicates = duplicates;
+			originals = plan.originals.items;
+		}
+
+		CopyContext getContext() {
+			if (context == null) {
+				context = new PlanCopyContext(this);
+			}
+			return context;
+		}
+	}
+
+	/**
+	 * Resolves nodes of the plan to their duplicates, other objects are copied as usual.
+	 */
+	private static final class PlanCopyContext extends CopyContext {
+		private final Execution execution;
+
+		PlanCopyContext(Execution execution) {
+			super(execution.plan.rootAssetId);
+			this.execution = execution;
+		}
+
+		@Override
+		public <T> T copy(T original) {
+			Integer node = original == null ? null : execution.plan.nodeIndices.get(original);
+			if (node == null) {
+				return super.copy(original);
+			}
+
+			@SuppressWarnings("unchecked")
+			T duplicate = (T) execution.duplicates[node.intValue()];
+			return duplicate;
+		}
+	}
+
+	private static abstract class Step {
+		final int node;
+
+		Step(int node) {
+			this.node = node;
+		}
+
+		abstract void execute(Execution execution);
+
+		/**
+		 * Copies the property through the {@link CopyContext}, used when the original no longer matches the plan.
+		 */
+		void fallback(Execution execution, Property<?> property) {
+			Object duplicate = execution.duplicates[node];
+			CopyContext context = execution.getContext();
+			context.pushObject(duplicate);
+			property.copy(execution.originals[node], duplicate, context);
+			context.popObject();
+		}
+	}
+
+	private static final class PrimitiveStep extends Step {
+		private final ReflectionProperty<?> property;
+
+		PrimitiveStep(int node, ReflectionProperty<?> property) {
+			super(node);
+			this.property = property;
+		}
+
+		@Override
+		void execute(Execution execution) {
+			property.copy(execution.originals[node], execution.duplicates[node], null);
+		}
+	}
+
+	private static final class ValueStep extends Step {
+		private final Property<Object> property;
+		private final Object value;
+
+		@SuppressWarnings("unchecked")
+		ValueStep(int node, Property<?> property, Object value) {
+			super(node);
+			this.property = (Property<Object>) property;
+			this.value = value;
+		}
+
+		@Override
+		void execute(Execution execution) {
+			if (property.getValue(execution.originals[node]) == value) {
+				property.setValue(execution.duplicates[node], value);
+			} else {
+				fallback(execution, property);
+			}
+		}
+	}
+
+	private static final class ReferenceStep extends Step {
+		private final Property<Object> property;
+		private final int reference;
+
+		ReferenceStep(int node, Property<Object> property, int reference) {
+			super(node);
+			this.property = property;
+			this.reference = reference;
+		}
+
+		@Override
+		void execute(Execution execution) {
+			if (property.getValue(execution.originals[node]) == execution.originals[reference]) {
+				property.setValue(execution.duplicates[node], execution.duplicates[reference]);
+			} else {
+				fallback(execution, property);
+			}
+		}
+	}
+
+	/**
+	 * Final property without setter. Its value is created by the owner and is used as duplicate of the referenced node
+	 * when possible, otherwise values of the duplicate are copied into it.
+	 */
+	private static final class EmbeddedStep extends Step {
+		private final Property<Object> property;
+		private final int reference;
+
+		EmbeddedStep(int node, Property<Object> property, int reference) {
+			super(node);
+			this.property = property;
+			this.reference = reference;
+		}
+
+		@Override
+		void execute(Execution execution) {
+			if (property.getValue(execution.originals[node]) != execution.originals[reference]) {
+				fallback(execution, property);
+				return;
+			}
+
+			Object duplicate = execution.duplicates[node];
+			Object value = execution.duplicates[reference];
+			if (property.getValue(duplicate) != value) {
+				property.setValue(duplicate, value);
+			}
+		}
+	}
+
+	/**
+	 * Elements of the original as they were when the plan was compiled. When they have changed since, all elements are
+	 * copied through the {@link CopyContext}.
+	 */
+	private static final class ElementsStep extends Step {
+		private final Property<?> property;
+		private final ElementsProperty<Object> elementsProperty;
+		private final Object[] elements;
+		private final int[] references;
+
+		@SuppressWarnings("unchecked")
+		ElementsStep(int node, Property<?> property, Object[] elements, int[] references) {
+			super(node);
+			this.property = property;
+			this.elementsProperty = (ElementsProperty<Object>) property;
+			this.elements = elements;
+			this.references = references;
+		}
+
+		@Override
+		void execute(Execution execution) {
+			if (!isUnchanged(execution.originals[node])) {
+				fallback(execution, property);
+				return;
+			}
+
+			Object duplicate = execution.duplicates[node];
+			for (int i = 0, n = elements.length; i < n; i++) {
+				int reference = references[i];
+				if (reference >= 0) {
+					elementsProperty.addElement(duplicate, execution.duplicates[reference]);
+				} else {
+					CopyContext context = execution.getContext();
+					context.pushObject(duplicate);
+					elementsProperty.addElement(duplicate, context.copy(elements[i]));
+					context.popObject();
+				}
+			}
+		}
+
+		private boolean isUnchanged(Object original) {
+			ImmutableArray<?> current = elementsProperty.getElements(original);
+			int size = elements.length;
+			if (current.size() != size) {
+				return false;
+			}
+
+			for (int i = 0; i < size; i++) {
+				if (current.get(i) != elements[i]) {
+					return false;
+				}
+			}
+
+			return true;
+		}
+	}
+
+	private static final class FallbackStep extends Step {
+		private final Property<?> property;
+
+		FallbackStep(int node, Property<?> property) {
+			super(node);
+			this.property = property;
+		}
+
+		@Override
+		void execute(Execution execution) {
+			fallback(execution, property);
+		}
+	}
+}
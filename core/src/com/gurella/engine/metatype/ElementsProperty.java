@@ -0,0 +1,13 @@
+package com.gurella.engine.metatype;
+
+import com.gurella.engine.utils.ImmutableArray;
+
+/**
+ * Property whose value is a sequence of elements that are copied one by one and added to the duplicate. Exposing the
+ * elements lets {@link CopyPlan} copy them as part of the plan instead of through {@link CopyContext}.
+ */
+public interface ElementsProperty<E> {
+	ImmutableArray<? extends E> getElements(Object object);
+
+	void addElement(Object object, E element);
+}
@@ -207,6 +207,10 @@ public class ReflectionMetaType<T> implements MetaType<T> {
 		}
 	}
 
+	boolean isInnerClass() {
+		return innerClass;
+	}
+
 	@SuppressWarnings("unchecked")
 	protected T createInstance(Object enclosingInstance) {
 		try {
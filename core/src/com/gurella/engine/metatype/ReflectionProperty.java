@@ -11,6 +11,8 @@ import com.badlogic.gdx.utils.reflect.Field;
 import com.badlogic.gdx.utils.reflect.Method;
 import com.gurella.engine.asset.descriptor.AssetDescriptors;
 import com.gurella.engine.editor.property.PropertyEditorDescriptor;
+import com.gurella.engine.metatype.accessor.PropertyAccessor;
+import com.gurella.engine.metatype.accessor.PropertyAccessors;
 import com.gurella.engine.metatype.serialization.Input;
 import com.gurella.engine.metatype.serialization.Output;
 import com.gurella.engine.utils.DefaultInstances;
@@ -35,6 +37,9 @@ public class ReflectionProperty<T> implements Property<T> {
 	private Field field;
 	private Method getter;
 	private Method setter;
+	private PropertyAccessor<T> accessor;
+	/** Primitive value that can be copied by the accessor without boxing. */
+	private boolean directCopy;
 
 	public static <T> ReflectionProperty<T> newInstance(MetaType<?> metaType, String name) {
 		Class<?> type = metaType.getType();
@@ -137,6 +142,10 @@ public class ReflectionProperty<T> implements Property<T> {
 			this.setter.setAccessible(true);
 		}
 
+		accessor = getter == null ? PropertyAccessors.<T> createFieldAccessor(field)
+				: PropertyAccessors.<T> createMethodAccessor(getter, setter, field);
+		directCopy = type.isPrimitive() && (setter != null || !finalProperty);
+
 		PropertyDescriptor propertyDescriptor = findAnnotation(PropertyDescriptor.class);
 		if (propertyDescriptor == null) {
 			nullable = isDefaultNullable();
@@ -212,6 +221,10 @@ public class ReflectionProperty<T> implements Property<T> {
 		return setter;
 	}
 
+	boolean isDirectCopy() {
+		return directCopy;
+	}
+
 	@Override
 	public String getName() {
 		return name;
@@ -268,22 +281,17 @@ public class ReflectionProperty<T> implements Property<T> {
 	public T getValue(Object object) {
 		if (object == null) {
 			return null;
-		} else if (getter == null) {
-			return Reflection.getFieldValue(field, object);
 		} else {
-			return Reflection.invokeMethod(getter, object);
+			return accessor.getValue(object);
 		}
 	}
 
 	@Override
 	public void setValue(Object object, T value) {
-		if (setter != null) {
-			Reflection.invokeMethod(setter, object, value);
-		} else if (field.isFinal()) {
-			T fieldValue = Reflection.getFieldValue(field, object);
-			updateFinalValueProperties(value, fieldValue);
+		if (setter == null && field.isFinal()) {
+			updateFinalValueProperties(value, accessor.getValue(object));
 		} else {
-			Reflection.setFieldValue(field, object, value);
+			accessor.setValue(object, value);
 		}
 	}
 
@@ -331,17 +339,27 @@ public class ReflectionProperty<T> implements Property<T> {
 			T value = getValue(object);
 			Object templateValue = resolvedTemplate == null ? value : getValue(resolvedTemplate);
 			setValue(object, input.readObjectProperty(name, type, templateValue));
-		} else if (resolvedTemplate != null) {
+		} else if (resolvedTemplate == null) {
+			return;
+		} else if (directCopy) {
+			if (!accessor.isEqualValue(object, resolvedTemplate)) {
+				accessor.copyValue(resolvedTemplate, object);
+			}
+		} else {
 			T value = getValue(object);
 			T templateValue = getValue(resolvedTemplate);
 			if (!Values.isEqual(value, templateValue)) {
-				setValue(object, field.isFinal() ? templateValue : input.copyObject(templateValue));
+				setValue(object, field != null && field.isFinal() ? templateValue : input.copyObject(templateValue));
 			}
 		}
 	}
 
 	@Override
 	public void copy(Object original, Object duplicate, CopyContext context) {
-		setValue(duplicate, context.copy(getValue(original)));
+		if (directCopy) {
+			accessor.copyValue(original, duplicate);
+		} else {
+			setValue(duplicate, context.copy(getValue(original)));
+		}
 	}
 }
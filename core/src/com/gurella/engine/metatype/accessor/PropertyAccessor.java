@@ -0,0 +1,21 @@
+package com.gurella.engine.metatype.accessor;
+
+import com.gurella.engine.utils.Values;
+
+/**
+ * Reads and writes value of a single property. Accessors of primitive properties override
+ * {@link #copyValue(Object, Object)} and {@link #isEqualValue(Object, Object)} so values are not boxed.
+ */
+public abstract class PropertyAccessor<T> {
+	public abstract T getValue(Object object);
+
+	public abstract void setValue(Object object, T value);
+
+	public void copyValue(Object source, Object target) {
+		setValue(target, getValue(source));
+	}
+
+	public boolean isEqualValue(Object first, Object second) {
+		return Values.isEqual(getValue(first), getValue(second));
+	}
+}
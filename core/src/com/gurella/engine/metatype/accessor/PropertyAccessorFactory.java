@@ -0,0 +1,14 @@
+package com.gurella.engine.metatype.accessor;
+
+import com.badlogic.gdx.utils.reflect.Field;
+import com.badlogic.gdx.utils.reflect.Method;
+
+public interface PropertyAccessorFactory {
+	<T> PropertyAccessor<T> createFieldAccessor(Field field);
+
+	/**
+	 * @param field
+	 *            used to set value when setter is null, can be null
+	 */
+	<T> PropertyAccessor<T> createMethodAccessor(Method getter, Method setter, Field field);
+}
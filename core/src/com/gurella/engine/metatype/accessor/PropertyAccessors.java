@@ -0,0 +1,53 @@
+package com.gurella.engine.metatype.accessor;
+
+import com.badlogic.gdx.Application.ApplicationType;
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.utils.reflect.Field;
+import com.badlogic.gdx.utils.reflect.Method;
+
+/**
+ * Creates property accessors with the factory that suits the running platform. Desktop (and tools running without
+ * an application) use {@link UnsafePropertyAccessorFactory}, other platforms fall back to
+ * {@link ReflectionPropertyAccessorFactory}.
+ */
+public class PropertyAccessors {
+	private static PropertyAccessorFactory factory;
+
+	private PropertyAccessors() {
+	}
+
+	public static synchronized PropertyAccessorFactory getFactory() {
+		if (factory == null) {
+			factory = createDefaultFactory();
+		}
+		return factory;
+	}
+
+	/**
+	 * Changes factory used for properties created afterwards, existing accessors are not affected.
+	 */
+	public static synchronized void setFactory(PropertyAccessorFactory factory) {
+		PropertyAccessors.factory = factory;
+	}
+
+	private static PropertyAccessorFactory createDefaultFactory() {
+		ApplicationType type = Gdx.app == null ? null : Gdx.app.getType();
+		if (type != null && type != ApplicationType.Desktop && type != ApplicationType.HeadlessDesktop) {
+			return ReflectionPropertyAccessorFactory.instance;
+		}
+
+		try {
+			return UnsafePropertyAccessorFactory.instance;
+		} catch (Throwable e) {
+			return ReflectionPropertyAccessorFactory.instance;
+		}
+	}
+
+	public static <T> PropertyAccessor<T> createFieldAccessor(Field field) {
+		return getFactory().createFieldAccessor(field);
+	}
+
+	public static <T> PropertyAccessor<T> createMethodAccessor(Method getter, Method setter, Field field) {
+		return getFactory().createMethodAccessor(getter, setter, field);
+	}
+}
@@ -0,0 +1,76 @@
+package com.gurella.engine.metatype.accessor;
+
+import com.badlogic.gdx.utils.reflect.Field;
+import com.badlogic.gdx.utils.reflect.Method;
+import com.gurella.engine.utils.Reflection;
+
+/**
+ * Accesses properties through libGDX reflection, available on all platforms.
+ */
+public class ReflectionPropertyAccessorFactory implements PropertyAccessorFactory {
+	public static final ReflectionPropertyAccessorFactory instance = new ReflectionPropertyAccessorFactory();
+
+	protected ReflectionPropertyAccessorFactory() {
+	}
+
+	@Override
+	public <T> PropertyAccessor<T> createFieldAccessor(Field field) {
+		field.setAccessible(true);
+		return new FieldAccessor<T>(field);
+	}
+
+	@Override
+	public <T> PropertyAccessor<T> createMethodAccessor(Method getter, Method setter, Field field) {
+		getter.setAccessible(true);
+		if (setter != null) {
+			setter.setAccessible(true);
+		}
+		PropertyAccessor<T> fieldAccessor = setter == null && field != null ? this.<T> createFieldAccessor(field)
+				: null;
+		return new MethodAccessor<T>(getter, setter, fieldAccessor);
+	}
+
+	private static class FieldAccessor<T> extends PropertyAccessor<T> {
+		private final Field field;
+
+		FieldAccessor(Field field) {
+			this.field = field;
+		}
+
+		@Override
+		public T getValue(Object object) {
+			return Reflection.getFieldValue(field, object);
+		}
+
+		@Override
+		public void setValue(Object object, T value) {
+			Reflection.setFieldValue(field, object, value);
+		}
+	}
+
+	static class MethodAccessor<T> extends PropertyAccessor<T> {
+		private final Method getter;
+		private final Method setter;
+		private final PropertyAccessor<T> fieldAccessor;
+
+		MethodAccessor(Method getter, Method setter, PropertyAccessor<T> fieldAccessor) {
+			this.getter = getter;
+			this.setter = setter;
+			this.fieldAccessor = fieldAccessor;
+		}
+
+		@Override
+		public T getValue(Object object) {
+			return Reflection.invokeMethod(getter, object);
+		}
+
+		@Override
+		public void setValue(Object object, T value) {
+			if (setter == null) {
+				fieldAccessor.setValue(object, value);
+			} else {
+				Reflection.invokeMethod(setter, object, value);
+			}
+		}
+	}
+}
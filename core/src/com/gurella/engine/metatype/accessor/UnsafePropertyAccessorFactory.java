@@ -0,0 +1,331 @@
+package com.gurella.engine.metatype.accessor;
+
+import com.badlogic.gdx.utils.GdxRuntimeException;
+import com.badlogic.gdx.utils.reflect.Field;
+import com.gurella.engine.utils.Reflection;
+
+/**
+ * Accesses fields directly by their offsets through {@code sun.misc.Unsafe}, with accessors specialized for every
+ * primitive type, and bean methods through reflection. Volatile fields are accessed through reflection. The internal
+ * API is referenced only by the type of the {@code unsafe} field, the class itself is looked up by name.
+ */
+@SuppressWarnings("restriction")
+public class UnsafePropertyAccessorFactory extends ReflectionPropertyAccessorFactory {
+	private static final sun.misc.Unsafe unsafe;
+	static {
+		Field field = Reflection.getDeclaredField(Reflection.forName("sun.misc.Unsafe"), "theUnsafe");
+		field.setAccessible(true);
+		unsafe = Reflection.getFieldValue(field, null);
+	}
+
+	public static final UnsafePropertyAccessorFactory instance = new UnsafePropertyAccessorFactory();
+
+	private UnsafePropertyAccessorFactory() {
+	}
+
+	@Override
+	public <T> PropertyAccessor<T> createFieldAccessor(Field field) {
+		if (field.isVolatile() || field.isStatic()) {
+			return super.createFieldAccessor(field);
+		}
+
+		long offset = unsafe.objectFieldOffset(getJavaField(field));
+		Class<?> declaringClass = field.getDeclaringClass();
+		Class<?> type = field.getType();
+		PropertyAccessor<?> accessor;
+		if (!type.isPrimitive()) {
+			accessor = new ObjectAccessor<Object>(declaringClass, type, offset);
+		} else if (type == int.class) {
+			accessor = new IntAccessor(declaringClass, offset);
+		} else if (type == float.class) {
+			accessor = new FloatAccessor(declaringClass, offset);
+		} else if (type == boolean.class) {
+			accessor = new BooleanAccessor(declaringClass, offset);
+		} else if (type == long.class) {
+			accessor = new LongAccessor(declaringClass, offset);
+		} else if (type == double.class) {
+			accessor = new DoubleAccessor(declaringClass, offset);
+		} else if (type == short.class) {
+			accessor = new ShortAccessor(declaringClass, offset);
+		} else if (type == byte.class) {
+			accessor = new ByteAccessor(declaringClass, offset);
+		} else {
+			accessor = new CharAccessor(declaringClass, offset);
+		}
+
+		@SuppressWarnings("unchecked")
+		PropertyAccessor<T> casted = (PropertyAccessor<T>) accessor;
+		return casted;
+	}
+
+	private static java.lang.reflect.Field getJavaField(Field field) {
+		try {
+			return field.getDeclaringClass().getDeclaredField(field.getName());
+		} catch (NoSuchFieldException e) {
+			throw new GdxRuntimeException(e);
+		}
+	}
+
+	/**
+	 * Base of accessors that check the receiver before unsafe access, reflection throws
+	 * {@link IllegalArgumentException} for objects of other classes while unsafe reads or writes arbitrary memory.
+	 */
+	private static abstract class UnsafeAccessor<T> extends PropertyAccessor<T> {
+		private final Class<?> declaringClass;
+		final long offset;
+
+		UnsafeAccessor(Class<?> declaringClass, long offset) {
+			this.declaringClass = declaringClass;
+			this.offset = offset;
+		}
+
+		final Object check(Object object) {
+			if (!declaringClass.isInstance(object)) {
+				throw new IllegalArgumentException("Can't access field of " + declaringClass.getName() + " on "
+						+ (object == null ? "null" : object.getClass().getName()));
+			}
+			return object;
+		}
+	}
+
+	private static class ObjectAccessor<T> extends UnsafeAccessor<T> {
+		private final Class<?> type;
+
+		ObjectAccessor(Class<?> declaringClass, Class<?> type, long offset) {
+			super(declaringClass, offset);
+			this.type = type;
+		}
+
+		@Override
+		public T getValue(Object object) {
+			@SuppressWarnings("unchecked")
+			T value = (T) unsafe.getObject(check(object), offset);
+			return value;
+		}
+
+		@Override
+		public void setValue(Object object, T value) {
+			// unlike reflection, unsafe stores values of any type and corrupts the object
+			if (value != null && !type.isInstance(value)) {
+				throw new IllegalArgumentException(
+						"Can't set " + value.getClass().getName() + " to field of type " + type.getName());
+			}
+			unsafe.putObject(check(object), offset, value);
+		}
+
+		@Override
+		public void copyValue(Object source, Object target) {
+			unsafe.putObject(check(target), offset, unsafe.getObject(check(source), offset));
+		}
+	}
+
+	private static class IntAccessor extends UnsafeAccessor<Integer> {
+		IntAccessor(Class<?> declaringClass, long offset) {
+			super(declaringClass, offset);
+		}
+
+		@Override
+		public Integer getValue(Object object) {
+			return Integer.valueOf(unsafe.getInt(check(object), offset));
+		}
+
+		@Override
+		public void setValue(Object object, Integer value) {
+			unsafe.putInt(check(object), offset, value.intValue());
+		}
+
+		@Override
+		public void copyValue(Object source, Object target) {
+			unsafe.putInt(check(target), offset, unsafe.getInt(check(source), offset));
+		}
+
+		@Override
+		public boolean isEqualValue(Object first, Object second) {
+			return unsafe.getInt(check(first), offset) == unsafe.getInt(check(second), offset);
+		}
+	}
+
+	private static class FloatAccessor extends UnsafeAccessor<Float> {
+		FloatAccessor(Class<?> declaringClass, long offset) {
+			super(declaringClass, offset);
+		}
+
+		@Override
+		public Float getValue(Object object) {
+			return Float.valueOf(unsafe.getFloat(check(object), offset));
+		}
+
+		@Override
+		public void setValue(Object object, Float value) {
+			unsafe.putFloat(check(object), offset, value.floatValue());
+		}
+
+		@Override
+		public void copyValue(Object source, Object target) {
+			unsafe.putFloat(check(target), offset, unsafe.getFloat(check(source), offset));
+		}
+
+		@Override
+		public boolean isEqualValue(Object first, Object second) {
+			return Float.floatToIntBits(unsafe.getFloat(check(first), offset)) == Float
+					.floatToIntBits(unsafe.getFloat(check(second), offset));
+		}
+	}
+
+	private static class BooleanAccessor extends UnsafeAccessor<Boolean> {
+		BooleanAccessor(Class<?> declaringClass, long offset) {
+			super(declaringClass, offset);
+		}
+
+		@Override
+		public Boolean getValue(Object object) {
+			return Boolean.valueOf(unsafe.getBoolean(check(object), offset));
+		}
+
+		@Override
+		public void setValue(Object object, Boolean value) {
+			unsafe.putBoolean(check(object), offset, value.booleanValue());
+		}
+
+		@Override
+		public void copyValue(Object source, Object target) {
+			unsafe.putBoolean(check(target), offset, unsafe.getBoolean(check(source), offset));
+		}
+
+		@Override
+		public boolean isEqualValue(Object first, Object second) {
+			return unsafe.getBoolean(check(first), offset) == unsafe.getBoolean(check(second), offset);
+		}
+	}
+
+	private static class LongAccessor extends UnsafeAccessor<Long> {
+		LongAccessor(Class<?> declaringClass, long offset) {
+			super(declaringClass, offset);
+		}
+
+		@Override
+		public Long getValue(Object object) {
+			return Long.valueOf(unsafe.getLong(check(object), offset));
+		}
+
+		@Override
+		public void setValue(Object object, Long value) {
+			unsafe.putLong(check(object), offset, value.longValue());
+		}
+
+		@Override
+		public void copyValue(Object source, Object target) {
+			unsafe.putLong(check(target), offset, unsafe.getLong(check(source), offset));
+		}
+
+		@Override
+		public boolean isEqualValue(Object first, Object second) {
+			return unsafe.getLong(check(first), offset) == unsafe.getLong(check(second), offset);
+		}
+	}
+
+	private static class DoubleAccessor extends UnsafeAccessor<Double> {
+		DoubleAccessor(Class<?> declaringClass, long offset) {
+			super(declaringClass, offset);
+		}
+
+		@Override
+		public Double getValue(Object object) {
+			return Double.valueOf(unsafe.getDouble(check(object), offset));
+		}
+
+		@Override
+		public void setValue(Object object, Double value) {
+			unsafe.putDouble(check(object), offset, value.doubleValue());
+		}
+
+		@Override
+		public void copyValue(Object source, Object target) {
+			unsafe.putDouble(check(target), offset, unsafe.getDouble(check(source), offset));
+		}
+
+		@Override
+		public boolean isEqualValue(Object first, Object second) {
+			return Double.doubleToLongBits(unsafe.getDouble(check(first), offset)) == Double
+					.doubleToLongBits(unsafe.getDouble(check(second), offset));
+		}
+	}
+
+	private static class ShortAccessor extends UnsafeAccessor<Short> {
+		ShortAccessor(Class<?> declaringClass, long offset) {
+			super(declaringClass, offset);
+		}
+
+		@Override
+		public Short getValue(Object object) {
+			return Short.valueOf(unsafe.getShort(check(object), offset));
+		}
+
+		@Override
+		public void setValue(Object object, Short value) {
+			unsafe.putShort(check(object), offset, value.shortValue());
+		}
+
+		@Override
+		public void copyValue(Object source, Object target) {
+			unsafe.putShort(check(target), offset, unsafe.getShort(check(source), offset));
+		}
+
+		@Override
+		public boolean isEqualValue(Object first, Object second) {
+			return unsafe.getShort(check(first), offset) == unsafe.getShort(check(second), offset);
+		}
+	}
+
+	private static class ByteAccessor extends UnsafeAccessor<Byte> {
+		ByteAccessor(Class<?> declaringClass, long offset) {
+			super(declaringClass, offset);
+		}
+
+		@Override
+		public Byte getValue(Object object) {
+			return Byte.valueOf(unsafe.getByte(check(object), offset));
+		}
+
+		@Override
+		public void setValue(Object object, Byte value) {
+			unsafe.putByte(check(object), offset, value.byteValue());
+		}
+
+		@Override
+		public void copyValue(Object source, Object target) {
+			unsafe.putByte(check(target), offset, unsafe.getByte(check(source), offset));
+		}
+
+		@Override
+		public boolean isEqualValue(Object first, Object second) {
+			return unsafe.getByte(check(first), offset) == unsafe.getByte(check(second), offset);
+		}
+	}
+
+	private static class CharAccessor extends UnsafeAccessor<Character> {
+		CharAccessor(Class<?> declaringClass, long offset) {
+			super(declaringClass, offset);
+		}
+
+		@Override
+		public Character getValue(Object object) {
+			return Character.valueOf(unsafe.getChar(check(object), offset));
+		}
+
+		@Override
+		public void setValue(Object object, Character value) {
+			unsafe.putChar(check(object), offset, value.charValue());
+		}
+
+		@Override
+		public void copyValue(Object source, Object target) {
+			unsafe.putChar(check(target), offset, unsafe.getChar(check(source), offset));
+		}
+
+		@Override
+		public boolean isEqualValue(Object first, Object second) {
+			return unsafe.getChar(check(first), offset) == unsafe.getChar(check(second), offset);
+		}
+	}
+}
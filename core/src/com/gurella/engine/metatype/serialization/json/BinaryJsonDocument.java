@@ -0,0 +1,385 @@
+package com.gurella.engine.metatype.serialization.json;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UnsupportedEncodingException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+import com.badlogic.gdx.utils.ObjectIntMap;
+import com.badlogic.gdx.utils.StreamUtils;
+import com.gurella.engine.utils.MappedFiles;
+import com.gurella.engine.utils.Reflection;
+
+/**
+ * Read only view of a document written by {@link BinaryJsonWriter}. Values are decoded straight from the buffer when
+ * they are read, no intermediate tree is built, and every serialized object can be located through the offset index
+ * without reading the others. Reads use absolute positions only, so a document can be shared between threads.
+ * <p>
+ * Layout (little endian): magic, version, serialized objects, name table, string table, class table, dependency
+ * table, object index and a footer holding table offsets followed by the magic. Tables are lists of UTF-8 strings
+ * prefixed with their offsets, the index holds offset and class index of every serialized object.
+ */
+public class BinaryJsonDocument {
+	static final byte[] magic = { 'G', 'B', 'J', 'S' };
+	static final int version = 1;
+	static final int headerSize = 8;
+	static final int footerSize = 24;
+
+	static final byte nullTag = 0;
+	static final byte falseTag = 1;
+	static final byte trueTag = 2;
+	static final byte intTag = 3;
+	static final byte floatTag = 4;
+	static final byte doubleTag = 5;
+	static final byte stringTag = 6;
+	static final byte classTag = 7;
+	static final byte objectTag = 8;
+	static final byte arrayTag = 9;
+	/** Tag, byte length of contained values and their count. */
+	static final int containerHeaderSize = 9;
+
+	private final ByteBuffer buffer;
+
+	private final int namesOffset;
+	private final int stringsOffset;
+	private final int classesOffset;
+	private final int dependenciesOffset;
+	private final int indexOffset;
+
+	private final ObjectIntMap<String> nameIndices = new ObjectIntMap<String>();
+	private final String[] strings;
+	private final Class<?>[] classes;
+
+	private byte[] stringBytes = new byte[64];
+
+	public BinaryJsonDocument(ByteBuffer buffer) {
+		this.buffer = buffer;
+		buffer.order(ByteOrder.LITTLE_ENDIAN);
+
+		int limit = buffer.limit();
+		if (limit < headerSize + footerSize || !hasMagic(0) || !hasMagic(limit - magic.length)) {
+			throw new GdxRuntimeException("Not a binary json document.");
+		}
+		if (buffer.getInt(magic.length) != version) {
+			throw new GdxRuntimeException("Unsupported binary json version: " + buffer.getInt(magic.length));
+		}
+
+		int footer = limit - footerSize;
+		namesOffset = buffer.getInt(footer);
+		stringsOffset = buffer.getInt(footer + 4);
+		classesOffset = buffer.getInt(footer + 8);
+		dependenciesOffset = buffer.getInt(footer + 12);
+		indexOffset = buffer.getInt(footer + 16);
+
+		for (int i = 0, n = buffer.getInt(namesOffset); i < n; i++) {
+			nameIndices.put(decodeString(namesOffset, i), i);
+		}
+		strings = new String[buffer.getInt(stringsOffset)];
+		classes = new Class<?>[buffer.getInt(classesOffset)];
+	}
+
+	private boolean hasMagic(int offset) {
+		for (int i = 0; i < magic.length; i++) {
+			if (buffer.get(offset + i) != magic[i]) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	public static boolean isBinary(FileHandle file) {
+		InputStream stream = file.read();
+		try {
+			for (int i = 0; i < magic.length; i++) {
+				if (stream.read() != magic[i]) {
+					return false;
+				}
+			}
+			return true;
+		} catch (IOException e) {
+			return false;
+		} finally {
+			StreamUtils.closeQuietly(stream);
+		}
+	}
+
+	/**
+	 * Opens the document from memory mapped file where possible, see {@link MappedFiles}.
+	 */
+	public static BinaryJsonDocument open(FileHandle file) {
+		return new BinaryJsonDocument(MappedFiles.map(file));
+	}
+
+	public int getObjectCount() {
+		return buffer.getInt(indexOffset);
+	}
+
+	/**
+	 * @return position of the serialized object with the given ordinal
+	 */
+	public int getObjectOffset(int ordinal) {
+		return buffer.getInt(indexOffset + 4 + ordinal * 8);
+	}
+
+	/**
+	 * @return type of the serialized object with the given ordinal or null when it is not written in the document
+	 *         (object is of expected type)
+	 */
+	public Class<?> getObjectType(int ordinal) {
+		int classIndex = buffer.getInt(indexOffset + 8 + ordinal * 8);
+		return classIndex < 0 ? null : getClass(classIndex);
+	}
+
+	public int getDependencyCount() {
+		return buffer.getInt(dependenciesOffset);
+	}
+
+	/**
+	 * @return dependency in the same form as it is stored in json documents: serialized type and file name
+	 */
+	public String getDependency(int index) {
+		return decodeString(dependenciesOffset, index);
+	}
+
+	String getString(int index) {
+		String string = strings[index];
+		if (string == null) {
+			string = decodeString(stringsOffset, index);
+			strings[index] = string;
+		}
+		return string;
+	}
+
+	String getClassName(int index) {
+		return decodeString(classesOffset, index);
+	}
+
+	Class<?> getClass(int index) {
+		Class<?> type = classes[index];
+		if (type == null) {
+			type = Reflection.forName(JsonSerialization.deserializeType(getClassName(index)));
+			classes[index] = type;
+		}
+		return type;
+	}
+
+	int getNameIndex(String name) {
+		return nameIndices.get(name, -1);
+	}
+
+	private synchronized String decodeString(int tableOffset, int index) {
+		int offset = buffer.getInt(tableOffset + 4 + index * 4);
+		int length = (int) readVarint(offset);
+		offset = skipVarint(offset);
+
+		if (stringBytes.length < length) {
+			stringBytes = new byte[Math.max(length, stringBytes.length * 2)];
+		}
+		byte[] bytes = stringBytes;
+		for (int i = 0; i < length; i++) {
+			bytes[i] = buffer.get(offset + i);
+		}
+
+		try {
+			return new String(bytes, 0, length, "UTF-8");
+		} catch (UnsupportedEncodingException e) {
+			throw new GdxRuntimeException(e);
+		}
+	}
+
+	byte tag(int position) {
+		return buffer.get(position);
+	}
+
+	/**
+	 * @return position of the value following the one at the given position
+	 */
+	int skip(int position) {
+		switch (buffer.get(position)) {
+		case intTag:
+		case stringTag:
+		case classTag:
+			return skipVarint(position + 1);
+		case floatTag:
+			return position + 5;
+		case doubleTag:
+			return position + 9;
+		case objectTag:
+		case arrayTag:
+			return position + containerHeaderSize + buffer.getInt(position + 1);
+		default:
+			return position + 1;
+		}
+	}
+
+	int size(int position) {
+		byte tag = buffer.get(position);
+		return tag == objectTag || tag == arrayTag ? buffer.getInt(position + 5) : 0;
+	}
+
+	/**
+	 * @return position of the named property value of the object or -1
+	 */
+	int get(int position, String name) {
+		if (position < 0 || buffer.get(position) != objectTag) {
+			return -1;
+		}
+
+		int nameIndex = getNameIndex(name);
+		if (nameIndex < 0) {
+			return -1;
+		}
+
+		int current = position + containerHeaderSize;
+		for (int i = 0, n = buffer.getInt(position + 5); i < n; i++) {
+			int propertyName = (int) readVarint(current);
+			current = skipVarint(current);
+			if (propertyName == nameIndex) {
+				return current;
+			}
+			current = skip(current);
+		}
+		return -1;
+	}
+
+	long asLong(int position) {
+		switch (buffer.get(position)) {
+		case intTag:
+			return decodeZigZag(readVarint(position + 1));
+		case floatTag:
+			return (long) buffer.getFloat(position + 1);
+		case doubleTag:
+			return (long) buffer.getDouble(position + 1);
+		case trueTag:
+			return 1;
+		case falseTag:
+			return 0;
+		case stringTag:
+			return Long.parseLong(asString(position));
+		default:
+			throw new IllegalStateException("Value cannot be converted to long: " + tagName(position));
+		}
+	}
+
+	double asDouble(int position) {
+		switch (buffer.get(position)) {
+		case intTag:
+			return decodeZigZag(readVarint(position + 1));
+		case floatTag:
+			return buffer.getFloat(position + 1);
+		case doubleTag:
+			return buffer.getDouble(position + 1);
+		case trueTag:
+			return 1;
+		case falseTag:
+			return 0;
+		case stringTag:
+			return Double.parseDouble(asString(position));
+		default:
+			throw new IllegalStateException("Value cannot be converted to double: " + tagName(position));
+		}
+	}
+
+	float asFloat(int position) {
+		switch (buffer.get(position)) {
+		case floatTag:
+			return buffer.getFloat(position + 1);
+		case stringTag:
+			return Float.parseFloat(asString(position));
+		default:
+			return (float) asDouble(position);
+		}
+	}
+
+	boolean asBoolean(int position) {
+		switch (buffer.get(position)) {
+		case trueTag:
+			return true;
+		case falseTag:
+			return false;
+		case stringTag:
+			return "true".equalsIgnoreCase(asString(position));
+		default:
+			return asDouble(position) != 0;
+		}
+	}
+
+	char asChar(int position) {
+		switch (buffer.get(position)) {
+		case stringTag:
+			String value = asString(position);
+			return value.length() == 0 ? 0 : value.charAt(0);
+		default:
+			return (char) asLong(position);
+		}
+	}
+
+	String asString(int position) {
+		switch (buffer.get(position)) {
+		case nullTag:
+			return null;
+		case stringTag:
+			return getString((int) readVarint(position + 1));
+		case classTag:
+			return getClassName((int) readVarint(position + 1));
+		case intTag:
+			return Long.toString(asLong(position));
+		case floatTag:
+			return Float.toString(buffer.getFloat(position + 1));
+		case doubleTag:
+			return Double.toString(buffer.getDouble(position + 1));
+		case trueTag:
+			return "true";
+		case falseTag:
+			return "false";
+		default:
+			throw new IllegalStateException("Value cannot be converted to string: " + tagName(position));
+		}
+	}
+
+	/**
+	 * @return class of the type value or null when value at the given position is not a type
+	 */
+	Class<?> asClass(int position) {
+		return position < 0 || buffer.get(position) != classTag ? null : getClass((int) readVarint(position + 1));
+	}
+
+	private String tagName(int position) {
+		switch (buffer.get(position)) {
+		case nullTag:
+			return "null";
+		case objectTag:
+			return "object";
+		case arrayTag:
+			return "array";
+		default:
+			return "value";
+		}
+	}
+
+	private long readVarint(int position) {
+		long result = 0;
+		int shift = 0;
+		while (true) {
+			byte b = buffer.get(position++);
+			result |= (long) (b & 0x7F) << shift;
+			if ((b & 0x80) == 0) {
+				return result;
+			}
+			shift += 7;
+		}
+	}
+
+	private int skipVarint(int position) {
+		while ((buffer.get(position++) & 0x80) != 0) {
+		}
+		return position;
+	}
+
+	private static long decodeZigZag(long value) {
+		return (value >>> 1) ^ -(value & 1);
+	}
+}
@@ -0,0 +1,377 @@
+package com.gurella.engine.metatype.serialization.json;
+
+import static com.gurella.engine.metatype.serialization.json.BinaryJsonDocument.arrayTag;
+import static com.gurella.engine.metatype.serialization.json.BinaryJsonDocument.containerHeaderSize;
+import static com.gurella.engine.metatype.serialization.json.BinaryJsonDocument.nullTag;
+import static com.gurella.engine.metatype.serialization.json.BinaryJsonDocument.objectTag;
+import static com.gurella.engine.metatype.serialization.json.JsonSerialization.arrayType;
+import static com.gurella.engine.metatype.serialization.json.JsonSerialization.arrayTypeTag;
+import static com.gurella.engine.metatype.serialization.json.JsonSerialization.dependencyBundleIdTag;
+import static com.gurella.engine.metatype.serialization.json.JsonSerialization.dependencyIndexTag;
+import static com.gurella.engine.metatype.serialization.json.JsonSerialization.dependencyType;
+import static com.gurella.engine.metatype.serialization.json.JsonSerialization.isSimpleType;
+import static com.gurella.engine.metatype.serialization.json.JsonSerialization.typeTag;
+import static com.gurella.engine.metatype.serialization.json.JsonSerialization.valueTag;
+
+import com.badlogic.gdx.utils.GdxRuntimeException;
+import com.badlogic.gdx.utils.IntArray;
+import com.badlogic.gdx.utils.IntIntMap;
+import com.badlogic.gdx.utils.IntMap;
+import com.badlogic.gdx.utils.Pool.Poolable;
+import com.gurella.engine.metatype.CopyContext;
+import com.gurella.engine.metatype.MetaType;
+import com.gurella.engine.metatype.MetaTypes;
+import com.gurella.engine.metatype.serialization.Input;
+import com.gurella.engine.metatype.serialization.json.JsonInput.SerializedObject;
+import com.gurella.engine.utils.ArrayExt;
+import com.gurella.engine.utils.ImmutableArray;
+
+/**
+ * Counterpart of {@link JsonInput} for documents written by {@link BinaryJsonWriter}. Values are read directly from
+ * {@link BinaryJsonDocument} and referenced objects are located through its offset index, so objects are materialized
+ * only when they are reached from the deserialized object or requested by ordinal.
+ */
+public class BinaryJsonInput implements Input, Poolable {
+	private BinaryJsonDocument document;
+	private SerializedObject serializedObject;
+
+	/** Position of the current value or -1 when there are no more values. */
+	private int value = -1;
+	/** Number of values left in current sequence, including the current one. */
+	private int remaining;
+	/** Pairs of value positions and remaining counts. */
+	private final IntArray valueStack = new IntArray();
+	private final ArrayExt<Object> objectStack = new ArrayExt<Object>();
+
+	private final IntMap<Object> references = new IntMap<Object>();
+	private final IntIntMap referencePositions = new IntIntMap();
+
+	private CopyContext copyContext = new CopyContext();
+
+	public <T> T deserialize(SerializedObject serializedObject, Class<T> expectedType) {
+		return deserialize(serializedObject, 0, expectedType, null);
+	}
+
+	public <T> T deserialize(SerializedObject serializedObject, Class<T> expectedType, Object template) {
+		return deserialize(serializedObject, 0, expectedType, template);
+	}
+
+	/**
+	 * Materializes the serialized object with the given ordinal and objects it references without reading the rest
+	 * of the document.
+	 */
+	public <T> T deserialize(SerializedObject serializedObject, int ordinal, Class<T> expectedType, Object template) {
+		document = serializedObject.document;
+		if (document == null || document.getObjectCount() <= ordinal) {
+			return null;
+		}
+
+		this.serializedObject = serializedObject;
+
+		try {
+			int position = document.getObjectOffset(ordinal);
+			referencePositions.put(position, ordinal);
+			return deserialize(position, expectedType, template);
+		} finally {
+			reset();
+		}
+	}
+
+	private <T> T deserialize(int position, Class<T> expectedType, Object template) {
+		Class<T> resolvedType = resolveObjectType(expectedType, position);
+		int resolvedPosition = isSimpleType(resolvedType) ? document.get(position, valueTag) : position;
+		return deserializeObject(resolvedPosition, 1, resolvedType, template);
+	}
+
+	private <T> Class<T> resolveObjectType(Class<T> knownType, int position) {
+		Class<?> resolvedType = null;
+		byte tag = document.tag(position);
+		if (tag == objectTag) {
+			resolvedType = document.asClass(document.get(position, typeTag));
+		} else if (tag == arrayTag && document.size(position) > 0) {
+			int firstItem = position + containerHeaderSize;
+			if (isArrayTypeItem(firstItem)) {
+				resolvedType = document.asClass(document.get(firstItem, arrayTypeTag));
+			}
+		}
+
+		if (resolvedType != null) {
+			@SuppressWarnings("unchecked")
+			Class<T> casted = (Class<T>) resolvedType;
+			return casted;
+		} else if (knownType != null) {
+			return knownType;
+		} else {
+			throw new GdxRuntimeException("Can't resolve serialized object type.");
+		}
+	}
+
+	private boolean isArrayTypeItem(int position) {
+		int typePosition = document.get(position, typeTag);
+		return typePosition >= 0 && arrayType.equals(document.asString(typePosition));
+	}
+
+	private <T> T deserializeObject(int position, int count, Class<T> resolvedType, Object template) {
+		push(position, count);
+		MetaType<T> metaType = MetaTypes.getMetaType(resolvedType);
+		T object = metaType.deserialize(template, this);
+		pop();
+		return object;
+	}
+
+	private void push(int position, int count) {
+		value = count > 0 ? position : -1;
+		remaining = count;
+		valueStack.add(value);
+		valueStack.add(remaining);
+	}
+
+	private void pop() {
+		valueStack.size -= 2;
+		int size = valueStack.size;
+		if (size > 0) {
+			value = valueStack.get(size - 2);
+			remaining = valueStack.get(size - 1);
+		} else {
+			value = -1;
+			remaining = 0;
+		}
+	}
+
+	private void next() {
+		remaining--;
+		value = remaining > 0 ? document.skip(value) : -1;
+		int size = valueStack.size;
+		valueStack.set(size - 2, value);
+		valueStack.set(size - 1, remaining);
+	}
+
+	private int property(String name) {
+		int position = document.get(value, name);
+		if (position < 0) {
+			throw new IllegalArgumentException("Named value not found: " + name);
+		}
+		return position;
+	}
+
+	@Override
+	public boolean isValuePresent() {
+		return value >= 0;
+	}
+
+	@Override
+	public int readInt() {
+		int result = (int) document.asLong(value);
+		next();
+		return result;
+	}
+
+	@Override
+	public long readLong() {
+		long result = document.asLong(value);
+		next();
+		return result;
+	}
+
+	@Override
+	public short readShort() {
+		short result = (short) document.asLong(value);
+		next();
+		return result;
+	}
+
+	@Override
+	public byte readByte() {
+		byte result = (byte) document.asLong(value);
+		next();
+		return result;
+	}
+
+	@Override
+	public char readChar() {
+		char result = document.asChar(value);
+		next();
+		return result;
+	}
+
+	@Override
+	public boolean readBoolean() {
+		boolean result = document.asBoolean(value);
+		next();
+		return result;
+	}
+
+	@Override
+	public double readDouble() {
+		double result = document.asDouble(value);
+		next();
+		return result;
+	}
+
+	@Override
+	public float readFloat() {
+		float result = document.asFloat(value);
+		next();
+		return result;
+	}
+
+	@Override
+	public String readString() {
+		String result = document.asString(value);
+		next();
+		return result;
+	}
+
+	@Override
+	public <T> T readObject(Class<T> expectedType, Object template) {
+		T result;
+		byte tag = document.tag(value);
+		if (tag == nullTag) {
+			result = null;
+		} else if (expectedType != null && (expectedType.isPrimitive() || isSimpleType(expectedType))) {
+			push(tag == objectTag ? document.get(value, valueTag) : value, 1);
+			result = MetaTypes.getMetaType(expectedType).deserialize(template, this);
+			pop();
+		} else if (tag == objectTag) {
+			int typePosition = document.get(value, typeTag);
+			if (typePosition >= 0 && dependencyType.equals(document.asString(typePosition))) {
+				int dependencyIndex = (int) document.asLong(property(dependencyIndexTag));
+				int bundleIdPosition = document.get(value, dependencyBundleIdTag);
+				String bundleId = bundleIdPosition < 0 ? null : document.asString(bundleIdPosition);
+				result = serializedObject.getExternalDependency(dependencyIndex, bundleId);
+			} else {
+				result = deserialize(value, expectedType, template);
+			}
+		} else if (tag == arrayTag) {
+			int count = document.size(value);
+			int firstItem = value + containerHeaderSize;
+			if (count > 0 && isArrayTypeItem(firstItem)) {
+				Class<?> arrayType = document.asClass(document.get(firstItem, arrayTypeTag));
+				@SuppressWarnings("unchecked")
+				T array = (T) deserializeObject(document.skip(firstItem), count - 1, arrayType, template);
+				result = array;
+			} else {
+				result = deserializeObject(firstItem, count, expectedType, template);
+			}
+		} else {
+			int id = (int) document.asLong(value);
+			@SuppressWarnings("unchecked")
+			T referencedObject = (T) references.get(id);
+			if (referencedObject == null) {
+				int referencePosition = document.getObjectOffset(id);
+				if (referencePositions.containsKey(referencePosition)) {
+					throw new GdxRuntimeException("Circular reference detected. Add reference to input.");
+				}
+				referencePositions.put(referencePosition, id);
+				push(referencePosition, 1);
+				referencedObject = readObject(expectedType, template);
+				pop();
+				references.put(id, referencedObject);
+			}
+			result = referencedObject;
+		}
+
+		next();
+		return result;
+	}
+
+	@Override
+	public boolean isNull() {
+		return document.tag(value) == nullTag;
+	}
+
+	@Override
+	public boolean hasProperty(String name) {
+		return document.get(value, name) >= 0;
+	}
+
+	@Override
+	public int readIntProperty(String name) {
+		return (int) document.asLong(property(name));
+	}
+
+	@Override
+	public long readLongProperty(String name) {
+		return document.asLong(property(name));
+	}
+
+	@Override
+	public short readShortProperty(String name) {
+		return (short) document.asLong(property(name));
+	}
+
+	@Override
+	public byte readByteProperty(String name) {
+		return (byte) document.asLong(property(name));
+	}
+
+	@Override
+	public char readCharProperty(String name) {
+		return document.asChar(property(name));
+	}
+
+	@Override
+	public boolean readBooleanProperty(String name) {
+		return document.asBoolean(property(name));
+	}
+
+	@Override
+	public double readDoubleProperty(String name) {
+		return document.asDouble(property(name));
+	}
+
+	@Override
+	public float readFloatProperty(String name) {
+		return document.asFloat(property(name));
+	}
+
+	@Override
+	public String readStringProperty(String name) {
+		return document.asString(property(name));
+	}
+
+	@Override
+	public <T> T readObjectProperty(String name, Class<T> expectedType, Object template) {
+		push(property(name), 1);
+		T object = readObject(expectedType, template);
+		pop();
+		return object;
+	}
+
+	@Override
+	public void pushObject(Object object) {
+		int id = value < 0 ? -1 : referencePositions.get(value, -1);
+		if (id >= 0) {
+			references.put(id, object);
+		}
+		objectStack.add(object);
+	}
+
+	@Override
+	public void popObject() {
+		objectStack.pop();
+	}
+
+	@Override
+	public ImmutableArray<Object> getObjectStack() {
+		return objectStack.immutable();
+	}
+
+	@Override
+	public <T> T copyObject(T original) {
+		return copyContext.copy(original);
+	}
+
+	@Override
+	public void reset() {
+		document = null;
+		serializedObject = null;
+		value = -1;
+		remaining = 0;
+		valueStack.clear();
+		objectStack.clear();
+		references.clear();
+		referencePositions.clear();
+		copyContext.reset();
+	}
+}
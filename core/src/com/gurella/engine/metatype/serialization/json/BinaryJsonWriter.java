@@ -0,0 +1,373 @@
+package com.gurella.engine.metatype.serialization.json;
+
+import static com.gurella.engine.metatype.serialization.json.BinaryJsonDocument.arrayTag;
+import static com.gurella.engine.metatype.serialization.json.BinaryJsonDocument.classTag;
+import static com.gurella.engine.metatype.serialization.json.BinaryJsonDocument.containerHeaderSize;
+import static com.gurella.engine.metatype.serialization.json.BinaryJsonDocument.doubleTag;
+import static com.gurella.engine.metatype.serialization.json.BinaryJsonDocument.falseTag;
+import static com.gurella.engine.metatype.serialization.json.BinaryJsonDocument.floatTag;
+import static com.gurella.engine.metatype.serialization.json.BinaryJsonDocument.intTag;
+import static com.gurella.engine.metatype.serialization.json.BinaryJsonDocument.magic;
+import static com.gurella.engine.metatype.serialization.json.BinaryJsonDocument.nullTag;
+import static com.gurella.engine.metatype.serialization.json.BinaryJsonDocument.objectTag;
+import static com.gurella.engine.metatype.serialization.json.BinaryJsonDocument.stringTag;
+import static com.gurella.engine.metatype.serialization.json.BinaryJsonDocument.trueTag;
+import static com.gurella.engine.metatype.serialization.json.BinaryJsonDocument.version;
+import static com.gurella.engine.metatype.serialization.json.JsonSerialization.arrayType;
+import static com.gurella.engine.metatype.serialization.json.JsonSerialization.arrayTypeTag;
+import static com.gurella.engine.metatype.serialization.json.JsonSerialization.dependenciesTag;
+import static com.gurella.engine.metatype.serialization.json.JsonSerialization.dependencyType;
+import static com.gurella.engine.metatype.serialization.json.JsonSerialization.typeTag;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UnsupportedEncodingException;
+import java.io.Writer;
+
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+import com.badlogic.gdx.utils.IntArray;
+import com.badlogic.gdx.utils.JsonWriter;
+import com.badlogic.gdx.utils.ObjectIntMap;
+
+/**
+ * Writes output of {@link JsonOutput} in the format read by {@link BinaryJsonDocument}. Property names, strings,
+ * types and dependencies are written once into tables and referenced by index. Serialized objects are written to the
+ * stream as soon as they are completed, so only the object being written is buffered.
+ */
+public class BinaryJsonWriter extends JsonWriter {
+	private static final Writer unsupportedWriter = new UnsupportedWriter();
+
+	private final OutputStream stream;
+	private int streamOffset;
+
+	private byte[] buffer = new byte[1024];
+	private int size;
+
+	private int depth;
+	private String name;
+	private final IntArray containers = new IntArray();
+	private final IntArray containerCounts = new IntArray();
+	private boolean objectContainer;
+
+	private int ordinal = -1;
+	private boolean writingDependencies;
+
+	private final StringTable names = new StringTable();
+	private final StringTable strings = new StringTable();
+	private final StringTable classes = new StringTable();
+	private final StringTable dependencies = new StringTable();
+	private final IntArray objectOffsets = new IntArray();
+	private final IntArray objectClasses = new IntArray();
+
+	public BinaryJsonWriter(OutputStream stream) {
+		super(unsupportedWriter);
+		this.stream = stream;
+	}
+
+	@Override
+	public JsonWriter name(String name) throws IOException {
+		if (depth == 0 || !objectContainer) {
+			throw new IllegalStateException("Current item must be an object.");
+		}
+		this.name = name;
+		return this;
+	}
+
+	@Override
+	public JsonWriter object() throws IOException {
+		return begin(true);
+	}
+
+	@Override
+	public JsonWriter array() throws IOException {
+		return begin(false);
+	}
+
+	private JsonWriter begin(boolean object) throws IOException {
+		if (depth == 0) {
+			if (!object) {
+				throw new IllegalStateException("Root must be an object.");
+			}
+			writeHeader();
+		} else if (depth == 1 && dependenciesTag.equals(name)) {
+			writingDependencies = true;
+			name = null;
+		} else {
+			beginValue();
+			containers.add(size);
+			containerCounts.add(0);
+			writeByte(object ? objectTag : arrayTag);
+			ensureCapacity(containerHeaderSize - 1);
+			size += containerHeaderSize - 1;
+		}
+
+		depth++;
+		objectContainer = object;
+		return this;
+	}
+
+	@Override
+	public JsonWriter value(Object value) throws IOException {
+		if (writingDependencies) {
+			dependencies.add(String.valueOf(value));
+			return this;
+		}
+
+		boolean type = isType(value);
+		beginValue();
+
+		if (value == null) {
+			writeByte(nullTag);
+		} else if (value instanceof Boolean) {
+			writeByte(((Boolean) value).booleanValue() ? trueTag : falseTag);
+		} else if (value instanceof Float) {
+			writeByte(floatTag);
+			writeInt(Float.floatToIntBits(((Float) value).floatValue()));
+		} else if (value instanceof Double) {
+			writeByte(doubleTag);
+			long bits = Double.doubleToLongBits(((Double) value).doubleValue());
+			writeInt((int) bits);
+			writeInt((int) (bits >>> 32));
+		} else if (value instanceof Number) {
+			long longValue = ((Number) value).longValue();
+			writeByte(intTag);
+			writeVarint((longValue << 1) ^ (longValue >> 63));
+		} else if (type) {
+			int classIndex = classes.add((String) value);
+			if (depth == 2) {
+				objectClasses.set(ordinal, classIndex);
+			}
+			writeByte(classTag);
+			writeVarint(classIndex);
+		} else {
+			writeByte(stringTag);
+			writeVarint(strings.add(value.toString()));
+		}
+
+		if (depth == 1) {
+			flushObject();
+		}
+		return this;
+	}
+
+	private boolean isType(Object value) {
+		return value instanceof String && (typeTag.equals(name) || arrayTypeTag.equals(name))
+				&& !arrayType.equals(value) && !dependencyType.equals(value);
+	}
+
+	@Override
+	public JsonWriter json(String json) throws IOException {
+		throw new UnsupportedOperationException("Raw json can't be written in binary format.");
+	}
+
+	@Override
+	public JsonWriter pop() throws IOException {
+		if (depth == 0) {
+			throw new IllegalStateException("No objects or arrays to pop.");
+		}
+		if (name != null) {
+			throw new IllegalStateException("Expected an object, array, or value since a name was set.");
+		}
+
+		depth--;
+		if (depth == 0) {
+			writeFooter();
+		} else if (writingDependencies) {
+			writingDependencies = false;
+		} else {
+			int start = containers.pop();
+			writeInt(start + 1, size - start - containerHeaderSize);
+			writeInt(start + 5, containerCounts.pop());
+			if (depth == 1) {
+				flushObject();
+			}
+		}
+
+		objectContainer = depth == 1 || (containers.size > 0 && buffer[containers.peek()] == objectTag);
+		return this;
+	}
+
+	/**
+	 * Writes the pending name and registers the value in its container or, for values of the root object, in the
+	 * object index.
+	 */
+	private void beginValue() {
+		if (depth == 1) {
+			if (name == null) {
+				throw new IllegalStateException("Name must be set.");
+			}
+			ordinal = Integer.parseInt(name);
+			if (objectOffsets.size <= ordinal) {
+				objectOffsets.setSize(ordinal + 1);
+				objectClasses.setSize(ordinal + 1);
+			}
+			objectOffsets.set(ordinal, streamOffset);
+			objectClasses.set(ordinal, -1);
+			name = null;
+			return;
+		}
+
+		if (objectContainer) {
+			if (name == null) {
+				throw new IllegalStateException("Name must be set.");
+			}
+			writeVarint(names.add(name));
+			name = null;
+		}
+		containerCounts.incr(containerCounts.size - 1, 1);
+	}
+
+	private void flushObject() throws IOException {
+		stream.write(buffer, 0, size);
+		streamOffset += size;
+		size = 0;
+	}
+
+	private void writeHeader() throws IOException {
+		for (int i = 0; i < magic.length; i++) {
+			writeByte(magic[i]);
+		}
+		writeInt(version);
+		flushObject();
+	}
+
+	private void writeFooter() throws IOException {
+		int namesOffset = writeTable(names);
+		int stringsOffset = writeTable(strings);
+		int classesOffset = writeTable(classes);
+		int dependenciesOffset = writeTable(dependencies);
+
+		int indexOffset = streamOffset;
+		int count = objectOffsets.size;
+		writeInt(count);
+		for (int i = 0; i < count; i++) {
+			writeInt(objectOffsets.get(i));
+			writeInt(objectClasses.get(i));
+		}
+		flushObject();
+
+		writeInt(namesOffset);
+		writeInt(stringsOffset);
+		writeInt(classesOffset);
+		writeInt(dependenciesOffset);
+		writeInt(indexOffset);
+		for (int i = 0; i < magic.length; i++) {
+			writeByte(magic[i]);
+		}
+		flushObject();
+	}
+
+	private int writeTable(StringTable table) throws IOException {
+		int tableOffset = streamOffset;
+		Array<byte[]> values = table.encoded;
+		int count = values.size;
+		int offset = tableOffset + 4 + count * 4;
+
+		writeInt(count);
+		for (int i = 0; i < count; i++) {
+			writeInt(offset);
+			int length = values.get(i).length;
+			offset += varintSize(length) + length;
+		}
+
+		for (int i = 0; i < count; i++) {
+			byte[] value = values.get(i);
+			writeVarint(value.length);
+			ensureCapacity(value.length);
+			System.arraycopy(value, 0, buffer, size, value.length);
+			size += value.length;
+		}
+
+		flushObject();
+		return tableOffset;
+	}
+
+	private void ensureCapacity(int additional) {
+		int required = size + additional;
+		if (required > buffer.length) {
+			byte[] newBuffer = new byte[Math.max(required, buffer.length * 2)];
+			System.arraycopy(buffer, 0, newBuffer, 0, size);
+			buffer = newBuffer;
+		}
+	}
+
+	private void writeByte(int value) {
+		ensureCapacity(1);
+		buffer[size++] = (byte) value;
+	}
+
+	private void writeInt(int value) {
+		ensureCapacity(4);
+		writeInt(size, value);
+		size += 4;
+	}
+
+	private void writeInt(int offset, int value) {
+		buffer[offset] = (byte) value;
+		buffer[offset + 1] = (byte) (value >>> 8);
+		buffer[offset + 2] = (byte) (value >>> 16);
+		buffer[offset + 3] = (byte) (value >>> 24);
+	}
+
+	private void writeVarint(long value) {
+		while ((value & ~0x7FL) != 0) {
+			writeByte((int) ((value & 0x7F) | 0x80));
+			value >>>= 7;
+		}
+		writeByte((int) value);
+	}
+
+	private static int varintSize(int value) {
+		int size = 1;
+		while ((value & ~0x7F) != 0) {
+			value >>>= 7;
+			size++;
+		}
+		return size;
+	}
+
+	@Override
+	public void flush() throws IOException {
+		stream.flush();
+	}
+
+	@Override
+	public void close() throws IOException {
+		stream.close();
+	}
+
+	private static class StringTable {
+		final ObjectIntMap<String> indices = new ObjectIntMap<String>();
+		final Array<byte[]> encoded = new Array<byte[]>();
+
+		int add(String value) {
+			int index = indices.get(value, -1);
+			if (index < 0) {
+				index = encoded.size;
+				indices.put(value, index);
+				try {
+					encoded.add(value.getBytes("UTF-8"));
+				} catch (UnsupportedEncodingException e) {
+					throw new GdxRuntimeException(e);
+				}
+			}
+			return index;
+		}
+	}
+
+	private static class UnsupportedWriter extends Writer {
+		@Override
+		public void write(char[] cbuf, int off, int len) throws IOException {
+			throw new UnsupportedOperationException();
+		}
+
+		@Override
+		public void flush() throws IOException {
+		}
+
+		@Override
+		public void close() throws IOException {
+		}
+	}
+}
@@ -314,6 +314,7 @@ public class JsonInput implements Input, Poolable {
 
 	public static abstract class SerializedObject implements Poolable {
 		JsonValue rootValue;
+		BinaryJsonDocument document;
 		final Array<String> dependencyPaths = new Array<String>();
 		final Array<Class<?>> dependencyTypes = new Array<Class<?>>();
 
@@ -338,16 +339,29 @@ public class JsonInput implements Input, Poolable {
 			}
 
 			for (JsonValue value = lastValue.child; value != null; value = value.next) {
-				String strValue = value.asString();
-				int index = strValue.indexOf(' ');
-				String typeName = strValue.substring(0, index++);
-				Class<Object> dependencyType = Reflection.forName(deserializeType(typeName));
-				dependencyTypes.add(dependencyType);
-				String dependencyPath = strValue.substring(index, strValue.length());
-				dependencyPaths.add(dependencyPath);
+				addExternalDependency(value.asString());
 			}
 		}
 
+		/**
+		 * Initializes object for {@link BinaryJsonInput}.
+		 */
+		protected void init(BinaryJsonDocument document) {
+			this.document = document;
+			for (int i = 0, n = document.getDependencyCount(); i < n; i++) {
+				addExternalDependency(document.getDependency(i));
+			}
+		}
+
+		private void addExternalDependency(String strValue) {
+			int index = strValue.indexOf(' ');
+			String typeName = strValue.substring(0, index++);
+			Class<Object> dependencyType = Reflection.forName(deserializeType(typeName));
+			dependencyTypes.add(dependencyType);
+			String dependencyPath = strValue.substring(index, strValue.length());
+			dependencyPaths.add(dependencyPath);
+		}
+
 		protected int getExternalDependenciesCount() {
 			return dependencyTypes.size;
 		}
@@ -372,6 +386,7 @@ public class JsonInput implements Input, Poolable {
 		@Override
 		public void reset() {
 			rootValue = null;
+			document = null;
 			dependencyPaths.clear();
 			dependencyTypes.clear();
 		}
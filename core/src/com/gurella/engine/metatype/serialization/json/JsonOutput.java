@@ -13,6 +13,8 @@ import static com.gurella.engine.metatype.serialization.json.JsonSerialization.t
 import static com.gurella.engine.metatype.serialization.json.JsonSerialization.valueTag;
 
 import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
 import java.io.StringWriter;
 import java.io.Writer;
 
@@ -46,23 +48,69 @@ public class JsonOutput implements Output, Poolable {
 	}
 
 	public <T> String serialize(AssetId assetId, Class<T> expectedType, T rootObject, Object template) {
-		this.assetId.set(assetId);
-		this.assetLocator = AssetService.getAssetLocator();
 		StringWriter buffer = new StringWriter();
-		serialize(expectedType, rootObject, template, buffer);
+		serialize(assetId, expectedType, rootObject, template, buffer, false);
 		return buffer.toString();
 	}
 
+	/**
+	 * Serializes the object directly into the stream encoded as UTF-8. The stream is flushed but not closed.
+	 */
+	public <T> void serialize(AssetId assetId, Class<T> expectedType, T rootObject, Object template,
+			OutputStream stream, boolean prettyPrint) {
+		try {
+			Writer buffer = new OutputStreamWriter(stream, "UTF-8");
+			serialize(assetId, expectedType, rootObject, template, buffer, prettyPrint);
+			buffer.flush();
+		} catch (IOException ex) {
+			throw new SerializationException(ex);
+		}
+	}
+
+	/**
+	 * Serializes the object directly into the writer. When prettyPrint is set output is formatted by
+	 * {@link PrettyJsonWriter}.
+	 */
+	public <T> void serialize(AssetId assetId, Class<T> expectedType, T rootObject, Object template, Writer buffer,
+			boolean prettyPrint) {
+		this.assetId.set(assetId);
+		this.assetLocator = AssetService.getAssetLocator();
+		serialize(expectedType, rootObject, template,
+				prettyPrint ? new PrettyJsonWriter(buffer) : new JsonWriter(buffer));
+	}
+
+	/**
+	 * Serializes the object into the stream in the format read by {@link BinaryJsonDocument}. The stream is flushed
+	 * but not closed.
+	 */
+	public <T> void serializeBinary(AssetId assetId, Class<T> expectedType, T rootObject, Object template,
+			OutputStream stream) {
+		this.assetId.set(assetId);
+		this.assetLocator = AssetService.getAssetLocator();
+		BinaryJsonWriter binaryWriter = new BinaryJsonWriter(stream);
+		serialize(expectedType, rootObject, template, binaryWriter);
+		try {
+			binaryWriter.flush();
+		} catch (IOException ex) {
+			throw new SerializationException(ex);
+		}
+	}
+
 	public <T> String serialize(Class<? super T> expectedType, T rootObject, Object template) {
+		return serialize(expectedType, rootObject, template, false);
+	}
+
+	public <T> String serialize(Class<? super T> expectedType, T rootObject, Object template, boolean prettyPrint) {
 		AssetService.getAssetId(rootObject, assetId);
 		this.assetLocator = AssetService.getAssetLocator();
 		StringWriter buffer = new StringWriter();
-		serialize(expectedType, rootObject, template, buffer);
+		serialize(expectedType, rootObject, template,
+				prettyPrint ? new PrettyJsonWriter(buffer) : new JsonWriter(buffer));
 		return buffer.toString();
 	}
 
-	private <T> void serialize(Class<T> expectedType, T rootObject, Object template, Writer buffer) {
-		writer = new JsonWriter(buffer);
+	private <T> void serialize(Class<T> expectedType, T rootObject, Object template, JsonWriter writer) {
+		this.writer = writer;
 
 		object();
 		newReference(expectedType, template, rootObject);
@@ -0,0 +1,229 @@
+package com.gurella.engine.metatype.serialization.json;
+
+import java.io.IOException;
+import java.io.Writer;
+
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.JsonWriter;
+
+/**
+ * {@link JsonWriter} that formats output the same way as {@code JsonValue.prettyPrint(OutputType.minimal, columns)}
+ * while streaming it. Objects and arrays without nested containers are written on a single line when they fit, so only
+ * the innermost open container is buffered until it is known whether it has children of its own.
+ */
+public class PrettyJsonWriter extends JsonWriter {
+	public static final int defaultSingleLineColumns = 120;
+
+	private final Writer writer;
+	private final int singleLineColumns;
+	private final OutputType outputType = OutputType.minimal;
+
+	private final Array<Container> containers = new Array<Container>();
+	private int depth;
+	private String name;
+
+	private final StringBuilder line = new StringBuilder();
+
+	public PrettyJsonWriter(Writer writer) {
+		this(writer, defaultSingleLineColumns);
+	}
+
+	public PrettyJsonWriter(Writer writer, int singleLineColumns) {
+		super(writer);
+		this.writer = writer;
+		this.singleLineColumns = singleLineColumns;
+	}
+
+	@Override
+	public JsonWriter name(String name) throws IOException {
+		if (depth == 0 || current().array) {
+			throw new IllegalStateException("Current item must be an object.");
+		}
+		this.name = name;
+		return this;
+	}
+
+	@Override
+	public JsonWriter object() throws IOException {
+		return begin(false);
+	}
+
+	@Override
+	public JsonWriter array() throws IOException {
+		return begin(true);
+	}
+
+	@Override
+	public JsonWriter value(Object value) throws IOException {
+		if (value instanceof Number) {
+			Number number = (Number) value;
+			long longValue = number.longValue();
+			if (number.doubleValue() == longValue) {
+				value = Long.valueOf(longValue);
+			}
+		}
+		return scalar(outputType.quoteValue(value), value instanceof Number);
+	}
+
+	@Override
+	public JsonWriter json(String json) throws IOException {
+		return scalar(json, false);
+	}
+
+	@Override
+	public JsonWriter pop() throws IOException {
+		if (depth == 0) {
+			throw new IllegalStateException("No objects or arrays to pop.");
+		}
+		if (name != null) {
+			throw new IllegalStateException("Expected an object, array, or value since a name was set.");
+		}
+
+		Container container = containers.get(--depth);
+		if (container.buffered) {
+			writeBuffered(container);
+		} else {
+			indent(container.indent - 1);
+			writer.write(container.array ? ']' : '}');
+		}
+
+		if (depth > 0) {
+			writer.write('\n');
+		}
+		return this;
+	}
+
+	private Container current() {
+		return containers.get(depth - 1);
+	}
+
+	private JsonWriter begin(boolean array) throws IOException {
+		if (depth > 0) {
+			Container parent = current();
+			if (parent.buffered) {
+				writeMultiLineStart(parent);
+			}
+			writePrefix(parent);
+		}
+
+		if (depth == containers.size) {
+			containers.add(new Container());
+		}
+		containers.get(depth).init(array, depth);
+		depth++;
+		return this;
+	}
+
+	private JsonWriter scalar(String text, boolean number) throws IOException {
+		if (depth == 0) {
+			writer.write(text);
+			return this;
+		}
+
+		Container container = current();
+		if (container.buffered) {
+			container.add(name, text, number);
+			name = null;
+		} else {
+			writePrefix(container);
+			writer.write(text);
+			writer.write('\n');
+		}
+		return this;
+	}
+
+	private void writePrefix(Container container) throws IOException {
+		indent(container.indent);
+		if (name != null) {
+			writer.write(outputType.quoteName(name));
+			writer.write(": ");
+			name = null;
+		}
+	}
+
+	private void writeMultiLineStart(Container container) throws IOException {
+		writer.write(container.array ? "[\n" : "{\n");
+		Array<String> names = container.names;
+		Array<String> values = container.values;
+		for (int i = 0, n = values.size; i < n; i++) {
+			indent(container.indent);
+			String entryName = names.get(i);
+			if (entryName != null) {
+				writer.write(outputType.quoteName(entryName));
+				writer.write(": ");
+			}
+			writer.write(values.get(i));
+			writer.write('\n');
+		}
+		container.buffered = false;
+		container.clear();
+	}
+
+	private void writeBuffered(Container container) throws IOException {
+		Array<String> values = container.values;
+		int size = values.size;
+		if (size == 0) {
+			writer.write(container.array ? "[]" : "{}");
+			return;
+		}
+
+		boolean wrap = !container.array || !container.numeric;
+		StringBuilder line = this.line;
+		line.setLength(0);
+		line.append(container.array ? "[ " : "{ ");
+		Array<String> names = container.names;
+		for (int i = 0; i < size; i++) {
+			String entryName = names.get(i);
+			if (entryName != null) {
+				line.append(outputType.quoteName(entryName)).append(": ");
+			}
+			line.append(values.get(i));
+			line.append(i < size - 1 ? ", " : " ");
+			if (wrap && line.length() > singleLineColumns) {
+				writeMultiLineStart(container);
+				indent(container.indent - 1);
+				writer.write(container.array ? ']' : '}');
+				return;
+			}
+		}
+
+		line.append(container.array ? ']' : '}');
+		writer.append(line);
+		container.clear();
+	}
+
+	private void indent(int count) throws IOException {
+		for (int i = 0; i < count; i++) {
+			writer.write('\t');
+		}
+	}
+
+	private static class Container {
+		boolean array;
+		int indent;
+		/** Contains only scalar values so far and may still be written on a single line. */
+		boolean buffered;
+		boolean numeric;
+		final Array<String> names = new Array<String>();
+		final Array<String> values = new Array<String>();
+
+		void init(boolean array, int indent) {
+			this.array = array;
+			this.indent = indent;
+			buffered = true;
+			numeric = true;
+			clear();
+		}
+
+		void add(String name, String value, boolean number) {
+			names.add(name);
+			values.add(value);
+			numeric &= number;
+		}
+
+		void clear() {
+			names.clear();
+			values.clear();
+		}
+	}
+}
@@ -7,8 +7,10 @@ import static com.gurella.engine.metatype.serialization.json.JsonSerialization.r
 import static com.gurella.engine.metatype.serialization.json.JsonSerialization.typeTag;
 import static com.gurella.engine.metatype.serialization.json.JsonSerialization.valueTag;
 
+import java.io.BufferedOutputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
 
 import com.badlogic.gdx.utils.Array;
 import com.badlogic.gdx.utils.Pool.Poolable;
@@ -43,7 +45,16 @@ public class UBJsonOutput implements Output, Poolable {
 
 	public <T> byte[] serialize(Class<T> expectedType, Object template, T rootObject) {
 		ByteArrayOutputStream stream = new ByteArrayOutputStream();
-		writer = new UBJsonWriter(stream);
+		serialize(expectedType, template, rootObject, stream);
+		return stream.toByteArray();
+	}
+
+	/**
+	 * Serializes the object directly into the stream. The stream is flushed but not closed.
+	 */
+	public <T> void serialize(Class<T> expectedType, Object template, T rootObject, OutputStream stream) {
+		BufferedOutputStream buffer = new BufferedOutputStream(stream);
+		writer = new UBJsonWriter(buffer);
 
 		object();
 		addReference(expectedType, template, rootObject);
@@ -68,9 +79,13 @@ public class UBJsonOutput implements Output, Poolable {
 
 		pop();
 
-		byte[] result = stream.toByteArray();
-		reset();
-		return result;
+		try {
+			writer.flush();
+		} catch (IOException ex) {
+			throw new SerializationException(ex);
+		} finally {
+			reset();
+		}
 	}
 
 	private void writeReference(Class<?> expectedType, Object template, Object object) {
@@ -98,10 +98,9 @@ public final class ComponentType {
 			Class<? extends SceneNodeComponent> casted = Values.cast(temp);
 			int componentType = registry.getId(casted);
 			currentBits = componentSubtypes.get(componentType);
-
-			if (lastBits == null) {
-				currentBits.set(componentType);
-			} else {
+			// superclasses registered through a subclass must also be subtypes of themselves
+			currentBits.set(componentType);
+			if (lastBits != null) {
 				currentBits.or(lastBits);
 			}
 
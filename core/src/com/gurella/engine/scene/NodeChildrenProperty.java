@@ -15,7 +15,7 @@ class NodeChildrenProperty extends SceneElementsProperty<SceneNode> {
 	}
 
 	@Override
-	protected void addElement(Object object, SceneNode element) {
+	public void addElement(Object object, SceneNode element) {
 		((SceneNode) object).addChild(element);
 	}
 }
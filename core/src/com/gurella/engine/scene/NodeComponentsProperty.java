@@ -15,7 +15,7 @@ public class NodeComponentsProperty extends SceneElementsProperty<SceneNodeCompo
 	}
 
 	@Override
-	protected void addElement(Object object, SceneNodeComponent element) {
+	public void addElement(Object object, SceneNodeComponent element) {
 		((SceneNode) object).addComponent(element);
 	}
 }
@@ -13,8 +13,8 @@ import com.gurella.engine.scene.input.InputSystem;
 import com.gurella.engine.scene.manager.ComponentManager;
 import com.gurella.engine.scene.manager.NodeManager;
 import com.gurella.engine.scene.renderable.RenderSystem;
+import com.gurella.engine.scene.spatial.SpatialPartitioning;
 import com.gurella.engine.scene.spatial.SpatialSystem;
-import com.gurella.engine.scene.spatial.bvh.BvhSpatialSystem;
 import com.gurella.engine.scene.tag.TagManager;
 import com.gurella.engine.scene.ui.UiSystem;
 import com.gurella.engine.utils.ImmutableArray;
@@ -30,7 +30,8 @@ public final class Scene extends ManagedObject implements NodeContainer, Poolabl
 	public final transient NodeManager nodeManager = new NodeManager(this);
 	public final transient TagManager tagManager = new TagManager(this);
 
-	public final transient SpatialSystem<?> spatialSystem = new BvhSpatialSystem(this);
+	private SpatialPartitioning spatialPartitioning = SpatialPartitioning.BVH;
+	public transient SpatialSystem<?> spatialSystem = spatialPartitioning.createSystem(this);
 	public final transient InputSystem inputSystem = new InputSystem(this);
 	public final transient RenderSystem renderSystem = new RenderSystem(this);
 	public final transient AudioSystem audioSystem = new AudioSystem(this);
@@ -292,8 +293,24 @@ public final class Scene extends ManagedObject implements NodeContainer, Poolabl
 		return builder.toString();
 	}
 
+	public SpatialPartitioning getSpatialPartitioning() {
+		return spatialPartitioning;
+	}
+
+	public void setSpatialPartitioning(SpatialPartitioning spatialPartitioning) {
+		if (isActive()) {
+			throw new GdxRuntimeException("Spatial partitioning can't be changed while scene is active.");
+		}
+
+		if (this.spatialPartitioning != spatialPartitioning) {
+			this.spatialPartitioning = spatialPartitioning;
+			spatialSystem = spatialPartitioning.createSystem(this);
+		}
+	}
+
 	@Override
 	public void reset() {
 		eventsDispatcher.reset();
+		setSpatialPartitioning(SpatialPartitioning.BVH);
 	}
 }
@@ -5,6 +5,7 @@ import com.badlogic.gdx.utils.IntSet;
 import com.badlogic.gdx.utils.Pool.Poolable;
 import com.gurella.engine.managedobject.ManagedObject;
 import com.gurella.engine.metatype.CopyContext;
+import com.gurella.engine.metatype.ElementsProperty;
 import com.gurella.engine.metatype.MetaType;
 import com.gurella.engine.metatype.Property;
 import com.gurella.engine.metatype.serialization.Input;
@@ -17,7 +18,7 @@ import com.gurella.engine.utils.Sequence;
 import com.gurella.engine.utils.Values;
 
 //TODO factory method
-abstract class SceneElementsProperty<T extends SceneElement> implements Property<ImmutableArray<T>> {
+abstract class SceneElementsProperty<T extends SceneElement> implements Property<ImmutableArray<T>>, ElementsProperty<T> {
 	String name;
 
 	public SceneElementsProperty(String name) {
@@ -87,7 +88,13 @@ abstract class SceneElementsProperty<T extends SceneElement> implements Property
 		}
 	}
 
-	protected abstract void addElement(Object object, T element);
+	@Override
+	public ImmutableArray<T> getElements(Object object) {
+		return getValue(object);
+	}
+
+	@Override
+	public abstract void addElement(Object object, T element);
 
 	@Override
 	public void serialize(Object object, Object template, Output output) {
@@ -95,9 +95,11 @@ class SceneEventsDispatcher implements ApplicationUpdateListener, Poolable {
 		EventService.post(sceneId, logicUpdateEvent);
 		EventService.post(sceneId, physicsUpdateEvent);
 		EventService.post(sceneId, updateEvent);
+		EventService.flushDeferred();
 		EventService.post(sceneId, preRenderUpdateEvent);
 		EventService.post(sceneId, renderUpdateEvent);
 		EventService.post(sceneId, postRenderUpdateEvent);
+		EventService.flushDeferred();
 		EventService.post(sceneId, cleanupUpdateEvent);
 	}
 
@@ -15,7 +15,7 @@ class SceneNodesProperty extends SceneElementsProperty<SceneNode> {
 	}
 
 	@Override
-	protected void addElement(Object object, SceneNode element) {
+	public void addElement(Object object, SceneNode element) {
 		((Scene) object).addNode(element);
 	}
 }
@@ -15,7 +15,7 @@ class SceneSystemsProperty extends SceneElementsProperty<SceneSystem> {
 	}
 
 	@Override
-	protected void addElement(Object object, SceneSystem element) {
+	public void addElement(Object object, SceneSystem element) {
 		((Scene) object).addSystem(element);
 	}
 }
@@ -111,6 +111,14 @@ public class CameraViewport {
 	 * Applies the viewport to the camera and sets the glViewport.
 	 */
 	public void apply() {
+		applyToGl();
+		applyToCamera();
+	}
+
+	/**
+	 * Sets the glViewport and scissor test without updating the camera.
+	 */
+	public void applyToGl() {
 		Gdx.gl.glViewport(screenX, screenY, screenWidth, screenHeight);
 		if (isConstrainedViewport()) {
 			Gdx.gl.glEnable(GL20.GL_SCISSOR_TEST);
@@ -118,7 +126,12 @@ public class CameraViewport {
 		} else {
 			Gdx.gl.glDisable(GL20.GL_SCISSOR_TEST);
 		}
+	}
 
+	/**
+	 * Applies the viewport to the camera without touching GL state.
+	 */
+	public void applyToCamera() {
 		camera.viewportWidth = worldWidth;
 		camera.viewportHeight = worldHeight;
 		camera.update();
@@ -14,12 +14,18 @@ import com.badlogic.gdx.graphics.g3d.attributes.PointLightsAttribute;
 import com.badlogic.gdx.graphics.g3d.attributes.SpotLightsAttribute;
 import com.badlogic.gdx.graphics.g3d.shaders.DefaultShader;
 import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.GdxRuntimeException;
 import com.badlogic.gdx.utils.IntSet;
 import com.badlogic.gdx.utils.IntSet.IntSetIterator;
 import com.badlogic.gdx.utils.Predicate;
+import com.badlogic.gdx.utils.async.AsyncExecutor;
+import com.badlogic.gdx.utils.async.AsyncResult;
+import com.badlogic.gdx.utils.async.AsyncTask;
+import com.gurella.engine.async.AsyncService;
 import com.gurella.engine.event.Event;
 import com.gurella.engine.event.EventService;
 import com.gurella.engine.graphics.render.GenericBatch;
+import com.gurella.engine.graphics.render.RenderBin;
 import com.gurella.engine.scene.BuiltinSceneSystem;
 import com.gurella.engine.scene.Scene;
 import com.gurella.engine.scene.SceneNodeComponent;
@@ -56,10 +62,17 @@ public class RenderSystem extends BuiltinSceneSystem
 
 	private final LayerMask layerMask = new LayerMask();
 	private final Array<Spatial> tempSpatials = new Array<Spatial>(256);
+	private final RenderBin<RenderableComponent> renderBin = new RenderBin<RenderableComponent>(256);
+
+	private int cullingParallelism = 1;
+	private AsyncExecutor cullingExecutor;
+	private final Array<CameraCuller> cullers = new Array<CameraCuller>();
+	private final Array<AsyncResult<Void>> cullingResults = new Array<AsyncResult<Void>>();
 
 	private IntSet lastVisibleRenderables = new IntSet(256);
 	private IntSet currentVisibleRenderables = new IntSet(256);
-	private final VisibilityChangedEvent visibilityChangedEvent = new VisibilityChangedEvent();
+	private final VisibilityChangedEvent becameVisibleEvent = new VisibilityChangedEvent(true);
+	private final VisibilityChangedEvent becameInvisibleEvent = new VisibilityChangedEvent(false);
 
 	private final Environment environment = new Environment();
 	private final ColorAttribute ambientLight = new ColorAttribute(ColorAttribute.AmbientLight, 0.6f, 0.6f, 0.6f, 1f);
@@ -87,24 +100,53 @@ public class RenderSystem extends BuiltinSceneSystem
 
 	@Override
 	protected void serviceDeactivated() {
+		disposeCullingExecutor();
 		spatialSystem = null;
 		batch.dispose();
 		batch = null;
 	}
 
+	public int getCullingParallelism() {
+		return cullingParallelism;
+	}
+
+	/**
+	 * Sets number of threads used to cull cameras. With more than one thread and more than one camera, every camera
+	 * is culled into its own visibility list on a worker thread and the render thread submits cameras in ordinal order
+	 * as their lists become ready.
+	 */
+	public void setCullingParallelism(int cullingParallelism) {
+		int newParallelism = Math.max(1, cullingParallelism);
+		if (this.cullingParallelism == newParallelism) {
+			return;
+		}
+
+		this.cullingParallelism = newParallelism;
+		disposeCullingExecutor();
+	}
+
+	private void disposeCullingExecutor() {
+		if (cullingExecutor != null) {
+			cullingExecutor.dispose();
+			cullingExecutor = null;
+		}
+	}
+
 	@Override
 	public void onRenderUpdate() {
-		for (int i = 0, n = cameras.size; i < n; i++) {
-			render(cameras.get(i));
+		if (cullingParallelism > 1 && cameras.size > 1) {
+			renderParallel();
+		} else {
+			for (int i = 0, n = cameras.size; i < n; i++) {
+				render(cameras.get(i));
+			}
 		}
 
-		visibilityChangedEvent.visible = false;
-
 		IntSetIterator iterator = lastVisibleRenderables.iterator();
 		while (iterator.hasNext) {
 			int renderableNodeId = iterator.next();
 			if (!currentVisibleRenderables.contains(renderableNodeId)) {
-				EventService.post(renderableNodeId, visibilityChangedEvent);
+				EventService.postDeferred(renderableNodeId, becameInvisibleEvent);
 			}
 		}
 
@@ -114,7 +156,54 @@ public class RenderSystem extends BuiltinSceneSystem
 		currentVisibleRenderables.clear();
 	}
 
+	private void renderParallel() {
+		int camerasSize = cameras.size;
+		while (cullers.size < camerasSize) {
+			cullers.add(new CameraCuller());
+		}
+
+		if (cullingExecutor == null) {
+			cullingExecutor = AsyncService.createAsyncExecutor(cullingParallelism - 1);
+		}
+
+		for (int i = 0; i < camerasSize; i++) {
+			cullers.get(i).init(cameras.get(i));
+		}
+
+		for (int i = 1; i < camerasSize; i++) {
+			cullingResults.add(cullingExecutor.submit(cullers.get(i)));
+		}
+
+		int awaited = 0;
+		try {
+			CameraCuller culler = cullers.first();
+			culler.call();
+			submit(culler.cameraComponent, culler.visibleSpatials);
+			culler.visibleSpatials.clear();
+
+			for (int i = 1; i < camerasSize; i++) {
+				cullingResults.get(i - 1).get();
+				awaited = i;
+				culler = cullers.get(i);
+				submit(culler.cameraComponent, culler.visibleSpatials);
+				culler.visibleSpatials.clear();
+			}
+		} finally {
+			for (int i = awaited, n = cullingResults.size; i < n; i++) {
+				try {
+					cullingResults.get(i).get();
+				} catch (GdxRuntimeException ignored) {
+				}
+			}
+			cullingResults.clear();
+		}
+	}
+
 	public void render(CameraComponent<?> cameraComponent) {
+		render(cameraComponent, initLayerMask(layerMask, cameraComponent));
+	}
+
+	private static LayerMask initLayerMask(LayerMask layerMask, CameraComponent<?> cameraComponent) {
 		layerMask.reset();
 		ImmutableArray<Layer> renderingLayers = cameraComponent.renderingLayers;
 		int layersSize = renderingLayers.size();
@@ -123,17 +212,27 @@ public class RenderSystem extends BuiltinSceneSystem
 			layerMask.allowed(Layer.DEFAULT);
 			layerMask.allowed(Layer.SKY);
 		} else {
-			for (int i = 0, n = layersSize; i > n; i++) {
+			for (int i = 0; i < layersSize; i++) {
 				layerMask.allowed(renderingLayers.get(i));
 			}
 		}
 
-		render(cameraComponent, layerMask);
+		return layerMask;
 	}
 
 	public void render(CameraComponent<?> cameraComponent, Predicate<RenderableComponent> predicate) {
+		cameraComponent.viewport.applyToCamera();
+		spatialSystem.getSpatials(cameraComponent.camera.frustum, tempSpatials, predicate);
+		submit(cameraComponent, tempSpatials);
+		tempSpatials.clear();
+	}
+
+	/**
+	 * Renders spatials culled with the camera. Camera was already updated for culling, only GL viewport is applied.
+	 */
+	private void submit(CameraComponent<?> cameraComponent, Array<Spatial> spatials) {
 		Camera camera = cameraComponent.camera;
-		cameraComponent.viewport.apply();
+		cameraComponent.viewport.applyToGl();
 
 		clearGlData(cameraComponent);
 
@@ -141,7 +240,7 @@ public class RenderSystem extends BuiltinSceneSystem
 		batch.setEnvironment(updateEnvironment(cameraComponent));
 
 		try {
-			renderSpatials(camera, predicate);
+			renderSpatials(camera, spatials);
 		} catch (Exception e) {
 			Exceptions.rethrowAsGdxRuntime(e);
 		} finally {
@@ -199,24 +298,28 @@ public class RenderSystem extends BuiltinSceneSystem
 		return environment;
 	}
 
-	private void renderSpatials(Camera camera, Predicate<RenderableComponent> predicate) {
-		spatialSystem.getSpatials(camera.frustum, tempSpatials, predicate);
-		tempSpatials.sort(LayerOrdinalComparator.instance);
-		visibilityChangedEvent.visible = true;
+	private void renderSpatials(Camera camera, Array<Spatial> spatials) {
+		RenderBin<RenderableComponent> renderBin = this.renderBin;
+		for (int i = 0, n = spatials.size; i < n; i++) {
+			RenderableComponent renderable = spatials.get(i).renderable;
+			renderBin.add(renderable, renderable.getRenderKey(camera));
+		}
+		renderBin.sort();
 
-		for (int i = 0; i < tempSpatials.size; i++) {
-			Spatial spatial = tempSpatials.get(i);
-			RenderableComponent renderable = spatial.renderable;
-			int nodeId = renderable.getNodeId();
+		try {
+			for (int i = 0, n = renderBin.size(); i < n; i++) {
+				RenderableComponent renderable = renderBin.get(i);
+				int nodeId = renderable.getNodeId();
 
-			if (!lastVisibleRenderables.contains(nodeId) && !currentVisibleRenderables.add(nodeId)) {
-				EventService.post(nodeId, visibilityChangedEvent);
-			}
+				if (!lastVisibleRenderables.contains(nodeId) && !currentVisibleRenderables.add(nodeId)) {
+					EventService.postDeferred(nodeId, becameVisibleEvent);
+				}
 
-			renderable.render(batch);
+				renderable.render(batch);
+			}
+		} finally {
+			renderBin.clear();
 		}
-
-		tempSpatials.clear();
 	}
 
 	@Override
@@ -251,8 +354,34 @@ public class RenderSystem extends BuiltinSceneSystem
 		cameras.sort(OrdinalComparator.instance);
 	}
 
+	/**
+	 * Culls one camera into its own visibility list. Layer mask and camera are prepared on the render thread.
+	 */
+	private class CameraCuller implements AsyncTask<Void> {
+		private final LayerMask layerMask = new LayerMask();
+		private final Array<Spatial> visibleSpatials = new Array<Spatial>(256);
+		private CameraComponent<?> cameraComponent;
+
+		void init(CameraComponent<?> cameraComponent) {
+			this.cameraComponent = cameraComponent;
+			initLayerMask(layerMask, cameraComponent);
+			cameraComponent.viewport.applyToCamera();
+			visibleSpatials.clear();
+		}
+
+		@Override
+		public Void call() {
+			spatialSystem.getSpatials(cameraComponent.camera.frustum, visibleSpatials, layerMask);
+			return null;
+		}
+	}
+
 	private static class VisibilityChangedEvent implements Event<RenderableVisibilityListener> {
-		boolean visible;
+		private final boolean visible;
+
+		VisibilityChangedEvent(boolean visible) {
+			this.visible = visible;
+		}
 
 		@Override
 		public Class<RenderableVisibilityListener> getSubscriptionType() {
@@ -1,5 +1,6 @@
 package com.gurella.engine.scene.renderable;
 
+import com.badlogic.gdx.graphics.Camera;
 import com.badlogic.gdx.math.Vector3;
 import com.badlogic.gdx.math.collision.BoundingBox;
 import com.badlogic.gdx.utils.Pool.Poolable;
@@ -8,6 +9,7 @@ import com.gurella.engine.editor.property.PropertyEditorDescriptor.EditorType;
 import com.gurella.engine.event.Event;
 import com.gurella.engine.event.EventService;
 import com.gurella.engine.graphics.render.GenericBatch;
+import com.gurella.engine.graphics.render.RenderBin;
 import com.gurella.engine.metatype.PropertyDescriptor;
 import com.gurella.engine.scene.BaseSceneElement;
 import com.gurella.engine.scene.SceneNodeComponent;
@@ -123,6 +125,55 @@ public abstract class RenderableComponent extends SceneNodeComponent implements
 		}
 	}
 
+	/**
+	 * @return key that orders renderables in {@link RenderBin} by layer, renderer, order, render state and depth, or
+	 *         by depth before render state for blended renderables
+	 */
+	public long getRenderKey(Camera camera) {
+		int layer = getLayer().ordinal;
+		int renderer = getRenderer();
+		int order = getRenderOrder();
+		int state = getRenderState();
+		int depth = getRenderDepth(camera);
+		return isBlended() ? RenderBin.blendedKey(layer, renderer, order, state, depth)
+				: RenderBin.key(layer, renderer, order, state, depth);
+	}
+
+	/**
+	 * @return true when renderable must be rendered in depth order regardless of render state
+	 */
+	protected boolean isBlended() {
+		return false;
+	}
+
+	protected int getRenderer() {
+		return GenericBatch.renderer3d;
+	}
+
+	protected int getRenderOrder() {
+		return 0;
+	}
+
+	/**
+	 * @return id of shader, material or texture used to render, renderables with equal id are rendered together
+	 */
+	protected int getRenderState() {
+		return 0;
+	}
+
+	/**
+	 * @return distance from camera to renderable scaled by camera far plane to [0, {@link RenderBin#maxDepth}]
+	 */
+	protected int getRenderDepth(Camera camera) {
+		float x = 0, y = 0, z = 0;
+		if (transformComponent != null) {
+			x = transformComponent.getWorldTranslationX();
+			y = transformComponent.getWorldTranslationY();
+			z = transformComponent.getWorldTranslationZ();
+		}
+		return (int) (camera.position.dst(x, y, z) / camera.far * RenderBin.maxDepth);
+	}
+
 	public boolean isVisible() {
 		return visible;
 	}
@@ -1,11 +1,14 @@
 package com.gurella.engine.scene.renderable;
 
 import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.graphics.Camera;
 import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.graphics.Texture;
 import com.badlogic.gdx.graphics.g2d.Sprite;
 import com.badlogic.gdx.graphics.glutils.ShapeRenderer.ShapeType;
 import com.badlogic.gdx.math.collision.BoundingBox;
 import com.gurella.engine.graphics.render.GenericBatch;
+import com.gurella.engine.graphics.render.RenderBin;
 import com.gurella.engine.scene.debug.DebugRenderable;
 
 public abstract class RenderableComponent2d extends RenderableComponent implements DebugRenderable {
@@ -101,6 +104,35 @@ public abstract class RenderableComponent2d extends RenderableComponent implemen
 		}
 	}
 
+	@Override
+	protected int getRenderer() {
+		return GenericBatch.renderer2d;
+	}
+
+	@Override
+	protected int getRenderOrder() {
+		return zOrder;
+	}
+
+	@Override
+	protected int getRenderState() {
+		Texture texture = sprite.getTexture();
+		return texture == null ? 0 : texture.getTextureObjectHandle();
+	}
+
+	@Override
+	protected boolean isBlended() {
+		return true;
+	}
+
+	/**
+	 * Sprites are blended, so they are rendered back to front.
+	 */
+	@Override
+	protected int getRenderDepth(Camera camera) {
+		return RenderBin.maxDepth - super.getRenderDepth(camera);
+	}
+
 	@Override
 	protected void calculateBounds(BoundingBox bounds) {
 		if (sprite.getTexture() == null) {
@@ -1,5 +1,6 @@
 package com.gurella.engine.scene.renderable;
 
+import com.badlogic.gdx.graphics.g3d.ModelBatch;
 import com.badlogic.gdx.graphics.g3d.ModelInstance;
 import com.badlogic.gdx.math.collision.BoundingBox;
 import com.gurella.engine.graphics.render.GenericBatch;
@@ -32,6 +33,15 @@ public abstract class RenderableComponent3d extends RenderableComponent implemen
 		}
 	}
 
+	/**
+	 * Groups instances of the same model, {@link ModelBatch} sorts their parts by shader and material on flush.
+	 */
+	@Override
+	protected int getRenderState() {
+		ModelInstance instance = getModelInstance();
+		return instance == null ? 0 : System.identityHashCode(instance.model);
+	}
+
 	@Override
 	protected void calculateBounds(BoundingBox bounds) {
 		ModelInstance instance = getModelInstance();
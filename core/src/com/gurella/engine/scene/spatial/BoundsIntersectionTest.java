@@ -0,0 +1,127 @@
+package com.gurella.engine.scene.spatial;
+
+import com.badlogic.gdx.math.Frustum;
+import com.badlogic.gdx.math.Intersector;
+import com.badlogic.gdx.math.Vector3;
+import com.badlogic.gdx.math.collision.BoundingBox;
+import com.badlogic.gdx.math.collision.Ray;
+
+/**
+ * Query volume tested against axis aligned bounds stored in float arrays as min x, y, z followed by max x, y, z.
+ * Shared by spatial partitioning structures that keep bounds in flat storage.
+ */
+public interface BoundsIntersectionTest {
+	boolean intersects(float[] bounds, int offset);
+
+	public static class BoundingBoxIntersectionTest implements BoundsIntersectionTest {
+		public final BoundingBox volume = new BoundingBox();
+
+		public BoundingBoxIntersectionTest() {
+		}
+
+		public BoundingBoxIntersectionTest(BoundingBox volume) {
+			this.volume.set(volume);
+		}
+
+		@Override
+		public boolean intersects(float[] bounds, int offset) {
+			Vector3 min = volume.min;
+			Vector3 max = volume.max;
+			return bounds[offset] <= max.x && bounds[offset + 3] >= min.x && bounds[offset + 1] <= max.y
+					&& bounds[offset + 4] >= min.y && bounds[offset + 2] <= max.z && bounds[offset + 5] >= min.z;
+		}
+	}
+
+	public static class RayIntersectionTest implements BoundsIntersectionTest {
+		public final Ray ray = new Ray();
+		private final Vector3 center = new Vector3();
+		private final Vector3 dimensions = new Vector3();
+
+		public RayIntersectionTest() {
+		}
+
+		public RayIntersectionTest(Ray ray) {
+			this.ray.set(ray);
+		}
+
+		public void setRay(Ray ray) {
+			this.ray.set(ray);
+		}
+
+		@Override
+		public boolean intersects(float[] bounds, int offset) {
+			dimensions.set(bounds[offset + 3] - bounds[offset], bounds[offset + 4] - bounds[offset + 1],
+					bounds[offset + 5] - bounds[offset + 2]);
+			center.set(bounds[offset] + dimensions.x * 0.5f, bounds[offset + 1] + dimensions.y * 0.5f,
+					bounds[offset + 2] + dimensions.z * 0.5f);
+			return Intersector.intersectRayBoundsFast(ray, center, dimensions);
+		}
+	}
+
+	public static class RayDistanceIntersectionTest implements BoundsIntersectionTest {
+		public final Ray ray = new Ray();
+		private final BoundingBox box = new BoundingBox();
+		private final Vector3 intersection = new Vector3();
+		private float maxDistance2;
+
+		public RayDistanceIntersectionTest() {
+		}
+
+		public RayDistanceIntersectionTest(Ray ray, float maxDistance) {
+			this.ray.set(ray);
+			this.maxDistance2 = maxDistance * maxDistance;
+		}
+
+		public void setRay(Ray ray) {
+			this.ray.set(ray);
+		}
+
+		public void setMaxDistance(float maxDistance) {
+			this.maxDistance2 = maxDistance * maxDistance;
+		}
+
+		public void set(Ray ray, float maxDistance) {
+			this.ray.set(ray);
+			this.maxDistance2 = maxDistance * maxDistance;
+		}
+
+		@Override
+		public boolean intersects(float[] bounds, int offset) {
+			box.min.set(bounds[offset], bounds[offset + 1], bounds[offset + 2]);
+			box.max.set(bounds[offset + 3], bounds[offset + 4], bounds[offset + 5]);
+			box.set(box.min, box.max);
+			return Intersector.intersectRayBounds(ray, box, intersection)
+					&& ray.origin.dst2(intersection) <= maxDistance2;
+		}
+	}
+
+	public static class FrustumIntersectionTest implements BoundsIntersectionTest {
+		public final Frustum frustum = new Frustum();
+
+		public FrustumIntersectionTest() {
+		}
+
+		public FrustumIntersectionTest(Frustum frustum) {
+			setFrustum(frustum);
+		}
+
+		public void setFrustum(Frustum frustum) {
+			for (int i = 0; i < 6; i++) {
+				this.frustum.planes[i].set(frustum.planes[i]);
+			}
+
+			for (int i = 0; i < 8; i++) {
+				this.frustum.planePoints[i].set(frustum.planePoints[i]);
+			}
+		}
+
+		@Override
+		public boolean intersects(float[] bounds, int offset) {
+			float halfWidth = (bounds[offset + 3] - bounds[offset]) * 0.5f;
+			float halfHeight = (bounds[offset + 4] - bounds[offset + 1]) * 0.5f;
+			float halfDepth = (bounds[offset + 5] - bounds[offset + 2]) * 0.5f;
+			return frustum.boundsInFrustum(bounds[offset] + halfWidth, bounds[offset + 1] + halfHeight,
+					bounds[offset + 2] + halfDepth, halfWidth, halfHeight, halfDepth);
+		}
+	}
+}
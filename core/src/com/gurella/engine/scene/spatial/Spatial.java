@@ -1,20 +1,58 @@
 package com.gurella.engine.scene.spatial;
 
+import com.badlogic.gdx.math.collision.BoundingBox;
 import com.badlogic.gdx.utils.Pool.Poolable;
 import com.gurella.engine.scene.renderable.RenderableComponent;
+import com.gurella.engine.scene.transform.TransformComponent;
 
 public class Spatial implements Poolable {
 	public int nodeId;
 	public RenderableComponent renderable;
+	protected final BoundingBox bounds = new BoundingBox();
 
 	public void init(RenderableComponent renderableComponent) {
 		this.nodeId = renderableComponent.getNodeId();
 		this.renderable = renderableComponent;
 	}
 
+	public BoundingBox getBounds() {
+		renderable.getBounds(bounds.inf());
+		TransformComponent transformComponent = renderable.getTransformComponent();
+		if (transformComponent != null) {
+			transformComponent.transformBoundsToWorld(bounds);
+		}
+		return bounds;
+	}
+
+	/**
+	 * Writes world bounds as min x, y, z followed by max x, y, z. Spatials without valid bounds are collapsed to their
+	 * world position.
+	 */
+	public void getBounds(float[] out, int offset) {
+		BoundingBox box = getBounds();
+		if (box.isValid()) {
+			out[offset] = box.min.x;
+			out[offset + 1] = box.min.y;
+			out[offset + 2] = box.min.z;
+			out[offset + 3] = box.max.x;
+			out[offset + 4] = box.max.y;
+			out[offset + 5] = box.max.z;
+			return;
+		}
+
+		TransformComponent transformComponent = renderable.getTransformComponent();
+		float x = transformComponent == null ? 0 : transformComponent.getWorldTranslationX();
+		float y = transformComponent == null ? 0 : transformComponent.getWorldTranslationY();
+		float z = transformComponent == null ? 0 : transformComponent.getWorldTranslationZ();
+		out[offset] = out[offset + 3] = x;
+		out[offset + 1] = out[offset + 4] = y;
+		out[offset + 2] = out[offset + 5] = z;
+	}
+
 	@Override
 	public void reset() {
 		nodeId = -1;
 		renderable = null;
+		bounds.inf();
 	}
 }
@@ -0,0 +1,25 @@
+package com.gurella.engine.scene.spatial;
+
+import com.gurella.engine.scene.Scene;
+import com.gurella.engine.scene.spatial.bvh.BvhSpatialSystem;
+import com.gurella.engine.scene.spatial.grid.GridSpatialSystem;
+import com.gurella.engine.scene.spatial.octree.OctreeSpatialSystem;
+
+/**
+ * Spatial partitioning scheme used by {@link Scene#spatialSystem}. BVH adapts to any distribution of geometry, loose
+ * octree and hash grid trade query tightness for constant time updates of moving spatials.
+ */
+public enum SpatialPartitioning {
+	BVH, LOOSE_OCTREE, HASH_GRID;
+
+	public SpatialSystem<?> createSystem(Scene scene) {
+		switch (this) {
+		case LOOSE_OCTREE:
+			return new OctreeSpatialSystem(scene);
+		case HASH_GRID:
+			return new GridSpatialSystem(scene);
+		default:
+			return new BvhSpatialSystem(scene);
+		}
+	}
+}
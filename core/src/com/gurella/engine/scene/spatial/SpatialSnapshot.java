@@ -0,0 +1,296 @@
+package com.gurella.engine.scene.spatial;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.badlogic.gdx.math.Frustum;
+import com.badlogic.gdx.math.Vector3;
+import com.badlogic.gdx.math.collision.BoundingBox;
+import com.badlogic.gdx.math.collision.Ray;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.Bits;
+import com.badlogic.gdx.utils.Pool.Poolable;
+import com.badlogic.gdx.utils.Predicate;
+import com.gurella.engine.pool.PoolService;
+import com.gurella.engine.scene.renderable.RenderableComponent;
+import com.gurella.engine.scene.spatial.BoundsIntersectionTest.BoundingBoxIntersectionTest;
+import com.gurella.engine.scene.spatial.BoundsIntersectionTest.FrustumIntersectionTest;
+import com.gurella.engine.scene.spatial.BoundsIntersectionTest.RayDistanceIntersectionTest;
+import com.gurella.engine.scene.spatial.BoundsIntersectionTest.RayIntersectionTest;
+
+/**
+ * Read only copy of spatial partitioning structure published by {@link SpatialSystem}. Nodes are stored in depth first
+ * order, each with its bounds, index of the first node after its subtree and a range of entries referencing spatials,
+ * so the tree is walked without a stack. A published snapshot is never modified, any number of threads can query it
+ * concurrently.
+ */
+public class SpatialSnapshot {
+	private static final int boundsStride = 6;
+
+	final AtomicInteger readers = new AtomicInteger();
+	final Array<Spatial> retiredSpatials = new Array<Spatial>();
+
+	protected int nodeCount;
+	protected float[] nodeBounds = new float[16 * boundsStride];
+	protected int[] nodeSkips = new int[16];
+	protected int[] nodeFirstEntries = new int[16];
+	protected int[] nodeEntryCounts = new int[16];
+
+	protected int entryCount;
+	protected int[] entries = new int[16];
+
+	protected int spatialCount;
+	protected Spatial[] spatials = new Spatial[16];
+	protected float[] spatialBounds = new float[16 * boundsStride];
+
+	/** Entries of different nodes can reference the same spatial, queries have to skip duplicates. */
+	protected boolean sharedEntries;
+
+	private final float[] bounds = new float[boundsStride];
+
+	public SpatialSnapshot() {
+		clearBounds(bounds);
+	}
+
+	/**
+	 * Clears the snapshot before structure is written into it.
+	 */
+	public void begin(boolean sharedEntries) {
+		clear();
+		this.sharedEntries = sharedEntries;
+	}
+
+	void clear() {
+		for (int i = 0; i < spatialCount; i++) {
+			spatials[i] = null;
+		}
+		nodeCount = 0;
+		entryCount = 0;
+		spatialCount = 0;
+		clearBounds(bounds);
+	}
+
+	/**
+	 * @return index of the spatial to be passed to {@link #addEntry(int)}
+	 */
+	public int addSpatial(Spatial spatial, float[] bounds, int offset) {
+		int index = spatialCount++;
+		if (index == spatials.length) {
+			Spatial[] newSpatials = new Spatial[index * 2];
+			System.arraycopy(spatials, 0, newSpatials, 0, index);
+			spatials = newSpatials;
+			spatialBounds = grow(spatialBounds, index * 2 * boundsStride);
+		}
+
+		spatials[index] = spatial;
+		int spatialOffset = index * boundsStride;
+		System.arraycopy(bounds, offset, spatialBounds, spatialOffset, boundsStride);
+		for (int i = 0; i < 3; i++) {
+			this.bounds[i] = Math.min(this.bounds[i], bounds[offset + i]);
+			this.bounds[i + 3] = Math.max(this.bounds[i + 3], bounds[offset + i + 3]);
+		}
+		return index;
+	}
+
+	/**
+	 * Starts a node. Entries of the node must be added before any of its children is started.
+	 *
+	 * @return index of the node to be passed to {@link #endNode(int)}
+	 */
+	public int beginNode(float[] bounds, int offset) {
+		int node = nodeCount++;
+		if (node == nodeSkips.length) {
+			int newLength = node * 2;
+			nodeBounds = grow(nodeBounds, newLength * boundsStride);
+			nodeSkips = grow(nodeSkips, newLength);
+			nodeFirstEntries = grow(nodeFirstEntries, newLength);
+			nodeEntryCounts = grow(nodeEntryCounts, newLength);
+		}
+
+		System.arraycopy(bounds, offset, nodeBounds, node * boundsStride, boundsStride);
+		nodeSkips[node] = nodeCount;
+		nodeFirstEntries[node] = entryCount;
+		nodeEntryCounts[node] = 0;
+		return node;
+	}
+
+	/**
+	 * Adds spatial to the last started node.
+	 */
+	public void addEntry(int spatialIndex) {
+		if (entryCount == entries.length) {
+			entries = grow(entries, entryCount * 2);
+		}
+		entries[entryCount++] = spatialIndex;
+		nodeEntryCounts[nodeCount - 1]++;
+	}
+
+	public void endNode(int node) {
+		nodeSkips[node] = nodeCount;
+	}
+
+	public int getSpatialsCount() {
+		return spatialCount;
+	}
+
+	public BoundingBox getBounds(BoundingBox out) {
+		if (spatialCount == 0) {
+			return out.inf();
+		}
+
+		out.min.set(bounds[0], bounds[1], bounds[2]);
+		out.max.set(bounds[3], bounds[4], bounds[5]);
+		return out.set(out.min, out.max);
+	}
+
+	public void getSpatials(BoundingBox volume, Array<Spatial> out, Predicate<RenderableComponent> predicate) {
+		Query query = Query.obtain(out, predicate);
+		query.boxTest.volume.set(volume);
+		query.test = query.boxTest;
+		float[] bounds = query.bounds;
+		bounds[0] = volume.min.x;
+		bounds[1] = volume.min.y;
+		bounds[2] = volume.min.z;
+		bounds[3] = volume.max.x;
+		bounds[4] = volume.max.y;
+		bounds[5] = volume.max.z;
+		traverse(query);
+		query.free();
+	}
+
+	public void getSpatials(Frustum frustum, Array<Spatial> out, Predicate<RenderableComponent> predicate) {
+		Query query = Query.obtain(out, predicate);
+		query.frustumTest.setFrustum(frustum);
+		query.test = query.frustumTest;
+		float[] bounds = query.bounds;
+		clearBounds(bounds);
+		Vector3[] points = frustum.planePoints;
+		for (int i = 0; i < 8; i++) {
+			Vector3 point = points[i];
+			bounds[0] = Math.min(bounds[0], point.x);
+			bounds[1] = Math.min(bounds[1], point.y);
+			bounds[2] = Math.min(bounds[2], point.z);
+			bounds[3] = Math.max(bounds[3], point.x);
+			bounds[4] = Math.max(bounds[4], point.y);
+			bounds[5] = Math.max(bounds[5], point.z);
+		}
+		traverse(query);
+		query.free();
+	}
+
+	public void getSpatials(Ray ray, Array<Spatial> out, Predicate<RenderableComponent> predicate) {
+		Query query = Query.obtain(out, predicate);
+		query.rayTest.setRay(ray);
+		query.test = query.rayTest;
+		query.ray = ray;
+		query.maxDistance = Float.POSITIVE_INFINITY;
+		traverse(query);
+		query.free();
+	}
+
+	public void getSpatials(Ray ray, float maxDistance, Array<Spatial> out,
+			Predicate<RenderableComponent> predicate) {
+		Query query = Query.obtain(out, predicate);
+		query.rayDistanceTest.set(ray, maxDistance);
+		query.test = query.rayDistanceTest;
+		query.ray = ray;
+		query.maxDistance = maxDistance;
+		traverse(query);
+		query.free();
+	}
+
+	/**
+	 * Walks the nodes in depth first order, skipping subtrees of nodes that don't intersect the query.
+	 */
+	protected void traverse(Query query) {
+		BoundsIntersectionTest test = query.test;
+		float[] nodeBounds = this.nodeBounds;
+		int[] nodeSkips = this.nodeSkips;
+		int node = 0;
+		while (node < nodeCount) {
+			if (test.intersects(nodeBounds, node * boundsStride)) {
+				collect(query, node);
+				node++;
+			} else {
+				node = nodeSkips[node];
+			}
+		}
+	}
+
+	protected final void collect(Query query, int node) {
+		BoundsIntersectionTest test = query.test;
+		Predicate<RenderableComponent> predicate = query.predicate;
+		Array<Spatial> out = query.out;
+		Bits visited = sharedEntries ? query.visited : null;
+		int[] entries = this.entries;
+
+		for (int i = nodeFirstEntries[node], n = i + nodeEntryCounts[node]; i < n; i++) {
+			int index = entries[i];
+			if (visited != null && visited.getAndSet(index)) {
+				continue;
+			}
+
+			Spatial spatial = spatials[index];
+			if (test.intersects(spatialBounds, index * boundsStride)
+					&& (predicate == null || predicate.evaluate(spatial.renderable))) {
+				out.add(spatial);
+			}
+		}
+	}
+
+	private static void clearBounds(float[] bounds) {
+		bounds[0] = bounds[1] = bounds[2] = Float.POSITIVE_INFINITY;
+		bounds[3] = bounds[4] = bounds[5] = Float.NEGATIVE_INFINITY;
+	}
+
+	protected static float[] grow(float[] array, int length) {
+		float[] newArray = new float[length];
+		System.arraycopy(array, 0, newArray, 0, array.length);
+		return newArray;
+	}
+
+	protected static int[] grow(int[] array, int length) {
+		int[] newArray = new int[length];
+		System.arraycopy(array, 0, newArray, 0, array.length);
+		return newArray;
+	}
+
+	/**
+	 * State of a single query. Obtained from pool for every query so concurrent readers share nothing.
+	 */
+	protected static final class Query implements Poolable {
+		final BoundingBoxIntersectionTest boxTest = new BoundingBoxIntersectionTest();
+		final FrustumIntersectionTest frustumTest = new FrustumIntersectionTest();
+		final RayIntersectionTest rayTest = new RayIntersectionTest();
+		final RayDistanceIntersectionTest rayDistanceTest = new RayDistanceIntersectionTest();
+		final Bits visited = new Bits();
+
+		public BoundsIntersectionTest test;
+		/** Bounds of the query volume, not set for ray queries. */
+		public final float[] bounds = new float[boundsStride];
+		/** Set only for ray queries. */
+		public Ray ray;
+		public float maxDistance;
+		public Predicate<RenderableComponent> predicate;
+		public Array<Spatial> out;
+
+		static Query obtain(Array<Spatial> out, Predicate<RenderableComponent> predicate) {
+			Query query = PoolService.obtain(Query.class);
+			query.out = out;
+			query.predicate = predicate;
+			return query;
+		}
+
+		void free() {
+			PoolService.free(this);
+		}
+
+		@Override
+		public void reset() {
+			test = null;
+			ray = null;
+			predicate = null;
+			out = null;
+			visited.clear();
+		}
+	}
+}
@@ -7,16 +7,30 @@ import com.badlogic.gdx.utils.Array;
 import com.badlogic.gdx.utils.IntMap;
 import com.badlogic.gdx.utils.IntMap.Values;
 import com.badlogic.gdx.utils.Predicate;
+import com.gurella.engine.pool.PoolService;
+import com.gurella.engine.scene.BuiltinSceneSystem;
 import com.gurella.engine.scene.Scene;
 import com.gurella.engine.scene.SceneNodeComponent;
-import com.gurella.engine.scene.BuiltinSceneSystem;
 import com.gurella.engine.scene.renderable.RenderableComponent;
 import com.gurella.engine.subscriptions.scene.ComponentActivityListener;
 import com.gurella.engine.subscriptions.scene.SceneActivityListener;
 import com.gurella.engine.subscriptions.scene.renderable.SceneRenderableChangedListener;
+import com.gurella.engine.subscriptions.scene.update.PreRenderUpdateListener;
+import com.gurella.engine.utils.priority.Priority;
+
+/**
+ * Keeps spatials of active {@link RenderableComponent}s in a spatial partitioning structure. Changes are applied once
+ * per frame, after transforms are updated, and the structure is then published as an immutable
+ * {@link SpatialSnapshot}. Queries read the latest published snapshot without locking, so they can run concurrently
+ * from any thread. A reader that issues more queries should {@link #acquireSnapshot()} once and
+ * {@link #releaseSnapshot(SpatialSnapshot)} it when done. Removed spatials are freed only after all older snapshots
+ * are released.
+ */
+@Priority(value = Integer.MAX_VALUE, type = PreRenderUpdateListener.class)
+public abstract class SpatialSystem<T extends Spatial> extends BuiltinSceneSystem implements
+		ComponentActivityListener, SceneActivityListener, SceneRenderableChangedListener, PreRenderUpdateListener {
+	private static final SpatialSnapshot emptySnapshot = new SpatialSnapshot();
 
-public abstract class SpatialSystem<T extends Spatial> extends BuiltinSceneSystem
-		implements ComponentActivityListener, SceneActivityListener, SceneRenderableChangedListener {
 	private Object mutex = new Object();
 
 	protected IntMap<T> allSpatials = new IntMap<T>();
@@ -26,11 +40,22 @@ public abstract class SpatialSystem<T extends Spatial> extends BuiltinSceneSyste
 
 	protected IntMap<T> spatialsByRenderableComponent = new IntMap<T>();
 
+	private volatile SpatialSnapshot published = emptySnapshot;
+	private final Array<SpatialSnapshot> retiredSnapshots = new Array<SpatialSnapshot>();
+	private final Array<SpatialSnapshot> freeSnapshots = new Array<SpatialSnapshot>();
+
 	public SpatialSystem(Scene scene) {
 		super(scene);
 	}
 
-	public abstract BoundingBox getBounds(BoundingBox out);
+	public BoundingBox getBounds(BoundingBox out) {
+		SpatialSnapshot snapshot = acquireSnapshot();
+		try {
+			return snapshot.getBounds(out);
+		} finally {
+			releaseSnapshot(snapshot);
+		}
+	}
 
 	protected abstract void initSpatials();
 
@@ -57,58 +82,137 @@ public abstract class SpatialSystem<T extends Spatial> extends BuiltinSceneSyste
 		dirtySpatials.remove(spatial.nodeId);
 	}
 
-	private void updateSpatials() {
-		if (removedSpatials.size > 0 || addedSpatials.size > 0 || dirtySpatials.size > 0) {
-			doUpdateSpatials();
+	@Override
+	public void onPreRenderUpdate() {
+		updateSpatials();
+	}
 
-			removedSpatials.clear();
-			addedSpatials.clear();
-			dirtySpatials.clear();
+	/**
+	 * Applies pending changes to the structure and publishes a new snapshot. Must be called from the thread that
+	 * updates the scene.
+	 */
+	public void updateSpatials() {
+		synchronized (mutex) {
+			if (removedSpatials.size > 0 || addedSpatials.size > 0 || dirtySpatials.size > 0) {
+				doUpdateSpatials();
+				publishSnapshot();
+			}
 		}
+		releaseRetiredSnapshots();
 	}
 
+	/**
+	 * Removes spatials in {@link #removedSpatials}, adds spatials in {@link #addedSpatials} and updates bounds of
+	 * spatials in {@link #dirtySpatials}. Removed spatials must not be freed.
+	 */
 	protected abstract void doUpdateSpatials();
 
-	public final void getSpatials(BoundingBox bounds, Array<Spatial> out, Predicate<RenderableComponent> predicate) {
-		synchronized (mutex) {
-			updateSpatials();
-			doGetSpatials(bounds, out, predicate);
+	protected SpatialSnapshot createSnapshot() {
+		return new SpatialSnapshot();
+	}
+
+	protected abstract void writeSnapshot(SpatialSnapshot snapshot);
+
+	private void publishSnapshot() {
+		SpatialSnapshot snapshot = freeSnapshots.size > 0 ? freeSnapshots.pop() : createSnapshot();
+		writeSnapshot(snapshot);
+
+		SpatialSnapshot previous = published;
+		published = snapshot;
+
+		Values<T> values = removedSpatials.values();
+		if (previous == emptySnapshot) {
+			while (values.hasNext) {
+				PoolService.free(values.next());
+			}
+		} else {
+			while (values.hasNext) {
+				previous.retiredSpatials.add(values.next());
+			}
+			retiredSnapshots.add(previous);
 		}
+
+		removedSpatials.clear();
+		addedSpatials.clear();
+		dirtySpatials.clear();
 	}
 
-	protected abstract void doGetSpatials(BoundingBox bounds, Array<Spatial> out,
-			Predicate<RenderableComponent> predicate);
+	/**
+	 * Recycles retired snapshots in the order they were retired, stops at the first one still being read.
+	 */
+	private void releaseRetiredSnapshots() {
+		while (retiredSnapshots.size > 0) {
+			SpatialSnapshot snapshot = retiredSnapshots.first();
+			if (snapshot.readers.get() > 0) {
+				return;
+			}
 
-	public final void getSpatials(Frustum frustum, Array<Spatial> out, Predicate<RenderableComponent> predicate) {
-		synchronized (mutex) {
-			updateSpatials();
-			doGetSpatials(frustum, out, predicate);
+			retiredSnapshots.removeIndex(0);
+			Array<Spatial> retiredSpatials = snapshot.retiredSpatials;
+			for (int i = 0, n = retiredSpatials.size; i < n; i++) {
+				PoolService.free(retiredSpatials.get(i));
+			}
+			retiredSpatials.clear();
+			snapshot.clear();
+			freeSnapshots.add(snapshot);
 		}
 	}
 
-	protected abstract void doGetSpatials(Frustum frustum, Array<Spatial> out,
-			Predicate<RenderableComponent> predicate);
+	/**
+	 * Pins the latest published snapshot. Snapshot must be released with {@link #releaseSnapshot(SpatialSnapshot)}.
+	 */
+	public SpatialSnapshot acquireSnapshot() {
+		while (true) {
+			SpatialSnapshot snapshot = published;
+			snapshot.readers.incrementAndGet();
+			if (snapshot == published) {
+				return snapshot;
+			}
+			snapshot.readers.decrementAndGet();
+		}
+	}
 
-	public final void getSpatials(Ray ray, Array<Spatial> out, Predicate<RenderableComponent> predicate) {
-		synchronized (mutex) {
-			updateSpatials();
-			doGetSpatials(ray, out, predicate);
+	public void releaseSnapshot(SpatialSnapshot snapshot) {
+		snapshot.readers.decrementAndGet();
+	}
+
+	public final void getSpatials(BoundingBox bounds, Array<Spatial> out, Predicate<RenderableComponent> predicate) {
+		SpatialSnapshot snapshot = acquireSnapshot();
+		try {
+			snapshot.getSpatials(bounds, out, predicate);
+		} finally {
+			releaseSnapshot(snapshot);
+		}
+	}
+
+	public final void getSpatials(Frustum frustum, Array<Spatial> out, Predicate<RenderableComponent> predicate) {
+		SpatialSnapshot snapshot = acquireSnapshot();
+		try {
+			snapshot.getSpatials(frustum, out, predicate);
+		} finally {
+			releaseSnapshot(snapshot);
 		}
 	}
 
-	protected abstract void doGetSpatials(Ray ray, Array<Spatial> out, Predicate<RenderableComponent> predicate);
+	public final void getSpatials(Ray ray, Array<Spatial> out, Predicate<RenderableComponent> predicate) {
+		SpatialSnapshot snapshot = acquireSnapshot();
+		try {
+			snapshot.getSpatials(ray, out, predicate);
+		} finally {
+			releaseSnapshot(snapshot);
+		}
+	}
 
 	public final void getSpatials(Ray ray, float maxDistance, Array<Spatial> out,
 			Predicate<RenderableComponent> predicate) {
-		synchronized (mutex) {
-			updateSpatials();
-			doGetSpatials(ray, maxDistance, out, predicate);
+		SpatialSnapshot snapshot = acquireSnapshot();
+		try {
+			snapshot.getSpatials(ray, maxDistance, out, predicate);
+		} finally {
+			releaseSnapshot(snapshot);
 		}
 	}
 
-	protected abstract void doGetSpatials(Ray ray, float maxDistance, Array<Spatial> out,
-			Predicate<RenderableComponent> predicate);
-
 	@Override
 	public void onRenderableChanged(RenderableComponent component) {
 		T spatial = spatialsByRenderableComponent.get(component.getInstanceId());
@@ -150,6 +254,7 @@ public abstract class SpatialSystem<T extends Spatial> extends BuiltinSceneSyste
 	public final void onSceneStarted() {
 		synchronized (mutex) {
 			initSpatials();
+			publishSnapshot();
 		}
 	}
 
@@ -163,7 +268,9 @@ public abstract class SpatialSystem<T extends Spatial> extends BuiltinSceneSyste
 			}
 			clearSpatials();
 			allSpatials.clear();
+			publishSnapshot();
 		}
+		releaseRetiredSnapshots();
 	}
 
 	protected abstract void clearSpatials();
@@ -1,303 +1,687 @@
 package com.gurella.engine.scene.spatial.bvh;
 
-import com.badlogic.gdx.math.Frustum;
-import com.badlogic.gdx.math.Intersector;
-import com.badlogic.gdx.math.Vector3;
 import com.badlogic.gdx.math.collision.BoundingBox;
-import com.badlogic.gdx.math.collision.Ray;
 import com.badlogic.gdx.utils.Array;
-import com.badlogic.gdx.utils.ObjectSet;
-import com.badlogic.gdx.utils.ObjectSet.ObjectSetIterator;
-import com.badlogic.gdx.utils.Predicate;
-import com.gurella.engine.pool.PoolService;
-import com.gurella.engine.scene.renderable.RenderableComponent;
-import com.gurella.engine.scene.spatial.Spatial;
-
+import com.badlogic.gdx.utils.IntArray;
+import com.gurella.engine.scene.spatial.SpatialSnapshot;
+
+/**
+ * Dynamic bounding volume hierarchy with one spatial per leaf. Nodes are stored in flat arrays indexed by node id.
+ * Inserted spatials descend by surface area heuristic (SAH) cost, moved spatials are refitted bottom up and every
+ * refitted node tries the child-grandchild rotation that lowers SAH cost the most. When the SAH cost of the tree,
+ * relative to the cost after the last full build, degrades past {@link #getRebuildThreshold()} the tree is rebuilt
+ * top down with binned SAH.
+ */
 public class Bvh {
-	public BvhNode rootNode;
+	public static final float defaultRebuildThreshold = 1.5f;
+
+	static final int nullNode = -1;
+	private static final int boundsStride = 6;
+	private static final int binsCount = 12;
+	private static final int minRebuildLeafs = 16;
+
+	private int capacity;
+	private float[] bounds;
+	private int[] parents;
+	private int[] lefts;
+	private int[] rights;
+	private BvhSpatial[] spatials;
+	private final IntArray freeNodes = new IntArray();
+
+	private int root = nullNode;
+	private int nodeCount;
+	private int leafCount;
+
+	private double internalArea;
+	private float builtCost;
+	private int builtLeafCount;
+	private float rebuildThreshold = defaultRebuildThreshold;
+
+	private BvhSpatial[] buildSpatials = new BvhSpatial[0];
+	private float[] buildBounds = new float[0];
+	private final int[] binCounts = new int[binsCount];
+	private final float[] binBounds = new float[binsCount * boundsStride];
+	private final float[] binRightAreas = new float[binsCount];
+	private final float[] tempBounds = new float[boundsStride];
+
+	public Bvh() {
+		this(64);
+	}
 
-	int maxLeafSpatials;
-	final ObjectSet<BvhNode> refitNodes = new ObjectSet<BvhNode>();
-	private Array<BvhNode> sweepNodes = new Array<BvhNode>(BvhNode.class);
+	public Bvh(int initialCapacity) {
+		allocateStorage(Math.max(1, initialCapacity));
+	}
 
-	/**
-	 * @param objects
-	 * @param maxLeafSpatials
-	 *            WARNING! currently this must be 1 to use dynamic BVH update
-	 */
-	public Bvh(Array<BvhSpatial> objects, int maxLeafSpatials) {
-		this.maxLeafSpatials = maxLeafSpatials;
-		init(objects);
+	private void allocateStorage(int newCapacity) {
+		float[] newBounds = new float[newCapacity * boundsStride];
+		int[] newParents = new int[newCapacity];
+		int[] newLefts = new int[newCapacity];
+		int[] newRights = new int[newCapacity];
+		BvhSpatial[] newSpatials = new BvhSpatial[newCapacity];
+
+		if (capacity > 0) {
+			System.arraycopy(bounds, 0, newBounds, 0, capacity * boundsStride);
+			System.arraycopy(parents, 0, newParents, 0, capacity);
+			System.arraycopy(lefts, 0, newLefts, 0, capacity);
+			System.arraycopy(rights, 0, newRights, 0, capacity);
+			System.arraycopy(spatials, 0, newSpatials, 0, capacity);
+		}
+
+		bounds = newBounds;
+		parents = newParents;
+		lefts = newLefts;
+		rights = newRights;
+		spatials = newSpatials;
+		capacity = newCapacity;
 	}
 
-	public Bvh(int maxLeafSpatials) {
-		this.maxLeafSpatials = maxLeafSpatials;
+	private int allocateNode() {
+		int node;
+		if (freeNodes.size > 0) {
+			node = freeNodes.pop();
+		} else {
+			if (nodeCount == capacity) {
+				allocateStorage(capacity * 2);
+			}
+			node = nodeCount++;
+		}
+
+		parents[node] = nullNode;
+		lefts[node] = nullNode;
+		rights[node] = nullNode;
+		spatials[node] = null;
+		int offset = node * boundsStride;
+		for (int i = 0; i < boundsStride; i++) {
+			bounds[offset + i] = 0;
+		}
+		return node;
+	}
+
+	private void freeNode(int node) {
+		if (spatials[node] == null) {
+			internalArea -= area(bounds, node * boundsStride);
+		}
+		spatials[node] = null;
+		lefts[node] = nullNode;
+		rights[node] = nullNode;
+		parents[node] = nullNode;
+		freeNodes.add(node);
 	}
 
 	public void init(Array<BvhSpatial> objects) {
-		if (rootNode != null) {
+		if (root != nullNode) {
 			throw new IllegalStateException("Bvh already initialized.");
 		}
 
-		if (objects.size > 0) {
-			rootNode = new BvhNode(this, objects);
-		} else {
-			rootNode = new BvhNode(this);
-			rootNode.spatials = new Array<BvhSpatial>(BvhSpatial.class);// TODO garbage
+		int size = objects.size;
+		ensureBuildCapacity(size);
+		for (int i = 0; i < size; i++) {
+			BvhSpatial spatial = objects.get(i);
+			buildSpatials[i] = spatial;
+			spatial.getBounds(buildBounds, i * boundsStride);
 		}
+		build(size);
+	}
+
+	public void addObject(BvhSpatial spatial) {
+		int leaf = allocateNode();
+		spatials[leaf] = spatial;
+		spatial.node = leaf;
+		spatial.getBounds(bounds, leaf * boundsStride);
+		insertLeaf(leaf);
+		leafCount++;
 	}
 
-	public synchronized void optimize() {
-		if (maxLeafSpatials != 1) {
-			throw new IllegalStateException("In order to use optimize, you must set LEAF_OBJ_MAX=1");
+	public void removeObject(BvhSpatial spatial) {
+		int leaf = spatial.node;
+		if (leaf == nullNode) {
+			return;
 		}
 
-		while (refitNodes.size > 0) {
-			initSweepNodes();
-			for (int i = 0; i < sweepNodes.size; i++) {
-				BvhNode node = sweepNodes.get(i);
-				node.optimize();
-			}
-			sweepNodes.clear();
+		removeLeaf(leaf);
+		freeNode(leaf);
+		spatial.node = nullNode;
+		leafCount--;
+	}
+
+	/**
+	 * Refits the leaf of moved or resized spatial and its ancestors, rotating them by SAH on the way up.
+	 */
+	public void updateObject(BvhSpatial spatial) {
+		int leaf = spatial.node;
+		if (leaf == nullNode) {
+			return;
 		}
+
+		int offset = leaf * boundsStride;
+		spatial.getBounds(tempBounds, 0);
+		if (equalBounds(tempBounds, 0, bounds, offset)) {
+			return;
+		}
+
+		System.arraycopy(tempBounds, 0, bounds, offset, boundsStride);
+		refitAncestors(parents[leaf], true);
 	}
 
-	private void initSweepNodes() {
-		int maxDepth = 0;
-		ObjectSetIterator<BvhNode> iterator = refitNodes.iterator();
-		while (iterator.hasNext()) {
-			BvhNode node = iterator.next();
-			maxDepth = Math.max(maxDepth, node.depth);
+	/**
+	 * Rebuilds the tree with binned SAH if its quality degraded past {@link #getRebuildThreshold()} since last build.
+	 */
+	public void optimize() {
+		if (leafCount < minRebuildLeafs) {
+			return;
+		}
+
+		if (leafCount > builtLeafCount * 2 || getCost() > builtCost * rebuildThreshold) {
+			rebuild();
 		}
+	}
 
-		iterator = refitNodes.iterator();
-		while (iterator.hasNext()) {
-			BvhNode node = iterator.next();
-			if (maxDepth == node.depth) {
-				iterator.remove();
-				sweepNodes.add(node);
+	public void rebuild() {
+		int size = 0;
+		ensureBuildCapacity(leafCount);
+		for (int node = 0; node < nodeCount; node++) {
+			BvhSpatial spatial = spatials[node];
+			if (spatial != null) {
+				buildSpatials[size] = spatial;
+				System.arraycopy(bounds, node * boundsStride, buildBounds, size * boundsStride, boundsStride);
+				size++;
 			}
 		}
+
+		reset();
+		build(size);
 	}
 
-	public void addObject(BvhSpatial newSpatial) {
-		rootNode.addSpatial(newSpatial);
+	public void clear() {
+		for (int node = 0; node < nodeCount; node++) {
+			BvhSpatial spatial = spatials[node];
+			if (spatial != null) {
+				spatial.node = nullNode;
+			}
+		}
+		reset();
+		builtCost = 0;
+		builtLeafCount = 0;
 	}
 
-	public void removeObject(BvhSpatial newSpatial) {
-		newSpatial.node.removeObject(newSpatial);
+	private void reset() {
+		for (int i = 0; i < nodeCount; i++) {
+			spatials[i] = null;
+		}
+		root = nullNode;
+		nodeCount = 0;
+		leafCount = 0;
+		internalArea = 0;
+		freeNodes.clear();
 	}
 
-	public void clear() {
-		rootNode = null;// TODO add to pool
+	/**
+	 * @return sum of surface areas of internal nodes relative to root surface area. Lower is better.
+	 */
+	public float getCost() {
+		if (root == nullNode) {
+			return 0;
+		}
+
+		float rootArea = area(bounds, root * boundsStride);
+		return rootArea <= 0 ? 0 : (float) (internalArea / rootArea);
 	}
 
-	public Array<Spatial> traverse(Ray ray, Array<Spatial> result) {
-		RayIntersectionTest intersectionTest = PoolService.obtain(RayIntersectionTest.class);
-		intersectionTest.ray.set(ray);
-		traverse(rootNode, intersectionTest, result);
-		PoolService.free(intersectionTest);
-		return result;
+	public float getRebuildThreshold() {
+		return rebuildThreshold;
 	}
 
-	public Array<Spatial> traverse(Ray ray, float maxDistance, Array<Spatial> result) {
-		RayDistanceIntersectionTest intersectionTest = PoolService.obtain(RayDistanceIntersectionTest.class);
-		intersectionTest.set(ray, maxDistance);
-		traverse(rootNode, intersectionTest, result);
-		PoolService.free(intersectionTest);
-		return result;
+	public void setRebuildThreshold(float rebuildThreshold) {
+		this.rebuildThreshold = rebuildThreshold;
 	}
 
-	public Array<Spatial> traverse(Frustum frustum, Array<Spatial> result) {
-		FrustumIntersectionTest intersectionTest = PoolService.obtain(FrustumIntersectionTest.class);
-		intersectionTest.setFrustum(frustum);
-		traverse(rootNode, intersectionTest, result);
-		PoolService.free(intersectionTest);
-		return result;
+	public int getSpatialsCount() {
+		return leafCount;
 	}
 
-	public Array<Spatial> traverse(BoundingBox volume, Array<Spatial> result) {
-		BoundingBoxIntersectionTest intersectionTest = PoolService.obtain(BoundingBoxIntersectionTest.class);
-		intersectionTest.volume.set(volume);
-		traverse(rootNode, intersectionTest, result);
-		PoolService.free(intersectionTest);
-		return result;
+	public BoundingBox getBounds(BoundingBox out) {
+		if (root == nullNode) {
+			return out.inf();
+		}
+
+		int offset = root * boundsStride;
+		out.min.set(bounds[offset], bounds[offset + 1], bounds[offset + 2]);
+		out.max.set(bounds[offset + 3], bounds[offset + 4], bounds[offset + 5]);
+		return out.set(out.min, out.max);
 	}
 
-	private Array<Spatial> traverse(BvhNode node, NodeIntersectionTest hitTest, Array<Spatial> result) {
-		if (node != null && hitTest.intersects(node.box)) {
-			if (node.spatials != null) {
-				result.addAll(node.spatials);
+	private void insertLeaf(int leaf) {
+		if (root == nullNode) {
+			root = leaf;
+			parents[leaf] = nullNode;
+			return;
+		}
+
+		int leafOffset = leaf * boundsStride;
+		int sibling = root;
+		while (spatials[sibling] == null) {
+			int left = lefts[sibling];
+			int right = rights[sibling];
+
+			float area = area(bounds, sibling * boundsStride);
+			float combinedArea = unionArea(bounds, sibling * boundsStride, bounds, leafOffset);
+			float cost = 2 * combinedArea;
+			float inheritanceCost = 2 * (combinedArea - area);
+			float leftCost = descendCost(left, leafOffset) + inheritanceCost;
+			float rightCost = descendCost(right, leafOffset) + inheritanceCost;
+
+			if (cost < leftCost && cost < rightCost) {
+				break;
 			}
 
-			traverse(node.left, hitTest, result);
-			traverse(node.right, hitTest, result);
+			sibling = leftCost < rightCost ? left : right;
 		}
 
-		return result;
-	}
+		int oldParent = parents[sibling];
+		int newParent = allocateNode();
+		parents[newParent] = oldParent;
+		lefts[newParent] = sibling;
+		rights[newParent] = leaf;
+		parents[sibling] = newParent;
+		parents[leaf] = newParent;
+
+		if (oldParent == nullNode) {
+			root = newParent;
+		} else if (lefts[oldParent] == sibling) {
+			lefts[oldParent] = newParent;
+		} else {
+			rights[oldParent] = newParent;
+		}
 
-	public Array<Spatial> traverse(Ray ray, Predicate<RenderableComponent> predicate, Array<Spatial> result) {
-		RayIntersectionTest intersectionTest = PoolService.obtain(RayIntersectionTest.class);
-		intersectionTest.ray.set(ray);
-		traverse(rootNode, intersectionTest, predicate, result);
-		PoolService.free(intersectionTest);
-		return result;
+		refitAncestors(newParent, false);
 	}
 
-	public Array<Spatial> traverse(Ray ray, float maxDistance, Predicate<RenderableComponent> predicate,
-			Array<Spatial> result) {
-		RayDistanceIntersectionTest intersectionTest = PoolService.obtain(RayDistanceIntersectionTest.class);
-		intersectionTest.set(ray, maxDistance);
-		traverse(rootNode, intersectionTest, predicate, result);
-		PoolService.free(intersectionTest);
-		return result;
+	private float descendCost(int child, int leafOffset) {
+		int childOffset = child * boundsStride;
+		float combinedArea = unionArea(bounds, childOffset, bounds, leafOffset);
+		return spatials[child] == null ? combinedArea - area(bounds, childOffset) : combinedArea;
 	}
 
-	public Array<Spatial> traverse(Frustum frustum, Predicate<RenderableComponent> predicate, Array<Spatial> result) {
-		FrustumIntersectionTest intersectionTest = PoolService.obtain(FrustumIntersectionTest.class);
-		intersectionTest.setFrustum(frustum);
-		traverse(rootNode, intersectionTest, predicate, result);
-		PoolService.free(intersectionTest);
-		return result;
-	}
+	private void removeLeaf(int leaf) {
+		if (leaf == root) {
+			root = nullNode;
+			return;
+		}
+
+		int parent = parents[leaf];
+		int grandParent = parents[parent];
+		int sibling = lefts[parent] == leaf ? rights[parent] : lefts[parent];
+
+		if (grandParent == nullNode) {
+			root = sibling;
+			parents[sibling] = nullNode;
+			freeNode(parent);
+			return;
+		}
 
-	public Array<Spatial> traverse(BoundingBox volume, Predicate<RenderableComponent> predicate,
-			Array<Spatial> result) {
-		BoundingBoxIntersectionTest intersectionTest = PoolService.obtain(BoundingBoxIntersectionTest.class);
-		intersectionTest.volume.set(volume);
-		traverse(rootNode, intersectionTest, predicate, result);
-		PoolService.free(intersectionTest);
-		return result;
+		if (lefts[grandParent] == parent) {
+			lefts[grandParent] = sibling;
+		} else {
+			rights[grandParent] = sibling;
+		}
+		parents[sibling] = grandParent;
+		freeNode(parent);
+		refitAncestors(grandParent, true);
 	}
 
-	public Array<Spatial> traverse(BvhNode node, NodeIntersectionTest hitTest, Predicate<RenderableComponent> predicate,
-			Array<Spatial> result) {
-		if (node != null && hitTest.intersects(node.box)) {
-			if (node.spatials != null) {
-				for (int i = 0; i < node.spatials.size; i++) {
-					BvhSpatial spatial = node.spatials.get(i);
-					if (predicate == null || predicate.evaluate(spatial.renderable)) {
-						result.add(spatial);
-					}
-				}
+	/**
+	 * Walks up from node, recomputing bounds from children and rotating each node. When earlyOut is set, the walk
+	 * stops at first node whose bounds didn't change.
+	 */
+	private void refitAncestors(int node, boolean earlyOut) {
+		while (node != nullNode) {
+			boolean changed = refitNode(node);
+			rotate(node);
+			if (earlyOut && !changed) {
+				return;
 			}
+			node = parents[node];
+		}
+	}
 
-			traverse(node.left, hitTest, predicate, result);
-			traverse(node.right, hitTest, predicate, result);
+	private boolean refitNode(int node) {
+		int offset = node * boundsStride;
+		int leftOffset = lefts[node] * boundsStride;
+		int rightOffset = rights[node] * boundsStride;
+		float[] bounds = this.bounds;
+
+		float oldArea = area(bounds, offset);
+		boolean changed = false;
+		for (int i = 0; i < 3; i++) {
+			float min = Math.min(bounds[leftOffset + i], bounds[rightOffset + i]);
+			float max = Math.max(bounds[leftOffset + i + 3], bounds[rightOffset + i + 3]);
+			if (bounds[offset + i] != min || bounds[offset + i + 3] != max) {
+				bounds[offset + i] = min;
+				bounds[offset + i + 3] = max;
+				changed = true;
+			}
 		}
 
-		return result;
+		if (changed) {
+			internalArea += area(bounds, offset) - oldArea;
+		}
+		return changed;
 	}
 
-	private interface NodeIntersectionTest {
-		boolean intersects(BoundingBox box);
-	}
+	/**
+	 * Swaps one child of node with a grandchild from the other side if that lowers surface area of the affected child.
+	 * Bounds of node itself are not affected.
+	 */
+	private void rotate(int node) {
+		int left = lefts[node];
+		int right = rights[node];
+		int bestChild = nullNode;
+		int bestGrandChild = nullNode;
+		float bestGain = 0;
+
+		if (spatials[right] == null) {
+			float rightArea = area(bounds, right * boundsStride);
+			int rightLeft = lefts[right];
+			int rightRight = rights[right];
+			float gain = rightArea - unionArea(bounds, left * boundsStride, bounds, rightRight * boundsStride);
+			if (gain > bestGain) {
+				bestGain = gain;
+				bestChild = left;
+				bestGrandChild = rightLeft;
+			}
+			gain = rightArea - unionArea(bounds, left * boundsStride, bounds, rightLeft * boundsStride);
+			if (gain > bestGain) {
+				bestGain = gain;
+				bestChild = left;
+				bestGrandChild = rightRight;
+			}
+		}
 
-	public static class BoundingBoxIntersectionTest implements NodeIntersectionTest {
-		public final BoundingBox volume = new BoundingBox();
+		if (spatials[left] == null) {
+			float leftArea = area(bounds, left * boundsStride);
+			int leftLeft = lefts[left];
+			int leftRight = rights[left];
+			float gain = leftArea - unionArea(bounds, right * boundsStride, bounds, leftRight * boundsStride);
+			if (gain > bestGain) {
+				bestGain = gain;
+				bestChild = right;
+				bestGrandChild = leftLeft;
+			}
+			gain = leftArea - unionArea(bounds, right * boundsStride, bounds, leftLeft * boundsStride);
+			if (gain > bestGain) {
+				bestGain = gain;
+				bestChild = right;
+				bestGrandChild = leftRight;
+			}
+		}
 
-		public BoundingBoxIntersectionTest() {
+		if (bestChild == nullNode) {
+			return;
 		}
 
-		public BoundingBoxIntersectionTest(BoundingBox volume) {
-			this.volume.set(volume);
+		int other = parents[bestGrandChild];
+		if (lefts[node] == bestChild) {
+			lefts[node] = bestGrandChild;
+		} else {
+			rights[node] = bestGrandChild;
 		}
 
-		@Override
-		public boolean intersects(BoundingBox box) {
-			return box.intersects(volume);
+		if (lefts[other] == bestGrandChild) {
+			lefts[other] = bestChild;
+		} else {
+			rights[other] = bestChild;
 		}
+
+		parents[bestGrandChild] = node;
+		parents[bestChild] = other;
+		refitNode(other);
 	}
 
-	public static class RayIntersectionTest implements NodeIntersectionTest {
-		public final Ray ray = new Ray();
-		private final Vector3 center = new Vector3();
-		private final Vector3 dimensions = new Vector3();
+	private void ensureBuildCapacity(int size) {
+		if (buildSpatials.length < size) {
+			buildSpatials = new BvhSpatial[size];
+			buildBounds = new float[size * boundsStride];
+		}
+	}
 
-		public RayIntersectionTest() {
+	private void build(int size) {
+		if (nodeCount + size * 2 > capacity) {
+			allocateStorage(Math.max(capacity * 2, size * 2));
 		}
 
-		public RayIntersectionTest(Ray ray) {
-			this.ray.set(ray);
+		if (size > 0) {
+			root = build(0, size, nullNode);
 		}
 
-		public void setRay(Ray ray) {
-			this.ray.set(ray);
+		for (int i = 0; i < size; i++) {
+			buildSpatials[i] = null;
 		}
 
-		@Override
-		public boolean intersects(BoundingBox box) {
-			box.getCenter(center);
-			box.getDimensions(dimensions);
-			return Intersector.intersectRayBoundsFast(ray, center, dimensions);
+		leafCount = size;
+		builtLeafCount = size;
+		builtCost = getCost();
+	}
+
+	private int build(int start, int end, int parent) {
+		if (end - start == 1) {
+			BvhSpatial spatial = buildSpatials[start];
+			int leaf = allocateNode();
+			parents[leaf] = parent;
+			spatials[leaf] = spatial;
+			spatial.node = leaf;
+			System.arraycopy(buildBounds, start * boundsStride, bounds, leaf * boundsStride, boundsStride);
+			return leaf;
 		}
+
+		int mid = split(start, end);
+		int node = allocateNode();
+		parents[node] = parent;
+		int left = build(start, mid, node);
+		int right = build(mid, end, node);
+		lefts[node] = left;
+		rights[node] = right;
+		refitNode(node);
+		return node;
 	}
 
-	public static class RayDistanceIntersectionTest implements NodeIntersectionTest {
-		public final Ray ray = new Ray();
-		private final Vector3 center = new Vector3();
-		private final Vector3 dimensions = new Vector3();
-		private final Vector3 intersection = new Vector3();
-		private float maxDistance2;
+	private int split(int start, int end) {
+		float[] buildBounds = this.buildBounds;
+		float minX = Float.POSITIVE_INFINITY, minY = Float.POSITIVE_INFINITY, minZ = Float.POSITIVE_INFINITY;
+		float maxX = Float.NEGATIVE_INFINITY, maxY = Float.NEGATIVE_INFINITY, maxZ = Float.NEGATIVE_INFINITY;
+		for (int i = start; i < end; i++) {
+			int offset = i * boundsStride;
+			float x = centroid(buildBounds, offset, 0);
+			float y = centroid(buildBounds, offset, 1);
+			float z = centroid(buildBounds, offset, 2);
+			minX = Math.min(minX, x);
+			minY = Math.min(minY, y);
+			minZ = Math.min(minZ, z);
+			maxX = Math.max(maxX, x);
+			maxY = Math.max(maxY, y);
+			maxZ = Math.max(maxZ, z);
+		}
 
-		public RayDistanceIntersectionTest() {
+		int axis;
+		float min;
+		float extent;
+		if (maxX - minX >= maxY - minY && maxX - minX >= maxZ - minZ) {
+			axis = 0;
+			min = minX;
+			extent = maxX - minX;
+		} else if (maxY - minY >= maxZ - minZ) {
+			axis = 1;
+			min = minY;
+			extent = maxY - minY;
+		} else {
+			axis = 2;
+			min = minZ;
+			extent = maxZ - minZ;
 		}
 
-		public RayDistanceIntersectionTest(Ray ray, float maxDistance) {
-			this.ray.set(ray);
-			this.maxDistance2 = maxDistance * maxDistance;
+		if (extent <= 0) {
+			return (start + end) >>> 1;
 		}
 
-		public void setRay(Ray ray) {
-			this.ray.set(ray);
+		int[] binCounts = this.binCounts;
+		float[] binBounds = this.binBounds;
+		for (int i = 0; i < binsCount; i++) {
+			binCounts[i] = 0;
+			clearBounds(binBounds, i * boundsStride);
 		}
 
-		public void setMaxDistance(float maxDistance) {
-			this.maxDistance2 = maxDistance * maxDistance;
+		float scale = binsCount / extent;
+		for (int i = start; i < end; i++) {
+			int offset = i * boundsStride;
+			int bin = bin(centroid(buildBounds, offset, axis), min, scale);
+			binCounts[bin]++;
+			extendBounds(binBounds, bin * boundsStride, buildBounds, offset);
 		}
 
-		public void set(Ray ray, float maxDistance) {
-			this.ray.set(ray);
-			this.maxDistance2 = maxDistance * maxDistance;
+		float[] tempBounds = this.tempBounds;
+		clearBounds(tempBounds, 0);
+		for (int i = binsCount - 1; i > 0; i--) {
+			extendBounds(tempBounds, 0, binBounds, i * boundsStride);
+			binRightAreas[i] = area(tempBounds, 0);
 		}
 
-		@Override
-		public boolean intersects(BoundingBox box) {
-			box.getCenter(center);
-			box.getDimensions(dimensions);
-			return Intersector.intersectRayBoundsFast(ray, center, dimensions)
-					&& ray.origin.dst2(intersection) <= maxDistance2;
+		clearBounds(tempBounds, 0);
+		int leftCount = 0;
+		int bestBin = -1;
+		float bestCost = Float.POSITIVE_INFINITY;
+		for (int i = 0; i < binsCount - 1; i++) {
+			extendBounds(tempBounds, 0, binBounds, i * boundsStride);
+			leftCount += binCounts[i];
+			int rightCount = (end - start) - leftCount;
+			if (leftCount == 0 || rightCount == 0) {
+				continue;
+			}
+
+			float cost = leftCount * area(tempBounds, 0) + rightCount * binRightAreas[i + 1];
+			if (cost < bestCost) {
+				bestCost = cost;
+				bestBin = i;
+			}
 		}
+
+		if (bestBin < 0) {
+			return (start + end) >>> 1;
+		}
+
+		int mid = start;
+		for (int i = start; i < end; i++) {
+			if (bin(centroid(buildBounds, i * boundsStride, axis), min, scale) <= bestBin) {
+				swapBuildItems(i, mid++);
+			}
+		}
+
+		return mid == start || mid == end ? (start + end) >>> 1 : mid;
 	}
 
-	public static class FrustumIntersectionTest implements NodeIntersectionTest {
-		public final Frustum frustum = new Frustum();
-		private final Vector3 center = new Vector3();
-		private final Vector3 dimensions = new Vector3();
+	private static int bin(float centroid, float min, float scale) {
+		return Math.min(binsCount - 1, (int) ((centroid - min) * scale));
+	}
 
-		public FrustumIntersectionTest() {
+	private void swapBuildItems(int first, int second) {
+		if (first == second) {
+			return;
 		}
 
-		public FrustumIntersectionTest(Frustum frustum) {
-			setFrustum(frustum);
+		BvhSpatial spatial = buildSpatials[first];
+		buildSpatials[first] = buildSpatials[second];
+		buildSpatials[second] = spatial;
+
+		int firstOffset = first * boundsStride;
+		int secondOffset = second * boundsStride;
+		for (int i = 0; i < boundsStride; i++) {
+			float value = buildBounds[firstOffset + i];
+			buildBounds[firstOffset + i] = buildBounds[secondOffset + i];
+			buildBounds[secondOffset + i] = value;
 		}
+	}
 
-		public void setFrustum(Frustum frustum) {
-			for (int i = 0; i < 6; i++) {
-				this.frustum.planes[i].set(frustum.planes[i]);
-			}
+	private static float centroid(float[] bounds, int offset, int axis) {
+		return (bounds[offset + axis] + bounds[offset + axis + 3]) * 0.5f;
+	}
 
-			for (int i = 0; i < 8; i++) {
-				this.frustum.planePoints[i].set(frustum.planePoints[i]);
+	private static void clearBounds(float[] bounds, int offset) {
+		bounds[offset] = bounds[offset + 1] = bounds[offset + 2] = Float.POSITIVE_INFINITY;
+		bounds[offset + 3] = bounds[offset + 4] = bounds[offset + 5] = Float.NEGATIVE_INFINITY;
+	}
+
+	private static void extendBounds(float[] bounds, int offset, float[] other, int otherOffset) {
+		for (int i = 0; i < 3; i++) {
+			bounds[offset + i] = Math.min(bounds[offset + i], other[otherOffset + i]);
+			bounds[offset + i + 3] = Math.max(bounds[offset + i + 3], other[otherOffset + i + 3]);
+		}
+	}
+
+	private static boolean equalBounds(float[] bounds, int offset, float[] other, int otherOffset) {
+		for (int i = 0; i < boundsStride; i++) {
+			if (bounds[offset + i] != other[otherOffset + i]) {
+				return false;
 			}
 		}
+		return true;
+	}
+
+	private static float area(float[] bounds, int offset) {
+		float x = bounds[offset + 3] - bounds[offset];
+		float y = bounds[offset + 4] - bounds[offset + 1];
+		float z = bounds[offset + 5] - bounds[offset + 2];
+		return x < 0 || y < 0 || z < 0 ? 0 : 2 * (x * y + x * z + y * z);
+	}
 
-		@Override
-		public boolean intersects(BoundingBox box) {
-			box.getCenter(center);
-			box.getDimensions(dimensions);
-			return frustum.boundsInFrustum(center, dimensions);
+	private static float unionArea(float[] bounds, int offset, float[] other, int otherOffset) {
+		float x = Math.max(bounds[offset + 3], other[otherOffset + 3]) - Math.min(bounds[offset], other[otherOffset]);
+		float y = Math.max(bounds[offset + 4], other[otherOffset + 4])
+				- Math.min(bounds[offset + 1], other[otherOffset + 1]);
+		float z = Math.max(bounds[offset + 5], other[otherOffset + 5])
+				- Math.min(bounds[offset + 2], other[otherOffset + 2]);
+		return 2 * (x * y + x * z + y * z);
+	}
+
+	/**
+	 * Writes internal nodes in depth first order, leafs become entries of their parents.
+	 */
+	public void writeSnapshot(SpatialSnapshot snapshot) {
+		snapshot.begin(false);
+		if (root == nullNode) {
+			return;
+		}
+
+		if (spatials[root] == null) {
+			writeNode(snapshot, root);
+		} else {
+			int node = snapshot.beginNode(bounds, root * boundsStride);
+			writeLeaf(snapshot, root);
+			snapshot.endNode(node);
+		}
+	}
+
+	private void writeNode(SpatialSnapshot snapshot, int node) {
+		int snapshotNode = snapshot.beginNode(bounds, node * boundsStride);
+		int left = lefts[node];
+		int right = rights[node];
+		boolean leftLeaf = spatials[left] != null;
+		boolean rightLeaf = spatials[right] != null;
+
+		if (leftLeaf) {
+			writeLeaf(snapshot, left);
+		}
+		if (rightLeaf) {
+			writeLeaf(snapshot, right);
+		}
+		if (!leftLeaf) {
+			writeNode(snapshot, left);
+		}
+		if (!rightLeaf) {
+			writeNode(snapshot, right);
 		}
+
+		snapshot.endNode(snapshotNode);
+	}
+
+	private void writeLeaf(SpatialSnapshot snapshot, int leaf) {
+		snapshot.addEntry(snapshot.addSpatial(spatials[leaf], bounds, leaf * boundsStride));
 	}
 }
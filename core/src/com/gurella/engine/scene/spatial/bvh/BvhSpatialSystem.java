@@ -2,19 +2,13 @@ package com.gurella.engine.scene.spatial.bvh;
 
 import java.util.Iterator;
 
-import com.badlogic.gdx.math.Frustum;
-import com.badlogic.gdx.math.collision.BoundingBox;
-import com.badlogic.gdx.math.collision.Ray;
-import com.badlogic.gdx.utils.Array;
-import com.badlogic.gdx.utils.Predicate;
 import com.gurella.engine.scene.Scene;
 import com.gurella.engine.scene.renderable.RenderableComponent;
-import com.gurella.engine.scene.spatial.Spatial;
+import com.gurella.engine.scene.spatial.SpatialSnapshot;
 import com.gurella.engine.scene.spatial.SpatialSystem;
-import com.gurella.engine.subscriptions.scene.update.CleanupUpdateListener;
 
-public class BvhSpatialSystem extends SpatialSystem<BvhSpatial> implements CleanupUpdateListener {
-	private final Bvh bvh = new Bvh(1);
+public class BvhSpatialSystem extends SpatialSystem<BvhSpatial> {
+	private final Bvh bvh = new Bvh();
 
 	public BvhSpatialSystem(Scene scene) {
 		super(scene);
@@ -26,7 +20,6 @@ public class BvhSpatialSystem extends SpatialSystem<BvhSpatial> implements Clean
 		while (iterator.hasNext()) {
 			BvhSpatial spatial = iterator.next();
 			bvh.removeObject(spatial);
-			spatial.free();
 		}
 
 		iterator = addedSpatials.values().iterator();
@@ -38,29 +31,10 @@ public class BvhSpatialSystem extends SpatialSystem<BvhSpatial> implements Clean
 		iterator = dirtySpatials.values().iterator();
 		while (iterator.hasNext()) {
 			BvhSpatial spatial = iterator.next();
-			spatial.node.refitObjectChanged();
+			bvh.updateObject(spatial);
 		}
-	}
-
-	@Override
-	protected void doGetSpatials(BoundingBox bounds, Array<Spatial> out, Predicate<RenderableComponent> predicate) {
-		bvh.traverse(bounds, predicate, out);
-	}
 
-	@Override
-	protected void doGetSpatials(Frustum frustum, Array<Spatial> out, Predicate<RenderableComponent> predicate) {
-		bvh.traverse(frustum, predicate, out);
-	}
-
-	@Override
-	protected void doGetSpatials(Ray ray, Array<Spatial> out, Predicate<RenderableComponent> predicate) {
-		bvh.traverse(ray, predicate, out);
-	}
-
-	@Override
-	protected void doGetSpatials(Ray ray, float maxDistance, Array<Spatial> out,
-			Predicate<RenderableComponent> predicate) {
-		bvh.traverse(ray, maxDistance, predicate, out);
+		bvh.optimize();
 	}
 
 	@Override
@@ -80,14 +54,7 @@ public class BvhSpatialSystem extends SpatialSystem<BvhSpatial> implements Clean
 	}
 
 	@Override
-	public void onCleanupUpdate() {
-		if (bvh.refitNodes.size > 0) {
-			bvh.optimize();
-		}
-	}
-
-	@Override
-	public BoundingBox getBounds(BoundingBox out) {
-		return out.set(bvh.rootNode.box);
+	protected void writeSnapshot(SpatialSnapshot snapshot) {
+		bvh.writeSnapshot(snapshot);
 	}
 }
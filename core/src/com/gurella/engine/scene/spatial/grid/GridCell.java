@@ -0,0 +1,29 @@
+package com.gurella.engine.scene.spatial.grid;
+
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.Pool.Poolable;
+
+class GridCell implements Poolable {
+	final Array<GridSpatial> spatials = new Array<GridSpatial>(false, 4, GridSpatial.class);
+	final float[] bounds = new float[6];
+	int x;
+	int y;
+	int z;
+
+	void init(int x, int y, int z, float cellSize) {
+		this.x = x;
+		this.y = y;
+		this.z = z;
+		bounds[0] = x * cellSize;
+		bounds[1] = y * cellSize;
+		bounds[2] = z * cellSize;
+		bounds[3] = bounds[0] + cellSize;
+		bounds[4] = bounds[1] + cellSize;
+		bounds[5] = bounds[2] + cellSize;
+	}
+
+	@Override
+	public void reset() {
+		spatials.clear();
+	}
+}
@@ -0,0 +1,188 @@
+package com.gurella.engine.scene.spatial.grid;
+
+import com.badlogic.gdx.math.Vector3;
+import com.gurella.engine.scene.spatial.SpatialSnapshot;
+
+/**
+ * Snapshot of {@link SpatialHashGrid}. Every cell is a node without children, cell keys are kept sorted so box and
+ * frustum queries look cells up by binary search and rays walk them with a 3D DDA. Spatials that are too big for the
+ * grid are stored in the last node.
+ */
+public class GridSnapshot extends SpatialSnapshot {
+	float cellSize;
+	float inverseCellSize;
+
+	int cellCount;
+	long[] cellKeys = new long[16];
+	int oversizedNode = -1;
+
+	boolean occupied;
+	int minCellX, minCellY, minCellZ;
+	int maxCellX, maxCellY, maxCellZ;
+
+	private int cell(float value) {
+		return (int) Math.floor(value * inverseCellSize);
+	}
+
+	private int findCell(long key) {
+		long[] cellKeys = this.cellKeys;
+		int low = 0;
+		int high = cellCount - 1;
+		while (low <= high) {
+			int mid = (low + high) >>> 1;
+			long midKey = cellKeys[mid];
+			if (midKey < key) {
+				low = mid + 1;
+			} else if (midKey > key) {
+				high = mid - 1;
+			} else {
+				return mid;
+			}
+		}
+		return -1;
+	}
+
+	@Override
+	protected void traverse(Query query) {
+		if (occupied) {
+			if (query.ray == null) {
+				traverseCells(query);
+			} else {
+				traverseRay(query);
+			}
+		}
+
+		if (oversizedNode >= 0) {
+			collect(query, oversizedNode);
+		}
+	}
+
+	/**
+	 * Visits cells overlapping query bounds, or all cells when there are fewer of them than cells in query range.
+	 */
+	private void traverseCells(Query query) {
+		float[] bounds = query.bounds;
+		int minX = Math.max(minCellX, cell(bounds[0]));
+		int minY = Math.max(minCellY, cell(bounds[1]));
+		int minZ = Math.max(minCellZ, cell(bounds[2]));
+		int maxX = Math.min(maxCellX, cell(bounds[3]));
+		int maxY = Math.min(maxCellY, cell(bounds[4]));
+		int maxZ = Math.min(maxCellZ, cell(bounds[5]));
+		if (minX > maxX || minY > maxY || minZ > maxZ) {
+			return;
+		}
+
+		long rangeSize = (long) (maxX - minX + 1) * (maxY - minY + 1) * (maxZ - minZ + 1);
+		if (rangeSize > cellCount) {
+			for (int i = 0; i < cellCount; i++) {
+				visitCell(query, i);
+			}
+			return;
+		}
+
+		for (int x = minX; x <= maxX; x++) {
+			for (int y = minY; y <= maxY; y++) {
+				for (int z = minZ; z <= maxZ; z++) {
+					int cell = findCell(SpatialHashGrid.key(x, y, z));
+					if (cell >= 0) {
+						visitCell(query, cell);
+					}
+				}
+			}
+		}
+	}
+
+	private void visitCell(Query query, int cell) {
+		if (query.test.intersects(nodeBounds, cell * 6)) {
+			collect(query, cell);
+		}
+	}
+
+	/**
+	 * Walks cells pierced by the ray inside the occupied cell range (Amanatides-Woo).
+	 */
+	private void traverseRay(Query query) {
+		Vector3 origin = query.ray.origin;
+		Vector3 direction = query.ray.direction;
+		float[] bounds = query.bounds;
+		bounds[0] = minCellX * cellSize;
+		bounds[1] = minCellY * cellSize;
+		bounds[2] = minCellZ * cellSize;
+		bounds[3] = (maxCellX + 1) * cellSize;
+		bounds[4] = (maxCellY + 1) * cellSize;
+		bounds[5] = (maxCellZ + 1) * cellSize;
+
+		float tEnter = 0;
+		float tExit = query.maxDistance;
+		for (int axis = 0; axis < 3; axis++) {
+			float o = component(origin, axis);
+			float d = component(direction, axis);
+			if (d == 0) {
+				if (o < bounds[axis] || o > bounds[axis + 3]) {
+					return;
+				}
+				continue;
+			}
+
+			float t1 = (bounds[axis] - o) / d;
+			float t2 = (bounds[axis + 3] - o) / d;
+			tEnter = Math.max(tEnter, Math.min(t1, t2));
+			tExit = Math.min(tExit, Math.max(t1, t2));
+		}
+
+		if (tEnter > tExit) {
+			return;
+		}
+
+		int x = clamp(cell(origin.x + direction.x * tEnter), minCellX, maxCellX);
+		int y = clamp(cell(origin.y + direction.y * tEnter), minCellY, maxCellY);
+		int z = clamp(cell(origin.z + direction.z * tEnter), minCellZ, maxCellZ);
+
+		int stepX = direction.x > 0 ? 1 : direction.x < 0 ? -1 : 0;
+		int stepY = direction.y > 0 ? 1 : direction.y < 0 ? -1 : 0;
+		int stepZ = direction.z > 0 ? 1 : direction.z < 0 ? -1 : 0;
+
+		float deltaX = stepX == 0 ? Float.POSITIVE_INFINITY : cellSize / Math.abs(direction.x);
+		float deltaY = stepY == 0 ? Float.POSITIVE_INFINITY : cellSize / Math.abs(direction.y);
+		float deltaZ = stepZ == 0 ? Float.POSITIVE_INFINITY : cellSize / Math.abs(direction.z);
+
+		float nextX = stepX == 0 ? Float.POSITIVE_INFINITY
+				: ((x + (stepX > 0 ? 1 : 0)) * cellSize - origin.x) / direction.x;
+		float nextY = stepY == 0 ? Float.POSITIVE_INFINITY
+				: ((y + (stepY > 0 ? 1 : 0)) * cellSize - origin.y) / direction.y;
+		float nextZ = stepZ == 0 ? Float.POSITIVE_INFINITY
+				: ((z + (stepZ > 0 ? 1 : 0)) * cellSize - origin.z) / direction.z;
+
+		while (true) {
+			int cell = findCell(SpatialHashGrid.key(x, y, z));
+			if (cell >= 0) {
+				collect(query, cell);
+			}
+
+			if (nextX <= nextY && nextX <= nextZ) {
+				if (nextX > tExit || (x += stepX) < minCellX || x > maxCellX) {
+					return;
+				}
+				nextX += deltaX;
+			} else if (nextY <= nextZ) {
+				if (nextY > tExit || (y += stepY) < minCellY || y > maxCellY) {
+					return;
+				}
+				nextY += deltaY;
+			} else {
+				if (nextZ > tExit || (z += stepZ) < minCellZ || z > maxCellZ) {
+					return;
+				}
+				nextZ += deltaZ;
+			}
+		}
+	}
+
+	private static float component(Vector3 vector, int axis) {
+		return axis == 0 ? vector.x : axis == 1 ? vector.y : vector.z;
+	}
+
+	private static int clamp(int value, int min, int max) {
+		return value < min ? min : value > max ? max : value;
+	}
+}
@@ -0,0 +1,37 @@
+package com.gurella.engine.scene.spatial.grid;
+
+import com.gurella.engine.pool.PoolService;
+import com.gurella.engine.scene.renderable.RenderableComponent;
+import com.gurella.engine.scene.spatial.Spatial;
+
+public class GridSpatial extends Spatial {
+	final float[] worldBounds = new float[6];
+	boolean attached;
+	boolean oversized;
+	int minX;
+	int minY;
+	int minZ;
+	int maxX;
+	int maxY;
+	int maxZ;
+	int snapshotMark;
+	int snapshotIndex;
+
+	public static GridSpatial obtain(RenderableComponent renderableComponent) {
+		GridSpatial spatial = PoolService.obtain(GridSpatial.class);
+		spatial.init(renderableComponent);
+		return spatial;
+	}
+
+	@Override
+	public void reset() {
+		super.reset();
+		attached = false;
+		oversized = false;
+		snapshotMark = 0;
+	}
+
+	public void free() {
+		PoolService.free(this);
+	}
+}
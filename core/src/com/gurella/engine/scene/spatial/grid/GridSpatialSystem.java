@@ -0,0 +1,62 @@
+package com.gurella.engine.scene.spatial.grid;
+
+import com.badlogic.gdx.utils.IntMap.Values;
+import com.gurella.engine.scene.Scene;
+import com.gurella.engine.scene.renderable.RenderableComponent;
+import com.gurella.engine.scene.spatial.SpatialSnapshot;
+import com.gurella.engine.scene.spatial.SpatialSystem;
+
+public class GridSpatialSystem extends SpatialSystem<GridSpatial> {
+	private final SpatialHashGrid grid = new SpatialHashGrid();
+
+	public GridSpatialSystem(Scene scene) {
+		super(scene);
+	}
+
+	@Override
+	protected void doUpdateSpatials() {
+		Values<GridSpatial> values = removedSpatials.values();
+		while (values.hasNext) {
+			grid.removeObject(values.next());
+		}
+
+		values = addedSpatials.values();
+		while (values.hasNext) {
+			grid.addObject(values.next());
+		}
+
+		values = dirtySpatials.values();
+		while (values.hasNext) {
+			grid.updateObject(values.next());
+		}
+	}
+
+	@Override
+	protected GridSpatial createSpatial(RenderableComponent drawableComponent) {
+		return GridSpatial.obtain(drawableComponent);
+	}
+
+	@Override
+	protected void initSpatials() {
+		Values<GridSpatial> values = addedSpatials.values();
+		while (values.hasNext) {
+			grid.addObject(values.next());
+		}
+		addedSpatials.clear();
+	}
+
+	@Override
+	protected void clearSpatials() {
+		grid.clear();
+	}
+
+	@Override
+	protected SpatialSnapshot createSnapshot() {
+		return new GridSnapshot();
+	}
+
+	@Override
+	protected void writeSnapshot(SpatialSnapshot snapshot) {
+		grid.writeSnapshot((GridSnapshot) snapshot);
+	}
+}
@@ -0,0 +1,317 @@
+package com.gurella.engine.scene.spatial.grid;
+
+import java.util.Arrays;
+
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.LongMap;
+import com.gurella.engine.pool.PoolService;
+
+/**
+ * Uniform grid of cubic cells stored sparsely in a hash map. A spatial is registered in every cell its bounds overlap,
+ * spatials spanning more than {@link #getMaxCellsPerAxis()} cells on some axis are kept in a separate list that is
+ * tested by every query. Moving a spatial without crossing a cell border is O(1). Rays are walked through cells with
+ * a 3D DDA. Queries run on {@link GridSnapshot} written by {@link #writeSnapshot(GridSnapshot)}.
+ * <p>
+ * Cell coordinates are packed into 21 bits per axis of the cell key, so the grid covers 2^20 cells in each direction
+ * from the origin, about 16.7 million units with the default cell size. Spatials reaching outside of that range are
+ * kept with the oversized spatials instead of wrapping around into unrelated cells.
+ */
+public class SpatialHashGrid {
+	public static final float defaultCellSize = 16f;
+	public static final int defaultMaxCellsPerAxis = 4;
+
+	private static final int coordinateBits = 21;
+	private static final long coordinateMask = (1L << coordinateBits) - 1;
+	private static final int minCoordinate = -(1 << (coordinateBits - 1));
+	private static final int maxCoordinate = (1 << (coordinateBits - 1)) - 1;
+
+	private final float cellSize;
+	private final float inverseCellSize;
+	private final int maxCellsPerAxis;
+
+	private final LongMap<GridCell> cells = new LongMap<GridCell>();
+	private final Array<GridSpatial> oversized = new Array<GridSpatial>(false, 16, GridSpatial.class);
+	private int size;
+	private int snapshotMark;
+
+	private boolean occupied;
+	private boolean occupiedDirty;
+	private int minCellX, minCellY, minCellZ;
+	private int maxCellX, maxCellY, maxCellZ;
+
+	private final float[] oversizedBounds = new float[6];
+
+	public SpatialHashGrid() {
+		this(defaultCellSize, defaultMaxCellsPerAxis);
+	}
+
+	public SpatialHashGrid(float cellSize, int maxCellsPerAxis) {
+		this.cellSize = cellSize;
+		this.inverseCellSize = 1f / cellSize;
+		this.maxCellsPerAxis = maxCellsPerAxis;
+	}
+
+	public float getCellSize() {
+		return cellSize;
+	}
+
+	public int getMaxCellsPerAxis() {
+		return maxCellsPerAxis;
+	}
+
+	public int getSpatialsCount() {
+		return size;
+	}
+
+	public void addObject(GridSpatial spatial) {
+		spatial.getBounds(spatial.worldBounds, 0);
+		attach(spatial);
+		size++;
+	}
+
+	public void removeObject(GridSpatial spatial) {
+		if (!spatial.attached) {
+			return;
+		}
+
+		detach(spatial);
+		size--;
+	}
+
+	public void updateObject(GridSpatial spatial) {
+		if (!spatial.attached) {
+			return;
+		}
+
+		float[] bounds = spatial.worldBounds;
+		spatial.getBounds(bounds, 0);
+		if (spatial.oversized ? isOversized(bounds) : sameCells(spatial, bounds)) {
+			return;
+		}
+
+		detach(spatial);
+		attach(spatial);
+	}
+
+	public void clear() {
+		LongMap.Values<GridCell> values = cells.values();
+		while (values.hasNext) {
+			GridCell cell = values.next();
+			Array<GridSpatial> spatials = cell.spatials;
+			for (int i = 0, n = spatials.size; i < n; i++) {
+				spatials.get(i).attached = false;
+			}
+			PoolService.free(cell);
+		}
+		cells.clear();
+
+		for (int i = 0, n = oversized.size; i < n; i++) {
+			oversized.get(i).attached = false;
+		}
+		oversized.clear();
+
+		size = 0;
+		occupied = false;
+		occupiedDirty = false;
+	}
+
+	private int cell(float value) {
+		return (int) Math.floor(value * inverseCellSize);
+	}
+
+	private boolean inRange(float[] bounds) {
+		for (int i = 0; i < 6; i++) {
+			int cell = cell(bounds[i]);
+			if (cell < minCoordinate || cell > maxCoordinate) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private boolean isOversized(float[] bounds) {
+		return !inRange(bounds) || cell(bounds[3]) - cell(bounds[0]) >= maxCellsPerAxis
+				|| cell(bounds[4]) - cell(bounds[1]) >= maxCellsPerAxis
+				|| cell(bounds[5]) - cell(bounds[2]) >= maxCellsPerAxis;
+	}
+
+	private boolean sameCells(GridSpatial spatial, float[] bounds) {
+		return spatial.minX == cell(bounds[0]) && spatial.minY == cell(bounds[1]) && spatial.minZ == cell(bounds[2])
+				&& spatial.maxX == cell(bounds[3]) && spatial.maxY == cell(bounds[4])
+				&& spatial.maxZ == cell(bounds[5]);
+	}
+
+	static long key(int x, int y, int z) {
+		return (x & coordinateMask) << (coordinateBits * 2) | (y & coordinateMask) << coordinateBits
+				| (z & coordinateMask);
+	}
+
+	private void attach(GridSpatial spatial) {
+		spatial.attached = true;
+		float[] bounds = spatial.worldBounds;
+		if (isOversized(bounds)) {
+			spatial.oversized = true;
+			oversized.add(spatial);
+			return;
+		}
+
+		spatial.oversized = false;
+		int minX = spatial.minX = cell(bounds[0]);
+		int minY = spatial.minY = cell(bounds[1]);
+		int minZ = spatial.minZ = cell(bounds[2]);
+		int maxX = spatial.maxX = cell(bounds[3]);
+		int maxY = spatial.maxY = cell(bounds[4]);
+		int maxZ = spatial.maxZ = cell(bounds[5]);
+
+		for (int x = minX; x <= maxX; x++) {
+			for (int y = minY; y <= maxY; y++) {
+				for (int z = minZ; z <= maxZ; z++) {
+					obtainCell(x, y, z).spatials.add(spatial);
+				}
+			}
+		}
+	}
+
+	private GridCell obtainCell(int x, int y, int z) {
+		long key = key(x, y, z);
+		GridCell cell = cells.get(key);
+		if (cell == null) {
+			cell = PoolService.obtain(GridCell.class);
+			cell.init(x, y, z, cellSize);
+			cells.put(key, cell);
+			extendOccupied(x, y, z);
+		}
+		return cell;
+	}
+
+	private void extendOccupied(int x, int y, int z) {
+		if (!occupied) {
+			occupied = true;
+			minCellX = maxCellX = x;
+			minCellY = maxCellY = y;
+			minCellZ = maxCellZ = z;
+		} else {
+			minCellX = Math.min(minCellX, x);
+			minCellY = Math.min(minCellY, y);
+			minCellZ = Math.min(minCellZ, z);
+			maxCellX = Math.max(maxCellX, x);
+			maxCellY = Math.max(maxCellY, y);
+			maxCellZ = Math.max(maxCellZ, z);
+		}
+	}
+
+	private void detach(GridSpatial spatial) {
+		spatial.attached = false;
+		if (spatial.oversized) {
+			oversized.removeValue(spatial, true);
+			return;
+		}
+
+		for (int x = spatial.minX; x <= spatial.maxX; x++) {
+			for (int y = spatial.minY; y <= spatial.maxY; y++) {
+				for (int z = spatial.minZ; z <= spatial.maxZ; z++) {
+					long key = key(x, y, z);
+					GridCell cell = cells.get(key);
+					cell.spatials.removeValue(spatial, true);
+					if (cell.spatials.size == 0) {
+						cells.remove(key);
+						PoolService.free(cell);
+						occupiedDirty |= isOccupiedBorder(x, y, z);
+					}
+				}
+			}
+		}
+	}
+
+	private boolean isOccupiedBorder(int x, int y, int z) {
+		return x == minCellX || y == minCellY || z == minCellZ || x == maxCellX || y == maxCellY || z == maxCellZ;
+	}
+
+	/**
+	 * Shrinks occupied cell range after cells on its border were removed, so snapshot queries and rays don't walk
+	 * cells that were emptied long ago.
+	 */
+	private void updateOccupied() {
+		occupiedDirty = false;
+		occupied = false;
+		LongMap.Values<GridCell> values = cells.values();
+		while (values.hasNext) {
+			GridCell cell = values.next();
+			extendOccupied(cell.x, cell.y, cell.z);
+		}
+	}
+
+	/**
+	 * Writes cells sorted by key, followed by a node holding oversized spatials.
+	 */
+	public void writeSnapshot(GridSnapshot snapshot) {
+		if (occupiedDirty) {
+			updateOccupied();
+		}
+
+		snapshot.begin(true);
+		snapshot.cellSize = cellSize;
+		snapshot.inverseCellSize = inverseCellSize;
+		snapshot.occupied = occupied;
+		snapshot.minCellX = minCellX;
+		snapshot.minCellY = minCellY;
+		snapshot.minCellZ = minCellZ;
+		snapshot.maxCellX = maxCellX;
+		snapshot.maxCellY = maxCellY;
+		snapshot.maxCellZ = maxCellZ;
+
+		int cellCount = cells.size;
+		if (snapshot.cellKeys.length < cellCount) {
+			snapshot.cellKeys = new long[Math.max(cellCount, snapshot.cellKeys.length * 2)];
+		}
+
+		long[] keys = snapshot.cellKeys;
+		LongMap.Keys cellKeys = cells.keys();
+		for (int i = 0; cellKeys.hasNext; i++) {
+			keys[i] = cellKeys.next();
+		}
+		Arrays.sort(keys, 0, cellCount);
+		snapshot.cellCount = cellCount;
+
+		int mark = ++snapshotMark;
+		for (int i = 0; i < cellCount; i++) {
+			GridCell cell = cells.get(keys[i]);
+			int node = snapshot.beginNode(cell.bounds, 0);
+			writeEntries(snapshot, cell.spatials, mark);
+			snapshot.endNode(node);
+		}
+
+		if (oversized.size == 0) {
+			snapshot.oversizedNode = -1;
+			return;
+		}
+
+		float[] bounds = oversizedBounds;
+		bounds[0] = bounds[1] = bounds[2] = Float.POSITIVE_INFINITY;
+		bounds[3] = bounds[4] = bounds[5] = Float.NEGATIVE_INFINITY;
+		for (int i = 0, n = oversized.size; i < n; i++) {
+			float[] spatialBounds = oversized.get(i).worldBounds;
+			for (int j = 0; j < 3; j++) {
+				bounds[j] = Math.min(bounds[j], spatialBounds[j]);
+				bounds[j + 3] = Math.max(bounds[j + 3], spatialBounds[j + 3]);
+			}
+		}
+
+		int node = snapshot.beginNode(bounds, 0);
+		writeEntries(snapshot, oversized, mark);
+		snapshot.endNode(node);
+		snapshot.oversizedNode = node;
+	}
+
+	private static void writeEntries(GridSnapshot snapshot, Array<GridSpatial> spatials, int mark) {
+		GridSpatial[] items = spatials.items;
+		for (int i = 0, n = spatials.size; i < n; i++) {
+			GridSpatial spatial = items[i];
+			if (spatial.snapshotMark != mark) {
+				spatial.snapshotMark = mark;
+				spatial.snapshotIndex = snapshot.addSpatial(spatial, spatial.worldBounds, 0);
+			}
+			snapshot.addEntry(spatial.snapshotIndex);
+		}
+	}
+}
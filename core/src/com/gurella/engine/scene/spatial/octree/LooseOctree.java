@@ -0,0 +1,247 @@
+package com.gurella.engine.scene.spatial.octree;
+
+import com.badlogic.gdx.utils.Array;
+import com.gurella.engine.pool.PoolService;
+import com.gurella.engine.scene.spatial.SpatialSnapshot;
+
+/**
+ * Loose octree where every node's bounds are extended to twice its size, so a spatial is stored in exactly one node,
+ * picked by its size and center. The tree grows around spatials outside of it and shrinks back when all spatials
+ * left are below one child of the root. A spatial that moves within its node is updated in O(1), otherwise it is
+ * relocated in O(depth).
+ */
+public class LooseOctree {
+	public static final float defaultMinNodeSize = 16f;
+
+	private final float minHalfSize;
+	private OctreeNode root;
+	private int size;
+
+	public LooseOctree() {
+		this(defaultMinNodeSize);
+	}
+
+	public LooseOctree(float minNodeSize) {
+		this.minHalfSize = minNodeSize * 0.5f;
+	}
+
+	public void addObject(OctreeSpatial spatial) {
+		spatial.getBounds(spatial.worldBounds, 0);
+		insert(spatial);
+		size++;
+	}
+
+	public void removeObject(OctreeSpatial spatial) {
+		if (spatial.node == null) {
+			return;
+		}
+
+		detach(spatial);
+		size--;
+		shrink();
+	}
+
+	public void updateObject(OctreeSpatial spatial) {
+		OctreeNode node = spatial.node;
+		if (node == null) {
+			return;
+		}
+
+		float[] bounds = spatial.worldBounds;
+		spatial.getBounds(bounds, 0);
+		if (!fits(node, bounds)) {
+			detach(spatial);
+			insert(spatial);
+			shrink();
+		}
+	}
+
+	public void clear() {
+		if (root != null) {
+			free(root);
+			root = null;
+		}
+		size = 0;
+	}
+
+	public int getSpatialsCount() {
+		return size;
+	}
+
+	/**
+	 * Writes nodes in depth first order with spatials of each node as its entries.
+	 */
+	public void writeSnapshot(SpatialSnapshot snapshot) {
+		snapshot.begin(false);
+		if (root != null) {
+			writeNode(snapshot, root);
+		}
+	}
+
+	private static void writeNode(SpatialSnapshot snapshot, OctreeNode node) {
+		int snapshotNode = snapshot.beginNode(node.looseBounds, 0);
+		Array<OctreeSpatial> spatials = node.spatials;
+		for (int i = 0, n = spatials.size; i < n; i++) {
+			OctreeSpatial spatial = spatials.get(i);
+			snapshot.addEntry(snapshot.addSpatial(spatial, spatial.worldBounds, 0));
+		}
+
+		OctreeNode[] children = node.children;
+		for (int i = 0; i < 8; i++) {
+			OctreeNode child = children[i];
+			if (child != null) {
+				writeNode(snapshot, child);
+			}
+		}
+		snapshot.endNode(snapshotNode);
+	}
+
+	private static float halfExtent(float[] bounds) {
+		return Math.max(Math.max(bounds[3] - bounds[0], bounds[4] - bounds[1]), bounds[5] - bounds[2]) * 0.5f;
+	}
+
+	private boolean fits(OctreeNode node, float[] bounds) {
+		float halfExtent = halfExtent(bounds);
+		float childHalfSize = node.halfSize * 0.5f;
+		return halfExtent <= node.halfSize && (childHalfSize < halfExtent || childHalfSize < minHalfSize)
+				&& node.contains(centerX(bounds), centerY(bounds), centerZ(bounds));
+	}
+
+	private void insert(OctreeSpatial spatial) {
+		float[] bounds = spatial.worldBounds;
+		float halfExtent = halfExtent(bounds);
+		float x = centerX(bounds);
+		float y = centerY(bounds);
+		float z = centerZ(bounds);
+
+		if (root != null && root.subtreeCount == 0) {
+			free(root);
+			root = null;
+		}
+
+		if (root == null) {
+			float halfSize = minHalfSize;
+			while (halfSize < halfExtent) {
+				halfSize *= 2;
+			}
+			root = PoolService.obtain(OctreeNode.class);
+			root.init(null, 0, x, y, z, halfSize);
+		}
+
+		while (root.halfSize < halfExtent || !root.contains(x, y, z)) {
+			grow(x, y, z);
+		}
+
+		OctreeNode node = root;
+		node.subtreeCount++;
+		float childHalfSize = node.halfSize * 0.5f;
+		while (childHalfSize >= halfExtent && childHalfSize >= minHalfSize) {
+			node = child(node, node.octantOf(x, y, z));
+			node.subtreeCount++;
+			childHalfSize = node.halfSize * 0.5f;
+		}
+
+		node.add(spatial);
+	}
+
+	private void grow(float x, float y, float z) {
+		OctreeNode oldRoot = root;
+		float halfSize = oldRoot.halfSize;
+		float centerX = oldRoot.centerX + (x < oldRoot.centerX ? -halfSize : halfSize);
+		float centerY = oldRoot.centerY + (y < oldRoot.centerY ? -halfSize : halfSize);
+		float centerZ = oldRoot.centerZ + (z < oldRoot.centerZ ? -halfSize : halfSize);
+
+		OctreeNode newRoot = PoolService.obtain(OctreeNode.class);
+		newRoot.init(null, 0, centerX, centerY, centerZ, halfSize * 2);
+		newRoot.subtreeCount = oldRoot.subtreeCount;
+
+		int octant = newRoot.octantOf(oldRoot.centerX, oldRoot.centerY, oldRoot.centerZ);
+		oldRoot.parent = newRoot;
+		oldRoot.octant = octant;
+		newRoot.children[octant] = oldRoot;
+		root = newRoot;
+	}
+
+	/**
+	 * Replaces root with its only child while root holds no spatials of its own, so the tree doesn't keep the size it
+	 * had when spatials were far apart.
+	 */
+	private void shrink() {
+		while (root != null && root.spatials.size == 0) {
+			if (root.subtreeCount == 0) {
+				free(root);
+				root = null;
+				return;
+			}
+
+			OctreeNode onlyChild = null;
+			OctreeNode[] children = root.children;
+			for (int i = 0; i < 8; i++) {
+				OctreeNode child = children[i];
+				if (child != null) {
+					if (onlyChild != null) {
+						return;
+					}
+					onlyChild = child;
+				}
+			}
+
+			children[onlyChild.octant] = null;
+			PoolService.free(root);
+			onlyChild.parent = null;
+			onlyChild.octant = 0;
+			root = onlyChild;
+		}
+	}
+
+	private static OctreeNode child(OctreeNode node, int octant) {
+		OctreeNode child = node.children[octant];
+		if (child == null) {
+			float halfSize = node.halfSize * 0.5f;
+			float x = node.centerX + ((octant & 1) == 0 ? -halfSize : halfSize);
+			float y = node.centerY + ((octant & 2) == 0 ? -halfSize : halfSize);
+			float z = node.centerZ + ((octant & 4) == 0 ? -halfSize : halfSize);
+			child = PoolService.obtain(OctreeNode.class);
+			child.init(node, octant, x, y, z, halfSize);
+			node.children[octant] = child;
+		}
+		return child;
+	}
+
+	private void detach(OctreeSpatial spatial) {
+		OctreeNode node = spatial.node;
+		node.remove(spatial);
+
+		while (node != null) {
+			OctreeNode parent = node.parent;
+			if (--node.subtreeCount == 0 && parent != null) {
+				parent.children[node.octant] = null;
+				free(node);
+			}
+			node = parent;
+		}
+	}
+
+	private static void free(OctreeNode node) {
+		OctreeNode[] children = node.children;
+		for (int i = 0; i < 8; i++) {
+			OctreeNode child = children[i];
+			if (child != null) {
+				free(child);
+			}
+		}
+		PoolService.free(node);
+	}
+
+	private static float centerX(float[] bounds) {
+		return (bounds[0] + bounds[3]) * 0.5f;
+	}
+
+	private static float centerY(float[] bounds) {
+		return (bounds[1] + bounds[4]) * 0.5f;
+	}
+
+	private static float centerZ(float[] bounds) {
+		return (bounds[2] + bounds[5]) * 0.5f;
+	}
+}
@@ -0,0 +1,74 @@
+package com.gurella.engine.scene.spatial.octree;
+
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.Pool.Poolable;
+
+class OctreeNode implements Poolable {
+	static final float looseness = 2f;
+
+	OctreeNode parent;
+	int octant;
+	final OctreeNode[] children = new OctreeNode[8];
+
+	final Array<OctreeSpatial> spatials = new Array<OctreeSpatial>(false, 4, OctreeSpatial.class);
+	int subtreeCount;
+
+	float centerX;
+	float centerY;
+	float centerZ;
+	float halfSize;
+	final float[] looseBounds = new float[6];
+
+	void init(OctreeNode parent, int octant, float centerX, float centerY, float centerZ, float halfSize) {
+		this.parent = parent;
+		this.octant = octant;
+		this.centerX = centerX;
+		this.centerY = centerY;
+		this.centerZ = centerZ;
+		this.halfSize = halfSize;
+
+		float looseHalfSize = halfSize * looseness;
+		looseBounds[0] = centerX - looseHalfSize;
+		looseBounds[1] = centerY - looseHalfSize;
+		looseBounds[2] = centerZ - looseHalfSize;
+		looseBounds[3] = centerX + looseHalfSize;
+		looseBounds[4] = centerY + looseHalfSize;
+		looseBounds[5] = centerZ + looseHalfSize;
+	}
+
+	boolean contains(float x, float y, float z) {
+		return Math.abs(x - centerX) <= halfSize && Math.abs(y - centerY) <= halfSize
+				&& Math.abs(z - centerZ) <= halfSize;
+	}
+
+	int octantOf(float x, float y, float z) {
+		return (x < centerX ? 0 : 1) | (y < centerY ? 0 : 2) | (z < centerZ ? 0 : 4);
+	}
+
+	void add(OctreeSpatial spatial) {
+		spatial.node = this;
+		spatial.nodeIndex = spatials.size;
+		spatials.add(spatial);
+	}
+
+	void remove(OctreeSpatial spatial) {
+		int index = spatial.nodeIndex;
+		spatials.removeIndex(index);
+		if (index < spatials.size) {
+			spatials.get(index).nodeIndex = index;
+		}
+		spatial.node = null;
+		spatial.nodeIndex = -1;
+	}
+
+	@Override
+	public void reset() {
+		parent = null;
+		octant = 0;
+		for (int i = 0; i < 8; i++) {
+			children[i] = null;
+		}
+		spatials.clear();
+		subtreeCount = 0;
+	}
+}
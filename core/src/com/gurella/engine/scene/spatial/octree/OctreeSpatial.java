@@ -0,0 +1,28 @@
+package com.gurella.engine.scene.spatial.octree;
+
+import com.gurella.engine.pool.PoolService;
+import com.gurella.engine.scene.renderable.RenderableComponent;
+import com.gurella.engine.scene.spatial.Spatial;
+
+public class OctreeSpatial extends Spatial {
+	OctreeNode node;
+	int nodeIndex = -1;
+	final float[] worldBounds = new float[6];
+
+	public static OctreeSpatial obtain(RenderableComponent renderableComponent) {
+		OctreeSpatial spatial = PoolService.obtain(OctreeSpatial.class);
+		spatial.init(renderableComponent);
+		return spatial;
+	}
+
+	@Override
+	public void reset() {
+		super.reset();
+		node = null;
+		nodeIndex = -1;
+	}
+
+	public void free() {
+		PoolService.free(this);
+	}
+}
@@ -0,0 +1,57 @@
+package com.gurella.engine.scene.spatial.octree;
+
+import com.badlogic.gdx.utils.IntMap.Values;
+import com.gurella.engine.scene.Scene;
+import com.gurella.engine.scene.renderable.RenderableComponent;
+import com.gurella.engine.scene.spatial.SpatialSnapshot;
+import com.gurella.engine.scene.spatial.SpatialSystem;
+
+public class OctreeSpatialSystem extends SpatialSystem<OctreeSpatial> {
+	private final LooseOctree octree = new LooseOctree();
+
+	public OctreeSpatialSystem(Scene scene) {
+		super(scene);
+	}
+
+	@Override
+	protected void doUpdateSpatials() {
+		Values<OctreeSpatial> values = removedSpatials.values();
+		while (values.hasNext) {
+			octree.removeObject(values.next());
+		}
+
+		values = addedSpatials.values();
+		while (values.hasNext) {
+			octree.addObject(values.next());
+		}
+
+		values = dirtySpatials.values();
+		while (values.hasNext) {
+			octree.updateObject(values.next());
+		}
+	}
+
+	@Override
+	protected OctreeSpatial createSpatial(RenderableComponent drawableComponent) {
+		return OctreeSpatial.obtain(drawableComponent);
+	}
+
+	@Override
+	protected void initSpatials() {
+		Values<OctreeSpatial> values = addedSpatials.values();
+		while (values.hasNext) {
+			octree.addObject(values.next());
+		}
+		addedSpatials.clear();
+	}
+
+	@Override
+	protected void clearSpatials() {
+		octree.clear();
+	}
+
+	@Override
+	protected void writeSnapshot(SpatialSnapshot snapshot) {
+		octree.writeSnapshot(snapshot);
+	}
+}
@@ -43,9 +43,14 @@ public class TransformComponent extends SceneNodeComponent implements PropertyCh
 	private final Matrix4 transformInverse = new Matrix4();
 	private boolean transformInvDirty = true;
 	private boolean worldTransformInvDirty = true;
+	private transient int worldTransformVersion;
+	private transient int worldTransformInvVersion;
 
 	private TransformComponent parentTransform;
 
+	transient TransformSystem transformSystem;
+	transient int transformIndex = -1;
+
 	private final Vector3 tempVector = new Vector3();
 	private final Quaternion rotator = new Quaternion();
 
@@ -72,7 +77,19 @@ public class TransformComponent extends SceneNodeComponent implements PropertyCh
 		nodeId = -1;
 	}
 
+	private void transformChanged() {
+		if (transformSystem != null) {
+			transformSystem.localTransformChanged(this);
+		}
+
+		EventService.post(nodeId, event);
+	}
+
 	private void notifyChanged() {
+		if (transformSystem != null) {
+			transformSystem.localTransformChanged(this);
+		}
+
 		if (!transformDirty) {
 			transformDirty = true;
 			transformInvDirty = true;
@@ -533,28 +550,17 @@ public class TransformComponent extends SceneNodeComponent implements PropertyCh
 		return this;
 	}
 
+	/**
+	 * Rotates the transform around the point given in the space of the parent. Rotation is applied to translation,
+	 * rotation and scale, so the change is kept when the world transform is rebuilt from them.
+	 */
 	public void rotateAround(Vector3 point, Vector3 axis, float degrees) {
-		update();
-		transform.getTranslation(tempVector);
-		tempVector.x = point.x - tempVector.x;
-		tempVector.y = point.y - tempVector.y;
-		tempVector.z = point.z - tempVector.z;
-		transform.translate(tempVector);
-		transform.rotate(axis, degrees);
-		tempVector.rotate(axis, degrees).scl(-1);
-		transform.translate(tempVector);
+		rotator.set(axis, degrees);
+		rotator.transform(translation.sub(point)).add(point);
+		rotationQuat.mulLeft(rotator);
+		rotationQuat.nor();
 		rotation.set(rotationQuat.getPitch(), rotationQuat.getYaw(), rotationQuat.getRoll());
-
-		if (parentTransform == null) {
-			worldTransform.set(transform);
-		} else {
-			worldTransform.set(parentTransform.getWorldTransform()).mul(transform);
-		}
-
-		transformDirty = false;
-		transformInvDirty = true;
-		worldTransformInvDirty = true;
-		EventService.post(nodeId, event);
+		notifyChanged();
 	}
 
 	public void rotateAroundWorld(Vector3 point, Vector3 axis, float degrees) {
@@ -581,7 +587,7 @@ public class TransformComponent extends SceneNodeComponent implements PropertyCh
 		transformDirty = false;
 		transformInvDirty = true;
 		worldTransformInvDirty = true;
-		EventService.post(nodeId, event);
+		transformChanged();
 	}
 
 	public TransformComponent eulerRotate(Vector3 additionalEulerRotation) {
@@ -673,7 +679,7 @@ public class TransformComponent extends SceneNodeComponent implements PropertyCh
 		transformDirty = false;
 		transformInvDirty = true;
 		worldTransformInvDirty = true;
-		EventService.post(nodeId, event);
+		transformChanged();
 	}
 
 	public void setWorldTransform(Matrix4 newWorldTransform) {
@@ -691,7 +697,7 @@ public class TransformComponent extends SceneNodeComponent implements PropertyCh
 		transformDirty = false;
 		transformInvDirty = true;
 		worldTransformInvDirty = true;
-		EventService.post(nodeId, event);
+		transformChanged();
 	}
 
 	public Matrix4 getTransform(Matrix4 outTransform) {
@@ -713,7 +719,13 @@ public class TransformComponent extends SceneNodeComponent implements PropertyCh
 	}
 
 	private void update() {
-		if (transformDirty) {
+		if (transformSystem != null) {
+			if (transformDirty) {
+				transform.set(translation, rotationQuat, scale);
+				transformDirty = false;
+			}
+			worldTransformVersion = transformSystem.getWorldTransform(this, worldTransform);
+		} else if (transformDirty) {
 			transform.set(translation, rotationQuat, scale);
 			if (parentTransform == null) {
 				worldTransform.set(transform);
@@ -724,12 +736,43 @@ public class TransformComponent extends SceneNodeComponent implements PropertyCh
 		}
 	}
 
+	TransformComponent getParentTransform() {
+		return parentTransform;
+	}
+
+	void attachTransformSystem(TransformSystem system) {
+		transformSystem = system;
+		transformIndex = -1;
+	}
+
+	void detachTransformSystem() {
+		transformSystem = null;
+		transformIndex = -1;
+		transformDirty = true;
+		transformInvDirty = true;
+		worldTransformInvDirty = true;
+	}
+
+	void storeLocalTransform(TransformData data) {
+		TransformData.translation.set(data, translation);
+		TransformData.rotation.set(data, rotationQuat);
+		TransformData.scale.set(data, scale);
+	}
+
+	void worldTransformChanged() {
+		worldTransformInvDirty = true;
+		EventService.post(nodeId, event);
+	}
+
 	public Matrix4 getWorldTransformInverse() {
-		if (worldTransformInvDirty) {
-			transformInverse.set(getWorldTransform());
+		Matrix4 worldTransform = getWorldTransform();
+		// world transform of a node managed by transform system can change without notification until next pass
+		if (worldTransformInvDirty || (transformSystem != null && worldTransformInvVersion != worldTransformVersion)) {
+			transformInverse.set(worldTransform);
 			Matrix4.inv(transformInverse.val);
 			transformInvDirty = true;
 			worldTransformInvDirty = false;
+			worldTransformInvVersion = worldTransformVersion;
 		}
 
 		return transformInverse;
@@ -879,7 +922,7 @@ public class TransformComponent extends SceneNodeComponent implements PropertyCh
 		transformDirty = false;
 		transformInvDirty = true;
 		worldTransformInvDirty = true;
-		EventService.post(nodeId, event);
+		transformChanged();
 	}
 
 	public void lookAtWorld(Vector3 target) {
@@ -906,7 +949,7 @@ public class TransformComponent extends SceneNodeComponent implements PropertyCh
 		transformDirty = false;
 		transformInvDirty = true;
 		worldTransformInvDirty = true;
-		EventService.post(nodeId, event);
+		transformChanged();
 	}
 
 	@Override
@@ -921,6 +964,8 @@ public class TransformComponent extends SceneNodeComponent implements PropertyCh
 	public void reset() {
 		nodeId = -1;
 		parentTransform = null;
+		transformSystem = null;
+		transformIndex = -1;
 		translation.setZero();
 		rotationQuat.idt();
 		rotation.setZero();
@@ -974,6 +1019,10 @@ public class TransformComponent extends SceneNodeComponent implements PropertyCh
 				subscribeTo(parentNode, parentNodeTransformChangedListener);
 			}
 
+			if (transformSystem != null) {
+				transformSystem.hierarchyChanged();
+			}
+
 			if (updateWorldTransform) {
 				setWorldTransform(transformInverse);
 			}
@@ -989,7 +1038,7 @@ public class TransformComponent extends SceneNodeComponent implements PropertyCh
 		public void onNodeComponentActivated(SceneNodeComponent component) {
 			if (component instanceof TransformComponent) {
 				parentTransform = (TransformComponent) component;
-				notifyChanged();
+				parentTransformChanged();
 			}
 		}
 
@@ -997,15 +1046,24 @@ public class TransformComponent extends SceneNodeComponent implements PropertyCh
 		public void onNodeComponentDeactivated(SceneNodeComponent component) {
 			if (parentTransform == component) {
 				parentTransform = null;
-				notifyChanged();
+				parentTransformChanged();
 			}
 		}
 	}
 
+	private void parentTransformChanged() {
+		if (transformSystem != null) {
+			transformSystem.hierarchyChanged();
+		}
+		notifyChanged();
+	}
+
 	private class ParentNodeTransformChangedListener implements NodeTransformChangedListener {
 		@Override
 		public void onNodeTransformChanged() {
-			notifyChanged();
+			if (transformSystem == null) {
+				notifyChanged();
+			}
 		}
 	}
 
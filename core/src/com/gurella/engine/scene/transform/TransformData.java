@@ -0,0 +1,24 @@
+package com.gurella.engine.scene.transform;
+
+import com.gurella.engine.utils.struct.Struct;
+import com.gurella.engine.utils.struct.StructProperty.FlagStructProperty;
+import com.gurella.engine.utils.struct.StructProperty.IntStructProperty;
+import com.gurella.engine.utils.struct.StructProperty.Matrix4StructProperty;
+import com.gurella.engine.utils.struct.StructProperty.QuaternionStructProperty;
+import com.gurella.engine.utils.struct.StructProperty.Vector3StructProperty;
+
+class TransformData extends Struct {
+	static final int localDirtyFlag = 0;
+	static final int changeQueuedFlag = 1;
+
+	static final IntStructProperty parent = new IntStructProperty();
+	static final IntStructProperty worldVersion = new IntStructProperty();
+	static final IntStructProperty parentWorldVersion = new IntStructProperty();
+	static final FlagStructProperty flags = new FlagStructProperty();
+
+	static final Vector3StructProperty translation = new Vector3StructProperty();
+	static final QuaternionStructProperty rotation = new QuaternionStructProperty();
+	static final Vector3StructProperty scale = new Vector3StructProperty();
+
+	static final Matrix4StructProperty worldTransform = new Matrix4StructProperty();
+}
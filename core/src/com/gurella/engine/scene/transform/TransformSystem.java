@@ -0,0 +1,523 @@
+package com.gurella.engine.scene.transform;
+
+import com.badlogic.gdx.math.Matrix4;
+import com.badlogic.gdx.math.Quaternion;
+import com.badlogic.gdx.math.Vector3;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.IntArray;
+import com.badlogic.gdx.utils.async.AsyncExecutor;
+import com.badlogic.gdx.utils.async.AsyncResult;
+import com.badlogic.gdx.utils.async.AsyncTask;
+import com.gurella.engine.async.AsyncService;
+import com.gurella.engine.scene.SceneNodeComponent;
+import com.gurella.engine.scene.SceneSystem;
+import com.gurella.engine.subscriptions.scene.ComponentActivityListener;
+import com.gurella.engine.subscriptions.scene.update.PreRenderUpdateListener;
+import com.gurella.engine.utils.ImmutableArray;
+import com.gurella.engine.utils.priority.Priority;
+import com.gurella.engine.utils.struct.StructArray;
+
+/**
+ * Opt-in system that stores local TRS and world transforms of all active {@link TransformComponent}s of the scene in
+ * a {@link StructArray} sorted by hierarchy depth. World transforms are recomputed in one linear pass per frame, where
+ * each parent precedes its children, so changes no longer cascade through per node transform events. Reading a world
+ * transform between passes validates only the chain of ancestors of the node; change notifications are published only
+ * by the pass. The pass can be spread over multiple threads with {@link #setParallelism(int)}.
+ */
+@Priority(value = Integer.MIN_VALUE, type = PreRenderUpdateListener.class)
+public class TransformSystem extends SceneSystem implements ComponentActivityListener, PreRenderUpdateListener {
+	public static final int defaultParallelThreshold = 2048;
+
+	private StructArray<TransformData> data = new StructArray<TransformData>(TransformData.class, 256);
+	private StructArray<TransformData> swapData = new StructArray<TransformData>(TransformData.class, 256);
+	private final TransformData cursor = data.newStruct(0);
+
+	private Array<TransformComponent> components = new Array<TransformComponent>();
+	private Array<TransformComponent> swapComponents = new Array<TransformComponent>();
+	private final Array<TransformComponent> addedComponents = new Array<TransformComponent>();
+	private final Array<TransformComponent> unsortedComponents = new Array<TransformComponent>();
+
+	private boolean orderDirty;
+	private boolean dirty;
+
+	private final IntArray depths = new IntArray();
+	private final IntArray depthOffsets = new IntArray();
+	private final IntArray chain = new IntArray();
+
+	private int parallelism = 1;
+	private int parallelThreshold = defaultParallelThreshold;
+	private AsyncExecutor executor;
+	private final Array<TransformUpdater> updaters = Array.with(new TransformUpdater());
+	private final Array<AsyncResult<Void>> results = new Array<AsyncResult<Void>>();
+	private boolean partitionDirty;
+
+	private final IntArray roots = new IntArray();
+	private final IntArray subtreeSizes = new IntArray();
+	private final IntArray rootUpdaters = new IntArray();
+	private final IntArray updaterLoads = new IntArray();
+
+	@Override
+	protected void systemActivated() {
+		ImmutableArray<SceneNodeComponent> activeComponents = getScene().activeComponents;
+		for (int i = 0, n = activeComponents.size(); i < n; i++) {
+			SceneNodeComponent component = activeComponents.get(i);
+			if (component instanceof TransformComponent) {
+				attach((TransformComponent) component);
+			}
+		}
+	}
+
+	@Override
+	protected void systemDeactivated() {
+		for (int i = 0, n = components.size; i < n; i++) {
+			TransformComponent component = components.get(i);
+			if (component != null) {
+				component.detachTransformSystem();
+			}
+		}
+
+		for (int i = 0, n = addedComponents.size; i < n; i++) {
+			addedComponents.get(i).detachTransformSystem();
+		}
+
+		components.clear();
+		addedComponents.clear();
+		for (int i = 0, n = updaters.size; i < n; i++) {
+			updaters.get(i).reset();
+		}
+		data.clear();
+		orderDirty = false;
+		dirty = false;
+
+		if (executor != null) {
+			executor.dispose();
+			executor = null;
+		}
+	}
+
+	@Override
+	public void onComponentActivated(SceneNodeComponent component) {
+		if (component instanceof TransformComponent) {
+			attach((TransformComponent) component);
+		}
+	}
+
+	@Override
+	public void onComponentDeactivated(SceneNodeComponent component) {
+		if (component instanceof TransformComponent) {
+			detach((TransformComponent) component);
+		}
+	}
+
+	private void attach(TransformComponent component) {
+		if (component.transformSystem == this) {
+			return;
+		}
+
+		component.attachTransformSystem(this);
+		addedComponents.add(component);
+		hierarchyChanged();
+	}
+
+	private void detach(TransformComponent component) {
+		if (component.transformSystem != this) {
+			return;
+		}
+
+		int index = component.transformIndex;
+		if (index < 0) {
+			addedComponents.removeValue(component, true);
+		} else {
+			components.set(index, null);
+		}
+
+		for (int i = 0, n = updaters.size; i < n; i++) {
+			updaters.get(i).changed.removeValue(component, true);
+		}
+		component.detachTransformSystem();
+		hierarchyChanged();
+	}
+
+	void hierarchyChanged() {
+		orderDirty = true;
+		dirty = true;
+	}
+
+	void localTransformChanged(TransformComponent component) {
+		int index = component.transformIndex;
+		if (index < 0) {
+			return;
+		}
+
+		data.get(index, cursor);
+		component.storeLocalTransform(cursor);
+		TransformData.flags.set(cursor, TransformData.localDirtyFlag);
+		dirty = true;
+	}
+
+	/**
+	 * @return version of the world transform, incremented every time it is recomputed
+	 */
+	int getWorldTransform(TransformComponent component, Matrix4 out) {
+		updateOrder();
+
+		int index = component.transformIndex;
+		while (index >= 0) {
+			chain.add(index);
+			index = TransformData.parent.get(data.get(index, cursor));
+		}
+
+		TransformUpdater updater = updaters.first();
+		while (chain.size > 0) {
+			updater.update(chain.pop());
+		}
+
+		data.get(component.transformIndex, cursor);
+		TransformData.worldTransform.get(cursor, out);
+		return TransformData.worldVersion.get(cursor);
+	}
+
+	public int getParallelism() {
+		return parallelism;
+	}
+
+	/**
+	 * Sets number of threads used by the world transforms pass. Independent root subtrees are partitioned between
+	 * threads when scene has at least {@link #getParallelThreshold()} transforms. Change notifications are always
+	 * published on the thread that runs the pass.
+	 */
+	public void setParallelism(int parallelism) {
+		int newParallelism = Math.max(1, parallelism);
+		if (this.parallelism == newParallelism) {
+			return;
+		}
+
+		this.parallelism = newParallelism;
+		updaters.truncate(Math.min(updaters.size, newParallelism));
+		while (updaters.size < newParallelism) {
+			updaters.add(new TransformUpdater());
+		}
+
+		if (executor != null) {
+			executor.dispose();
+			executor = null;
+		}
+		partitionDirty = true;
+	}
+
+	public int getParallelThreshold() {
+		return parallelThreshold;
+	}
+
+	public void setParallelThreshold(int parallelThreshold) {
+		this.parallelThreshold = parallelThreshold;
+	}
+
+	@Override
+	public void onPreRenderUpdate() {
+		updateWorldTransforms();
+	}
+
+	public void updateWorldTransforms() {
+		if (!dirty) {
+			return;
+		}
+
+		updateOrder();
+		int size = data.length();
+		if (parallelism > 1 && size >= parallelThreshold) {
+			updateWorldTransformsParallel();
+		} else {
+			TransformUpdater updater = updaters.first();
+			for (int i = 0; i < size; i++) {
+				updater.update(i);
+			}
+		}
+
+		dirty = false;
+		for (int i = 0, n = updaters.size; i < n; i++) {
+			updaters.get(i).notifyChanged();
+		}
+	}
+
+	private void updateWorldTransformsParallel() {
+		if (partitionDirty) {
+			partition();
+		}
+
+		if (executor == null) {
+			executor = AsyncService.createAsyncExecutor(parallelism - 1);
+		}
+
+		for (int i = 1, n = updaters.size; i < n; i++) {
+			results.add(executor.submit(updaters.get(i)));
+		}
+
+		try {
+			updaters.first().call();
+		} finally {
+			awaitResults();
+		}
+	}
+
+	/**
+	 * Waits for all submitted updaters, even when one of them failed, so no updater is still running when the pass
+	 * returns and no result is carried over to the next pass.
+	 */
+	private void awaitResults() {
+		RuntimeException failure = null;
+		for (int i = 0, n = results.size; i < n; i++) {
+			try {
+				results.get(i).get();
+			} catch (RuntimeException e) {
+				if (failure == null) {
+					failure = e;
+				}
+			}
+		}
+		results.clear();
+
+		if (failure != null) {
+			throw failure;
+		}
+	}
+
+	private void partition() {
+		partitionDirty = false;
+		int size = data.length();
+		int updatersSize = updaters.size;
+		int[] rootItems = roots.setSize(size);
+		int[] subtreeSizeItems = subtreeSizes.setSize(size);
+		int[] rootUpdaterItems = rootUpdaters.setSize(size);
+		int[] loads = updaterLoads.setSize(updatersSize);
+
+		for (int i = 0; i < updatersSize; i++) {
+			loads[i] = 0;
+			updaters.get(i).indices.clear();
+		}
+
+		for (int i = 0; i < size; i++) {
+			subtreeSizeItems[i] = 0;
+		}
+
+		for (int i = 0; i < size; i++) {
+			int parentIndex = TransformData.parent.get(data.get(i, cursor));
+			int root = parentIndex < 0 ? i : rootItems[parentIndex];
+			rootItems[i] = root;
+			subtreeSizeItems[root]++;
+		}
+
+		for (int i = 0; i < size; i++) {
+			if (rootItems[i] != i) {
+				continue;
+			}
+
+			int leastLoaded = 0;
+			for (int j = 1; j < updatersSize; j++) {
+				if (loads[j] < loads[leastLoaded]) {
+					leastLoaded = j;
+				}
+			}
+
+			rootUpdaterItems[i] = leastLoaded;
+			loads[leastLoaded] += subtreeSizeItems[i];
+		}
+
+		for (int i = 0; i < size; i++) {
+			updaters.get(rootUpdaterItems[rootItems[i]]).indices.add(i);
+		}
+	}
+
+	private void updateOrder() {
+		if (!orderDirty) {
+			return;
+		}
+
+		orderDirty = false;
+		unsortedComponents.clear();
+		depths.clear();
+		int maxDepth = 0;
+
+		for (int i = 0, n = components.size; i < n; i++) {
+			TransformComponent component = components.get(i);
+			if (component != null) {
+				maxDepth = Math.max(maxDepth, appendComponent(component));
+			}
+		}
+
+		for (int i = 0, n = addedComponents.size; i < n; i++) {
+			maxDepth = Math.max(maxDepth, appendComponent(addedComponents.get(i)));
+		}
+		addedComponents.clear();
+
+		sortByDepth(maxDepth);
+		swapData.clear();
+
+		for (int i = 0, n = swapComponents.size; i < n; i++) {
+			TransformComponent component = swapComponents.get(i);
+			int oldIndex = component.transformIndex;
+			if (oldIndex < 0) {
+				TransformData slot = swapData.add();
+				component.storeLocalTransform(slot);
+				TransformData.flags.setFlags(slot, 0);
+				TransformData.flags.set(slot, TransformData.localDirtyFlag);
+				TransformData.worldVersion.set(slot, 0);
+				TransformData.parentWorldVersion.set(slot, 0);
+				TransformData.parent.set(slot, -1);
+			} else {
+				swapData.add(data.get(oldIndex));
+			}
+		}
+
+		for (int i = 0, n = swapComponents.size; i < n; i++) {
+			TransformComponent component = swapComponents.get(i);
+			TransformData slot = swapData.get(i);
+			int oldParentIndex = TransformData.parent.get(slot);
+			TransformComponent oldParent = component.transformIndex < 0 || oldParentIndex < 0 ? null
+					: components.get(oldParentIndex);
+			TransformComponent parent = component.getParentTransform();
+			if (parent != null && parent.transformSystem != this) {
+				parent = null;
+			}
+
+			if (parent != oldParent) {
+				TransformData.flags.set(slot, TransformData.localDirtyFlag);
+			}
+		}
+
+		for (int i = 0, n = swapComponents.size; i < n; i++) {
+			swapComponents.get(i).transformIndex = i;
+		}
+
+		for (int i = 0, n = swapComponents.size; i < n; i++) {
+			TransformComponent parent = swapComponents.get(i).getParentTransform();
+			int parentIndex = parent == null || parent.transformSystem != this ? -1 : parent.transformIndex;
+			TransformData.parent.set(swapData.get(i), parentIndex);
+		}
+
+		StructArray<TransformData> tempData = data;
+		data = swapData;
+		swapData = tempData;
+
+		Array<TransformComponent> tempComponents = components;
+		components = swapComponents;
+		swapComponents = tempComponents;
+		swapComponents.clear();
+		partitionDirty = true;
+	}
+
+	private int appendComponent(TransformComponent component) {
+		int depth = 0;
+		TransformComponent parent = component.getParentTransform();
+		while (parent != null && parent.transformSystem == this) {
+			depth++;
+			parent = parent.getParentTransform();
+		}
+
+		unsortedComponents.add(component);
+		depths.add(depth);
+		return depth;
+	}
+
+	private void sortByDepth(int maxDepth) {
+		depthOffsets.clear();
+		depthOffsets.setSize(maxDepth + 2);
+		int[] offsets = depthOffsets.items;
+		for (int i = 0; i < offsets.length; i++) {
+			offsets[i] = 0;
+		}
+
+		int[] depthItems = depths.items;
+		int size = unsortedComponents.size;
+		for (int i = 0; i < size; i++) {
+			offsets[depthItems[i] + 1]++;
+		}
+
+		for (int i = 1, n = maxDepth + 2; i < n; i++) {
+			offsets[i] += offsets[i - 1];
+		}
+
+		swapComponents.setSize(size);
+		for (int i = 0; i < size; i++) {
+			swapComponents.set(offsets[depthItems[i]]++, unsortedComponents.get(i));
+		}
+		unsortedComponents.clear();
+	}
+
+	/**
+	 * Recomputes world transforms of assigned slots. All slots of one root subtree are assigned to the same updater in
+	 * depth order, so updaters can run concurrently without synchronization.
+	 */
+	private class TransformUpdater implements AsyncTask<Void> {
+		final IntArray indices = new IntArray();
+		final Array<TransformComponent> changed = new Array<TransformComponent>();
+
+		private final TransformData cursor = data.newStruct(0);
+		private final TransformData parentCursor = data.newStruct(0);
+		private final Vector3 tempTranslation = new Vector3();
+		private final Quaternion tempRotation = new Quaternion();
+		private final Vector3 tempScale = new Vector3();
+		private final Matrix4 tempTransform = new Matrix4();
+		private final Matrix4 tempParentTransform = new Matrix4();
+
+		@Override
+		public Void call() {
+			int[] items = indices.items;
+			for (int i = 0, n = indices.size; i < n; i++) {
+				update(items[i]);
+			}
+			return null;
+		}
+
+		void update(int index) {
+			data.get(index, cursor);
+			int parentIndex = TransformData.parent.get(cursor);
+			boolean localDirty = TransformData.flags.isSet(cursor, TransformData.localDirtyFlag);
+			int parentWorldVersion = 0;
+			boolean parentChanged = false;
+
+			if (parentIndex >= 0) {
+				data.get(parentIndex, parentCursor);
+				parentWorldVersion = TransformData.worldVersion.get(parentCursor);
+				parentChanged = parentWorldVersion != TransformData.parentWorldVersion.get(cursor);
+			}
+
+			if (!localDirty && !parentChanged) {
+				return;
+			}
+
+			TransformData.translation.get(cursor, tempTranslation);
+			TransformData.rotation.get(cursor, tempRotation);
+			TransformData.scale.get(cursor, tempScale);
+			tempTransform.set(tempTranslation, tempRotation, tempScale);
+
+			if (parentIndex >= 0) {
+				TransformData.worldTransform.get(parentCursor, tempParentTransform);
+				tempTransform.mulLeft(tempParentTransform);
+				TransformData.parentWorldVersion.set(cursor, parentWorldVersion);
+			}
+
+			TransformData.worldTransform.set(cursor, tempTransform);
+			TransformData.worldVersion.set(cursor, TransformData.worldVersion.get(cursor) + 1);
+			TransformData.flags.unset(cursor, TransformData.localDirtyFlag);
+
+			if (parentChanged && !TransformData.flags.isSet(cursor, TransformData.changeQueuedFlag)) {
+				TransformData.flags.set(cursor, TransformData.changeQueuedFlag);
+				changed.add(components.get(index));
+			}
+		}
+
+		void notifyChanged() {
+			while (changed.size > 0) {
+				TransformComponent component = changed.pop();
+				TransformData.flags.unset(data.get(component.transformIndex, cursor), TransformData.changeQueuedFlag);
+				component.worldTransformChanged();
+			}
+		}
+
+		void reset() {
+			indices.clear();
+			changed.clear();
+		}
+	}
+}
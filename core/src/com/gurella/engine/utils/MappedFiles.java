@@ -0,0 +1,197 @@
+package com.gurella.engine.utils;
+
+import java.nio.ByteBuffer;
+
+import com.badlogic.gdx.Files.FileType;
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.utils.reflect.Field;
+import com.badlogic.gdx.utils.reflect.Method;
+
+/**
+ * Maps files into memory with {@code FileChannel.map} where the platform supports it. File channels are accessed
+ * through reflection so the class also compiles for GWT. Android internal files are mapped through their
+ * {@code AssetFileDescriptor}, which is only available for assets stored uncompressed in the APK, so large files like
+ * assets packs should be excluded from compression ({@code aaptOptions.noCompress}). Compressed Android assets,
+ * classpath files and files on GWT are read into a heap buffer instead.
+ */
+public class MappedFiles {
+	private static final Class<?> randomAccessFileType = Reflection.forNameSilently("java.io.RandomAccessFile");
+	private static final Class<?> fileChannelType = Reflection.forNameSilently("java.nio.channels.FileChannel");
+	private static final Class<?> mapModeType = Reflection.forNameSilently("java.nio.channels.FileChannel$MapMode");
+	private static final Class<?> fileInputStreamType = Reflection.forNameSilently("java.io.FileInputStream");
+	private static final Class<?> fileDescriptorType = Reflection.forNameSilently("java.io.FileDescriptor");
+	private static final Class<?> assetFileDescriptorType = Reflection
+			.forNameSilently("android.content.res.AssetFileDescriptor");
+	private static final Class<?> unsafeType = Reflection.forNameSilently("sun.misc.Unsafe");
+
+	private MappedFiles() {
+	}
+
+	public static ByteBuffer map(FileHandle file) {
+		ByteBuffer buffer = null;
+		if (isMappable(file)) {
+			buffer = mapSilently(file);
+		} else if (isAndroidAsset(file)) {
+			buffer = mapAssetSilently(file);
+		}
+		return buffer == null ? ByteBuffer.wrap(file.readBytes()) : buffer;
+	}
+
+	/**
+	 * Releases the mapping of the buffer returned by {@link #map(FileHandle)} without waiting for the buffer to be
+	 * garbage collected, so the file can be deleted or replaced. Buffer must not be used afterwards. Does nothing for
+	 * heap buffers and on platforms that can't release mappings explicitly.
+	 */
+	public static void unmap(ByteBuffer buffer) {
+		if (buffer == null || !buffer.isDirect()) {
+			return;
+		}
+
+		if (!invokeCleanerSilently(buffer)) {
+			cleanSilently(buffer);
+		}
+	}
+
+	/**
+	 * Java 9 and later: {@code Unsafe.invokeCleaner(buffer)}
+	 */
+	private static boolean invokeCleanerSilently(ByteBuffer buffer) {
+		Method invokeCleaner = unsafeType == null ? null
+				: Reflection.getMethodSilently(unsafeType, "invokeCleaner", ByteBuffer.class);
+		Field theUnsafe = invokeCleaner == null ? null : Reflection.getDeclaredFieldSilently(unsafeType, "theUnsafe");
+		if (theUnsafe == null) {
+			return false;
+		}
+
+		try {
+			theUnsafe.setAccessible(true);
+			invokeCleaner.invoke(theUnsafe.get(null), buffer);
+			return true;
+		} catch (Exception e) {
+			return false;
+		}
+	}
+
+	/**
+	 * Before Java 9: {@code ((DirectBuffer) buffer).cleaner().clean()}
+	 */
+	private static void cleanSilently(ByteBuffer buffer) {
+		Method cleanerMethod = Reflection.getMethodSilently(buffer.getClass(), "cleaner");
+		if (cleanerMethod == null) {
+			return;
+		}
+
+		try {
+			cleanerMethod.setAccessible(true);
+			Object cleaner = cleanerMethod.invoke(buffer);
+			if (cleaner != null) {
+				invokeSilently(cleaner, "clean");
+			}
+		} catch (Exception e) {
+			return;
+		}
+	}
+
+	private static boolean isMappable(FileHandle file) {
+		return randomAccessFileType != null && fileChannelType != null && mapModeType != null
+				&& file.type() != FileType.Classpath && file.file().isFile();
+	}
+
+	private static boolean isAndroidAsset(FileHandle file) {
+		return assetFileDescriptorType != null && fileInputStreamType != null && fileChannelType != null
+				&& mapModeType != null && file.type() == FileType.Internal;
+	}
+
+	/**
+	 * Maps the region of the APK that holds the uncompressed asset. Returns null for compressed assets, which have no
+	 * file descriptor.
+	 */
+	private static ByteBuffer mapAssetSilently(FileHandle file) {
+		Object descriptor = openAssetFileDescriptor(file);
+		if (descriptor == null) {
+			return null;
+		}
+
+		Object input = null;
+		try {
+			Object fileDescriptor = invoke(descriptor, "getFileDescriptor");
+			long offset = ((Long) invoke(descriptor, "getStartOffset")).longValue();
+			long length = ((Long) invoke(descriptor, "getLength")).longValue();
+			if (length < 0) {
+				return null;
+			}
+
+			input = Reflection.newInstance(fileInputStreamType, fileDescriptorType, fileDescriptor);
+			Object channel = invoke(input, "getChannel");
+			Object readOnly = Reflection.getFieldValue(Reflection.getField(mapModeType, "READ_ONLY"), null);
+			Method map = Reflection.getMethod(fileChannelType, "map", mapModeType, long.class, long.class);
+			return Reflection.invokeMethod(map, channel, readOnly, Long.valueOf(offset), Long.valueOf(length));
+		} catch (Exception e) {
+			return null;
+		} finally {
+			// mapping stays valid after the descriptor is closed
+			if (input != null) {
+				invokeSilently(input, "close");
+			}
+			invokeSilently(descriptor, "close");
+		}
+	}
+
+	private static Object openAssetFileDescriptor(FileHandle file) {
+		Method getAssetFileDescriptor = Reflection.getMethodSilently(file.getClass(), "getAssetFileDescriptor");
+		if (getAssetFileDescriptor != null) {
+			return Reflection.invokeMethodSilently(getAssetFileDescriptor, file);
+		}
+
+		// older backends: AndroidFileHandle.assets.openFd(path)
+		Field assetsField = Reflection.getDeclaredFieldSilently(file.getClass(), "assets");
+		if (assetsField == null) {
+			return null;
+		}
+
+		Object assets;
+		try {
+			assetsField.setAccessible(true);
+			assets = assetsField.get(file);
+		} catch (Exception e) {
+			return null;
+		}
+
+		Method openFd = assets == null ? null : Reflection.getMethodSilently(assets.getClass(), "openFd", String.class);
+		return openFd == null ? null : Reflection.invokeMethodSilently(openFd, assets, file.path());
+	}
+
+	private static Object invoke(Object object, String methodName) {
+		return Reflection.invokeMethod(Reflection.getMethod(object.getClass(), methodName), object);
+	}
+
+	private static void invokeSilently(Object object, String methodName) {
+		Method method = Reflection.getMethodSilently(object.getClass(), methodName);
+		if (method != null) {
+			Reflection.invokeMethodSilently(method, object);
+		}
+	}
+
+	private static ByteBuffer mapSilently(FileHandle file) {
+		Object randomAccessFile = Reflection.newInstanceSilently(randomAccessFileType,
+				new Class<?>[] { String.class, String.class }, file.file().getPath(), "r");
+		if (randomAccessFile == null) {
+			return null;
+		}
+
+		try {
+			Method getChannel = Reflection.getMethod(randomAccessFileType, "getChannel");
+			Object channel = Reflection.invokeMethod(getChannel, randomAccessFile);
+			Object readOnly = Reflection.getFieldValue(Reflection.getField(mapModeType, "READ_ONLY"), null);
+			Method map = Reflection.getMethod(fileChannelType, "map", mapModeType, long.class, long.class);
+			return Reflection.invokeMethod(map, channel, readOnly, Long.valueOf(0), Long.valueOf(file.length()));
+		} catch (Exception e) {
+			return null;
+		} finally {
+			Method close = Reflection.getMethodSilently(randomAccessFileType, "close");
+			if (close != null) {
+				Reflection.invokeMethodSilently(close, randomAccessFile);
+			}
+		}
+	}
+}
@@ -0,0 +1,219 @@
+package com.gurella.engine.asset;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import com.badlogic.gdx.Application;
+import com.badlogic.gdx.Files.FileType;
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.files.FileHandle;
+import com.gurella.engine.asset.descriptor.AssetDescriptor;
+import com.gurella.engine.asset.descriptor.AssetDescriptors;
+import com.gurella.engine.asset.loader.AssetLoader;
+import com.gurella.engine.asset.loader.AssetProperties;
+import com.gurella.engine.asset.loader.ConcurrentAssetLoader;
+import com.gurella.engine.asset.loader.DependencyCollector;
+import com.gurella.engine.asset.loader.DependencySupplier;
+import com.gurella.engine.asset.resolver.FileHandleFactory;
+import com.gurella.engine.asset.resolver.FileHandleResolver;
+import com.gurella.engine.async.AsyncCallback;
+import com.gurella.engine.utils.factory.ReflectionFactory;
+
+public class AssetLoadingExecutorTest {
+	private static final int dependencies = 4;
+
+	private AssetsManager manager;
+
+	@BeforeClass
+	public static void registerDescriptors() {
+		AssetDescriptor<TestAsset> descriptor = new AssetDescriptor<TestAsset>(TestAsset.class, false, false);
+		descriptor.registerLoaderFactory(new ReflectionFactory<TestAssetLoader>(TestAssetLoader.class), "tpa");
+		AssetDescriptors.register(descriptor);
+		AssetDescriptor<TestDependency> dependencyDescriptor = new AssetDescriptor<TestDependency>(
+				TestDependency.class, false, false);
+		dependencyDescriptor.registerLoaderFactory(
+				new ReflectionFactory<TestDependencyLoader>(TestDependencyLoader.class), "tpd");
+		AssetDescriptors.register(dependencyDescriptor);
+	}
+
+	@Before
+	public void setUp() {
+		Gdx.app = (Application) Proxy.newProxyInstance(Application.class.getClassLoader(),
+				new Class<?>[] { Application.class }, new InvocationHandler() {
+					@Override
+					public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+						String name = method.getName();
+						if ("hashCode".equals(name)) {
+							return Integer.valueOf(System.identityHashCode(proxy));
+						} else if ("equals".equals(name)) {
+							return Boolean.valueOf(proxy == args[0]);
+						}
+						return null;
+					}
+				});
+
+		manager = new AssetsManager();
+		manager.registerResolver(new TestResolver());
+	}
+
+	@After
+	public void tearDown() {
+		manager.executor.dispose();
+	}
+
+	@Test
+	public void testCallbacksOnUpdateThread() {
+		manager.setLoadingThreads(4);
+		RecordingCallback callback = new RecordingCallback();
+		for (int i = 0; i < 16; i++) {
+			manager.loadAsync(callback, "asset" + i + ".tpa", FileType.Internal, TestAsset.class, 0);
+		}
+		manager.finishLoading();
+
+		assertEquals(16, callback.successes.get());
+		assertEquals(0, callback.foreignThreadCalls.get());
+		assertEquals(0, callback.concurrentCalls.get());
+	}
+
+	@Test
+	public void testRetiredExecutorsDisposed() throws InterruptedException {
+		manager.setLoadingThreads(3);
+		RecordingCallback callback = new RecordingCallback();
+		for (int i = 0; i < 8; i++) {
+			manager.loadAsync(callback, "first" + i + ".tpa", FileType.Internal, TestAsset.class, 0);
+		}
+		manager.setLoadingThreads(2);
+		for (int i = 0; i < 8; i++) {
+			manager.loadAsync(callback, "second" + i + ".tpa", FileType.Internal, TestAsset.class, 0);
+		}
+		manager.setLoadingThreads(1);
+		for (int i = 0; i < 8; i++) {
+			manager.loadAsync(callback, "third" + i + ".tpa", FileType.Internal, TestAsset.class, 0);
+		}
+		manager.finishLoading();
+		assertEquals(24, callback.successes.get());
+
+		// idle retired executors are disposed by the next update
+		Thread.sleep(50);
+		manager.update();
+		assertEquals(1, manager.executor.getLiveExecutors());
+	}
+
+	private static class RecordingCallback implements AsyncCallback<Object> {
+		final Thread updateThread = Thread.currentThread();
+		final AtomicInteger active = new AtomicInteger();
+		final AtomicInteger concurrentCalls = new AtomicInteger();
+		final AtomicInteger foreignThreadCalls = new AtomicInteger();
+		final AtomicInteger successes = new AtomicInteger();
+
+		private void enter() {
+			if (active.incrementAndGet() > 1) {
+				concurrentCalls.incrementAndGet();
+			}
+			if (Thread.currentThread() != updateThread) {
+				foreignThreadCalls.incrementAndGet();
+			}
+		}
+
+		@Override
+		public void onSuccess(Object value) {
+			enter();
+			successes.incrementAndGet();
+			active.decrementAndGet();
+		}
+
+		@Override
+		public void onException(Throwable exception) {
+			throw new AssertionError(exception);
+		}
+
+		@Override
+		public void onCanceled(String message) {
+			throw new AssertionError(message);
+		}
+
+		@Override
+		public void onProgress(float progress) {
+			enter();
+			Thread.yield();
+			active.decrementAndGet();
+		}
+	}
+
+	private static class TestAsset {
+	}
+
+	private static class TestDependency {
+	}
+
+	private static class TestResolver implements FileHandleResolver {
+		@Override
+		public boolean accepts(AssetId assetId) {
+			return true;
+		}
+
+		@Override
+		public FileHandle resolve(FileHandleFactory factory, AssetId assetId) {
+			return new FileHandle(assetId.fileName);
+		}
+	}
+
+	private static class TestAssetLoader implements AssetLoader<TestAsset, AssetProperties>, ConcurrentAssetLoader {
+		@Override
+		public Class<AssetProperties> getPropertiesType() {
+			return null;
+		}
+
+		@Override
+		public void initDependencies(DependencyCollector collector, FileHandle assetFile) {
+			for (int i = 0; i < dependencies; i++) {
+				collector.collectDependency(assetFile.nameWithoutExtension() + "-" + i + ".tpd", FileType.Internal,
+						TestDependency.class);
+			}
+		}
+
+		@Override
+		public void processAsync(DependencySupplier supplier, FileHandle assetFile, AssetProperties properties) {
+			for (int i = 0; i < dependencies; i++) {
+				supplier.getDependency(assetFile.nameWithoutExtension() + "-" + i + ".tpd", FileType.Internal,
+						TestDependency.class, null);
+			}
+		}
+
+		@Override
+		public TestAsset finish(DependencySupplier supplier, FileHandle assetFile, AssetProperties properties) {
+			return new TestAsset();
+		}
+	}
+
+	private static class TestDependencyLoader implements AssetLoader<TestDependency, AssetProperties> {
+		@Override
+		public Class<AssetProperties> getPropertiesType() {
+			return null;
+		}
+
+		@Override
+		public void initDependencies(DependencyCollector collector, FileHandle assetFile) {
+		}
+
+		@Override
+		public void processAsync(DependencySupplier supplier, FileHandle assetFile, AssetProperties properties) {
+			Thread.yield();
+		}
+
+		@Override
+		public TestDependency finish(DependencySupplier supplier, FileHandle assetFile, AssetProperties properties) {
+			return new TestDependency();
+		}
+	}
+}
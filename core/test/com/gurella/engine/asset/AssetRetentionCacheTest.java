@@ -0,0 +1,293 @@
+package com.gurella.engine.asset;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import com.badlogic.gdx.Application;
+import com.badlogic.gdx.Files.FileType;
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.graphics.GL20;
+import com.badlogic.gdx.utils.Disposable;
+import com.badlogic.gdx.utils.GdxNativesLoader;
+import com.gurella.engine.asset.descriptor.AssetDescriptor;
+import com.gurella.engine.asset.descriptor.AssetDescriptors;
+import com.gurella.engine.asset.loader.AssetLoader;
+import com.gurella.engine.asset.loader.AssetProperties;
+import com.gurella.engine.asset.loader.DependencyCollector;
+import com.gurella.engine.asset.loader.DependencySupplier;
+import com.gurella.engine.asset.resolver.FileHandleFactory;
+import com.gurella.engine.asset.resolver.FileHandleResolver;
+import com.gurella.engine.managedobject.ManagedObject;
+import com.gurella.engine.utils.factory.ReflectionFactory;
+
+public class AssetRetentionCacheTest {
+	private static FileHandle root;
+	private static int resourceLoads;
+	private static int sceneLoads;
+
+	@BeforeClass
+	public static void setUpClass() {
+		// AssetService creates placeholder textures and pixmaps
+		GdxNativesLoader.load();
+		Gdx.app = stub(Application.class);
+		Gdx.gl = Gdx.gl20 = stub(GL20.class);
+
+		AssetDescriptor<TestResource> resource = new AssetDescriptor<TestResource>(TestResource.class, false, false);
+		resource.registerLoaderFactory(new ReflectionFactory<TestResourceLoader>(TestResourceLoader.class), "tres");
+		AssetDescriptors.register(resource.setRetainable(true));
+
+		// even when descriptor opts in, managed objects are never retained
+		AssetDescriptor<TestScene> scene = new AssetDescriptor<TestScene>(TestScene.class, false, false);
+		scene.registerLoaderFactory(new ReflectionFactory<TestSceneLoader>(TestSceneLoader.class), "tscn");
+		AssetDescriptors.register(scene.setRetainable(true));
+
+		AssetDescriptors.register(new AssetDescriptor<TestState>(TestState.class, false, false));
+	}
+
+	private static <T> T stub(Class<T> type) {
+		Object stub = Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] { type }, new InvocationHandler() {
+			@Override
+			public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+				Class<?> returnType = method.getReturnType();
+				if ("hashCode".equals(method.getName())) {
+					return Integer.valueOf(System.identityHashCode(proxy));
+				} else if ("equals".equals(method.getName())) {
+					return Boolean.valueOf(proxy == args[0]);
+				} else if ("postRunnable".equals(method.getName())) {
+					((Runnable) args[0]).run();
+				} else if (returnType == int.class) {
+					return Integer.valueOf(0);
+				} else if (returnType == long.class) {
+					return Long.valueOf(0);
+				} else if (returnType == boolean.class) {
+					return Boolean.FALSE;
+				}
+				return null;
+			}
+		});
+		return type.cast(stub);
+	}
+
+	@Before
+	public void setUp() throws IOException {
+		File file = File.createTempFile("retention", "test");
+		file.delete();
+		root = new FileHandle(file);
+		root.mkdirs();
+		resourceLoads = 0;
+		sceneLoads = 0;
+	}
+
+	@After
+	public void tearDown() {
+		root.deleteDirectory();
+	}
+
+	private static AssetId createId(String fileName, Class<?> assetType, int size) {
+		FileHandle file = root.child(fileName);
+		file.writeBytes(new byte[size], false);
+		AssetId id = new AssetId().set(file.path(), FileType.Absolute, assetType);
+		id.file = file;
+		return id;
+	}
+
+	@Test
+	public void testRetainReviveEvict() {
+		AssetRegistry registry = new AssetRegistry();
+		registry.retentionCache.setBudget(100);
+		AssetRetentionCache cache = registry.retentionCache;
+
+		AssetId id1 = createId("1.tres", TestResource.class, 40);
+		AssetId id2 = createId("2.tres", TestResource.class, 40);
+		AssetId id3 = createId("3.tres", TestResource.class, 40);
+		TestResource resource1 = new TestResource();
+		TestResource resource2 = new TestResource();
+		TestResource resource3 = new TestResource();
+		registry.add(id1, resource1);
+		registry.add(id2, resource2);
+		registry.add(id3, resource3);
+
+		// unreferenced resources stay loaded while they fit the budget
+		assertEquals(UnloadResult.unloaded, registry.unload(resource1));
+		assertEquals(UnloadResult.unloaded, registry.unload(resource2));
+		assertTrue(registry.isLoaded(id1));
+		assertTrue(registry.isLoaded(id2));
+		assertEquals(2, cache.getCount());
+		assertEquals(80, cache.getSize());
+		assertEquals(80, cache.getSize(TestResource.class));
+
+		// loading retained resource revives the same instance
+		assertSame(resource1, registry.getLoaded(id1, null));
+		assertEquals(1, cache.getHits());
+		assertEquals(1, cache.getCount());
+		assertEquals(40, cache.getSize());
+		assertFalse(resource1.disposed);
+
+		// resource2 is now least recently released and is evicted when budget is exceeded
+		registry.unload(resource3);
+		registry.unload(resource1);
+		assertEquals(120, cache.getSize());
+		registry.evictRetained(false);
+		assertEquals(1, cache.getEvictions());
+		assertEquals(80, cache.getSize());
+		assertFalse(registry.isLoaded(id2));
+		assertTrue(resource2.disposed);
+		assertTrue(registry.isLoaded(id3));
+		assertTrue(registry.isLoaded(id1));
+
+		registry.evictRetained(true);
+		assertEquals(0, cache.getCount());
+		assertEquals(0, cache.getSize());
+		assertFalse(registry.isLoaded(id1));
+		assertFalse(registry.isLoaded(id3));
+		assertTrue(resource1.disposed);
+		assertTrue(resource3.disposed);
+	}
+
+	@Test
+	public void testOnlyRetainableAssetsAreRetained() {
+		AssetRegistry registry = new AssetRegistry();
+		registry.retentionCache.setBudget(1000);
+
+		AssetId stateId = createId("state.tstate", TestState.class, 10);
+		TestState state = new TestState();
+		registry.add(stateId, state);
+		registry.unload(state);
+		assertFalse(registry.isLoaded(stateId));
+		assertTrue(state.disposed);
+
+		AssetId bigId = createId("big.tres", TestResource.class, 2000);
+		TestResource big = new TestResource();
+		registry.add(bigId, big);
+		registry.unload(big);
+		assertFalse(registry.isLoaded(bigId));
+		assertTrue(big.disposed);
+
+		assertFalse(AssetRetentionCache.isRetainable(new TestScene()));
+		assertEquals(0, registry.retentionCache.getCount());
+	}
+
+	@Test
+	public void testDestroyedSceneIsReloaded() {
+		FileHandleResolver resolver = new TestResolver();
+		AssetService.registerResolver(resolver);
+		AssetService.setRetentionBudget(1000);
+		try {
+			String sceneFileName = createId("level.tscn", TestScene.class, 10).fileName;
+			String resourceFileName = createId("level.tres", TestResource.class, 10).fileName;
+
+			TestScene scene = AssetService.load(sceneFileName, FileType.Absolute, TestScene.class);
+			TestResource resource = AssetService.load(resourceFileName, FileType.Absolute, TestResource.class);
+			assertEquals(1, sceneLoads);
+			assertEquals(1, resourceLoads);
+
+			scene.destroy();
+			AssetService.unload(resource);
+			assertFalse(AssetService.isLoaded(sceneFileName, FileType.Absolute, TestScene.class));
+			assertTrue(AssetService.isLoaded(resourceFileName, FileType.Absolute, TestResource.class));
+
+			TestScene reloadedScene = AssetService.load(sceneFileName, FileType.Absolute, TestScene.class);
+			assertNotSame(scene, reloadedScene);
+			assertEquals(2, sceneLoads);
+			assertSame(resource, AssetService.load(resourceFileName, FileType.Absolute, TestResource.class));
+			assertEquals(1, resourceLoads);
+
+			reloadedScene.destroy();
+			AssetService.unload(resource);
+		} finally {
+			AssetService.evictRetained();
+			AssetService.setRetentionBudget(0);
+			AssetService.unregisterResolver(resolver);
+		}
+	}
+
+	private static class TestResource implements Disposable {
+		boolean disposed;
+
+		@Override
+		public void dispose() {
+			disposed = true;
+		}
+	}
+
+	private static class TestState implements Disposable {
+		boolean disposed;
+
+		@Override
+		public void dispose() {
+			disposed = true;
+		}
+	}
+
+	private static class TestScene extends ManagedObject {
+	}
+
+	private static class TestResolver implements FileHandleResolver {
+		@Override
+		public boolean accepts(AssetId assetId) {
+			return assetId.fileName.startsWith(root.path());
+		}
+
+		@Override
+		public FileHandle resolve(FileHandleFactory factory, AssetId assetId) {
+			return new FileHandle(assetId.fileName);
+		}
+	}
+
+	private static class TestResourceLoader implements AssetLoader<TestResource, AssetProperties> {
+		@Override
+		public Class<AssetProperties> getPropertiesType() {
+			return null;
+		}
+
+		@Override
+		public void initDependencies(DependencyCollector collector, FileHandle assetFile) {
+		}
+
+		@Override
+		public void processAsync(DependencySupplier supplier, FileHandle assetFile, AssetProperties properties) {
+		}
+
+		@Override
+		public TestResource finish(DependencySupplier supplier, FileHandle assetFile, AssetProperties properties) {
+			resourceLoads++;
+			return new TestResource();
+		}
+	}
+
+	private static class TestSceneLoader implements AssetLoader<TestScene, AssetProperties> {
+		@Override
+		public Class<AssetProperties> getPropertiesType() {
+			return null;
+		}
+
+		@Override
+		public void initDependencies(DependencyCollector collector, FileHandle assetFile) {
+		}
+
+		@Override
+		public void processAsync(DependencySupplier supplier, FileHandle assetFile, AssetProperties properties) {
+		}
+
+		@Override
+		public TestScene finish(DependencySupplier supplier, FileHandle assetFile, AssetProperties properties) {
+			sceneLoads++;
+			return new TestScene();
+		}
+	}
+}
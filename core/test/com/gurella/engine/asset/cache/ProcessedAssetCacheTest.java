@@ -0,0 +1,139 @@
+package com.gurella.engine.asset.cache;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.nio.ByteBuffer;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.badlogic.gdx.Application;
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.files.FileHandle;
+
+public class ProcessedAssetCacheTest {
+	private FileHandle root;
+	private FileHandle directory;
+
+	@Before
+	public void setUp() throws IOException {
+		Gdx.app = (Application) Proxy.newProxyInstance(Application.class.getClassLoader(),
+				new Class<?>[] { Application.class }, new InvocationHandler() {
+					@Override
+					public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+						String name = method.getName();
+						if ("hashCode".equals(name)) {
+							return Integer.valueOf(System.identityHashCode(proxy));
+						} else if ("equals".equals(name)) {
+							return Boolean.valueOf(proxy == args[0]);
+						}
+						return null;
+					}
+				});
+
+		File file = File.createTempFile("cache", "test");
+		file.delete();
+		root = new FileHandle(file);
+		root.mkdirs();
+		directory = root.child("cache");
+		ProcessedAssetCache.setDirectory(directory);
+		ProcessedAssetCache.resetStats();
+	}
+
+	@After
+	public void tearDown() {
+		ProcessedAssetCache.setDirectory(null);
+		ProcessedAssetCache.setMaxSize(ProcessedAssetCache.defaultMaxSize);
+		root.deleteDirectory();
+	}
+
+	private static String entryKey(char hash) {
+		StringBuilder builder = new StringBuilder();
+		for (int i = 0; i < 40; i++) {
+			builder.append(hash);
+		}
+		return builder.append(".test").toString();
+	}
+
+	@Test
+	public void testUnchangedSourceIsNotHashed() {
+		FileHandle source = root.child("source.txt");
+		source.writeString("abc", false);
+		long modified = source.lastModified();
+		String key = ProcessedAssetCache.getKey(source, "test", "variant");
+		assertNotNull(key);
+		assertFalse(key.equals(ProcessedAssetCache.getKey(source, "test", "other")));
+
+		// same size and modification time: key comes from the source index
+		source.writeString("xyz", false);
+		source.file().setLastModified(modified);
+		assertEquals(key, ProcessedAssetCache.getKey(source, "test", "variant"));
+
+		source.file().setLastModified(modified + 2000);
+		String changedKey = ProcessedAssetCache.getKey(source, "test", "variant");
+		assertFalse(key.equals(changedKey));
+
+		// index is persisted in the cache directory
+		ProcessedAssetCache.setDirectory(directory);
+		source.writeString("abc", false);
+		source.file().setLastModified(modified + 2000);
+		assertEquals(changedKey, ProcessedAssetCache.getKey(source, "test", "variant"));
+	}
+
+	@Test
+	public void testLeastRecentlyUsedEntriesArePruned() {
+		ProcessedAssetCache.setMaxSize(30);
+		byte[] data = new byte[10];
+		ProcessedAssetCache.write(entryKey('a'), data);
+		ProcessedAssetCache.write(entryKey('b'), data);
+		ProcessedAssetCache.write(entryKey('c'), data);
+		assertEquals(30, ProcessedAssetCache.getSize());
+
+		ProcessedAssetCache.release(ProcessedAssetCache.read(entryKey('a')));
+		ProcessedAssetCache.write(entryKey('d'), data);
+
+		assertEquals(30, ProcessedAssetCache.getSize());
+		assertTrue(directory.child(entryKey('a')).exists());
+		assertFalse(directory.child(entryKey('b')).exists());
+		assertTrue(directory.child(entryKey('c')).exists());
+		assertTrue(directory.child(entryKey('d')).exists());
+
+		// usage order survives restart through modification times
+		ProcessedAssetCache.setDirectory(directory);
+		directory.child(entryKey('c')).file().setLastModified(System.currentTimeMillis() - 10000);
+		ProcessedAssetCache.write(entryKey('e'), data);
+		assertFalse(directory.child(entryKey('c')).exists());
+		assertTrue(directory.child(entryKey('e')).exists());
+	}
+
+	@Test
+	public void testReadAndRelease() {
+		String key = entryKey('f');
+		assertNull(ProcessedAssetCache.read(key));
+		ProcessedAssetCache.write(key, new byte[] { 1, 2, 3 });
+
+		ByteBuffer buffer = ProcessedAssetCache.read(key);
+		assertNotNull(buffer);
+		assertEquals(3, buffer.remaining());
+		assertEquals(2, buffer.get(1));
+		ProcessedAssetCache.release(buffer);
+
+		assertEquals(1, ProcessedAssetCache.getHits());
+		assertEquals(1, ProcessedAssetCache.getMisses());
+		assertEquals(1, ProcessedAssetCache.getWrites());
+
+		ProcessedAssetCache.clear();
+		assertEquals(0, ProcessedAssetCache.getSize());
+		assertFalse(directory.child(key).exists());
+	}
+}
@@ -0,0 +1,149 @@
+package com.gurella.engine.asset.loader.model;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+import java.nio.ByteBuffer;
+
+import org.junit.Test;
+
+import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.graphics.GL20;
+import com.badlogic.gdx.graphics.VertexAttribute;
+import com.badlogic.gdx.graphics.g3d.model.data.ModelAnimation;
+import com.badlogic.gdx.graphics.g3d.model.data.ModelData;
+import com.badlogic.gdx.graphics.g3d.model.data.ModelMaterial;
+import com.badlogic.gdx.graphics.g3d.model.data.ModelMesh;
+import com.badlogic.gdx.graphics.g3d.model.data.ModelMeshPart;
+import com.badlogic.gdx.graphics.g3d.model.data.ModelNode;
+import com.badlogic.gdx.graphics.g3d.model.data.ModelNodeAnimation;
+import com.badlogic.gdx.graphics.g3d.model.data.ModelNodeKeyframe;
+import com.badlogic.gdx.graphics.g3d.model.data.ModelNodePart;
+import com.badlogic.gdx.graphics.g3d.model.data.ModelTexture;
+import com.badlogic.gdx.math.Matrix4;
+import com.badlogic.gdx.math.Quaternion;
+import com.badlogic.gdx.math.Vector2;
+import com.badlogic.gdx.math.Vector3;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.ArrayMap;
+
+public class ModelDataCodecTest {
+	private static ModelData createModelData() {
+		ModelData data = new ModelData();
+		data.id = "model";
+		data.version[0] = 0;
+		data.version[1] = 1;
+
+		ModelMesh mesh = new ModelMesh();
+		mesh.id = "mesh";
+		mesh.attributes = new VertexAttribute[] { VertexAttribute.Position(), VertexAttribute.TexCoords(0) };
+		mesh.vertices = new float[] { 0, 0, 0, 0, 0, 1, 0, 0, 1, 0, 0, 1, 0, 0, 1 };
+		ModelMeshPart meshPart = new ModelMeshPart();
+		meshPart.id = "part";
+		meshPart.primitiveType = GL20.GL_TRIANGLES;
+		meshPart.indices = new short[] { 0, 1, 2 };
+		mesh.parts = new ModelMeshPart[] { meshPart };
+		data.meshes.add(mesh);
+
+		ModelMaterial material = new ModelMaterial();
+		material.id = "material";
+		material.type = ModelMaterial.MaterialType.Phong;
+		material.diffuse = new Color(0.5f, 0.25f, 1, 1);
+		material.shininess = 8;
+		material.opacity = 0.75f;
+		ModelTexture texture = new ModelTexture();
+		texture.id = "texture";
+		texture.fileName = "diffuse.png";
+		texture.uvTranslation = new Vector2(0.5f, 0);
+		texture.usage = ModelTexture.USAGE_DIFFUSE;
+		material.textures = new Array<ModelTexture>();
+		material.textures.add(texture);
+		data.materials.add(material);
+
+		ModelNode node = new ModelNode();
+		node.id = "node";
+		node.translation = new Vector3(1, 2, 3);
+		node.rotation = new Quaternion(0, 0, 0, 1);
+		ModelNodePart nodePart = new ModelNodePart();
+		nodePart.materialId = "material";
+		nodePart.meshPartId = "part";
+		nodePart.bones = new ArrayMap<String, Matrix4>();
+		nodePart.bones.put("bone", new Matrix4().setToTranslation(4, 5, 6));
+		nodePart.uvMapping = new int[][] { { 0 } };
+		node.parts = new ModelNodePart[] { nodePart };
+		ModelNode child = new ModelNode();
+		child.id = "child";
+		child.scale = new Vector3(2, 2, 2);
+		node.children = new ModelNode[] { child };
+		data.nodes.add(node);
+
+		ModelAnimation animation = new ModelAnimation();
+		animation.id = "animation";
+		ModelNodeAnimation nodeAnimation = new ModelNodeAnimation();
+		nodeAnimation.nodeId = "node";
+		nodeAnimation.translation = new Array<ModelNodeKeyframe<Vector3>>();
+		ModelNodeKeyframe<Vector3> keyframe = new ModelNodeKeyframe<Vector3>();
+		keyframe.keytime = 0.5f;
+		keyframe.value = new Vector3(7, 8, 9);
+		nodeAnimation.translation.add(keyframe);
+		animation.nodeAnimations.add(nodeAnimation);
+		data.animations.add(animation);
+
+		return data;
+	}
+
+	@Test
+	public void testRoundTrip() {
+		ModelData original = createModelData();
+		ModelData read = ModelDataCodec.read(ByteBuffer.wrap(ModelDataCodec.write(original)));
+		assertNotNull(read);
+		assertEquals(original.id, read.id);
+		assertEquals(original.version[1], read.version[1]);
+
+		ModelMesh mesh = read.meshes.get(0);
+		assertEquals(2, mesh.attributes.length);
+		assertEquals(VertexAttribute.TexCoords(0), mesh.attributes[1]);
+		assertArrayEquals(original.meshes.get(0).vertices, mesh.vertices, 0);
+		assertEquals("part", mesh.parts[0].id);
+		assertEquals(GL20.GL_TRIANGLES, mesh.parts[0].primitiveType);
+		assertArrayEquals(new short[] { 0, 1, 2 }, mesh.parts[0].indices);
+
+		ModelMaterial material = read.materials.get(0);
+		assertEquals(ModelMaterial.MaterialType.Phong, material.type);
+		assertEquals(new Color(0.5f, 0.25f, 1, 1), material.diffuse);
+		assertNull(material.ambient);
+		assertEquals(8, material.shininess, 0);
+		assertEquals(0.75f, material.opacity, 0);
+		ModelTexture texture = material.textures.get(0);
+		assertEquals("diffuse.png", texture.fileName);
+		assertEquals(new Vector2(0.5f, 0), texture.uvTranslation);
+		assertNull(texture.uvScaling);
+		assertEquals(ModelTexture.USAGE_DIFFUSE, texture.usage);
+
+		ModelNode node = read.nodes.get(0);
+		assertEquals(new Vector3(1, 2, 3), node.translation);
+		assertEquals(new Quaternion(0, 0, 0, 1), node.rotation);
+		assertNull(node.scale);
+		assertEquals("part", node.parts[0].meshPartId);
+		assertArrayEquals(new Matrix4().setToTranslation(4, 5, 6).val, node.parts[0].bones.get("bone").val, 0);
+		assertArrayEquals(new int[] { 0 }, node.parts[0].uvMapping[0]);
+		assertEquals("child", node.children[0].id);
+		assertEquals(new Vector3(2, 2, 2), node.children[0].scale);
+
+		ModelNodeAnimation nodeAnimation = read.animations.get(0).nodeAnimations.get(0);
+		assertEquals("node", nodeAnimation.nodeId);
+		assertEquals(0.5f, nodeAnimation.translation.get(0).keytime, 0);
+		assertEquals(new Vector3(7, 8, 9), nodeAnimation.translation.get(0).value);
+		assertNull(nodeAnimation.rotation);
+	}
+
+	@Test
+	public void testInvalidData() {
+		byte[] bytes = ModelDataCodec.write(createModelData());
+		assertNull(ModelDataCodec.read(ByteBuffer.wrap(bytes, 0, bytes.length - 1)));
+		bytes[0]++;
+		assertNull(ModelDataCodec.read(ByteBuffer.wrap(bytes)));
+	}
+}
@@ -0,0 +1,52 @@
+package com.gurella.engine.asset.loader.texture;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+import java.nio.ByteBuffer;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import com.badlogic.gdx.graphics.Pixmap;
+import com.badlogic.gdx.graphics.Pixmap.Format;
+import com.badlogic.gdx.utils.GdxNativesLoader;
+
+public class PixmapCacheCodecTest {
+	@BeforeClass
+	public static void loadNatives() {
+		GdxNativesLoader.load();
+	}
+
+	@Test
+	public void testRoundTrip() {
+		Pixmap original = new Pixmap(3, 2, Format.RGBA8888);
+		original.drawPixel(0, 0, 0xff0000ff);
+		original.drawPixel(2, 1, 0x00ff00ff);
+
+		Pixmap read = PixmapCacheCodec.read(ByteBuffer.wrap(PixmapCacheCodec.write(original)));
+		assertNotNull(read);
+		assertEquals(3, read.getWidth());
+		assertEquals(2, read.getHeight());
+		assertEquals(Format.RGBA8888, read.getFormat());
+		for (int x = 0; x < 3; x++) {
+			for (int y = 0; y < 2; y++) {
+				assertEquals(original.getPixel(x, y), read.getPixel(x, y));
+			}
+		}
+
+		original.dispose();
+		read.dispose();
+	}
+
+	@Test
+	public void testInvalidData() {
+		Pixmap original = new Pixmap(2, 2, Format.RGB888);
+		byte[] bytes = PixmapCacheCodec.write(original);
+		original.dispose();
+
+		assertNull(PixmapCacheCodec.read(ByteBuffer.wrap(bytes, 0, bytes.length - 1)));
+		assertNull(PixmapCacheCodec.read(ByteBuffer.wrap(new byte[4])));
+	}
+}
@@ -0,0 +1,144 @@
+package com.gurella.engine.asset.pack;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.util.Random;
+
+import org.junit.Test;
+
+import com.badlogic.gdx.Files.FileType;
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.utils.StreamUtils;
+import com.gurella.engine.asset.AssetId;
+import com.gurella.engine.asset.resolver.AssetsPackResolver;
+
+public class AssetsPackTest {
+	private static byte[] randomBytes(int size) {
+		byte[] bytes = new byte[size];
+		new Random(size).nextBytes(bytes);
+		return bytes;
+	}
+
+	private static byte[] repeatedBytes(int size) {
+		byte[] bytes = new byte[size];
+		for (int i = 0; i < size; i++) {
+			bytes[i] = (byte) (i % 7);
+		}
+		return bytes;
+	}
+
+	private static AssetsPack writeAndOpen(AssetsPackWriter writer) throws IOException {
+		File file = File.createTempFile("assets", ".gpak");
+		file.deleteOnExit();
+		FileHandle handle = new FileHandle(file);
+		writer.write(handle);
+		return AssetsPack.open(handle);
+	}
+
+	@Test
+	public void testReadBack() throws IOException {
+		byte[] stored = randomBytes(10000);
+		byte[] compressible = repeatedBytes(50000);
+		byte[] empty = new byte[0];
+
+		AssetsPackWriter writer = new AssetsPackWriter();
+		writer.add("textures/stored.png", stored, false);
+		writer.add("data\\compressed.txt", compressible, true);
+		writer.add("random.bin", randomBytes(2000), true);
+		writer.add("empty.bin", empty, true);
+		AssetsPack pack = writeAndOpen(writer);
+
+		assertEquals(4, pack.getEntryCount());
+		assertTrue(pack.contains("data/compressed.txt"));
+		assertFalse(pack.contains("missing.bin"));
+		assertEquals(-1, pack.indexOf("missing.bin"));
+
+		int storedEntry = pack.indexOf("textures/stored.png");
+		assertFalse(pack.isCompressed(storedEntry));
+		assertEquals(stored.length, pack.getSize(storedEntry));
+		assertArrayEquals(stored, pack.readBytes(storedEntry));
+		assertArrayEquals(stored, toBytes(pack.getData(storedEntry)));
+		assertArrayEquals(stored, StreamUtils.copyStreamToByteArray(pack.read(storedEntry)));
+
+		int compressedEntry = pack.indexOf("data/compressed.txt");
+		assertTrue(pack.isCompressed(compressedEntry));
+		assertEquals(compressible.length, pack.getSize(compressedEntry));
+		assertArrayEquals(compressible, pack.readBytes(compressedEntry));
+		assertArrayEquals(compressible, StreamUtils.copyStreamToByteArray(pack.read(compressedEntry)));
+
+		// random data doesn't deflate and is stored
+		assertFalse(pack.isCompressed(pack.indexOf("random.bin")));
+		assertArrayEquals(randomBytes(2000), pack.readBytes(pack.indexOf("random.bin")));
+		assertArrayEquals(empty, pack.readBytes(pack.indexOf("empty.bin")));
+	}
+
+	@Test
+	public void testSliceStream() throws IOException {
+		byte[] data = randomBytes(1000);
+		AssetsPack pack = writeAndOpen(new AssetsPackWriter().add("data.bin", data, false));
+
+		InputStream input = pack.read(0);
+		assertEquals(data.length, input.available());
+		assertEquals(data[0] & 0xFF, input.read());
+		assertEquals(100, input.skip(100));
+		input.mark(0);
+		byte[] chunk = new byte[10];
+		assertEquals(10, input.read(chunk, 0, 10));
+		assertEquals(data[101], chunk[0]);
+		input.reset();
+		assertEquals(data[101] & 0xFF, input.read());
+		assertEquals(data.length - 102, input.skip(Long.MAX_VALUE));
+		assertEquals(-1, input.read());
+		assertEquals(-1, input.read(chunk, 0, 10));
+	}
+
+	@Test
+	public void testFileHandles() throws IOException {
+		byte[] data = randomBytes(3000);
+		AssetsPack pack = writeAndOpen(new AssetsPackWriter().add("sounds/click.wav", data, false));
+		AssetsPackResolver resolver = new AssetsPackResolver(pack, FileType.Internal);
+
+		AssetId assetId = new AssetId().set("sounds/click.wav", FileType.Internal, Object.class);
+		assertTrue(resolver.accepts(assetId));
+		assertFalse(resolver.accepts(new AssetId().set("sounds/click.wav", FileType.Local, Object.class)));
+
+		FileHandle handle = resolver.resolve(null, assetId);
+		assertSame(handle, resolver.resolve(null, assetId));
+		assertEquals("sounds/click.wav", handle.path());
+		assertEquals(data.length, handle.length());
+		assertArrayEquals(data, handle.readBytes());
+		assertArrayEquals(data, toBytes(((AssetsPackFileHandle) handle).map()));
+		// desktop audio reads through the handle
+		assertSame(handle, AssetsPackFileHandle.toFileSystem(handle));
+	}
+
+	@Test
+	public void testPackMapped() throws IOException {
+		File file = File.createTempFile("assets", ".gpak");
+		file.deleteOnExit();
+		FileHandle handle = new FileHandle(file);
+		new AssetsPackWriter().add("a.bin", randomBytes(100), false).write(handle);
+
+		AssetsPack pack = AssetsPack.open(handle);
+		assertTrue(pack.getData(0).isDirect());
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testDuplicateEntry() {
+		new AssetsPackWriter().add("a.bin", new byte[1], false).add("a.bin", new byte[1], false);
+	}
+
+	private static byte[] toBytes(ByteBuffer buffer) {
+		byte[] bytes = new byte[buffer.remaining()];
+		buffer.get(bytes);
+		return bytes;
+	}
+}
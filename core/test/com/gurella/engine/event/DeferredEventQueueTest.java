@@ -0,0 +1,100 @@
+package com.gurella.engine.event;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.badlogic.gdx.utils.IntArray;
+
+public class DeferredEventQueueTest {
+	private static final int channel = 7;
+
+	private final DeferredEventQueue queue = new DeferredEventQueue();
+	private final IntArray dispatched = new IntArray();
+	private final TestListener listener = new TestListener();
+
+	@Before
+	public void setUp() {
+		EventService.subscribe(channel, listener);
+	}
+
+	@After
+	public void tearDown() {
+		EventService.unsubscribe(channel, listener);
+	}
+
+	@Test
+	public void testCoalescing() {
+		TestEvent first = new TestEvent(1);
+		TestEvent second = new TestEvent(2);
+		queue.add(channel, TestSubscription.class, first);
+		queue.add(channel, TestSubscription.class, second);
+		queue.add(channel, TestSubscription.class, first);
+
+		queue.flush();
+		assertEquals(2, dispatched.size);
+		assertEquals(1, dispatched.get(0));
+		assertEquals(2, dispatched.get(1));
+
+		queue.flush();
+		assertEquals(2, dispatched.size);
+	}
+
+	@Test
+	public void testNestedFlush() {
+		final TestEvent second = new TestEvent(2);
+		final TestEvent third = new TestEvent(3);
+		TestEvent first = new TestEvent(1) {
+			@Override
+			public void dispatch(TestSubscription subscriber) {
+				super.dispatch(subscriber);
+				queue.add(channel, TestSubscription.class, this);
+				queue.add(channel, TestSubscription.class, third);
+				queue.flush();
+			}
+		};
+
+		queue.add(channel, TestSubscription.class, first);
+		queue.add(channel, TestSubscription.class, second);
+		queue.flush();
+		assertEquals(2, dispatched.size);
+		assertEquals(1, dispatched.get(0));
+		assertEquals(2, dispatched.get(1));
+
+		queue.flush();
+		assertEquals(4, dispatched.size);
+		assertEquals(1, dispatched.get(2));
+		assertEquals(3, dispatched.get(3));
+	}
+
+	public interface TestSubscription extends EventSubscription {
+		void onEvent(int value);
+	}
+
+	private class TestListener implements TestSubscription {
+		@Override
+		public void onEvent(int value) {
+			dispatched.add(value);
+		}
+	}
+
+	private static class TestEvent implements Event<TestSubscription> {
+		private final int value;
+
+		TestEvent(int value) {
+			this.value = value;
+		}
+
+		@Override
+		public Class<TestSubscription> getSubscriptionType() {
+			return TestSubscription.class;
+		}
+
+		@Override
+		public void dispatch(TestSubscription subscriber) {
+			subscriber.onEvent(value);
+		}
+	}
+}
@@ -0,0 +1,82 @@
+package com.gurella.engine.graphics.render;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Random;
+
+import org.junit.Test;
+
+public class RenderBinTest {
+	@Test
+	public void testSort() {
+		int testSize = 100000;
+		Random random = new Random(3);
+		RenderBin<Integer> renderBin = new RenderBin<Integer>(16);
+		for (int i = 0; i < testSize; i++) {
+			long key = RenderBin.key(random.nextInt(600) - 300, random.nextInt(3), random.nextInt(10),
+					random.nextInt(64), random.nextInt(RenderBin.maxDepth + 1));
+			renderBin.add(Integer.valueOf(i), key);
+		}
+
+		long time = System.nanoTime();
+		renderBin.sort();
+		System.out.println("RenderBin sort: " + (System.nanoTime() - time));
+
+		assertEquals(testSize, renderBin.size());
+		for (int i = 1; i < testSize; i++) {
+			long previous = renderBin.getKey(i - 1);
+			long current = renderBin.getKey(i);
+			assertTrue(!before(current, previous));
+			if (previous == current) {
+				assertTrue(renderBin.get(i - 1).intValue() < renderBin.get(i).intValue());
+			}
+		}
+
+		renderBin.clear();
+		assertEquals(0, renderBin.size());
+	}
+
+	@Test
+	public void testKeyOrder() {
+		long key = RenderBin.key(0, GenericBatch.renderer2d, 5, 7, 100);
+		assertTrue(before(RenderBin.key(-1, GenericBatch.renderer2d, 5, 7, 100), key));
+		assertTrue(before(RenderBin.key(0, GenericBatch.renderer3d, 5, 7, 100), key));
+		assertTrue(before(RenderBin.key(0, GenericBatch.renderer2d, -5, 7, 100), key));
+		assertTrue(before(RenderBin.key(0, GenericBatch.renderer2d, 5, 6, 100), key));
+		assertTrue(before(RenderBin.key(0, GenericBatch.renderer2d, 5, 7, 99), key));
+	}
+
+	@Test
+	public void testBlendedKeyOrder() {
+		long key = RenderBin.blendedKey(0, GenericBatch.renderer2d, 5, 7, 100);
+		assertTrue(before(RenderBin.blendedKey(-1, GenericBatch.renderer2d, 5, 7, 100), key));
+		assertTrue(before(RenderBin.blendedKey(0, GenericBatch.renderer2d, 4, 7, 100), key));
+		assertTrue(before(RenderBin.blendedKey(0, GenericBatch.renderer2d, 5, 6, 100), key));
+		// depth is compared before state
+		assertTrue(before(RenderBin.blendedKey(0, GenericBatch.renderer2d, 5, 9, 99), key));
+		assertTrue(before(key, RenderBin.blendedKey(0, GenericBatch.renderer2d, 5, 0, 101)));
+		// opaque keys compare state first
+		assertFalse(before(RenderBin.key(0, GenericBatch.renderer2d, 5, 9, 99),
+				RenderBin.key(0, GenericBatch.renderer2d, 5, 6, 100)));
+	}
+
+	@Test
+	public void testBlendedSortAcrossStates() {
+		RenderBin<Integer> renderBin = new RenderBin<Integer>();
+		for (int i = 0; i < 100; i++) {
+			int depth = RenderBin.maxDepth - i * 10;
+			renderBin.add(Integer.valueOf(depth), RenderBin.blendedKey(0, GenericBatch.renderer2d, 0, i % 3, depth));
+		}
+		renderBin.sort();
+
+		for (int i = 1; i < renderBin.size(); i++) {
+			assertTrue(renderBin.get(i - 1).intValue() < renderBin.get(i).intValue());
+		}
+	}
+
+	private static boolean before(long key, long other) {
+		return key + Long.MIN_VALUE < other + Long.MIN_VALUE;
+	}
+}
@@ -0,0 +1,86 @@
+package com.gurella.engine.graphics.render.gl;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import com.badlogic.gdx.Application;
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.Graphics;
+import com.badlogic.gdx.graphics.GL20;
+import com.badlogic.gdx.utils.GdxNativesLoader;
+import com.gurella.engine.graphics.render.shader.ShaderProgramExt;
+
+public class GlContextTest {
+	private static long frameId;
+
+	@BeforeClass
+	public static void setUp() {
+		GdxNativesLoader.load();
+		Gdx.app = stub(Application.class);
+		Gdx.gl = Gdx.gl20 = stub(GL20.class);
+		Gdx.graphics = stub(Graphics.class);
+	}
+
+	private static <T> T stub(Class<T> type) {
+		Object stub = Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] { type }, new InvocationHandler() {
+			@Override
+			public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+				Class<?> returnType = method.getReturnType();
+				if ("hashCode".equals(method.getName())) {
+					return Integer.valueOf(System.identityHashCode(proxy));
+				} else if ("equals".equals(method.getName())) {
+					return Boolean.valueOf(proxy == args[0]);
+				} else if ("getFrameId".equals(method.getName())) {
+					return Long.valueOf(frameId);
+				} else if (returnType == int.class) {
+					return Integer.valueOf(0);
+				} else if (returnType == long.class) {
+					return Long.valueOf(0);
+				} else if (returnType == boolean.class) {
+					return Boolean.FALSE;
+				}
+				return null;
+			}
+		});
+		return type.cast(stub);
+	}
+
+	@Test
+	public void testProgramSwitchesAndDrawCalls() {
+		GlContext context = new GlContext();
+		ShaderProgramExt first = new ShaderProgramExt("vertex", "fragment");
+		ShaderProgramExt second = new ShaderProgramExt("vertex", "fragment");
+
+		frameId = 1;
+		context.activate();
+		context.setActiveShaderProgram(first);
+		context.setActiveShaderProgram(first);
+		context.setActiveShaderProgram(second);
+		assertSame(second, context.getActiveShaderProgram());
+		context.countDrawCalls(3);
+		context.countDrawCalls(2);
+		context.deactivate();
+
+		GlContextStats current = context.getCurrentFrameStats();
+		assertEquals(2, current.getProgramSwitches());
+		assertEquals(1, current.getSkippedProgramSwitches());
+		assertEquals(5, current.getDrawCalls());
+
+		// draw calls counted outside of an active context start a new frame too
+		frameId = 2;
+		context.countDrawCalls(1);
+		GlContextStats last = context.getStats();
+		assertEquals(1, last.getFrameId());
+		assertEquals(2, last.getProgramSwitches());
+		assertEquals(5, last.getDrawCalls());
+		assertEquals(1, context.getCurrentFrameStats().getDrawCalls());
+		assertEquals(0, context.getCurrentFrameStats().getProgramSwitches());
+	}
+}
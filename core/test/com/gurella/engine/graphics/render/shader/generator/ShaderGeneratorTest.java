@@ -0,0 +1,90 @@
+package com.gurella.engine.graphics.render.shader.generator;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.StringReader;
+
+import org.junit.Test;
+
+import com.badlogic.gdx.graphics.VertexAttribute;
+import com.badlogic.gdx.graphics.VertexAttributes;
+import com.badlogic.gdx.graphics.g3d.Environment;
+import com.badlogic.gdx.graphics.g3d.Material;
+import com.badlogic.gdx.graphics.g3d.attributes.ColorAttribute;
+import com.badlogic.gdx.graphics.g3d.attributes.PointLightsAttribute;
+import com.badlogic.gdx.graphics.g3d.attributes.TextureAttribute;
+import com.badlogic.gdx.graphics.g3d.environment.PointLight;
+import com.gurella.engine.graphics.render.shader.parser.ShaderTemplateParser;
+import com.gurella.engine.graphics.render.shader.template.ShaderTemplate;
+
+public class ShaderGeneratorTest {
+	private static final String templateSource = "@ifdef (VERTEX)vertex@end\n" + "@ifdef (FRAGMENT)fragment@end\n"
+			+ "@ifdef (normalMap)normalMap@end\n" + "@ifdef (skinning)skinning@end\n" + "@ifdef (fog)fog@end\n";
+
+	private static ShaderTemplate parseTemplate() {
+		return new ShaderTemplateParser().parse(new StringReader(templateSource));
+	}
+
+	@Test
+	public void testMaterialFeatures() {
+		Material plain = new Material();
+		Material normalMapped = new Material(new TextureAttribute(TextureAttribute.Normal));
+
+		ShaderFeatures plainFeatures = new ShaderFeatures().collect(plain);
+		ShaderFeatures normalMappedFeatures = new ShaderFeatures().collect(normalMapped);
+		assertFalse(plainFeatures.isEnabled(ShaderFeatures.normalMap));
+		assertTrue(normalMappedFeatures.isEnabled(ShaderFeatures.normalMap));
+		assertNotEquals(plainFeatures.getKey(), normalMappedFeatures.getKey());
+
+		ShaderGenerator generator = new ShaderGenerator();
+		ShaderTemplate template = parseTemplate();
+		String plainSource = generator.generateSource(template, plainFeatures, false);
+		String normalMappedSource = generator.generateSource(template, normalMappedFeatures, false);
+		assertFalse(plainSource.contains("normalMap"));
+		assertTrue(normalMappedSource.contains("normalMap"));
+		assertTrue(normalMappedSource.contains("fragment"));
+		assertFalse(normalMappedSource.contains("vertex"));
+	}
+
+	@Test
+	public void testGeometryFeatures() {
+		VertexAttributes skinned = new VertexAttributes(VertexAttribute.Position(), VertexAttribute.Normal(),
+				VertexAttribute.BoneWeight(0));
+		VertexAttributes colored = new VertexAttributes(VertexAttribute.Position(), VertexAttribute.ColorPacked());
+
+		ShaderFeatures skinnedFeatures = new ShaderFeatures();
+		ShaderGenerator.collectFeatures(skinned, skinnedFeatures);
+		ShaderFeatures coloredFeatures = new ShaderFeatures();
+		ShaderGenerator.collectFeatures(colored, coloredFeatures);
+
+		assertTrue(skinnedFeatures.isEnabled(ShaderFeatures.skinning));
+		assertFalse(skinnedFeatures.isEnabled(ShaderFeatures.vertexColors));
+		assertTrue(coloredFeatures.isEnabled(ShaderFeatures.vertexColors));
+		assertFalse(coloredFeatures.isEnabled(ShaderFeatures.skinning));
+
+		String source = new ShaderGenerator().generateSource(parseTemplate(), skinnedFeatures, true);
+		assertTrue(source.contains("skinning"));
+		assertTrue(source.contains("vertex"));
+	}
+
+	@Test
+	public void testEnvironmentFeatures() {
+		Environment environment = new Environment();
+		PointLightsAttribute pointLights = new PointLightsAttribute();
+		pointLights.lights.add(new PointLight());
+		pointLights.lights.add(new PointLight());
+		environment.set(pointLights);
+		environment.set(new ColorAttribute(ColorAttribute.Fog));
+
+		ShaderFeatures features = new ShaderFeatures().collect(environment);
+		assertEquals(2, features.getPointLights());
+		assertEquals(0, features.getDirectionalLights());
+		assertTrue(features.isEnabled(ShaderFeatures.fog));
+
+		ShaderFeatures copy = new ShaderFeatures().setKey(features.getKey());
+		assertEquals(features, copy);
+	}
+}
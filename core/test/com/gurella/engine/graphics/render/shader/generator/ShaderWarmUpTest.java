@@ -0,0 +1,138 @@
+package com.gurella.engine.graphics.render.shader.generator;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.StringReader;
+import java.util.Arrays;
+
+import org.junit.Test;
+
+import com.badlogic.gdx.graphics.g3d.Material;
+import com.badlogic.gdx.graphics.g3d.attributes.TextureAttribute;
+import com.badlogic.gdx.utils.LongArray;
+import com.badlogic.gdx.utils.TimeUtils;
+import com.gurella.engine.async.AsyncCallback;
+import com.gurella.engine.graphics.render.shader.ShaderProgramExt;
+import com.gurella.engine.graphics.render.shader.parser.ShaderTemplateParser;
+import com.gurella.engine.graphics.render.shader.template.ShaderTemplate;
+
+public class ShaderWarmUpTest {
+	private static final String templateSource = "@ifdef (VERTEX)vertex@end\n" + "@ifdef (FRAGMENT)fragment@end\n"
+			+ "@ifdef (normalMap)normalMap@end\n";
+	private static final long timeout = 10000000000L;
+
+	private static ShaderTemplate parseTemplate() {
+		return new ShaderTemplateParser().parse(new StringReader(templateSource));
+	}
+
+	@Test
+	public void testUpdateRespectsBudget() {
+		// each compilation takes 2ms, so 5ms budget allows at most three per update
+		TestGenerator generator = new TestGenerator(2000000L);
+		ShaderWarmUp warmUp = new ShaderWarmUp(generator, parseTemplate()).setBudget(5).setThreads(1);
+		LongArray keys = new LongArray();
+		for (int i = 0; i < 20; i++) {
+			ShaderFeatures features = new ShaderFeatures().setPointLights(i);
+			warmUp.add(features);
+			keys.add(features.getKey());
+		}
+		assertEquals(20, warmUp.getVariantCount());
+
+		TestCallback callback = new TestCallback();
+		warmUp.start(callback);
+
+		long startTime = TimeUtils.nanoTime();
+		int updates = 0;
+		boolean finished = false;
+		while (!finished) {
+			assertTrue("warm-up didn't finish", TimeUtils.nanoTime() - startTime < timeout);
+			int remaining = warmUp.getVariantCount();
+			finished = warmUp.update();
+			int compiled = remaining - warmUp.getVariantCount();
+			assertTrue("compiled " + compiled + " variants in one update", compiled <= 3);
+			updates++;
+		}
+
+		assertTrue(updates >= 7);
+		assertTrue(warmUp.isFinished());
+		assertEquals(0, warmUp.getVariantCount());
+		assertEquals(1, warmUp.getProgress(), 0);
+		assertTrue(callback.succeeded);
+		assertEquals(1, callback.progress, 0);
+		// sources are generated and compiled in the order variants were added
+		assertTrue(Arrays.equals(keys.toArray(), generator.compiledKeys.toArray()));
+	}
+
+	@Test
+	public void testMaterialVariants() {
+		TestGenerator generator = new TestGenerator(0);
+		ShaderTemplate template = parseTemplate();
+		ShaderWarmUp warmUp = new ShaderWarmUp(generator, template).setBudget(0);
+
+		Material plain = new Material();
+		Material normalMapped = new Material(new TextureAttribute(TextureAttribute.Normal));
+		warmUp.addMaterials(Arrays.asList(plain, normalMapped, new Material()));
+		assertEquals(2, warmUp.getVariantCount());
+
+		TestCallback callback = new TestCallback();
+		warmUp.start(callback);
+		long startTime = TimeUtils.nanoTime();
+		while (!warmUp.update()) {
+			assertTrue("warm-up didn't finish", TimeUtils.nanoTime() - startTime < timeout);
+		}
+
+		assertTrue(callback.succeeded);
+		assertEquals(2, generator.compiledKeys.size);
+		assertTrue(generator.compiledKeys.contains(new ShaderFeatures().collect(normalMapped).getKey()));
+		assertFalse(generator.compiledKeys.contains(new ShaderFeatures().enable(ShaderFeatures.fog).getKey()));
+	}
+
+	private static class TestGenerator extends ShaderGenerator {
+		private final long compileTime;
+		final LongArray compiledKeys = new LongArray();
+
+		TestGenerator(long compileTime) {
+			this.compileTime = compileTime;
+		}
+
+		@Override
+		ShaderProgramExt compile(ShaderTemplate template, long key, String vertexShader, String fragmentShader) {
+			assertTrue(vertexShader.contains("vertex"));
+			assertTrue(fragmentShader.contains("fragment"));
+			long startTime = TimeUtils.nanoTime();
+			while (TimeUtils.nanoTime() - startTime < compileTime) {
+				// simulates driver compilation time
+			}
+			compiledKeys.add(key);
+			return null;
+		}
+	}
+
+	private static class TestCallback implements AsyncCallback<ShaderGenerator> {
+		boolean succeeded;
+		float progress;
+
+		@Override
+		public void onSuccess(ShaderGenerator value) {
+			succeeded = true;
+		}
+
+		@Override
+		public void onException(Throwable exception) {
+			throw new AssertionError(exception);
+		}
+
+		@Override
+		public void onCanceled(String message) {
+			throw new AssertionError(message);
+		}
+
+		@Override
+		public void onProgress(float progress) {
+			assertTrue(progress >= this.progress);
+			this.progress = progress;
+		}
+	}
+}
@@ -0,0 +1,205 @@
+package com.gurella.engine.metatype;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import com.badlogic.gdx.Application;
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.graphics.GL20;
+import com.badlogic.gdx.math.Vector3;
+import com.badlogic.gdx.utils.GdxNativesLoader;
+import com.gurella.engine.managedobject.Prefabs;
+import com.gurella.engine.scene.SceneNode;
+import com.gurella.engine.scene.transform.TransformComponent;
+
+public class CopyPlanTest {
+	@BeforeClass
+	public static void setUp() {
+		GdxNativesLoader.load();
+		Gdx.app = stub(Application.class);
+		Gdx.gl = Gdx.gl20 = stub(GL20.class);
+	}
+
+	private static <T> T stub(Class<T> type) {
+		Object stub = Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] { type }, new InvocationHandler() {
+			@Override
+			public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+				Class<?> returnType = method.getReturnType();
+				if ("hashCode".equals(method.getName())) {
+					return Integer.valueOf(System.identityHashCode(proxy));
+				} else if ("equals".equals(method.getName())) {
+					return Boolean.valueOf(proxy == args[0]);
+				} else if (returnType == int.class) {
+					return Integer.valueOf(0);
+				} else if (returnType == boolean.class) {
+					return Boolean.FALSE;
+				}
+				return null;
+			}
+		});
+		return type.cast(stub);
+	}
+
+	private static Holder createGraph() {
+		Holder holder = new Holder();
+		holder.count = 3;
+		holder.name = "holder";
+		holder.position.set(1, 2, 3);
+		holder.first = new Item();
+		holder.first.value = 5;
+		holder.second = new Item();
+		holder.second.value = 7;
+		holder.second.next = holder.first;
+		holder.shared = holder.first;
+		holder.items.add(holder.second);
+		holder.items.add(new Item());
+		return holder;
+	}
+
+	private static void assertEqualGraph(Holder expected, Holder actual) {
+		assertNotSame(expected, actual);
+		assertEquals(expected.count, actual.count);
+		assertEquals(expected.name, actual.name);
+		assertEquals(expected.position, actual.position);
+		assertNotSame(expected.position, actual.position);
+		assertEqualItem(expected.first, actual.first);
+		assertEqualItem(expected.second, actual.second);
+		assertEqualItem(expected.shared, actual.shared);
+		if (expected.shared == expected.first) {
+			assertSame(actual.first, actual.shared);
+		}
+		if (expected.second != null && expected.second.next == expected.first) {
+			assertSame(actual.first, actual.second.next);
+		}
+		assertEquals(expected.items.size(), actual.items.size());
+		for (int i = 0; i < expected.items.size(); i++) {
+			assertEqualItem(expected.items.get(i), actual.items.get(i));
+		}
+		if (expected.items.size() > 0 && expected.items.get(0) == expected.second) {
+			assertSame(actual.second, actual.items.get(0));
+		}
+	}
+
+	private static void assertEqualItem(Item expected, Item actual) {
+		if (expected == null) {
+			assertNull(actual);
+			return;
+		}
+
+		assertNotSame(expected, actual);
+		assertEquals(expected.value, actual.value);
+		if (expected.next == null) {
+			assertNull(actual.next);
+		} else {
+			assertEquals(expected.next.value, actual.next.value);
+		}
+	}
+
+	@Test
+	public void testCopyEqualsCopyContext() {
+		Holder original = createGraph();
+		CopyPlan<Holder> plan = CopyPlan.compile(original);
+
+		Holder planned = plan.copy();
+		Holder copied = CopyContext.copyObject(original);
+		assertEqualGraph(copied, planned);
+		assertEqualGraph(original, planned);
+	}
+
+	@Test
+	public void testCopyAfterOriginalChanged() {
+		Holder original = createGraph();
+		CopyPlan<Holder> plan = CopyPlan.compile(original);
+
+		original.count = 10;
+		original.name = "changed";
+		original.position.set(4, 5, 6);
+		original.first.value = 11;
+		Item replaced = new Item();
+		replaced.value = 13;
+		original.second = replaced;
+		original.shared = null;
+		original.items.clear();
+		original.items.add(original.first);
+
+		Holder planned = plan.copy();
+		Holder copied = CopyContext.copyObject(original);
+		assertEqualGraph(copied, planned);
+		assertEqualGraph(original, planned);
+	}
+
+	@Test
+	public void testInstantiatePrefab() {
+		SceneNode prefab = new SceneNode();
+		prefab.setName("prefab");
+		prefab.newComponent(TransformComponent.class).setTranslation(1, 2, 3);
+		SceneNode child = prefab.newChild("child");
+		child.newComponent(TransformComponent.class).setTranslation(4, 5, 6);
+
+		SceneNode instance = Prefabs.instantiate(prefab);
+		assertInstance(prefab, instance);
+
+		prefab.setName("renamed");
+		prefab.getComponent(TransformComponent.class, true).setTranslation(7, 8, 9);
+		prefab.newChild("added");
+
+		instance = Prefabs.instantiate(prefab);
+		assertInstance(prefab, instance);
+	}
+
+	private static void assertInstance(SceneNode prefab, SceneNode instance) {
+		SceneNode copied = CopyContext.copyObject(prefab);
+		assertNotSame(prefab, instance);
+		assertSame(prefab, instance.getPrefab());
+		assertEquals(copied.getName(), instance.getName());
+		assertTranslation(copied, instance);
+
+		assertEquals(copied.childNodes.size(), instance.childNodes.size());
+		for (int i = 0; i < copied.childNodes.size(); i++) {
+			SceneNode copiedChild = copied.childNodes.get(i);
+			SceneNode instanceChild = instance.childNodes.get(i);
+			assertSame(prefab.childNodes.get(i), instanceChild.getPrefab());
+			assertSame(instance, instanceChild.getParentNode());
+			assertEquals(copiedChild.getName(), instanceChild.getName());
+			assertTranslation(copiedChild, instanceChild);
+		}
+	}
+
+	private static void assertTranslation(SceneNode expected, SceneNode actual) {
+		TransformComponent expectedTransform = expected.getComponent(TransformComponent.class, true);
+		TransformComponent actualTransform = actual.getComponent(TransformComponent.class, true);
+		if (expectedTransform == null) {
+			assertNull(actualTransform);
+			return;
+		}
+
+		assertNotSame(expectedTransform, actualTransform);
+		assertEquals(expectedTransform.getTranslation(new Vector3()), actualTransform.getTranslation(new Vector3()));
+	}
+
+	public static class Holder {
+		public int count;
+		public String name;
+		public final Vector3 position = new Vector3();
+		public Item first;
+		public Item second;
+		public Item shared;
+		public List<Item> items = new ArrayList<Item>();
+	}
+
+	public static class Item {
+		public int value;
+		public Item next;
+	}
+}
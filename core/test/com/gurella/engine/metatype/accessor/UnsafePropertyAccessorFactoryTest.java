@@ -0,0 +1,98 @@
+package com.gurella.engine.metatype.accessor;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.fail;
+
+import org.junit.Test;
+
+import com.gurella.engine.utils.Reflection;
+
+public class UnsafePropertyAccessorFactoryTest {
+	private static <T> PropertyAccessor<T> accessor(String name) {
+		return UnsafePropertyAccessorFactory.instance
+				.createFieldAccessor(Reflection.getDeclaredField(TestObject.class, name));
+	}
+
+	@Test
+	public void testObjectValue() {
+		TestObject object = new TestObject();
+		PropertyAccessor<Object> accessor = accessor("text");
+		accessor.setValue(object, "value");
+		assertEquals("value", object.text);
+		assertEquals("value", accessor.getValue(object));
+
+		try {
+			accessor.setValue(object, Integer.valueOf(1));
+			fail();
+		} catch (IllegalArgumentException e) {
+			assertEquals("value", object.text);
+		}
+
+		accessor.setValue(object, null);
+		assertNull(object.text);
+	}
+
+	@Test
+	public void testPrimitiveValue() {
+		TestObject object = new TestObject();
+		PropertyAccessor<Integer> accessor = accessor("count");
+		accessor.setValue(object, Integer.valueOf(3));
+		assertEquals(3, object.count);
+
+		TestObject copy = new TestObject();
+		accessor.copyValue(object, copy);
+		assertEquals(3, copy.count);
+	}
+
+	@Test
+	public void testReceiverOfOtherClass() {
+		PropertyAccessor<Integer> intAccessor = accessor("count");
+		PropertyAccessor<Object> objectAccessor = accessor("text");
+		TestObject object = new TestObject();
+		Object other = new Object();
+
+		try {
+			intAccessor.getValue(other);
+			fail();
+		} catch (IllegalArgumentException e) {
+		}
+
+		try {
+			objectAccessor.setValue(other, "value");
+			fail();
+		} catch (IllegalArgumentException e) {
+		}
+
+		try {
+			intAccessor.copyValue(object, other);
+			fail();
+		} catch (IllegalArgumentException e) {
+		}
+
+		try {
+			intAccessor.isEqualValue(other, object);
+			fail();
+		} catch (IllegalArgumentException e) {
+		}
+
+		try {
+			objectAccessor.getValue(null);
+			fail();
+		} catch (IllegalArgumentException e) {
+		}
+
+		// subclasses share fields of the declaring class
+		TestSubObject subObject = new TestSubObject();
+		intAccessor.setValue(subObject, Integer.valueOf(5));
+		assertEquals(5, subObject.count);
+	}
+
+	static class TestObject {
+		CharSequence text;
+		int count;
+	}
+
+	static class TestSubObject extends TestObject {
+	}
+}
@@ -0,0 +1,181 @@
+package com.gurella.engine.metatype.serialization.json;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import java.io.ByteArrayOutputStream;
+import java.io.UnsupportedEncodingException;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.nio.ByteBuffer;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import com.badlogic.gdx.Application;
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.graphics.GL20;
+import com.badlogic.gdx.utils.GdxNativesLoader;
+import com.badlogic.gdx.utils.JsonReader;
+import com.badlogic.gdx.utils.JsonValue;
+import com.gurella.engine.asset.AssetId;
+import com.gurella.engine.metatype.serialization.json.JsonInput.SerializedObject;
+
+public class BinaryJsonWriterTest {
+	private static final int entryCount = 300;
+	private static final String repeated = "repeated-text";
+
+	@BeforeClass
+	public static void setUp() {
+		GdxNativesLoader.load();
+		Gdx.app = stub(Application.class);
+		Gdx.gl = Gdx.gl20 = stub(GL20.class);
+	}
+
+	private static <T> T stub(Class<T> type) {
+		Object stub = Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] { type }, new InvocationHandler() {
+			@Override
+			public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+				Class<?> returnType = method.getReturnType();
+				if ("hashCode".equals(method.getName())) {
+					return Integer.valueOf(System.identityHashCode(proxy));
+				} else if ("equals".equals(method.getName())) {
+					return Boolean.valueOf(proxy == args[0]);
+				} else if (returnType == int.class) {
+					return Integer.valueOf(0);
+				} else if (returnType == boolean.class) {
+					return Boolean.FALSE;
+				}
+				return null;
+			}
+		});
+		return type.cast(stub);
+	}
+
+	private static Document createDocument() {
+		Document document = new Document();
+		// zigzag encoded values around one, two and five byte varint boundaries
+		document.ints = new int[] { 1, 63, 64, -64, -65, 8191, 8192, -8193, Integer.MAX_VALUE, Integer.MIN_VALUE };
+		document.longs = new long[] { 1L << 34, -(1L << 34), Long.MAX_VALUE, Long.MIN_VALUE };
+		document.floatValue = 0.1f;
+		document.doubleValue = -1e300;
+		document.flag = true;
+		document.text = repeated;
+		document.unicode = "čšž 漢字";
+
+		// more than 128 distinct strings and objects, so table indices and ordinals need two byte varints
+		document.entries = new Entry[entryCount];
+		for (int i = 0; i < entryCount; i++) {
+			Entry entry = new Entry();
+			entry.label = i % 2 == 0 ? repeated : "label" + i;
+			entry.value = i * 37;
+			document.entries[i] = entry;
+		}
+		document.first = document.entries[entryCount - 1];
+		document.shared = document.first;
+		return document;
+	}
+
+	private static void assertEqualDocument(Document expected, Document actual) {
+		assertNotNull(actual);
+		assertArrayEquals(expected.ints, actual.ints);
+		assertArrayEquals(expected.longs, actual.longs);
+		assertEquals(expected.floatValue, actual.floatValue, 0);
+		assertEquals(expected.doubleValue, actual.doubleValue, 0);
+		assertEquals(expected.flag, actual.flag);
+		assertEquals(expected.text, actual.text);
+		assertEquals(expected.unicode, actual.unicode);
+		assertNull(actual.nothing);
+
+		assertEquals(expected.entries.length, actual.entries.length);
+		for (int i = 0; i < expected.entries.length; i++) {
+			assertEquals(expected.entries[i].label, actual.entries[i].label);
+			assertEquals(expected.entries[i].value, actual.entries[i].value);
+		}
+		assertSame(actual.entries[entryCount - 1], actual.first);
+		assertSame(actual.first, actual.shared);
+	}
+
+	private static byte[] writeBinary(Document document) {
+		ByteArrayOutputStream stream = new ByteArrayOutputStream();
+		new JsonOutput().serializeBinary(new AssetId().set("document.json"), Document.class, document, null, stream);
+		return stream.toByteArray();
+	}
+
+	private static int occurrences(byte[] bytes, String value) throws UnsupportedEncodingException {
+		byte[] pattern = value.getBytes("UTF-8");
+		int count = 0;
+		outer: for (int i = 0; i <= bytes.length - pattern.length; i++) {
+			for (int j = 0; j < pattern.length; j++) {
+				if (bytes[i + j] != pattern[j]) {
+					continue outer;
+				}
+			}
+			count++;
+		}
+		return count;
+	}
+
+	@Test
+	public void testRoundTripMatchesJson() {
+		Document original = createDocument();
+
+		String json = new JsonOutput().serialize(new AssetId().set("document.json"), Document.class, original);
+		JsonValue rootValue = new JsonReader().parse(json);
+		Document fromJson = new JsonInput().deserialize(new TestSerializedObject(rootValue), Document.class);
+		assertEqualDocument(original, fromJson);
+
+		BinaryJsonDocument binaryDocument = new BinaryJsonDocument(ByteBuffer.wrap(writeBinary(original)));
+		Document fromBinary = new BinaryJsonInput().deserialize(new TestSerializedObject(binaryDocument),
+				Document.class);
+		assertEqualDocument(original, fromBinary);
+		assertEqualDocument(fromJson, fromBinary);
+	}
+
+	@Test
+	public void testStringTable() throws UnsupportedEncodingException {
+		byte[] bytes = writeBinary(createDocument());
+		// strings and property names are stored once in their tables
+		assertEquals(1, occurrences(bytes, repeated));
+		assertEquals(1, occurrences(bytes, "value"));
+		assertEquals(1, occurrences(bytes, "label299"));
+	}
+
+	private static class TestSerializedObject extends SerializedObject {
+		TestSerializedObject(JsonValue rootValue) {
+			super(rootValue);
+		}
+
+		TestSerializedObject(BinaryJsonDocument document) {
+			init(document);
+		}
+
+		@Override
+		protected <T> T getExternalDependency(String dependencyPath, Class<?> dependencyType, String bundleId) {
+			return null;
+		}
+	}
+
+	public static class Document {
+		public int[] ints;
+		public long[] longs;
+		public float floatValue;
+		public double doubleValue;
+		public boolean flag;
+		public String text;
+		public String unicode;
+		public String nothing;
+		public Entry[] entries;
+		public Entry first;
+		public Entry shared;
+	}
+
+	public static class Entry {
+		public String label;
+		public int value;
+	}
+}
@@ -0,0 +1,271 @@
+package com.gurella.engine.scene.spatial;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.Random;
+
+import org.junit.Test;
+
+import com.badlogic.gdx.graphics.PerspectiveCamera;
+import com.badlogic.gdx.math.Vector3;
+import com.badlogic.gdx.math.collision.BoundingBox;
+import com.badlogic.gdx.math.collision.Ray;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.GdxNativesLoader;
+import com.gurella.engine.scene.spatial.bvh.Bvh;
+import com.gurella.engine.scene.spatial.bvh.BvhSpatial;
+import com.gurella.engine.scene.spatial.grid.GridSnapshot;
+import com.gurella.engine.scene.spatial.grid.GridSpatial;
+import com.gurella.engine.scene.spatial.grid.SpatialHashGrid;
+import com.gurella.engine.scene.spatial.octree.LooseOctree;
+import com.gurella.engine.scene.spatial.octree.OctreeSpatial;
+
+public class SpatialPartitioningSpeedTest {
+	private static final int spatialsCount = 20000;
+	private static final int moversCount = 2000;
+	private static final int frames = 100;
+	private static final int queriesPerFrame = 20;
+	private static final float worldSize = 1000;
+
+	static {
+		GdxNativesLoader.load();
+	}
+
+	private final Random random = new Random(7);
+
+	private final TestBvhSpatial[] bvhSpatials = new TestBvhSpatial[spatialsCount];
+	private final TestOctreeSpatial[] octreeSpatials = new TestOctreeSpatial[spatialsCount];
+	private final TestGridSpatial[] gridSpatials = new TestGridSpatial[spatialsCount];
+
+	private final Bvh bvh = new Bvh();
+	private final LooseOctree octree = new LooseOctree();
+	private final SpatialHashGrid grid = new SpatialHashGrid();
+
+	private final SpatialSnapshot bvhSnapshot = new SpatialSnapshot();
+	private final SpatialSnapshot octreeSnapshot = new SpatialSnapshot();
+	private final GridSnapshot gridSnapshot = new GridSnapshot();
+
+	private final long[] updateTimes = new long[3];
+	private final long[] frustumTimes = new long[3];
+	private final long[] rayTimes = new long[3];
+	private final long[] boxTimes = new long[3];
+
+	private final PerspectiveCamera camera = new PerspectiveCamera(67, 16, 9);
+	private final Ray ray = new Ray();
+	private final BoundingBox box = new BoundingBox();
+	private final Vector3 temp = new Vector3();
+	private final Array<Spatial> out = new Array<Spatial>();
+
+	@Test
+	public void testSpeed() {
+		Array<BvhSpatial> initial = new Array<BvhSpatial>();
+		for (int i = 0; i < spatialsCount; i++) {
+			float size = 0.5f + random.nextFloat() * 2;
+			float x = random.nextFloat() * worldSize;
+			float y = random.nextFloat() * worldSize * 0.1f;
+			float z = random.nextFloat() * worldSize;
+
+			bvhSpatials[i] = new TestBvhSpatial();
+			octreeSpatials[i] = new TestOctreeSpatial();
+			gridSpatials[i] = new TestGridSpatial();
+			setBounds(i, x, y, z, size);
+			initial.add(bvhSpatials[i]);
+		}
+
+		long time = System.nanoTime();
+		bvh.init(initial);
+		System.out.println("BVH build:         " + (System.nanoTime() - time));
+
+		time = System.nanoTime();
+		for (int i = 0; i < spatialsCount; i++) {
+			octree.addObject(octreeSpatials[i]);
+		}
+		System.out.println("Loose octree build: " + (System.nanoTime() - time));
+
+		time = System.nanoTime();
+		for (int i = 0; i < spatialsCount; i++) {
+			grid.addObject(gridSpatials[i]);
+		}
+		System.out.println("Hash grid build:    " + (System.nanoTime() - time));
+
+		camera.near = 1;
+		camera.far = 300;
+
+		for (int frame = 0; frame < frames; frame++) {
+			moveSpatials();
+			for (int i = 0; i < queriesPerFrame; i++) {
+				frustumQuery();
+				rayQuery();
+				boxQuery();
+			}
+		}
+
+		System.out.println("");
+		print("BVH", 0);
+		print("Loose octree", 1);
+		print("Hash grid", 2);
+	}
+
+	private void setBounds(int index, float x, float y, float z, float size) {
+		bvhSpatials[index].set(x, y, z, size);
+		octreeSpatials[index].set(x, y, z, size);
+		gridSpatials[index].set(x, y, z, size);
+	}
+
+	private void moveSpatials() {
+		for (int i = 0; i < moversCount; i++) {
+			int index = random.nextInt(spatialsCount);
+			BoundingBox bounds = bvhSpatials[index].getBounds();
+			bounds.getCenter(temp);
+			float size = bounds.getWidth();
+			temp.add(random.nextFloat() - 0.5f, 0, random.nextFloat() - 0.5f);
+			setBounds(index, temp.x, temp.y, temp.z, size);
+
+			long time = System.nanoTime();
+			bvh.updateObject(bvhSpatials[index]);
+			updateTimes[0] += System.nanoTime() - time;
+
+			time = System.nanoTime();
+			octree.updateObject(octreeSpatials[index]);
+			updateTimes[1] += System.nanoTime() - time;
+
+			time = System.nanoTime();
+			grid.updateObject(gridSpatials[index]);
+			updateTimes[2] += System.nanoTime() - time;
+		}
+
+		long time = System.nanoTime();
+		bvh.optimize();
+		bvh.writeSnapshot(bvhSnapshot);
+		updateTimes[0] += System.nanoTime() - time;
+
+		time = System.nanoTime();
+		octree.writeSnapshot(octreeSnapshot);
+		updateTimes[1] += System.nanoTime() - time;
+
+		time = System.nanoTime();
+		grid.writeSnapshot(gridSnapshot);
+		updateTimes[2] += System.nanoTime() - time;
+	}
+
+	private void frustumQuery() {
+		camera.position.set(random.nextFloat() * worldSize, 50, random.nextFloat() * worldSize);
+		camera.direction.set(random.nextFloat() - 0.5f, -0.2f, random.nextFloat() - 0.5f).nor();
+		camera.up.set(Vector3.Y);
+		camera.update();
+
+		long time = System.nanoTime();
+		bvhSnapshot.getSpatials(camera.frustum, out, null);
+		frustumTimes[0] += System.nanoTime() - time;
+		int expected = out.size;
+		out.clear();
+
+		time = System.nanoTime();
+		octreeSnapshot.getSpatials(camera.frustum, out, null);
+		frustumTimes[1] += System.nanoTime() - time;
+		assertEquals(expected, out.size);
+		out.clear();
+
+		time = System.nanoTime();
+		gridSnapshot.getSpatials(camera.frustum, out, null);
+		frustumTimes[2] += System.nanoTime() - time;
+		assertEquals(expected, out.size);
+		out.clear();
+	}
+
+	private void rayQuery() {
+		ray.origin.set(random.nextFloat() * worldSize, 50, random.nextFloat() * worldSize);
+		ray.direction.set(random.nextFloat() - 0.5f, -0.1f, random.nextFloat() - 0.5f).nor();
+
+		long time = System.nanoTime();
+		bvhSnapshot.getSpatials(ray, out, null);
+		rayTimes[0] += System.nanoTime() - time;
+		int expected = out.size;
+		out.clear();
+
+		time = System.nanoTime();
+		octreeSnapshot.getSpatials(ray, out, null);
+		rayTimes[1] += System.nanoTime() - time;
+		assertEquals(expected, out.size);
+		out.clear();
+
+		time = System.nanoTime();
+		gridSnapshot.getSpatials(ray, out, null);
+		rayTimes[2] += System.nanoTime() - time;
+		assertEquals(expected, out.size);
+		out.clear();
+	}
+
+	private void boxQuery() {
+		float x = random.nextFloat() * worldSize;
+		float z = random.nextFloat() * worldSize;
+		box.set(temp.set(x, 0, z), new Vector3(x + 40, worldSize * 0.1f, z + 40));
+
+		long time = System.nanoTime();
+		bvhSnapshot.getSpatials(box, out, null);
+		boxTimes[0] += System.nanoTime() - time;
+		int expected = out.size;
+		out.clear();
+
+		time = System.nanoTime();
+		octreeSnapshot.getSpatials(box, out, null);
+		boxTimes[1] += System.nanoTime() - time;
+		assertEquals(expected, out.size);
+		out.clear();
+
+		time = System.nanoTime();
+		gridSnapshot.getSpatials(box, out, null);
+		boxTimes[2] += System.nanoTime() - time;
+		assertEquals(expected, out.size);
+		out.clear();
+	}
+
+	private void print(String name, int index) {
+		System.out.println(name + ":");
+		System.out.println("update:   " + updateTimes[index]);
+		System.out.println("frustum:  " + frustumTimes[index]);
+		System.out.println("ray:      " + rayTimes[index]);
+		System.out.println("box:      " + boxTimes[index]);
+		System.out.println("");
+	}
+
+	private static void set(BoundingBox bounds, float x, float y, float z, float size) {
+		float halfSize = size * 0.5f;
+		bounds.min.set(x - halfSize, y - halfSize, z - halfSize);
+		bounds.max.set(x + halfSize, y + halfSize, z + halfSize);
+		bounds.set(bounds.min, bounds.max);
+	}
+
+	private static class TestBvhSpatial extends BvhSpatial {
+		void set(float x, float y, float z, float size) {
+			SpatialPartitioningSpeedTest.set(bounds, x, y, z, size);
+		}
+
+		@Override
+		public BoundingBox getBounds() {
+			return bounds;
+		}
+	}
+
+	private static class TestOctreeSpatial extends OctreeSpatial {
+		void set(float x, float y, float z, float size) {
+			SpatialPartitioningSpeedTest.set(bounds, x, y, z, size);
+		}
+
+		@Override
+		public BoundingBox getBounds() {
+			return bounds;
+		}
+	}
+
+	private static class TestGridSpatial extends GridSpatial {
+		void set(float x, float y, float z, float size) {
+			SpatialPartitioningSpeedTest.set(bounds, x, y, z, size);
+		}
+
+		@Override
+		public BoundingBox getBounds() {
+			return bounds;
+		}
+	}
+}
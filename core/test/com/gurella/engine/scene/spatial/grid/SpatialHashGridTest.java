@@ -0,0 +1,92 @@
+package com.gurella.engine.scene.spatial.grid;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import com.badlogic.gdx.math.Vector3;
+import com.badlogic.gdx.math.collision.BoundingBox;
+import com.badlogic.gdx.utils.Array;
+import com.gurella.engine.scene.spatial.Spatial;
+
+public class SpatialHashGridTest {
+	private final SpatialHashGrid grid = new SpatialHashGrid();
+	private final GridSnapshot snapshot = new GridSnapshot();
+	private final Array<Spatial> out = new Array<Spatial>();
+
+	private void query(float x, float y, float z, float halfExtent) {
+		out.clear();
+		BoundingBox volume = new BoundingBox(new Vector3(x - halfExtent, y - halfExtent, z - halfExtent),
+				new Vector3(x + halfExtent, y + halfExtent, z + halfExtent));
+		snapshot.getSpatials(volume, out, null);
+	}
+
+	@Test
+	public void testOccupiedRangeShrinks() {
+		TestSpatial near = new TestSpatial(1, 1, 1, 1);
+		TestSpatial far = new TestSpatial(1000, 1, 1, 1);
+		grid.addObject(near);
+		grid.addObject(far);
+		grid.writeSnapshot(snapshot);
+		assertEquals(62, snapshot.maxCellX);
+
+		grid.removeObject(far);
+		grid.writeSnapshot(snapshot);
+		assertEquals(0, snapshot.minCellX);
+		assertEquals(0, snapshot.maxCellX);
+		query(1, 1, 1, 1);
+		assertEquals(1, out.size);
+
+		far.x = 2000;
+		grid.addObject(far);
+		far.x = 3;
+		grid.updateObject(far);
+		grid.writeSnapshot(snapshot);
+		assertEquals(0, snapshot.maxCellX);
+	}
+
+	@Test
+	public void testCoordinatesOutsideOfKeyRange() {
+		float limit = (1 << 20) * SpatialHashGrid.defaultCellSize;
+		TestSpatial outside = new TestSpatial(limit * 1.5f, 1, 1, 2);
+		TestSpatial wrapped = new TestSpatial(-limit * 0.5f, 1, 1, 2);
+		grid.addObject(outside);
+		grid.addObject(wrapped);
+		assertTrue(outside.oversized);
+		grid.writeSnapshot(snapshot);
+
+		query(limit * 1.5f, 1, 1, 4);
+		assertEquals(1, out.size);
+		assertSame(outside, out.first());
+
+		query(-limit * 0.5f, 1, 1, 4);
+		assertEquals(1, out.size);
+		assertSame(wrapped, out.first());
+	}
+
+	private static class TestSpatial extends GridSpatial {
+		float x;
+		float y;
+		float z;
+		final float halfExtent;
+
+		TestSpatial(float x, float y, float z, float halfExtent) {
+			this.x = x;
+			this.y = y;
+			this.z = z;
+			this.halfExtent = halfExtent;
+		}
+
+		@Override
+		public void getBounds(float[] out, int offset) {
+			out[offset] = x - halfExtent;
+			out[offset + 1] = y - halfExtent;
+			out[offset + 2] = z - halfExtent;
+			out[offset + 3] = x + halfExtent;
+			out[offset + 4] = y + halfExtent;
+			out[offset + 5] = z + halfExtent;
+		}
+	}
+}
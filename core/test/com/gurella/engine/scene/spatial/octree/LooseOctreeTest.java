@@ -0,0 +1,85 @@
+package com.gurella.engine.scene.spatial.octree;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import com.badlogic.gdx.math.Vector3;
+import com.badlogic.gdx.math.collision.BoundingBox;
+import com.badlogic.gdx.utils.Array;
+import com.gurella.engine.scene.spatial.Spatial;
+import com.gurella.engine.scene.spatial.SpatialSnapshot;
+
+public class LooseOctreeTest {
+	private final LooseOctree octree = new LooseOctree();
+	private final TestSnapshot snapshot = new TestSnapshot();
+
+	@Test
+	public void testRootShrinks() {
+		TestSpatial near = new TestSpatial(1, 1, 1, 1);
+		TestSpatial far = new TestSpatial(10000, 1, 1, 1);
+		octree.addObject(near);
+		octree.addObject(far);
+		octree.writeSnapshot(snapshot);
+		float grownSize = snapshot.getRootSize();
+
+		octree.removeObject(far);
+		octree.writeSnapshot(snapshot);
+		float size = snapshot.getRootSize();
+		assertEquals(LooseOctree.defaultMinNodeSize * OctreeNode.looseness, size, 0);
+		assertEquals(1, snapshot.getNodeCount());
+
+		Array<Spatial> out = new Array<Spatial>();
+		snapshot.getSpatials(new BoundingBox(new Vector3(0, 0, 0), new Vector3(2, 2, 2)), out, null);
+		assertEquals(1, out.size);
+		assertSame(near, out.first());
+
+		octree.addObject(far);
+		far.x = 3;
+		octree.updateObject(far);
+		octree.writeSnapshot(snapshot);
+		assertEquals(size, snapshot.getRootSize(), 0);
+		assertTrue(grownSize > size);
+
+		octree.removeObject(near);
+		octree.removeObject(far);
+		octree.writeSnapshot(snapshot);
+		assertEquals(0, snapshot.getNodeCount());
+	}
+
+	private static class TestSnapshot extends SpatialSnapshot {
+		int getNodeCount() {
+			return nodeCount;
+		}
+
+		float getRootSize() {
+			return nodeBounds[3] - nodeBounds[0];
+		}
+	}
+
+	private static class TestSpatial extends OctreeSpatial {
+		float x;
+		final float y;
+		final float z;
+		final float halfExtent;
+
+		TestSpatial(float x, float y, float z, float halfExtent) {
+			this.x = x;
+			this.y = y;
+			this.z = z;
+			this.halfExtent = halfExtent;
+		}
+
+		@Override
+		public void getBounds(float[] out, int offset) {
+			out[offset] = x - halfExtent;
+			out[offset + 1] = y - halfExtent;
+			out[offset + 2] = z - halfExtent;
+			out[offset + 3] = x + halfExtent;
+			out[offset + 4] = y + halfExtent;
+			out[offset + 5] = z + halfExtent;
+		}
+	}
+}
@@ -0,0 +1,146 @@
+package com.gurella.engine.scene.transform;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.lang.reflect.Field;
+
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import com.badlogic.gdx.math.Matrix4;
+import com.badlogic.gdx.math.Vector3;
+import com.badlogic.gdx.utils.GdxNativesLoader;
+
+public class TransformSystemTest {
+	private static final float epsilon = 0.0001f;
+
+	private TransformSystem system;
+	private TestTransform root;
+	private TestTransform child;
+	private TestTransform grandchild;
+
+	@BeforeClass
+	public static void loadNatives() {
+		GdxNativesLoader.load();
+	}
+
+	@Before
+	public void setUp() throws Exception {
+		system = new TransformSystem();
+		root = newTransform(null);
+		child = newTransform(root);
+		grandchild = newTransform(child);
+
+		root.setTranslation(1, 0, 0);
+		child.setTranslation(0, 2, 0);
+		grandchild.setTranslation(0, 0, 3);
+		system.updateWorldTransforms();
+		resetNotifications();
+	}
+
+	/**
+	 * Links transforms the way activation of nested scene nodes does.
+	 */
+	private TestTransform newTransform(TestTransform parent) throws Exception {
+		TestTransform transform = new TestTransform();
+		Field parentField = TransformComponent.class.getDeclaredField("parentTransform");
+		parentField.setAccessible(true);
+		parentField.set(transform, parent);
+		system.onComponentActivated(transform);
+		return transform;
+	}
+
+	private void resetNotifications() {
+		root.notifications = 0;
+		child.notifications = 0;
+		grandchild.notifications = 0;
+	}
+
+	private static void assertWorldTranslation(float x, float y, float z, TransformComponent transform) {
+		Vector3 translation = transform.getWorldTransform(new Matrix4()).getTranslation(new Vector3());
+		assertTrue(translation.toString(), translation.epsilonEquals(x, y, z, epsilon));
+	}
+
+	@Test
+	public void testHierarchyPropagation() {
+		assertWorldTranslation(1, 0, 0, root);
+		assertWorldTranslation(1, 2, 0, child);
+		assertWorldTranslation(1, 2, 3, grandchild);
+
+		root.setTranslation(5, 0, 0);
+		root.setScale(2, 2, 2);
+		system.updateWorldTransforms();
+
+		assertWorldTranslation(5, 4, 0, child);
+		assertWorldTranslation(5, 4, 6, grandchild);
+		assertEquals(0, root.notifications);
+		assertEquals(1, child.notifications);
+		assertEquals(1, grandchild.notifications);
+	}
+
+	@Test
+	public void testReadingWorldTransformDoesNotNotify() {
+		root.setTranslation(5, 0, 0);
+		assertWorldTranslation(5, 2, 3, grandchild);
+		assertEquals(0, child.notifications);
+		assertEquals(0, grandchild.notifications);
+
+		system.updateWorldTransforms();
+		assertEquals(1, child.notifications);
+		assertEquals(1, grandchild.notifications);
+
+		system.updateWorldTransforms();
+		assertEquals(1, grandchild.notifications);
+	}
+
+	@Test
+	public void testWorldTransformInverse() {
+		Matrix4 inverse = new Matrix4(grandchild.getWorldTransformInverse());
+		assertTrue(inverse.getTranslation(new Vector3()).epsilonEquals(-1, -2, -3, epsilon));
+
+		// parent changed, no pass has run yet
+		root.setTranslation(5, 0, 0);
+		root.setEulerRotation(90, 0, 0);
+		Matrix4 world = grandchild.getWorldTransform(new Matrix4());
+		Matrix4 product = world.mul(grandchild.getWorldTransformInverse());
+		assertTrue(product.toString(), isIdentity(product));
+
+		Vector3 point = grandchild.transformPointToWorld(new Vector3(1, 1, 1));
+		assertTrue(grandchild.transformPointFromWorld(point).epsilonEquals(1, 1, 1, epsilon));
+	}
+
+	@Test
+	public void testRotateAround() {
+		child.rotateAround(new Vector3(), Vector3.X, 180);
+		assertTrue(child.getTranslation(new Vector3()).epsilonEquals(0, -2, 0, epsilon));
+		assertWorldTranslation(1, -2, 0, child);
+		assertWorldTranslation(1, -2, -3, grandchild);
+
+		system.updateWorldTransforms();
+		assertWorldTranslation(1, -2, 0, child);
+		assertWorldTranslation(1, -2, -3, grandchild);
+		assertEquals(1, grandchild.notifications);
+	}
+
+	private static boolean isIdentity(Matrix4 matrix) {
+		float[] identity = new Matrix4().val;
+		for (int i = 0; i < 16; i++) {
+			if (Math.abs(matrix.val[i] - identity[i]) > epsilon) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private static class TestTransform extends TransformComponent {
+		int notifications;
+
+		@Override
+		void worldTransformChanged() {
+			notifications++;
+			super.worldTransformChanged();
+		}
+	}
+}
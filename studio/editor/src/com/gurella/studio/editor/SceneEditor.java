@@ -4,6 +4,7 @@ import static com.gurella.studio.GurellaStudioPlugin.showError;
 import static com.gurella.studio.common.AssetsFolderLocator.getAssetsFolder;
 import static com.gurella.studio.common.AssetsFolderLocator.getAssetsRelativePath;
 
+import java.io.StringWriter;
 import java.util.function.Consumer;
 
 import org.eclipse.core.filebuffers.FileBuffers;
@@ -33,8 +34,6 @@ import org.eclipse.ui.PartInitException;
 import org.eclipse.ui.part.EditorPart;
 
 import com.badlogic.gdx.Files.FileType;
-import com.badlogic.gdx.utils.JsonReader;
-import com.badlogic.gdx.utils.JsonWriter.OutputType;
 import com.gurella.engine.asset.AssetId;
 import com.gurella.engine.asset.AssetService;
 import com.gurella.engine.async.AsyncCallbackAdapter;
@@ -101,11 +100,11 @@ public class SceneEditor extends EditorPart implements SceneDirtyListener, Edito
 		JsonOutput output = new JsonOutput();
 		String relativeFileName = getAssetsRelativePath(file).toString();
 		AssetId assetId = new AssetId().set(relativeFileName, FileType.Internal, Scene.class);
-		String serialized = output.serialize(assetId, Scene.class, scene);
-		String pretty = new JsonReader().parse(serialized).prettyPrint(OutputType.minimal, 120);
+		StringWriter pretty = new StringWriter();
+		output.serialize(assetId, Scene.class, scene, null, pretty, true);
 
 		ITextFileBuffer buffer = ITextFileBufferManager.DEFAULT.getTextFileBuffer(path, LocationKind.IFILE);
-		buffer.getDocument().set(pretty);
+		buffer.getDocument().set(pretty.toString());
 		buffer.commit(monitor, true);
 
 		sceneContext.persist(monitor);
@@ -15,7 +15,7 @@ import com.badlogic.gdx.graphics.Texture;
 import com.badlogic.gdx.graphics.g3d.Model;
 import com.gurella.engine.asset.descriptor.AssetDescriptors;
 import com.gurella.engine.asset.descriptor.DefaultAssetDescriptors;
-import com.gurella.engine.metatype.CopyContext;
+import com.gurella.engine.managedobject.Prefabs;
 import com.gurella.engine.scene.Scene;
 import com.gurella.engine.scene.SceneNode;
 import com.gurella.engine.scene.SceneNodeComponent;
@@ -159,7 +159,7 @@ class AssetDropTargetListener extends DropTargetAdapter implements SceneConsumer
 		if (item == null) {
 			if (isPrefab) {
 				SceneNode prefab = loadAsset(file, SceneNode.class);
-				SceneNode instance = CopyContext.copyObject(prefab);
+				SceneNode instance = Prefabs.instantiate(prefab);
 				AddNodeOperation operation = new AddNodeOperation(editorId, scene, null, instance);
 				historyService.executeOperation(operation, "Error while instantiating prefab.");
 			} else {
@@ -175,7 +175,7 @@ class AssetDropTargetListener extends DropTargetAdapter implements SceneConsumer
 			SceneNode node = (SceneNode) data;
 			if (isPrefab) {
 				SceneNode prefab = loadAsset(file, SceneNode.class);
-				SceneNode instance = CopyContext.copyObject(prefab);
+				SceneNode instance = Prefabs.instantiate(prefab);
 				AddNodeOperation operation = new AddNodeOperation(editorId, node.getScene(), node, instance);
 				historyService.executeOperation(operation, "Error while instantiating prefab.");
 			} else {
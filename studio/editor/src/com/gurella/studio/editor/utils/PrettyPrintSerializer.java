@@ -1,7 +1,5 @@
 package com.gurella.studio.editor.utils;
 
-import com.badlogic.gdx.utils.JsonReader;
-import com.badlogic.gdx.utils.JsonWriter.OutputType;
 import com.gurella.engine.metatype.serialization.json.JsonOutput;
 
 public class PrettyPrintSerializer {
@@ -14,7 +12,6 @@ public class PrettyPrintSerializer {
 
 	public static <T> String serialize(Class<T> expectedType, Object template, T rootObject) {
 		JsonOutput output = new JsonOutput();
-		String serialized = output.serialize(expectedType, rootObject, template);
-		return new JsonReader().parse(serialized).prettyPrint(OutputType.minimal, 120);
+		return output.serialize(expectedType, rootObject, template, true);
 	}
 }